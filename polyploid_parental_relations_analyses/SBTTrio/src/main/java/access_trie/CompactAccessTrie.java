@@ -0,0 +1,257 @@
+package access_trie;
+
+import base_data_structures.RankBitVector;
+import containers.Container;
+import containers.ContainerFactory;
+import exceptions.AddStructureToContainerException;
+import util.DataStructure;
+import util.RadixSort;
+
+/**
+ * Implements an access trie with specified height whose leaf directory only stores the occupied buckets.
+ *
+ * Like {@link FixedPrefixLengthAccessTrie}, the k-mer prefixes of length height are encoded by the access trie and
+ * the suffixes are saved in containers. Instead of an array with one reference per possible prefix, the directory
+ * consists of a dense array of containers and an occupancy bit vector with one bit per possible prefix, which is set
+ * for the first prefix of each container. The container of a prefix is located by a rank query on the bit vector in
+ * constant time. Hence, the directory needs 1 bit per possible prefix instead of a reference, and heights above
+ * {@link FixedPrefixLengthAccessTrie#MAX_HEIGHT} are supported.
+ *
+ * At large heights, most buckets hold only a few k-mers. Neighbouring buckets are therefore merged into a shared
+ * container as long as the container holds at most a specified number of k-mers and spans at most
+ * {@link #MAX_GROUP_SPAN} prefixes. A shared container saves the k-mers relative to the smallest k-mer of its first
+ * prefix, which needs at most log4({@link #MAX_GROUP_SPAN}) bases more than the suffixes.
+ *
+ * The access trie is built from all of its k-mers at once and containers cannot be added afterwards.
+ */
+public class CompactAccessTrie implements DataStructure {
+
+    /**
+     * The maximum height, which limits the occupancy bit vector to 2^36 bits (8 GiB).
+     */
+    public static final int MAX_HEIGHT = 18;
+    /**
+     * The default maximum number of k-mers of a container shared by several buckets.
+     */
+    public static final int DEFAULT_MERGE_THRESHOLD = 64;
+    /**
+     * The maximum number of prefixes spanned by a container shared by several buckets.
+     */
+    public static final int MAX_GROUP_SPAN = 256;
+
+    /**
+     * Height of this access trie.
+     */
+    private final int height;
+    /**
+     * Size of the k-mers saved by this data structure, not only the prefix length.
+     */
+    private final int kmerSize;
+    /**
+     * The number of bits of the suffixes, i.e. the shift extracting the prefix of a k-mer.
+     */
+    private final int suffixBits;
+    /**
+     * The factory of the containers of this access trie.
+     */
+    private final ContainerFactory containerFactory;
+    /**
+     * The number of k-mers up to which neighbouring buckets are merged into a shared container.
+     */
+    private final int mergeThreshold;
+    /**
+     * The occupancy bit vector in which the first prefix of each container is set.
+     */
+    private RankBitVector occupancy = null;
+    /**
+     * The first prefix of each container.
+     */
+    private long[] firstPrefixes = null;
+    /**
+     * The prefix after the last occupied prefix of each container.
+     */
+    private long[] endPrefixes = null;
+    /**
+     * The dense array of containers ordered by their first prefix.
+     */
+    private DataStructure[] containers = null;
+
+    /**
+     * Create an empty compact access trie with a specified height for a specified k-mer size which saves the
+     * suffixes in containers created by a specified factory.
+     *
+     * @param height height of the access trie to create in the range [0, min(kmerSize, {@link #MAX_HEIGHT})]
+     * @param kmerSize k-mer size to create the access trie for
+     * @param containerFactory factory of the containers
+     * @param mergeThreshold number of k-mers up to which neighbouring buckets are merged into a shared container,
+     *                       1 to never merge buckets
+     */
+    public CompactAccessTrie(int height, int kmerSize, ContainerFactory containerFactory, int mergeThreshold) {
+        if (height < 0 || height > kmerSize || height > MAX_HEIGHT) {
+            throw new IllegalArgumentException("The height needs to be in the range [0, min(k, " + MAX_HEIGHT + ")]");
+        }
+        if (mergeThreshold < 1) {
+            throw new IllegalArgumentException("The merge threshold needs to be positive");
+        }
+        this.height = height;
+        this.kmerSize = kmerSize;
+        this.containerFactory = containerFactory;
+        this.mergeThreshold = mergeThreshold;
+
+        suffixBits = (kmerSize - height) << 1;
+    }
+
+    /**
+     * Build this access trie for a specified array of distinct k-mers, which is sorted in place.
+     * Time complexity: O(n * k + 4^h / 64) plus the time complexity of building the containers, where n is the
+     * number of k-mers, k is the k-mer size and h is the height
+     *
+     * @param kmers array of numeric representations of the distinct k-mers
+     */
+    public void build(long[] kmers) {
+        RadixSort.sort(kmers, kmerSize << 1);
+
+        int numGroups = 0;
+        for (int from = 0; from < kmers.length; from = groupEnd(kmers, from)) {
+            numGroups++;
+        }
+
+        occupancy = new RankBitVector(1L << (height << 1));
+        firstPrefixes = new long[numGroups];
+        endPrefixes = new long[numGroups];
+        containers = new DataStructure[numGroups];
+
+        int group = 0;
+        for (int from = 0; from < kmers.length; group++) {
+            int to = groupEnd(kmers, from);
+            long firstPrefix = kmers[from] >>> suffixBits;
+            long lastPrefix = kmers[to - 1] >>> suffixBits;
+
+            // the k-mers of a shared container are saved relative to the first k-mer of its first prefix
+            long offset = firstPrefix << suffixBits;
+            long[] keys = new long[to - from];
+            for (int i = from; i < to; i++) {
+                keys[i - from] = kmers[i] - offset;
+            }
+            int extraBases = 0;
+            while (1L << (extraBases << 1) <= lastPrefix - firstPrefix) {
+                extraBases++;
+            }
+            Container container = containerFactory.createContainer(Math.max(1,
+                    kmerSize - height + extraBases));
+            container.build(keys);
+
+            occupancy.set(firstPrefix);
+            firstPrefixes[group] = firstPrefix;
+            endPrefixes[group] = lastPrefix + 1;
+            containers[group] = container;
+            from = to;
+        }
+        occupancy.buildRank();
+    }
+
+    /**
+     * Determine the end of the group of buckets sharing a container which starts at a specified index of the sorted
+     * k-mers. A bucket joins the group if the group then holds at most mergeThreshold k-mers and spans at most
+     * {@link #MAX_GROUP_SPAN} prefixes. The first bucket of a group always joins it.
+     *
+     * @param kmers sorted array of k-mers
+     * @param from index of the first k-mer of the group
+     * @return index after the last k-mer of the group
+     */
+    private int groupEnd(long[] kmers, int from) {
+        long firstPrefix = kmers[from] >>> suffixBits;
+        int end = from;
+        while (end < kmers.length) {
+            long prefix = kmers[end] >>> suffixBits;
+            if (prefix - firstPrefix >= MAX_GROUP_SPAN) {
+                break;
+            }
+            int bucketEnd = end;
+            while (bucketEnd < kmers.length && kmers[bucketEnd] >>> suffixBits == prefix) {
+                bucketEnd++;
+            }
+            if (end > from && bucketEnd - from > mergeThreshold) {
+                break;
+            }
+            end = bucketEnd;
+        }
+        return end;
+    }
+
+    /**
+     * Search for a specified k-mer in this access trie and the corresponding container if necessary.
+     * Locating the container in which to search for the k-mer has time complexity O(1).
+     *
+     * @param pattern numeric representation of the k-mer to search for
+     * @return <ul>
+     *     <li>true if this access trie (and the corresponding container) contains the specified k-mer</li>
+     *     <li>false if this access trie does not contain the specified k-mer</li>
+     * </ul>
+     */
+    @Override
+    public boolean search(long pattern) {
+        long prefix = pattern >>> suffixBits;
+        // the container of the prefix is the last one starting at or before the prefix
+        int group = occupancy.rank(prefix + 1) - 1;
+        if (group < 0 || prefix >= endPrefixes[group]) {
+            return false;
+        }
+        return containers[group].search(pattern - (firstPrefixes[group] << suffixBits));
+    }
+
+    /**
+     * Because compact access tries are built from all of their k-mers at once, this method only throws an exception
+     * and does nothing else.
+     *
+     * @param prefix numeric representation of the k-mer prefix that corresponds to the sub data structure
+     * @param dataStructure sub data structure to add
+     */
+    @Override
+    public void add(long prefix, DataStructure dataStructure) {
+        throw new AddStructureToContainerException("Cannot add data structure to a compact access trie");
+    }
+
+    /**
+     * Compute the number of bits occupied by the leaf directory, i.e. the occupancy bit vector, the prefixes of the
+     * containers and the references to the containers assuming compressed references of 32 bits.
+     *
+     * @return size of the leaf directory in bits
+     */
+    public long getDirectorySizeInBits() {
+        if (containers == null) {
+            return 0;
+        }
+        return occupancy.getSizeInBits() + (64L + 64L + 32L) * containers.length;
+    }
+
+    /**
+     * Retrieve the number of containers of this access trie.
+     *
+     * @return number of containers or 0 if the access trie has not been built
+     */
+    public int getNumContainers() {
+        return containers == null ? 0 : containers.length;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public ContainerFactory getContainerFactory() {
+        return containerFactory;
+    }
+
+    public int getMergeThreshold() {
+        return mergeThreshold;
+    }
+
+    public DataStructure[] getContainers() {
+        return containers;
+    }
+
+}
@@ -13,6 +13,12 @@ import util.DataStructure;
  */
 public class FixedPrefixLengthAccessTrie implements DataStructure {
 
+    /**
+     * The maximum height for which the array of 4^height buckets can be indexed by an int.
+     * {@link CompactAccessTrie} supports larger heights.
+     */
+    public static final int MAX_HEIGHT = 15;
+
     /**
      * Height of this access trie.
      */
@@ -37,6 +43,10 @@ public class FixedPrefixLengthAccessTrie implements DataStructure {
      * @param kmerSize k-mer size to create the access trie for
      */
     public FixedPrefixLengthAccessTrie(int height, int kmerSize) {
+        if (height > MAX_HEIGHT) {
+            throw new IllegalArgumentException("The height must not exceed " + MAX_HEIGHT
+                    + ", use a compact access trie for larger heights");
+        }
         this.height = height;
         this.kmerSize = kmerSize;
 
@@ -0,0 +1,127 @@
+package access_trie;
+
+import util.WideDataStructure;
+
+/**
+ * Implements an access trie with specified height as an array for wide k-mers.
+ *
+ * This is the counterpart of {@link FixedPrefixLengthAccessTrie} for k-mers represented by a high and a low word.
+ * The prefix of length height is extracted from the high word or, if the suffix holds fewer than 32 bases, from both
+ * words. The suffixes saved in the buckets are wide k-mers of size kmerSize - height.
+ */
+public class WideFixedPrefixLengthAccessTrie implements WideDataStructure {
+
+    /**
+     * Maximum height of an access trie, such that the number of buckets fits into an int.
+     */
+    public static final int MAX_HEIGHT = 15;
+
+    /**
+     * Height of this access trie.
+     */
+    private final int height;
+    /**
+     * Size of the k-mers saved by this data structure, not only the prefix length.
+     */
+    private final int kmerSize;
+    /**
+     * Number of bits of the suffix of a k-mer: 2 * (kmerSize - height).
+     */
+    private final int suffixBits;
+    /**
+     * Bit mask used for extracting the high word of suffixes.
+     */
+    private final long highMask;
+    /**
+     * Bit mask used for extracting the low word of suffixes.
+     */
+    private final long lowMask;
+    /**
+     * Array of buckets/containers of this access trie.
+     */
+    private final WideDataStructure[] leaves;
+
+    /**
+     * Create a fixed prefix length access trie for wide k-mers with a specified height and for a specified k-mer size.
+     *
+     * @param height height of the access trie in the range [1, min({@link #MAX_HEIGHT}, kmerSize - 1)]
+     * @param kmerSize k-mer size to create the access trie for
+     */
+    public WideFixedPrefixLengthAccessTrie(int height, int kmerSize) {
+        if (height < 1 || height > MAX_HEIGHT || height >= kmerSize) {
+            throw new IllegalArgumentException("The height must be in the range [1, " + MAX_HEIGHT
+                    + "] and smaller than the k-mer size");
+        }
+        this.height = height;
+        this.kmerSize = kmerSize;
+
+        suffixBits = (kmerSize - height) << 1;
+        if (suffixBits >= 64) {
+            highMask = suffixBits == 64 ? 0 : (1L << (suffixBits - 64)) - 1;
+            lowMask = -1L;
+        } else {
+            highMask = 0;
+            lowMask = (1L << suffixBits) - 1;
+        }
+        leaves = new WideDataStructure[(1 << (height << 1))];
+    }
+
+    /**
+     * Search for a specified wide k-mer in this access trie and the corresponding container if necessary.
+     * Locating the container in which to search for the suffix of the specified k-mer has time complexity O(1).
+     *
+     * @param high high word of the k-mer to search for
+     * @param low low word of the k-mer to search for
+     * @return <ul>
+     *     <li>true if this access trie (and the corresponding container) contains the specified k-mer</li>
+     *     <li>false if this access trie does not contain the specified k-mer</li>
+     * </ul>
+     */
+    @Override
+    public boolean search(long high, long low) {
+        int index = prefix(high, low);
+        if (leaves[index] == null) {
+            return false;
+        } else {
+            return leaves[index].search(high & highMask, low & lowMask);
+        }
+    }
+
+    /**
+     * Extract the prefix of length height of a specified wide k-mer.
+     *
+     * @param high high word of the k-mer
+     * @param low low word of the k-mer
+     * @return numeric representation of the prefix
+     */
+    public int prefix(long high, long low) {
+        if (suffixBits >= 64) {
+            return (int) (high >>> (suffixBits - 64));
+        }
+        return (int) ((high << (64 - suffixBits)) | (low >>> suffixBits));
+    }
+
+    /**
+     * Add a container data structure corresponding to the specified prefix to this access trie.
+     * Time complexity: O(1)
+     *
+     * @param prefix numeric representation of the k-mer prefix that corresponds to the sub data structure
+     * @param dataStructure sub data structure to add
+     */
+    @Override
+    public void add(long prefix, WideDataStructure dataStructure) {
+        leaves[(int) prefix] = dataStructure;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public WideDataStructure[] getLeaves() {
+        return leaves;
+    }
+}
@@ -0,0 +1,124 @@
+package base_data_structures;
+
+/**
+ * Implements a fixed-size bit vector with long indices supporting rank queries in constant time.
+ *
+ * Besides the words of the bit vector, the number of set bits before each block of {@link #BLOCK_WORDS} words is
+ * saved, so a rank query only counts the set bits of at most {@link #BLOCK_WORDS} words. The counts need about 6% of
+ * the size of the bit vector. The counts are computed by {@link #buildRank()} once all bits have been set.
+ */
+public class RankBitVector {
+
+    /**
+     * The number of words per block of which the number of preceding set bits is saved.
+     */
+    public static final int BLOCK_WORDS = 8;
+
+    private final static int MODULO_64_BITMASK = 63;
+
+    /**
+     * The number of bits of this bit vector.
+     */
+    private final long numBits;
+    private final long[] words;
+    /**
+     * The number of set bits before each block or null if the counts have not been built.
+     */
+    private int[] blockRanks = null;
+
+    /**
+     * Construct a new bit vector with a specified number of bits which are all 0.
+     *
+     * @param numBits number of bits, at most 2^36
+     */
+    public RankBitVector(long numBits) {
+        if (numBits < 0 || numBits > 1L << 36) {
+            throw new IllegalArgumentException("The number of bits needs to be in the range [0, 2^36]");
+        }
+        this.numBits = numBits;
+        words = new long[(int) ((numBits + 63) >>> 6)];
+    }
+
+    /**
+     * Set the bit at the specified index of this bit vector to 1. Invalidates the rank counts.
+     * Time complexity: O(1)
+     *
+     * @param bitIndex index of the bit to set to 1
+     */
+    public void set(long bitIndex) {
+        words[(int) (bitIndex >>> 6)] |= 1L << (bitIndex & MODULO_64_BITMASK);
+        blockRanks = null;
+    }
+
+    /**
+     * Retrieve the value of the bit at the specified index of this bit vector.
+     * Time complexity: O(1)
+     *
+     * @param bitIndex index of the bit of which to return the value
+     * @return value of the bit at the specified index
+     */
+    public boolean get(long bitIndex) {
+        return (words[(int) (bitIndex >>> 6)] & (1L << (bitIndex & MODULO_64_BITMASK))) != 0;
+    }
+
+    /**
+     * Compute the number of set bits before each block of words, which is required by {@link #rank(long)}.
+     * Time complexity: Theta(n / 64) where n is the number of bits
+     */
+    public void buildRank() {
+        int numBlocks = (words.length + BLOCK_WORDS - 1) / BLOCK_WORDS;
+        int[] ranks = new int[numBlocks + 1];
+        long count = 0;
+        for (int i = 0; i < words.length; i++) {
+            if (i % BLOCK_WORDS == 0) {
+                ranks[i / BLOCK_WORDS] = (int) count;
+            }
+            count += Long.bitCount(words[i]);
+        }
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Rank queries support at most 2^31 - 1 set bits");
+        }
+        ranks[numBlocks] = (int) count;
+        blockRanks = ranks;
+    }
+
+    /**
+     * Count the set bits before a specified index, i.e. in the range [0, bitIndex).
+     * Requires {@link #buildRank()} to have been called after the last bit was set.
+     * Time complexity: O(1)
+     *
+     * @param bitIndex index in the range [0, numBits]
+     * @return number of set bits before the index
+     */
+    public int rank(long bitIndex) {
+        int wordIndex = (int) (bitIndex >>> 6);
+        int block = wordIndex / BLOCK_WORDS;
+        int rank = blockRanks[block];
+        for (int i = block * BLOCK_WORDS; i < wordIndex; i++) {
+            rank += Long.bitCount(words[i]);
+        }
+        int offset = (int) (bitIndex & MODULO_64_BITMASK);
+        if (offset != 0) {
+            rank += Long.bitCount(words[wordIndex] << (64 - offset));
+        }
+        return rank;
+    }
+
+    /**
+     * Compute the number of bits occupied by the words and the rank counts of this bit vector.
+     *
+     * @return size of this bit vector in bits
+     */
+    public long getSizeInBits() {
+        return 64L * words.length + (blockRanks == null ? 0 : 32L * blockRanks.length);
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public long[] getWords() {
+        return words;
+    }
+
+}
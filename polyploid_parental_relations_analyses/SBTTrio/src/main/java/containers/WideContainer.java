@@ -0,0 +1,15 @@
+package containers;
+
+import util.WideDataStructure;
+
+public interface WideContainer extends WideDataStructure {
+
+    /**
+     * Build the container for a specified list of wide k-mers given by their high and low words.
+     *
+     * @param highs list of the high words of the k-mers to build the container for
+     * @param lows list of the low words of the k-mers, in the same order as the high words
+     */
+    void build(long[] highs, long[] lows);
+
+}
@@ -0,0 +1,20 @@
+package containers;
+
+public interface WideContainerFactory {
+
+    /**
+     * Create the wide container for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size to create the container for
+     * @return new instance of the wide container class for the specified k-mer size
+     */
+    WideContainer createContainer(int kmerSize);
+
+    /**
+     * Retrieve the name of the wide container class.
+     *
+     * @return name of the wide container class
+     */
+    String getContainerName();
+
+}
@@ -2,8 +2,7 @@ package containers.bit_packed_sorted_array;
 
 import base_data_structures.BitPackedKmerArray;
 import containers.AbstractContainer;
-
-import java.util.Arrays;
+import util.RadixSort;
 
 /**
  * Implements a bit-packed sorted array of k-mers for k < 32.
@@ -30,13 +29,14 @@ public class BitPackedSortedArray extends AbstractContainer {
 
     /**
      * Build this sorted array to accommodate a specified list of k-mers.
-     * Time complexity: O(n log n) where n is the number of elements to build this sorted array for
+     * Time complexity: O(n * k) where n is the number of elements to build this sorted array for and k is the k-mer
+     * size
      *
      * @param patterns list of numeric representations of the k-mers to build this sorted array for
      */
     @Override
     public void build(long[] patterns) {
-        Arrays.sort(patterns);
+        RadixSort.sort(patterns, bitKmerSize);
         data = new BitPackedKmerArray(patterns.length, bitKmerSize);
         for (int i = 0; i < patterns.length; i++) {
             data.set(i, patterns[i]);
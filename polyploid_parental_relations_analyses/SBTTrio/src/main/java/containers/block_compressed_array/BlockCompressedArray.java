@@ -0,0 +1,193 @@
+package containers.block_compressed_array;
+
+import containers.AbstractContainer;
+import util.RadixSort;
+
+/**
+ * Implements a sorted array of k-mers for k < 32 which is compressed in blocks of {@link #BLOCK_SIZE} k-mers.
+ *
+ * The sorted k-mers of a bucket are close to each other, so the gaps between consecutive k-mers need far fewer bits
+ * than the k-mers themselves. Each block stores its first k-mer in a skip table and the gaps between its consecutive
+ * k-mers with a frame of reference: all gaps of a block are bit-packed with the number of bits of the largest gap of
+ * that block. Hence, a single large gap only affects the density of its own block.
+ *
+ * A search binary searches the skip table for the only block which may contain the k-mer and decodes this block from
+ * its first k-mer until the k-mer is reached or passed. Every gap is extracted with the same shifts and masks
+ * regardless of its position in the words, i.e. without branches, and the packed words are padded, so that the
+ * extraction may always read two consecutive words.
+ */
+public class BlockCompressedArray extends AbstractContainer {
+
+    /**
+     * The number of k-mers per block.
+     */
+    public static final int BLOCK_SIZE = 128;
+
+    /**
+     * The number of bits used to represent a single k-mer.
+     */
+    private final int bitKmerSize;
+    /**
+     * The number of k-mers of this array.
+     */
+    private int size;
+    /**
+     * The first k-mer of each block.
+     */
+    private long[] skips;
+    /**
+     * The index of the first word of the packed gaps of each block.
+     */
+    private int[] blockOffsets;
+    /**
+     * The number of bits per gap of each block.
+     */
+    private byte[] bitWidths;
+    /**
+     * The bit-packed gaps of all blocks followed by two words of padding, as blocks with gaps of 0 bits occupy no word.
+     */
+    private long[] data;
+
+    /**
+     * Create a block-compressed array for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size to create the array for
+     */
+    public BlockCompressedArray(int kmerSize) {
+        this.bitKmerSize = kmerSize << 1;
+    }
+
+    /**
+     * Build this array to accommodate a specified list of k-mers.
+     * Time complexity: O(n * k) where n is the number of elements to build this array for and k is the k-mer size
+     *
+     * @param patterns list of numeric representations of the k-mers to build this array for
+     */
+    @Override
+    public void build(long[] patterns) {
+        RadixSort.sort(patterns, bitKmerSize);
+        size = patterns.length;
+        int numBlocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        skips = new long[numBlocks];
+        blockOffsets = new int[numBlocks];
+        bitWidths = new byte[numBlocks];
+
+        // compute the bit width of each block first to allocate the packed words at once
+        long numWords = 0;
+        for (int block = 0; block < numBlocks; block++) {
+            int from = block * BLOCK_SIZE;
+            int to = Math.min(from + BLOCK_SIZE, size);
+            long maxGap = 0;
+            for (int i = from + 1; i < to; i++) {
+                maxGap = Math.max(maxGap, patterns[i] - patterns[i - 1]);
+            }
+            int bitWidth = Long.SIZE - Long.numberOfLeadingZeros(maxGap);
+            skips[block] = patterns[from];
+            bitWidths[block] = (byte) bitWidth;
+            blockOffsets[block] = (int) numWords;
+            numWords += ((long) (to - from - 1) * bitWidth + Long.SIZE - 1) / Long.SIZE;
+        }
+        if (numWords >= Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Too many k-mers for a single block-compressed array");
+        }
+
+        data = new long[(int) numWords + 2];
+        for (int block = 0; block < numBlocks; block++) {
+            int from = block * BLOCK_SIZE;
+            int to = Math.min(from + BLOCK_SIZE, size);
+            int bitWidth = bitWidths[block];
+            long bitIndex = (long) blockOffsets[block] << 6;
+            for (int i = from + 1; i < to; i++) {
+                long gap = patterns[i] - patterns[i - 1];
+                int word = (int) (bitIndex >>> 6);
+                int offset = (int) (bitIndex & 63);
+                data[word] |= gap << offset;
+                if (offset + bitWidth > Long.SIZE) {
+                    data[word + 1] |= gap >>> (Long.SIZE - offset);
+                }
+                bitIndex += bitWidth;
+            }
+        }
+    }
+
+    /**
+     * Search this array for a specified k-mer by a binary search in the skip table followed by decoding one block.
+     * Time complexity: O(log(n / b) + b) where n is the number of elements in the array and b is the block size
+     *
+     * @param pattern numeric representation of the k-mer to search for
+     * @return <ul>
+     *     <li>true if this array contains the specified k-mer</li>
+     *     <li>false if this array does not contain the specified k-mer</li>
+     * </ul>
+     */
+    @Override
+    public boolean search(long pattern) {
+        // find the last block whose first k-mer is not greater than the pattern
+        int left = 0;
+        int right = skips.length - 1;
+        int block = -1;
+        while (left <= right) {
+            int mid = (left + right) >>> 1;
+            long skip = skips[mid];
+            if (skip == pattern) {
+                return true;
+            }
+            if (skip < pattern) {
+                block = mid;
+                left = mid + 1;
+            } else {
+                right = mid - 1;
+            }
+        }
+        if (block < 0) {
+            return false;
+        }
+
+        int bitWidth = bitWidths[block];
+        long mask = (1L << bitWidth) - 1;
+        int numGaps = Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE) - 1;
+        long bitIndex = (long) blockOffsets[block] << 6;
+        long value = skips[block];
+        for (int i = 0; i < numGaps; i++) {
+            int word = (int) (bitIndex >>> 6);
+            int offset = (int) (bitIndex & 63);
+            // shifting by 1 and then by 63 - offset yields 0 instead of the unshifted word for offset 0
+            long gap = ((data[word] >>> offset) | ((data[word + 1] << 1) << (63 - offset))) & mask;
+            value += gap;
+            if (value >= pattern) {
+                return value == pattern;
+            }
+            bitIndex += bitWidth;
+        }
+        return false;
+    }
+
+    /**
+     * Compute the number of bits used by the skip table, the block offsets, the bit widths and the packed gaps.
+     *
+     * @return size of this array in bits
+     */
+    public long getSizeInBits() {
+        if (skips == null) {
+            return 0;
+        }
+        return (long) skips.length * (Long.SIZE + Integer.SIZE + Byte.SIZE) + (long) data.length * Long.SIZE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getBitKmerSize() {
+        return bitKmerSize;
+    }
+
+    public long[] getSkips() {
+        return skips;
+    }
+
+    public long[] getData() {
+        return data;
+    }
+
+}
@@ -0,0 +1,23 @@
+package containers.block_compressed_array;
+
+import containers.Container;
+import containers.ContainerFactory;
+
+public class BlockCompressedArrayFactory implements ContainerFactory {
+
+    /**
+     * Create a block-compressed array for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size to create the array for
+     * @return new block-compressed array for the specified k-mer size
+     */
+    @Override
+    public Container createContainer(int kmerSize) {
+        return new BlockCompressedArray(kmerSize);
+    }
+
+    @Override
+    public String getContainerName() {
+        return "Block-compressed array";
+    }
+}
@@ -0,0 +1,515 @@
+package containers.concurrent_hash_set;
+
+import containers.AbstractContainer;
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash32Finalizer;
+import hash_functions.MurmurHash64Finalizer;
+import util.RadixSort;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implements a lock-free open addressing hash set of k-mers for k < 32 which supports concurrent insertions and
+ * searches by any number of threads.
+ *
+ * Collisions are resolved by linear probing. A k-mer is inserted by a compare-and-set of an empty slot of the table
+ * through a {@link VarHandle}, so threads never block each other and a slot never changes once it holds a k-mer.
+ * Optionally, the set holds an atomic counter per slot, so it can count the occurrences of the k-mers as well.
+ * Counts saturate at {@link Integer#MAX_VALUE}.
+ *
+ * As soon as 3/4 of the slots are occupied, a table of twice the size is created and the slots of the old
+ * table are migrated in chunks of {@link #TRANSFER_STRIDE} slots. Every thread encountering the resize claims and
+ * migrates chunks as well, so the threads cooperate instead of waiting for a single thread. An empty slot is migrated
+ * by marking it as moved, which redirects insertions and unsuccessful searches probing it to the new table. A k-mer
+ * is copied to the new table but remains in the old one, and its counter is frozen first, which redirects counting
+ * threads to the new table. Hence, every k-mer is contained in exactly one slot of the newest table containing it and
+ * operations never wait for the migration to complete.
+ *
+ * The class of hash functions is chosen depending on the size of the k-mers like for
+ * {@link containers.hash_set.HashSet}.
+ */
+public class ConcurrentHashSet extends AbstractContainer {
+
+    /**
+     * The number of slots a thread migrates at once during a resize.
+     */
+    public static final int TRANSFER_STRIDE = 1024;
+    /**
+     * The minimum number of slots of a table.
+     */
+    public static final int MIN_CAPACITY = 16;
+    /**
+     * The maximum number of slots of a table.
+     */
+    public static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * The marker of empty slots, which is no valid k-mer because k-mers of at most
+     * {@link dna.DNA#MAX_KMER_SIZE} bases are non-negative.
+     */
+    private static final long EMPTY = -1;
+    /**
+     * The marker of empty slots which have been migrated to the next table.
+     */
+    private static final long MOVED = -2;
+    /**
+     * The marker of counters which have been migrated to the next table.
+     */
+    private static final int FROZEN = -1;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle TABLE;
+
+    static {
+        try {
+            TABLE = MethodHandles.lookup().findVarHandle(ConcurrentHashSet.class, "table", Table.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    /**
+     * The size of the k-mers saved in this hash set.
+     */
+    private final int kmerSize;
+    /**
+     * Whether this hash set holds a counter per k-mer.
+     */
+    private final boolean counting;
+    private final HashFunction hashFunction;
+    /**
+     * The number of k-mers saved in this hash set.
+     */
+    private final LongAdder numElements = new LongAdder();
+    /**
+     * The newest table whose migration from its predecessor has completed.
+     */
+    private volatile Table table;
+
+    /**
+     * Create an empty hash set without counters for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size to create the hash set for
+     */
+    public ConcurrentHashSet(int kmerSize) {
+        this(kmerSize, 0, false);
+    }
+
+    /**
+     * Create an empty hash set for a specified k-mer size and an estimated number of k-mers to be saved in the hash
+     * set, optionally holding a counter per k-mer.
+     *
+     * @param kmerSize k-mer size to create the hash set for
+     * @param numElements estimate of the number of k-mers to be saved in the hash set
+     * @param counting whether the hash set holds a counter per k-mer
+     */
+    public ConcurrentHashSet(int kmerSize, int numElements, boolean counting) {
+        if (numElements < 0) {
+            throw new IllegalArgumentException("The number of elements needs to be non-negative");
+        }
+        this.kmerSize = kmerSize;
+        this.counting = counting;
+        hashFunction = kmerSize < 17 ? new MurmurHash32Finalizer() : new MurmurHash64Finalizer();
+        table = new Table(calculateSize(numElements), counting);
+    }
+
+    /**
+     * Build this hash set for a specified list of k-mers, removing all k-mers saved so far.
+     * Must not be called concurrently with any other operation.
+     *
+     * @param patterns list of numeric representations of the k-mers to build this hash set for
+     */
+    @Override
+    public void build(long[] patterns) {
+        table = new Table(calculateSize(patterns.length), counting);
+        numElements.reset();
+        for (long pattern : patterns) {
+            add(pattern);
+        }
+    }
+
+    /**
+     * Search this hash set for a specified k-mer.
+     * Time complexity: O(1) expected
+     *
+     * @param pattern numeric representation of the k-mer to search for
+     * @return <ul>
+     *     <li>true if this hash set contains the specified k-mer</li>
+     *     <li>false if this hash set does not contain the specified k-mer</li>
+     * </ul>
+     */
+    @Override
+    public boolean search(long pattern) {
+        Table current = table;
+        while (true) {
+            int slot = find(current, pattern);
+            if (slot >= 0) {
+                return true;
+            }
+            if (slot == -1) {
+                return false;
+            }
+            current = current.next.get();
+        }
+    }
+
+    /**
+     * Add a specified k-mer to this hash set and increment its counter by one.
+     * Time complexity: O(1) expected, amortized over the resizes
+     *
+     * @param pattern numeric representation of the k-mer to add
+     * @return <ul>
+     *     <li>true if the specified k-mer was added to this hash set</li>
+     *     <li>false if this hash set already contains the specified k-mer</li>
+     * </ul>
+     */
+    public boolean add(long pattern) {
+        return add(pattern, 1);
+    }
+
+    /**
+     * Add a specified k-mer to this hash set and increment its counter by a specified number of occurrences.
+     * The number of occurrences is ignored if this hash set does not hold counters.
+     * Time complexity: O(1) expected, amortized over the resizes
+     *
+     * @param pattern numeric representation of the k-mer to add
+     * @param count non-negative number of occurrences to add
+     * @return <ul>
+     *     <li>true if the specified k-mer was added to this hash set</li>
+     *     <li>false if this hash set already contains the specified k-mer</li>
+     * </ul>
+     */
+    public boolean add(long pattern, int count) {
+        if (insert(table, pattern, count, false)) {
+            numElements.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retrieve the number of occurrences of a specified k-mer.
+     * Time complexity: O(1) expected
+     *
+     * @param pattern numeric representation of the k-mer
+     * @return number of occurrences of the k-mer or 0 if this hash set does not contain it
+     */
+    public int getCount(long pattern) {
+        if (!counting) {
+            throw new UnsupportedOperationException("This hash set does not hold counters");
+        }
+        Table current = table;
+        while (true) {
+            int slot = find(current, pattern);
+            if (slot == -1) {
+                return 0;
+            }
+            if (slot >= 0) {
+                int count = (int) COUNTS.getVolatile(current.counts, slot);
+                if (count != FROZEN) {
+                    return count;
+                }
+            }
+            current = current.next.get();
+        }
+    }
+
+    /**
+     * Collect the k-mers of this hash set in ascending order.
+     * Must not be called concurrently with insertions.
+     * Time complexity: O(m + n * k) where m is the size of the table, n is the number of k-mers and k is the k-mer
+     * size
+     *
+     * @return sorted array of the k-mers
+     */
+    public long[] toArray() {
+        Table current = advance();
+        long[] kmers = new long[current.keys.length];
+        int numKmers = 0;
+        for (long key : current.keys) {
+            if (key >= 0) {
+                kmers[numKmers] = key;
+                numKmers++;
+            }
+        }
+        kmers = Arrays.copyOf(kmers, numKmers);
+        RadixSort.sort(kmers, kmerSize << 1);
+        return kmers;
+    }
+
+    /**
+     * Probe a specified table for a specified k-mer.
+     *
+     * @param current table to probe
+     * @param pattern numeric representation of the k-mer
+     * @return <ul>
+     *     <li>index of the slot holding the k-mer</li>
+     *     <li>-1 if the table and its successors do not contain the k-mer</li>
+     *     <li>-2 if the k-mer can only be contained in the next table</li>
+     * </ul>
+     */
+    private int find(Table current, long pattern) {
+        long[] keys = current.keys;
+        int mask = keys.length - 1;
+        int slot = (int) hashFunction.hash(pattern) & mask;
+        for (int probe = 0; probe <= mask; probe++) {
+            long key = (long) KEYS.getVolatile(keys, slot);
+            if (key == pattern) {
+                return slot;
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+            if (key == MOVED) {
+                return -2;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // a full table is always resized
+        return current.next.get() == null ? -1 : -2;
+    }
+
+    /**
+     * Insert a specified k-mer into a specified table or its successors and add a specified number of occurrences to
+     * its counter.
+     *
+     * @param current table to insert the k-mer into
+     * @param pattern numeric representation of the k-mer
+     * @param count number of occurrences to add
+     * @param present whether the k-mer is known to be contained in this hash set, e.g. because it is migrated
+     * @return <ul>
+     *     <li>true if the k-mer was not contained in this hash set before</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    private boolean insert(Table current, long pattern, int count, boolean present) {
+        boolean added = false;
+        retry:
+        while (true) {
+            long[] keys = current.keys;
+            int mask = keys.length - 1;
+            int slot = (int) hashFunction.hash(pattern) & mask;
+            for (int probe = 0; probe <= mask; probe++) {
+                long key = (long) KEYS.getVolatile(keys, slot);
+                if (key == EMPTY) {
+                    // claim the slot even if the table is about to be resized, as another thread may claim it for
+                    // the same k-mer before the slot is migrated
+                    if (KEYS.compareAndSet(keys, slot, EMPTY, pattern)) {
+                        if (current.occupied.incrementAndGet() >= current.threshold) {
+                            resize(current);
+                        }
+                        added = !present;
+                        present = true;
+                        key = pattern;
+                    } else {
+                        key = (long) KEYS.getVolatile(keys, slot);
+                    }
+                }
+                if (key == MOVED) {
+                    current = resize(current);
+                    continue retry;
+                }
+                if (key == pattern) {
+                    if (counting && !addCount(current.counts, slot, count)) {
+                        // the counter has been migrated, so the k-mer is contained in the next table
+                        present = true;
+                        current = resize(current);
+                        continue retry;
+                    }
+                    return added;
+                }
+                slot = (slot + 1) & mask;
+            }
+            current = resize(current);
+        }
+    }
+
+    /**
+     * Add a specified number of occurrences to the counter of a specified slot unless it is frozen.
+     *
+     * @param counts counters of a table
+     * @param slot index of the slot
+     * @param count number of occurrences to add
+     * @return <ul>
+     *     <li>true if the occurrences were added</li>
+     *     <li>false if the counter is frozen</li>
+     * </ul>
+     */
+    private static boolean addCount(int[] counts, int slot, int count) {
+        while (true) {
+            int current = (int) COUNTS.getVolatile(counts, slot);
+            if (current == FROZEN) {
+                return false;
+            }
+            int updated = (int) Math.min((long) current + count, Integer.MAX_VALUE);
+            if (COUNTS.compareAndSet(counts, slot, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Create the successor of a specified table unless it exists and help migrating the slots of the table.
+     *
+     * @param current table to resize
+     * @return successor of the table
+     */
+    private Table resize(Table current) {
+        Table next = current.next.get();
+        if (next == null) {
+            if (current.keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("A concurrent hash set holds at most " + MAX_CAPACITY + " slots");
+            }
+            current.next.compareAndSet(null, new Table(current.keys.length << 1, counting));
+            next = current.next.get();
+        }
+        transfer(current, next);
+        return next;
+    }
+
+    /**
+     * Claim and migrate chunks of slots of a specified table to its successor until all chunks have been claimed.
+     *
+     * @param current table to migrate
+     * @param next successor of the table
+     */
+    private void transfer(Table current, Table next) {
+        int capacity = current.keys.length;
+        while (true) {
+            int start = current.transferIndex.getAndAdd(TRANSFER_STRIDE);
+            if (start >= capacity) {
+                break;
+            }
+            int end = Math.min(capacity, start + TRANSFER_STRIDE);
+            for (int slot = start; slot < end; slot++) {
+                migrate(current, next, slot);
+            }
+            current.migrated.addAndGet(end - start);
+        }
+        advance();
+    }
+
+    /**
+     * Migrate a specified slot of a table to its successor.
+     *
+     * @param current table to migrate
+     * @param next successor of the table
+     * @param slot index of the slot to migrate
+     */
+    private void migrate(Table current, Table next, int slot) {
+        long key = (long) KEYS.getVolatile(current.keys, slot);
+        if (key == EMPTY) {
+            if (KEYS.compareAndSet(current.keys, slot, EMPTY, MOVED)) {
+                return;
+            }
+            // the slot has been claimed in the meantime
+            key = (long) KEYS.getVolatile(current.keys, slot);
+        }
+
+        int count = 0;
+        if (counting) {
+            count = (int) COUNTS.getAndSet(current.counts, slot, FROZEN);
+        }
+        insert(next, key, count, true);
+    }
+
+    /**
+     * Replace the current table by its successors whose migration has completed.
+     *
+     * @return current table
+     */
+    private Table advance() {
+        Table current = table;
+        while (true) {
+            Table next = current.next.get();
+            if (next == null || current.migrated.get() < current.keys.length) {
+                return current;
+            }
+            TABLE.compareAndSet(this, current, next);
+            current = table;
+        }
+    }
+
+    /**
+     * Calculate the size of a table for a specified number of k-mers such that the size is a power of 2 and the
+     * load factor is at most 0.5.
+     *
+     * @param elements number of k-mers
+     * @return size of the table
+     */
+    private static int calculateSize(int elements) {
+        long size = Math.max(MIN_CAPACITY, Long.highestOneBit(Math.max(1, (long) elements)) << 2);
+        return (int) Math.min(size, MAX_CAPACITY);
+    }
+
+    /**
+     * A table of slots, its counters and the state of its migration to its successor.
+     */
+    private static class Table {
+
+        private final long[] keys;
+        /**
+         * The counter of each slot or null if the hash set does not hold counters.
+         */
+        private final int[] counts;
+        /**
+         * The number of occupied slots from which the table is resized.
+         */
+        private final int threshold;
+        /**
+         * The number of slots holding a k-mer.
+         */
+        private final AtomicInteger occupied = new AtomicInteger();
+        /**
+         * The successor of the table or null if the table has not been resized.
+         */
+        private final AtomicReference<Table> next = new AtomicReference<>();
+        /**
+         * The index of the first slot of the next chunk to migrate.
+         */
+        private final AtomicInteger transferIndex = new AtomicInteger();
+        /**
+         * The number of slots which have been migrated.
+         */
+        private final AtomicInteger migrated = new AtomicInteger();
+
+        private Table(int capacity, boolean counting) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            counts = counting ? new int[capacity] : null;
+            threshold = (capacity >>> 2) * 3;
+        }
+
+    }
+
+    /**
+     * Compute the number of bytes occupied by the slots and counters of the current table.
+     *
+     * @return size of the current table in bytes
+     */
+    public long getSizeInBytes() {
+        return (long) size() * (counting ? Long.BYTES + Integer.BYTES : Long.BYTES);
+    }
+
+    public long getNumElements() {
+        return numElements.sum();
+    }
+
+    public int size() {
+        return advance().keys.length;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public boolean isCounting() {
+        return counting;
+    }
+
+}
@@ -0,0 +1,23 @@
+package containers.concurrent_hash_set;
+
+import containers.Container;
+import containers.ContainerFactory;
+
+public class ConcurrentHashSetFactory implements ContainerFactory {
+
+    /**
+     * Create a concurrent hash set without counters for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size to create the concurrent hash set for
+     * @return new concurrent hash set for the specified k-mer size
+     */
+    @Override
+    public Container createContainer(int kmerSize) {
+        return new ConcurrentHashSet(kmerSize);
+    }
+
+    @Override
+    public String getContainerName() {
+        return "Concurrent hash table";
+    }
+}
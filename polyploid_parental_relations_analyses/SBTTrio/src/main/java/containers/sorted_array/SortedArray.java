@@ -1,8 +1,7 @@
 package containers.sorted_array;
 
 import containers.AbstractContainer;
-
-import java.util.Arrays;
+import util.RadixSort;
 
 /**
  * Implements a sorted array of k-mers for k < 32.
@@ -16,13 +15,14 @@ public class SortedArray extends AbstractContainer {
 
     /**
      * Build this sorted array to accommodate a specified list of k-mers.
-     * Time complexity: O(n log n) where n is the number of elements to build this sorted array for
+     * Time complexity: O(n * b) where n is the number of elements to build this sorted array for and b is the number
+     * of significant bits of the largest element
      *
      * @param patterns list of numeric representations of the k-mers to build this sorted array for
      */
     @Override
     public void build(long[] patterns) {
-        Arrays.sort(patterns);
+        RadixSort.sort(patterns);
         data = patterns;
     }
 
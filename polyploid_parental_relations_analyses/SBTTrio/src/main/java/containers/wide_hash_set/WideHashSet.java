@@ -0,0 +1,128 @@
+package containers.wide_hash_set;
+
+import containers.AbstractWideContainer;
+import containers.hash_set.HashSet;
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash64Finalizer;
+
+/**
+ * Implements an open addressing hash set of wide k-mers for k < 64.
+ *
+ * The high and low words of the k-mers are saved in two parallel long arrays. Since the high word of a wide k-mer is
+ * never negative, a high word of -1 marks a free slot. Like in {@link HashSet}, collisions are resolved by quadratic
+ * probing with the function i(i+1)/2 in a table whose size is a power of 2, and the load factor after building the
+ * hash set is smaller than 0.55. Both words are combined before applying the finalizer of the 128-bit version of
+ * MurmurHash3.
+ */
+public class WideHashSet extends AbstractWideContainer {
+
+    /**
+     * The odd constant used for combining the high and the low word of a k-mer before hashing.
+     */
+    private static final long COMBINATION_CONSTANT = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The hash function used by this hash set.
+     */
+    private final HashFunction hashFunction = new MurmurHash64Finalizer();
+    /**
+     * The high words of the k-mers in this hash set, -1 for free slots.
+     */
+    private long[] highs;
+    /**
+     * The low words of the k-mers in this hash set.
+     */
+    private long[] lows;
+    /**
+     * The number of elements saved in this hash set.
+     */
+    private int numElements = 0;
+
+    /**
+     * Build this hash set to efficiently accommodate a specified list of wide k-mers.
+     * The size is calculated with the assumption that the k-mers contained in the specified list are pairwise different.
+     * Time complexity: O(n) expected where n is the number of elements to build this hash set for
+     *
+     * @param highs list of the high words of the k-mers to build this hash set for
+     * @param lows list of the low words of the k-mers, in the same order as the high words
+     */
+    @Override
+    public void build(long[] highs, long[] lows) {
+        if (highs.length != lows.length) {
+            throw new IllegalArgumentException("The numbers of high and low words differ");
+        }
+        int size = HashSet.calculateSize(highs.length);
+        this.highs = new long[size];
+        this.lows = new long[size];
+        for (int i = 0; i < size; i++) {
+            this.highs[i] = -1;
+        }
+
+        for (int i = 0; i < highs.length; i++) {
+            int index = index(highs[i], lows[i]);
+            this.highs[index] = highs[i];
+            this.lows[index] = lows[i];
+        }
+        numElements = highs.length;
+    }
+
+    /**
+     * Search this hash set for a specified wide k-mer.
+     * Time complexity: O(1) expected
+     *
+     * @param high high word of the k-mer to search for
+     * @param low low word of the k-mer to search for
+     * @return <ul>
+     *     <li>true if this hash set contains the specified k-mer</li>
+     *     <li>false if this hash set does not contain the specified k-mer</li>
+     * </ul>
+     */
+    @Override
+    public boolean search(long high, long low) {
+        int index = index(high, low);
+        return index >= 0 && highs[index] >= 0;
+    }
+
+    /**
+     * Compute the table slot for a specified wide k-mer.
+     * Time complexity: O(1) expected
+     *
+     * @param high high word of the k-mer for which to find the table slot
+     * @param low low word of the k-mer for which to find the table slot
+     * @return <ul>
+     *     <li>index of the slot occupied by the specified k-mer if this hash set contains the specified k-mer</li>
+     *     <li>index of the first free slot in the probe sequence if this hash set does not contain the k-mer</li>
+     *     <li>-1 if the probe sequence contains neither</li>
+     * </ul>
+     */
+    private int index(long high, long low) {
+        long currentState = hashFunction.hash(low ^ (high * COMBINATION_CONSTANT));
+
+        for (int i = 0; i < highs.length; i++) {
+            int index = (int) currentState & (highs.length - 1);
+            if (highs[index] == -1 || (highs[index] == high && lows[index] == low)) {
+                return index;
+            }
+            currentState += i + 1;
+        }
+
+        return -1;
+    }
+
+    public int getNumElements() {
+        return numElements;
+    }
+
+    public int size() {
+        return highs.length;
+    }
+
+    public long[] getHighs() {
+        return highs;
+    }
+
+    public long[] getLows() {
+        return lows;
+    }
+
+}
@@ -0,0 +1,23 @@
+package containers.wide_hash_set;
+
+import containers.WideContainer;
+import containers.WideContainerFactory;
+
+public class WideHashSetFactory implements WideContainerFactory {
+
+    /**
+     * Create a wide hash set for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size to create the wide hash set for
+     * @return new wide hash set for the specified k-mer size
+     */
+    @Override
+    public WideContainer createContainer(int kmerSize) {
+        return new WideHashSet();
+    }
+
+    @Override
+    public String getContainerName() {
+        return "Wide hash set";
+    }
+}
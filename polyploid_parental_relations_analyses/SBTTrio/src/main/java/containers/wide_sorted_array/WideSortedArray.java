@@ -0,0 +1,166 @@
+package containers.wide_sorted_array;
+
+import containers.AbstractWideContainer;
+import dna.WideDNAUtil;
+
+/**
+ * Implements a sorted array of wide k-mers for k < 64.
+ *
+ * The high and low words of the k-mers are saved in two parallel long arrays which are sorted together in
+ * lexicographic order of the k-mers, so no object is created per k-mer.
+ */
+public class WideSortedArray extends AbstractWideContainer {
+
+    /**
+     * Size of the ranges which are sorted by insertion sort instead of quicksort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * The high words of the k-mers in lexicographic order of the k-mers.
+     */
+    private long[] highs;
+    /**
+     * The low words of the k-mers in lexicographic order of the k-mers.
+     */
+    private long[] lows;
+
+    /**
+     * Build this sorted array to accommodate a specified list of wide k-mers.
+     * Time complexity: O(n log n) expected where n is the number of elements to build this sorted array for
+     *
+     * @param highs list of the high words of the k-mers to build this sorted array for
+     * @param lows list of the low words of the k-mers, in the same order as the high words
+     */
+    @Override
+    public void build(long[] highs, long[] lows) {
+        if (highs.length != lows.length) {
+            throw new IllegalArgumentException("The numbers of high and low words differ");
+        }
+        sort(highs, lows, 0, highs.length - 1);
+        this.highs = highs;
+        this.lows = lows;
+    }
+
+    /**
+     * Search this sorted array for a specified wide k-mer using a binary search.
+     * Time complexity: O(log n) where n is the number of elements in the array
+     *
+     * @param high high word of the k-mer to search for
+     * @param low low word of the k-mer to search for
+     * @return <ul>
+     *     <li>true if this sorted array contains the specified k-mer</li>
+     *     <li>false if this sorted array does not contain the specified k-mer</li>
+     * </ul>
+     */
+    @Override
+    public boolean search(long high, long low) {
+        int left = 0;
+        int right = highs.length - 1;
+
+        while (left <= right) {
+            int mid = (left + right) >>> 1;
+            int comparison = WideDNAUtil.compare(high, low, highs[mid], lows[mid]);
+
+            if (comparison < 0) {
+                right = mid - 1;
+            } else if (comparison > 0) {
+                left = mid + 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Sort a specified range of two parallel arrays of high and low words in lexicographic order of the k-mers
+     * using quicksort with the median of three as pivot.
+     *
+     * @param highs high words of the k-mers
+     * @param lows low words of the k-mers
+     * @param left index of the first element of the range (inclusive)
+     * @param right index of the last element of the range (inclusive)
+     */
+    private static void sort(long[] highs, long[] lows, int left, int right) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            int mid = (left + right) >>> 1;
+            // order the first, middle and last element, so the median is in the middle
+            if (WideDNAUtil.compare(highs[mid], lows[mid], highs[left], lows[left]) < 0) {
+                swap(highs, lows, mid, left);
+            }
+            if (WideDNAUtil.compare(highs[right], lows[right], highs[left], lows[left]) < 0) {
+                swap(highs, lows, right, left);
+            }
+            if (WideDNAUtil.compare(highs[right], lows[right], highs[mid], lows[mid]) < 0) {
+                swap(highs, lows, right, mid);
+            }
+            long pivotHigh = highs[mid];
+            long pivotLow = lows[mid];
+
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (WideDNAUtil.compare(highs[i], lows[i], pivotHigh, pivotLow) < 0) {
+                    i++;
+                }
+                while (WideDNAUtil.compare(highs[j], lows[j], pivotHigh, pivotLow) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(highs, lows, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            // recurse into the smaller part only to bound the depth of the recursion
+            if (j - left < right - i) {
+                sort(highs, lows, left, j);
+                left = i;
+            } else {
+                sort(highs, lows, i, right);
+                right = j;
+            }
+        }
+
+        for (int i = left + 1; i <= right; i++) {
+            long high = highs[i];
+            long low = lows[i];
+            int j = i - 1;
+            while (j >= left && WideDNAUtil.compare(highs[j], lows[j], high, low) > 0) {
+                highs[j + 1] = highs[j];
+                lows[j + 1] = lows[j];
+                j--;
+            }
+            highs[j + 1] = high;
+            lows[j + 1] = low;
+        }
+    }
+
+    /**
+     * Swap two elements of two parallel arrays of high and low words.
+     *
+     * @param highs high words of the k-mers
+     * @param lows low words of the k-mers
+     * @param i index of the first element
+     * @param j index of the second element
+     */
+    private static void swap(long[] highs, long[] lows, int i, int j) {
+        long high = highs[i];
+        highs[i] = highs[j];
+        highs[j] = high;
+        long low = lows[i];
+        lows[i] = lows[j];
+        lows[j] = low;
+    }
+
+    public long[] getHighs() {
+        return highs;
+    }
+
+    public long[] getLows() {
+        return lows;
+    }
+}
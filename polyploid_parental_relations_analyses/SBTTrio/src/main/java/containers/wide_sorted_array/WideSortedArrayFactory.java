@@ -0,0 +1,23 @@
+package containers.wide_sorted_array;
+
+import containers.WideContainer;
+import containers.WideContainerFactory;
+
+public class WideSortedArrayFactory implements WideContainerFactory {
+
+    /**
+     * Create a wide sorted array for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size to create the wide sorted array for
+     * @return new wide sorted array for the specified k-mer size
+     */
+    @Override
+    public WideContainer createContainer(int kmerSize) {
+        return new WideSortedArray();
+    }
+
+    @Override
+    public String getContainerName() {
+        return "Wide sorted array";
+    }
+}
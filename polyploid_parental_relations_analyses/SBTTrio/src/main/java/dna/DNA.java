@@ -1,5 +1,7 @@
 package dna;
 
+import java.util.Arrays;
+
 /**
  * Implements basic properties of the DNA alphabet.
  */
@@ -9,10 +11,30 @@ public class DNA {
      * Maximum k-mer size allowed for the DNA alphabet.
      */
     public static final int MAX_KMER_SIZE = 31;
+    /**
+     * Maximum k-mer size allowed for the DNA alphabet when k-mers are represented by two longs.
+     */
+    public static final int MAX_WIDE_KMER_SIZE = 63;
     /**
      * Characters of the DNA alphabet.
      */
     public static final char[] BASES = new char[] {'A', 'C', 'G', 'T'};
+    /**
+     * Code of characters which do not represent a base of the DNA alphabet, e.g. the ambiguity code 'N'.
+     */
+    public static final int INVALID_CODE = -1;
+    /**
+     * Codes of the ASCII characters when only upper case bases are valid.
+     */
+    private static final byte[] CODES = createCodeTable(false);
+    /**
+     * Codes of the ASCII characters when soft-masked (lower case) bases are valid as well.
+     */
+    private static final byte[] SOFT_MASKED_CODES = createCodeTable(true);
+    /**
+     * Integers of the ASCII characters as returned by {@link #charToInt(char)}.
+     */
+    private static final byte[] INTEGERS = createIntegerTable();
 
     /**
      * Convert a specified character to an integer.
@@ -26,15 +48,29 @@ public class DNA {
      * </ul>
      */
     public static int charToInt(char character) {
-        if (character == 'A') {
-            return 0;
-        } else if (character == 'C') {
-            return 1;
-        } else if (character == 'G') {
-            return 2;
-        } else {
-            return 3;
+        return character < 128 ? INTEGERS[character] : 3;
+    }
+
+    /**
+     * Convert a specified character to an integer while recognizing characters that do not represent a base.
+     * In contrast to {@link #charToInt(char)}, ambiguity codes like 'N' are not mapped to 'T'.
+     *
+     * @param character character to convert
+     * @param acceptSoftMasked whether the soft-masked bases 'a', 'c', 'g' and 't' are converted like their
+     *                         upper case counterparts instead of being treated as invalid
+     * @return <ul>
+     *     <li>0 if the character is 'A'</li>
+     *     <li>1 if the character is 'C'</li>
+     *     <li>2 if the character is 'G'</li>
+     *     <li>3 if the character is 'T'</li>
+     *     <li>{@link #INVALID_CODE} otherwise</li>
+     * </ul>
+     */
+    public static int charToCode(char character, boolean acceptSoftMasked) {
+        if (character >= 128) {
+            return INVALID_CODE;
         }
+        return acceptSoftMasked ? SOFT_MASKED_CODES[character] : CODES[character];
     }
 
     /**
@@ -52,4 +88,36 @@ public class DNA {
         return BASES[integer];
     }
 
+    /**
+     * Create the table of codes of all ASCII characters.
+     *
+     * @param acceptSoftMasked whether lower case bases are valid
+     * @return array of length 128 of which the entries are the codes of the corresponding characters
+     */
+    private static byte[] createCodeTable(boolean acceptSoftMasked) {
+        byte[] codes = new byte[128];
+        Arrays.fill(codes, (byte) INVALID_CODE);
+        for (int i = 0; i < BASES.length; i++) {
+            codes[BASES[i]] = (byte) i;
+            if (acceptSoftMasked) {
+                codes[Character.toLowerCase(BASES[i])] = (byte) i;
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Create the table of integers of all ASCII characters for {@link #charToInt(char)}.
+     *
+     * @return array of length 128 of which the entries are the integers of the corresponding characters
+     */
+    private static byte[] createIntegerTable() {
+        byte[] integers = new byte[128];
+        Arrays.fill(integers, (byte) 3);
+        for (int i = 0; i < BASES.length; i++) {
+            integers[BASES[i]] = (byte) i;
+        }
+        return integers;
+    }
+
 }
@@ -60,22 +60,16 @@ public class DNAUtil {
 
     /**
      * Compute the reverse complement of a specified k-mer.
+     * Time complexity: O(1)
      *
      * @param kmer numeric representation of the k-mer of which to compute the reverse complement
      * @return numeric representation of the reverse complement of the specified k-mer
      */
     public long reverseComplement(long kmer) {
-        long kmerCopy = kmer;
-        long result = 0;
-
-        for (int i = 0; i < kmerSize; i++) {
-            long intermediate = (~(kmerCopy & bitMask)) & bitMask;
-            result = result << 2;
-            result = result | intermediate;
-            kmerCopy = kmerCopy >>> 2;
+        if (kmerSize == 0) {
+            return 0;
         }
-
-        return result;
+        return SequenceKernels.reverseComplement(kmer, kmerSize);
     }
 
     /**
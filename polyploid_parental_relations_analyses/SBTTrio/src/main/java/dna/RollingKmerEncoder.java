@@ -0,0 +1,220 @@
+package dna;
+
+/**
+ * Implements a rolling encoder which extracts the canonical k-mers of a sequence in a single pass.
+ *
+ * Instead of encoding every k-mer of a sequence from scratch, the numeric representations of the current k-mer
+ * and of its reverse complement are updated with one shift and one mask per base. Extracting all canonical k-mers
+ * of a sequence of length n therefore takes Theta(n) time instead of Theta(n * k) and does not allocate any objects.
+ *
+ * Ambiguity codes like 'N' and, unless requested otherwise, soft-masked (lower case) bases do not represent a base
+ * of the DNA alphabet. Windows containing such a character are skipped and the rolling window is restarted after it,
+ * so only valid k-mers are extracted.
+ *
+ * Optionally, k-mers overlapping a base whose Phred quality is below a threshold are skipped as well. Such k-mers are
+ * rarely contained in any k-mer database, so skipping them saves lookups without losing information.
+ *
+ * An encoder does not hold any mutable state and can be shared by multiple threads.
+ */
+public class RollingKmerEncoder {
+
+    /**
+     * The offset of the ASCII characters encoding Phred quality scores in fastq files.
+     */
+    public static final int PHRED_OFFSET = 33;
+    /**
+     * The marker written in place of a k-mer skipped because of a low quality base, which is no valid k-mer because
+     * k-mers of at most {@link DNA#MAX_KMER_SIZE} bases and the high words of wide k-mers are non-negative.
+     */
+    public static final long SKIPPED_KMER = -1;
+
+    /**
+     * The k-mer size this encoder is for.
+     */
+    private final int kmerSize;
+    /**
+     * Bit mask used for keeping only the last k bases of the forward k-mer: 4^k - 1.
+     */
+    private final long bitMask;
+    /**
+     * Number of bits by which the complement of a new base is shifted into the reverse complement: 2(k - 1).
+     */
+    private final int reverseComplementShift;
+    /**
+     * Whether soft-masked bases are encoded like their upper case counterparts instead of being skipped.
+     */
+    private final boolean acceptSoftMasked;
+
+    /**
+     * Create a rolling encoder for a specified k-mer size which skips ambiguous and soft-masked bases.
+     *
+     * @param kmerSize k-mer size to create the encoder for
+     */
+    public RollingKmerEncoder(int kmerSize) {
+        this(kmerSize, false);
+    }
+
+    /**
+     * Create a rolling encoder for a specified k-mer size which skips ambiguous bases.
+     *
+     * @param kmerSize k-mer size to create the encoder for
+     * @param acceptSoftMasked whether soft-masked bases are encoded like their upper case counterparts
+     *                         instead of being skipped
+     */
+    public RollingKmerEncoder(int kmerSize, boolean acceptSoftMasked) {
+        if (kmerSize < 1 || kmerSize > DNA.MAX_KMER_SIZE) {
+            throw new IllegalArgumentException("The k-mer size must be in the range [1, " + DNA.MAX_KMER_SIZE + "]");
+        }
+        this.kmerSize = kmerSize;
+
+        bitMask = (1L << (kmerSize << 1)) - 1;
+        reverseComplementShift = (kmerSize - 1) << 1;
+        this.acceptSoftMasked = acceptSoftMasked;
+    }
+
+    /**
+     * Compute the number of k-mers of a sequence of specified length.
+     *
+     * @param sequenceLength length of the sequence
+     * @return maximum number of k-mers of the sequence, i.e. the minimum length of the array passed to
+     * {@link #encode(CharSequence, long[])} for the sequence
+     */
+    public int numKmers(int sequenceLength) {
+        return Math.max(0, sequenceLength - kmerSize + 1);
+    }
+
+    /**
+     * Extract the numeric representations of the valid canonical k-mers of a specified sequence in order of their
+     * occurrence and write them to the beginning of a specified array.
+     * Time complexity: Theta(n) where n is the length of the sequence
+     *
+     * @param sequence sequence of which to extract the canonical k-mers
+     * @param kmers array to write the canonical k-mers to, needs to hold at least numKmers(sequence.length()) elements
+     * @return number of valid canonical k-mers written to the specified array
+     */
+    public int encode(CharSequence sequence, long[] kmers) {
+        long forward = 0;
+        long reverseComplement = 0;
+        // number of valid bases since the last invalid character
+        int numValidBases = 0;
+        int numKmers = 0;
+
+        for (int i = 0; i < sequence.length(); i++) {
+            long base = DNA.charToCode(sequence.charAt(i), acceptSoftMasked);
+            if (base == DNA.INVALID_CODE) {
+                // restart the rolling window after the invalid character
+                numValidBases = 0;
+                continue;
+            }
+            numValidBases++;
+
+            // append the base to the forward k-mer and drop the first base
+            forward = ((forward << 2) | base) & bitMask;
+            // prepend the complement of the base to the reverse complement and drop the last base
+            reverseComplement = (reverseComplement >>> 2) | ((3 - base) << reverseComplementShift);
+
+            if (numValidBases >= kmerSize) {
+                kmers[numKmers] = Math.min(forward, reverseComplement);
+                numKmers++;
+            }
+        }
+
+        return numKmers;
+    }
+
+    /**
+     * Extract the numeric representations of the valid canonical k-mers of the sequence saved as ASCII characters
+     * in a specified range of a byte array in order of their occurrence and write them to the beginning of a
+     * specified array.
+     * Time complexity: Theta(n) where n is the length of the sequence
+     *
+     * @param sequence byte array containing the sequence
+     * @param from index of the first character of the sequence (inclusive)
+     * @param to index after the last character of the sequence (exclusive)
+     * @param kmers array to write the canonical k-mers to, needs to hold at least numKmers(to - from) elements
+     * @return number of valid canonical k-mers written to the specified array
+     */
+    public int encode(byte[] sequence, int from, int to, long[] kmers) {
+        long forward = 0;
+        long reverseComplement = 0;
+        int numValidBases = 0;
+        int numKmers = 0;
+
+        for (int i = from; i < to; i++) {
+            // mask the byte to prevent negative indices for non-ASCII characters
+            long base = DNA.charToCode((char) (sequence[i] & 0xFF), acceptSoftMasked);
+            if (base == DNA.INVALID_CODE) {
+                numValidBases = 0;
+                continue;
+            }
+            numValidBases++;
+
+            forward = ((forward << 2) | base) & bitMask;
+            reverseComplement = (reverseComplement >>> 2) | ((3 - base) << reverseComplementShift);
+
+            if (numValidBases >= kmerSize) {
+                kmers[numKmers] = Math.min(forward, reverseComplement);
+                numKmers++;
+            }
+        }
+
+        return numKmers;
+    }
+
+    /**
+     * Extract the numeric representations of the valid canonical k-mers of the sequence saved as ASCII characters
+     * in a specified range of a byte array in order of their occurrence and write them to the beginning of a specified
+     * array. Valid k-mers overlapping a base below a specified Phred quality are replaced by {@link #SKIPPED_KMER}.
+     * The base qualities are saved as ASCII characters with offset {@link #PHRED_OFFSET} in the same range of a second
+     * byte array.
+     * Time complexity: Theta(n) where n is the length of the sequence
+     *
+     * @param sequence byte array containing the sequence
+     * @param qualities byte array containing the base qualities of the sequence
+     * @param minQuality minimum Phred quality of the bases of an extracted k-mer
+     * @param from index of the first character of the sequence (inclusive)
+     * @param to index after the last character of the sequence (exclusive)
+     * @param kmers array to write the canonical k-mers to, needs to hold at least numKmers(to - from) elements
+     * @return number of valid canonical k-mers and skipped k-mers written to the specified array
+     */
+    public int encode(byte[] sequence, byte[] qualities, int minQuality, int from, int to, long[] kmers) {
+        long forward = 0;
+        long reverseComplement = 0;
+        int numValidBases = 0;
+        int numKmers = 0;
+        // index of the last base below the minimum quality, so the current window is skipped until it has passed
+        int lastLowQuality = from - kmerSize;
+        int minQualityCharacter = minQuality + PHRED_OFFSET;
+
+        for (int i = from; i < to; i++) {
+            long base = DNA.charToCode((char) (sequence[i] & 0xFF), acceptSoftMasked);
+            if (base == DNA.INVALID_CODE) {
+                numValidBases = 0;
+                continue;
+            }
+            numValidBases++;
+            if ((qualities[i] & 0xFF) < minQualityCharacter) {
+                lastLowQuality = i;
+            }
+
+            forward = ((forward << 2) | base) & bitMask;
+            reverseComplement = (reverseComplement >>> 2) | ((3 - base) << reverseComplementShift);
+
+            if (numValidBases >= kmerSize) {
+                kmers[numKmers] = i - lastLowQuality >= kmerSize ? Math.min(forward, reverseComplement) : SKIPPED_KMER;
+                numKmers++;
+            }
+        }
+
+        return numKmers;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public boolean isAcceptSoftMasked() {
+        return acceptSoftMasked;
+    }
+
+}
@@ -0,0 +1,99 @@
+package dna;
+
+/**
+ * Implements bulk kernels for the canonicalization of k-mers.
+ *
+ * Each kernel has a vectorized implementation based on the Vector API and a scalar implementation with identical
+ * results. The vectorized implementations are used if the incubator module jdk.incubator.vector was added to the
+ * JVM (--add-modules jdk.incubator.vector) and the preferred vector size of the platform holds at least two longs.
+ * Otherwise, the scalar implementations are used, so the vector classes are never loaded.
+ *
+ * The reverse complement of a k-mer is computed on the whole 64-bit word instead of base by base: the complement is
+ * the bitwise negation of the 2-bit codes, and the order of the 2-bit groups is reversed by swapping neighbouring
+ * groups of 2, 4, 8, 16 and 32 bits, followed by a shift dropping the 32 - k unused bases.
+ */
+public class SequenceKernels {
+
+    /**
+     * Whether the vectorized implementations of the kernels are used.
+     */
+    public static final boolean VECTORIZED = isVectorApiAvailable();
+
+    private static final long MASK_2 = 0x3333333333333333L;
+    private static final long MASK_4 = 0x0F0F0F0F0F0F0F0FL;
+    private static final long MASK_8 = 0x00FF00FF00FF00FFL;
+    private static final long MASK_16 = 0x0000FFFF0000FFFFL;
+
+    /**
+     * Compute the reverse complement of a specified k-mer with word-level bit operations.
+     * Time complexity: O(1)
+     *
+     * @param kmer numeric representation of the k-mer
+     * @param kmerSize size of the k-mer in the range [1, 32]
+     * @return numeric representation of the reverse complement of the k-mer
+     */
+    public static long reverseComplement(long kmer, int kmerSize) {
+        long result = ~kmer;
+        result = ((result >>> 2) & MASK_2) | ((result & MASK_2) << 2);
+        result = ((result >>> 4) & MASK_4) | ((result & MASK_4) << 4);
+        result = ((result >>> 8) & MASK_8) | ((result & MASK_8) << 8);
+        result = ((result >>> 16) & MASK_16) | ((result & MASK_16) << 16);
+        result = (result >>> 32) | (result << 32);
+        return result >>> (64 - (kmerSize << 1));
+    }
+
+    /**
+     * Replace the k-mers in a specified range of an array by their canonical forms.
+     * Time complexity: Theta(n) where n is the length of the range
+     *
+     * @param kmers array containing the numeric representations of the k-mers
+     * @param from index of the first k-mer (inclusive)
+     * @param to index after the last k-mer (exclusive)
+     * @param kmerSize size of the k-mers in the range [1, {@link DNA#MAX_KMER_SIZE}]
+     */
+    public static void canonicalForms(long[] kmers, int from, int to, int kmerSize) {
+        if (kmerSize < 1 || kmerSize > DNA.MAX_KMER_SIZE) {
+            throw new IllegalArgumentException("The k-mer size must be in the range [1, " + DNA.MAX_KMER_SIZE + "]");
+        }
+        if (VECTORIZED) {
+            VectorKernels.canonicalForms(kmers, from, to, kmerSize);
+        } else {
+            canonicalFormsScalar(kmers, from, to, kmerSize);
+        }
+    }
+
+    /**
+     * Replace the k-mers in a specified range of an array by their canonical forms one by one.
+     * Time complexity: Theta(n) where n is the length of the range
+     *
+     * @param kmers array containing the numeric representations of the k-mers
+     * @param from index of the first k-mer (inclusive)
+     * @param to index after the last k-mer (exclusive)
+     * @param kmerSize size of the k-mers in the range [1, {@link DNA#MAX_KMER_SIZE}]
+     */
+    public static void canonicalFormsScalar(long[] kmers, int from, int to, int kmerSize) {
+        for (int i = from; i < to; i++) {
+            kmers[i] = Math.min(kmers[i], reverseComplement(kmers[i], kmerSize));
+        }
+    }
+
+    /**
+     * Check whether the vectorized kernels can be used.
+     *
+     * @return <ul>
+     *     <li>true if the module jdk.incubator.vector is present and the preferred vector size is large enough</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    private static boolean isVectorApiAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorKernels.isSupported();
+        } catch (LinkageError error) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package dna;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implements the vectorized kernels of {@link SequenceKernels} with the Vector API.
+ * This class may only be loaded if the module jdk.incubator.vector is present.
+ */
+class VectorKernels {
+
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private static final long MASK_2 = 0x3333333333333333L;
+    private static final long MASK_4 = 0x0F0F0F0F0F0F0F0FL;
+    private static final long MASK_8 = 0x00FF00FF00FF00FFL;
+    private static final long MASK_16 = 0x0000FFFF0000FFFFL;
+
+    /**
+     * Check whether the preferred vector size can hold multiple k-mers.
+     *
+     * @return <ul>
+     *     <li>true if a preferred long vector has at least two lanes</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    static boolean isSupported() {
+        return LONG_SPECIES.length() >= 2;
+    }
+
+    /**
+     * @see SequenceKernels#canonicalForms(long[], int, int, int)
+     */
+    static void canonicalForms(long[] kmers, int from, int to, int kmerSize) {
+        int shift = 64 - (kmerSize << 1);
+        int bound = from + LONG_SPECIES.loopBound(to - from);
+
+        int i = from;
+        for (; i < bound; i += LONG_SPECIES.length()) {
+            LongVector kmer = LongVector.fromArray(LONG_SPECIES, kmers, i);
+            LongVector result = kmer.not();
+            result = swap(result, 2, MASK_2);
+            result = swap(result, 4, MASK_4);
+            result = swap(result, 8, MASK_8);
+            result = swap(result, 16, MASK_16);
+            result = result.lanewise(VectorOperators.ROR, 32).lanewise(VectorOperators.LSHR, shift);
+            // k-mers of at most 31 bases are non-negative, so the signed minimum is correct
+            kmer.min(result).intoArray(kmers, i);
+        }
+
+        SequenceKernels.canonicalFormsScalar(kmers, i, to, kmerSize);
+    }
+
+    /**
+     * Swap the neighbouring groups of a specified number of bits in every lane of a specified vector.
+     *
+     * @param vector vector of which to swap the groups of bits
+     * @param numBits number of bits per group
+     * @param mask mask selecting every other group of bits starting with the lowest one
+     * @return vector with the swapped groups of bits
+     */
+    private static LongVector swap(LongVector vector, int numBits, long mask) {
+        return vector.lanewise(VectorOperators.LSHR, numBits).and(mask)
+                .or(vector.and(mask).lanewise(VectorOperators.LSHL, numBits));
+    }
+
+}
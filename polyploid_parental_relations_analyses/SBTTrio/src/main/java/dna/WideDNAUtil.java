@@ -0,0 +1,144 @@
+package dna;
+
+/**
+ * Implements numerous utility functions for wide k-mers over the DNA alphabet, i.e. k-mers of up to
+ * {@link DNA#MAX_WIDE_KMER_SIZE} bases represented by two longs.
+ *
+ * The 2k-bit numeric representation of a wide k-mer is split into two words: the low word holds the last
+ * min(k, 32) bases and the high word holds the remaining max(k - 32, 0) bases in its lowest bits. Since the high word
+ * holds at most 31 bases, it is never negative, and the lexicographic order of wide k-mers equals the order by the
+ * high word followed by the unsigned order of the low word (see {@link #compare(long, long, long, long)}).
+ *
+ * Wide k-mers are never represented by objects: methods returning a wide k-mer come in pairs returning the high and
+ * the low word, respectively.
+ */
+public class WideDNAUtil {
+
+    /**
+     * The k-mer size this utility class is for.
+     */
+    private final int kmerSize;
+
+    /**
+     * Create a utility class for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size in the range [1, {@link DNA#MAX_WIDE_KMER_SIZE}] to create the utility class for
+     */
+    public WideDNAUtil(int kmerSize) {
+        if (kmerSize < 1 || kmerSize > DNA.MAX_WIDE_KMER_SIZE) {
+            throw new IllegalArgumentException("The k-mer size must be in the range [1, "
+                    + DNA.MAX_WIDE_KMER_SIZE + "]");
+        }
+        this.kmerSize = kmerSize;
+    }
+
+    /**
+     * Convert the numeric representation of a wide k-mer to the corresponding string representation.
+     *
+     * @param high high word of the k-mer
+     * @param low low word of the k-mer
+     * @return string representation of the k-mer
+     */
+    public String longsToString(long high, long low) {
+        StringBuilder builder = new StringBuilder(kmerSize);
+        builder.setLength(kmerSize);
+
+        for (int i = 0; i < kmerSize; i++) {
+            long word = i < 32 ? low >>> (i << 1) : high >>> ((i - 32) << 1);
+            builder.setCharAt(kmerSize - i - 1, DNA.intToChar((int) (word & 0b11L)));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Convert the string representation of a wide k-mer to the high word of the corresponding numeric representation.
+     *
+     * @param kmer string representation of the k-mer of length kmerSize
+     * @return high word of the k-mer
+     */
+    public long stringToHigh(String kmer) {
+        long result = 0;
+        for (int i = 0; i < kmer.length() - 32; i++) {
+            result = (result << 2) | DNA.charToInt(kmer.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Convert the string representation of a wide k-mer to the low word of the corresponding numeric representation.
+     *
+     * @param kmer string representation of the k-mer of length kmerSize
+     * @return low word of the k-mer
+     */
+    public long stringToLow(String kmer) {
+        long result = 0;
+        for (int i = Math.max(kmer.length() - 32, 0); i < kmer.length(); i++) {
+            result = (result << 2) | DNA.charToInt(kmer.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Compute the high word of the reverse complement of a specified wide k-mer.
+     * Time complexity: O(1)
+     *
+     * @param high high word of the k-mer
+     * @param low low word of the k-mer
+     * @return high word of the reverse complement of the k-mer
+     */
+    public long reverseComplementHigh(long high, long low) {
+        // the reverse complement of all 64 bases is (rc(low), rc(high)), shifted right by 128 - 2k bits
+        int shift = 128 - (kmerSize << 1);
+        if (shift >= 64) {
+            return 0;
+        }
+        return SequenceKernels.reverseComplement(low, 32) >>> shift;
+    }
+
+    /**
+     * Compute the low word of the reverse complement of a specified wide k-mer.
+     * Time complexity: O(1)
+     *
+     * @param high high word of the k-mer
+     * @param low low word of the k-mer
+     * @return low word of the reverse complement of the k-mer
+     */
+    public long reverseComplementLow(long high, long low) {
+        int shift = 128 - (kmerSize << 1);
+        long reversedLow = SequenceKernels.reverseComplement(low, 32);
+        if (shift >= 64) {
+            return reversedLow >>> (shift - 64);
+        }
+        long reversedHigh = SequenceKernels.reverseComplement(high, 32);
+        if (shift == 0) {
+            return reversedHigh;
+        }
+        return (reversedHigh >>> shift) | (reversedLow << (64 - shift));
+    }
+
+    /**
+     * Compare two wide k-mers lexicographically.
+     *
+     * @param high high word of the first k-mer
+     * @param low low word of the first k-mer
+     * @param otherHigh high word of the second k-mer
+     * @param otherLow low word of the second k-mer
+     * @return <ul>
+     *     <li>a negative integer if the first k-mer is smaller than the second one</li>
+     *     <li>0 if the k-mers are equal</li>
+     *     <li>a positive integer if the first k-mer is greater than the second one</li>
+     * </ul>
+     */
+    public static int compare(long high, long low, long otherHigh, long otherLow) {
+        if (high != otherHigh) {
+            return Long.compare(high, otherHigh);
+        }
+        return Long.compareUnsigned(low, otherLow);
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+}
@@ -0,0 +1,179 @@
+package dna;
+
+/**
+ * Implements a rolling encoder which extracts the canonical wide k-mers of a sequence in a single pass.
+ *
+ * This is the counterpart of {@link RollingKmerEncoder} for k-mers of up to {@link DNA#MAX_WIDE_KMER_SIZE} bases
+ * represented by a high and a low word as described in {@link WideDNAUtil}. The high and low words of the extracted
+ * k-mers are written to two separate arrays at the same index, so no objects are created per k-mer.
+ * The rolling update of both words takes a constant number of shifts and masks per base.
+ *
+ * Ambiguity codes and, unless requested otherwise, soft-masked bases are skipped and restart the rolling window.
+ * An encoder does not hold any mutable state and can be shared by multiple threads.
+ */
+public class WideRollingKmerEncoder {
+
+    /**
+     * The k-mer size this encoder is for.
+     */
+    private final int kmerSize;
+    /**
+     * Bit mask used for keeping only the bases of the forward k-mer in the high word: 4^max(k - 32, 0) - 1.
+     */
+    private final long highMask;
+    /**
+     * Bit mask used for keeping only the bases of the forward k-mer in the low word: 4^min(k, 32) - 1.
+     */
+    private final long lowMask;
+    /**
+     * Number of bits by which the complement of a new base is shifted into the word of the reverse complement which
+     * holds the first base.
+     */
+    private final int reverseComplementShift;
+    /**
+     * Whether the first base of the reverse complement is held by the high word, i.e. whether k > 32.
+     */
+    private final boolean firstBaseInHigh;
+    /**
+     * Whether soft-masked bases are encoded like their upper case counterparts instead of being skipped.
+     */
+    private final boolean acceptSoftMasked;
+
+    /**
+     * Create a rolling encoder for a specified k-mer size which skips ambiguous and soft-masked bases.
+     *
+     * @param kmerSize k-mer size to create the encoder for
+     */
+    public WideRollingKmerEncoder(int kmerSize) {
+        this(kmerSize, false);
+    }
+
+    /**
+     * Create a rolling encoder for a specified k-mer size which skips ambiguous bases.
+     *
+     * @param kmerSize k-mer size in the range [1, {@link DNA#MAX_WIDE_KMER_SIZE}] to create the encoder for
+     * @param acceptSoftMasked whether soft-masked bases are encoded like their upper case counterparts
+     *                         instead of being skipped
+     */
+    public WideRollingKmerEncoder(int kmerSize, boolean acceptSoftMasked) {
+        if (kmerSize < 1 || kmerSize > DNA.MAX_WIDE_KMER_SIZE) {
+            throw new IllegalArgumentException("The k-mer size must be in the range [1, "
+                    + DNA.MAX_WIDE_KMER_SIZE + "]");
+        }
+        this.kmerSize = kmerSize;
+        this.acceptSoftMasked = acceptSoftMasked;
+
+        highMask = kmerSize > 32 ? (1L << ((kmerSize - 32) << 1)) - 1 : 0;
+        lowMask = kmerSize >= 32 ? -1L : (1L << (kmerSize << 1)) - 1;
+        firstBaseInHigh = kmerSize > 32;
+        reverseComplementShift = firstBaseInHigh ? (kmerSize - 33) << 1 : (kmerSize - 1) << 1;
+    }
+
+    /**
+     * Compute the number of k-mers of a sequence of specified length.
+     *
+     * @param sequenceLength length of the sequence
+     * @return maximum number of k-mers of the sequence, i.e. the minimum length of the arrays passed to the encode
+     * methods for the sequence
+     */
+    public int numKmers(int sequenceLength) {
+        return Math.max(0, sequenceLength - kmerSize + 1);
+    }
+
+    /**
+     * Extract the valid canonical k-mers of the sequence saved as ASCII characters in a specified range of a byte
+     * array in order of their occurrence and write their high and low words to the beginning of two specified arrays.
+     * Time complexity: Theta(n) where n is the length of the sequence
+     *
+     * @param sequence byte array containing the sequence
+     * @param from index of the first character of the sequence (inclusive)
+     * @param to index after the last character of the sequence (exclusive)
+     * @param highs array to write the high words to, needs to hold at least numKmers(to - from) elements
+     * @param lows array to write the low words to, needs to hold at least numKmers(to - from) elements
+     * @return number of valid canonical k-mers written to the specified arrays
+     */
+    public int encode(byte[] sequence, int from, int to, long[] highs, long[] lows) {
+        return encode(sequence, null, 0, from, to, highs, lows);
+    }
+
+    /**
+     * Extract the valid canonical k-mers of the sequence saved as ASCII characters in a specified range of a byte
+     * array in order of their occurrence and write their high and low words to the beginning of two specified arrays.
+     * Valid k-mers overlapping a base below a specified Phred quality are replaced by
+     * {@link RollingKmerEncoder#SKIPPED_KMER} in both words. The base qualities are saved as ASCII characters with
+     * offset {@link RollingKmerEncoder#PHRED_OFFSET} in the same range of a second byte array.
+     * Time complexity: Theta(n) where n is the length of the sequence
+     *
+     * @param sequence byte array containing the sequence
+     * @param qualities byte array containing the base qualities of the sequence or null if all k-mers are extracted
+     * @param minQuality minimum Phred quality of the bases of an extracted k-mer
+     * @param from index of the first character of the sequence (inclusive)
+     * @param to index after the last character of the sequence (exclusive)
+     * @param highs array to write the high words to, needs to hold at least numKmers(to - from) elements
+     * @param lows array to write the low words to, needs to hold at least numKmers(to - from) elements
+     * @return number of valid canonical k-mers and skipped k-mers written to the specified arrays
+     */
+    public int encode(byte[] sequence, byte[] qualities, int minQuality, int from, int to,
+                      long[] highs, long[] lows) {
+        long forwardHigh = 0;
+        long forwardLow = 0;
+        long reverseHigh = 0;
+        long reverseLow = 0;
+        int numValidBases = 0;
+        int numKmers = 0;
+        int lastLowQuality = from - kmerSize;
+        int minQualityCharacter = minQuality + RollingKmerEncoder.PHRED_OFFSET;
+
+        for (int i = from; i < to; i++) {
+            long base = DNA.charToCode((char) (sequence[i] & 0xFF), acceptSoftMasked);
+            if (base == DNA.INVALID_CODE) {
+                numValidBases = 0;
+                continue;
+            }
+            numValidBases++;
+            if (qualities != null && (qualities[i] & 0xFF) < minQualityCharacter) {
+                lastLowQuality = i;
+            }
+
+            // append the base to the forward k-mer, moving the first base of the low word into the high word
+            forwardHigh = ((forwardHigh << 2) | (forwardLow >>> 62)) & highMask;
+            forwardLow = ((forwardLow << 2) | base) & lowMask;
+            // prepend the complement of the base to the reverse complement, moving the last base of the high word
+            // into the low word
+            reverseLow = (reverseLow >>> 2) | (reverseHigh << 62);
+            reverseHigh = reverseHigh >>> 2;
+            if (firstBaseInHigh) {
+                reverseHigh |= (3 - base) << reverseComplementShift;
+            } else {
+                reverseLow |= (3 - base) << reverseComplementShift;
+            }
+
+            if (numValidBases >= kmerSize) {
+                if (i - lastLowQuality < kmerSize) {
+                    highs[numKmers] = RollingKmerEncoder.SKIPPED_KMER;
+                    lows[numKmers] = RollingKmerEncoder.SKIPPED_KMER;
+                    numKmers++;
+                } else if (WideDNAUtil.compare(forwardHigh, forwardLow, reverseHigh, reverseLow) <= 0) {
+                    highs[numKmers] = forwardHigh;
+                    lows[numKmers] = forwardLow;
+                    numKmers++;
+                } else {
+                    highs[numKmers] = reverseHigh;
+                    lows[numKmers] = reverseLow;
+                    numKmers++;
+                }
+            }
+        }
+
+        return numKmers;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public boolean isAcceptSoftMasked() {
+        return acceptSoftMasked;
+    }
+
+}
@@ -1,22 +1,52 @@
 package index_building;
 
+import access_trie.CompactAccessTrie;
 import access_trie.FixedPrefixLengthAccessTrie;
+import access_trie.WideFixedPrefixLengthAccessTrie;
 import containers.Container;
 import containers.ContainerFactory;
+import containers.WideContainer;
+import containers.WideContainerFactory;
 import dna.DNAUtil;
 import dna.KmerIterator;
+import dna.WideDNAUtil;
+import kmer_database.CountedKmerConsumer;
+import kmer_database.DatabaseCounter;
+import kmer_sampling.KmerFilter;
+import shared_index.SharedIndexWriter;
+import shared_index.SharedMemoryIndex;
 import util.DataStructure;
+import util.RadixSort;
+import util.WideDataStructure;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.stream.Stream;
 
 /**
  * Orchestrates the index construction.
+ *
+ * Optionally, only the k-mers of a database sampled by a context-free k-mer filter are indexed. The filter is applied
+ * to the canonical form of each k-mer.
+ *
+ * For k-mer sizes above {@link dna.DNA#MAX_KMER_SIZE}, {@link #buildWideIndex(String, WideContainerFactory)} builds an
+ * index of wide k-mers represented by two longs.
+ *
+ * For access trie heights above {@link access_trie.FixedPrefixLengthAccessTrie#MAX_HEIGHT} or sparse databases,
+ * {@link #buildCompactIndex(String, ContainerFactory, int)} builds a {@link access_trie.CompactAccessTrie} which only
+ * stores the occupied buckets.
+ *
+ * Instead of reading a k-mer database file, {@link #buildIndexFromReads(String[], DatabaseCounter, ContainerFactory)}
+ * counts the solid k-mers of the reads of a parent and builds the containers from the counted k-mers directly.
+ *
+ * Instead of building an index on the heap, {@link #publishSharedIndex(String, String)} writes it into a file which
+ * any number of processes can attach as {@link shared_index.SharedMemoryIndex}.
  */
 public class IndexBuilder {
 
@@ -29,6 +59,14 @@ public class IndexBuilder {
      */
     private final int kmerSize;
     private final DNAUtil dnaUtil;
+    /**
+     * Utility for computing the canonical form of complete k-mers.
+     */
+    private final DNAUtil kmerUtil;
+    /**
+     * The filter selecting the indexed k-mers or null if all k-mers are indexed.
+     */
+    private final KmerFilter kmerFilter;
 
     /**
      * Create an index builder for a specified access trie height and a specified k-mer size.
@@ -37,10 +75,24 @@ public class IndexBuilder {
      * @param kmerSize k-mer size for which to create the index builder
      */
     public IndexBuilder(int accessTrieHeight, int kmerSize) {
+        this(accessTrieHeight, kmerSize, null);
+    }
+
+    /**
+     * Create an index builder for a specified access trie height and a specified k-mer size which only indexes the
+     * k-mers sampled by a specified k-mer filter.
+     *
+     * @param accessTrieHeight access trie height for which to create the index builder
+     * @param kmerSize k-mer size for which to create the index builder
+     * @param kmerFilter filter selecting the indexed k-mers or null if all k-mers are indexed
+     */
+    public IndexBuilder(int accessTrieHeight, int kmerSize, KmerFilter kmerFilter) {
         this.accessTrieHeight = accessTrieHeight;
         this.kmerSize = kmerSize;
+        this.kmerFilter = kmerFilter;
 
         dnaUtil = new DNAUtil(kmerSize - accessTrieHeight);
+        kmerUtil = new DNAUtil(kmerSize);
     }
 
     /**
@@ -61,10 +113,17 @@ public class IndexBuilder {
             for (int i = 0; i < prefixCounts.length; i++) {
                 long[] currentKmers = new long[prefixCounts[i]];
 
-                for (int j = 0; j < prefixCounts[i]; j++) {
-                    // split at any white space character and extract only the suffix
-                    long suffix = dnaUtil.stringToLong(reader.readLine().split("\\s+")[0].substring(accessTrieHeight));
+                int j = 0;
+                while (j < prefixCounts[i]) {
+                    // split at any white space character
+                    String kmer = reader.readLine().split("\\s+")[0];
+                    if (!isSampled(kmer)) {
+                        continue;
+                    }
+                    // extract only the suffix
+                    long suffix = dnaUtil.stringToLong(kmer.substring(accessTrieHeight));
                     currentKmers[j] = suffix;
+                    j++;
                 }
                 // Now all kmers starting with currentPrefix are in the currentKmers list
                 // and we can construct the container for them
@@ -104,8 +163,14 @@ public class IndexBuilder {
             String currentLine = reader.readLine();
 
             while (currentLine != null) {
+                String kmerString = currentLine.split("\\s+")[0];
+                if (!isSampled(kmerString)) {
+                    currentLine = reader.readLine();
+                    continue;
+                }
+
                 // extract prefix
-                long kmer = dnaUtil.stringToLong(currentLine.split("\\s+")[0]);
+                long kmer = dnaUtil.stringToLong(kmerString);
 
                 // this needs checking
                 int prefix = (int) (kmer >> ((kmerSize - accessTrieHeight) << 1));
@@ -138,6 +203,211 @@ public class IndexBuilder {
         return accessTrie;
     }
 
+    /**
+     * Construct a compact index from a file of distinct k-mers using a specified container data structure in the index.
+     * All sampled k-mers are read into a single array first, so no array with one entry per possible prefix is
+     * allocated and the access trie height is only limited by {@link CompactAccessTrie#MAX_HEIGHT}.
+     *
+     * @param kmerDatabasePath path to the input file containing the distinct k-mers for which to construct the index
+     * @param containerFactory factory for the container data structure to use in the index
+     * @param mergeThreshold number of k-mers up to which neighbouring buckets are merged into a shared container,
+     *                       1 to never merge buckets
+     * @return compact index constructed from the specified file using the specified container data structure
+     */
+    public DataStructure buildCompactIndex(String kmerDatabasePath, ContainerFactory containerFactory,
+                                           int mergeThreshold) {
+        printInfo(kmerDatabasePath, containerFactory);
+
+        CompactAccessTrie accessTrie = new CompactAccessTrie(accessTrieHeight, kmerSize, containerFactory,
+                mergeThreshold);
+
+        long[] kmers = new long[countLinesOfFile(kmerDatabasePath)];
+        int numKmers = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(kmerDatabasePath))) {
+            String currentLine = reader.readLine();
+
+            while (currentLine != null) {
+                String kmerString = currentLine.split("\\s+")[0];
+                currentLine = reader.readLine();
+                if (isSampled(kmerString)) {
+                    kmers[numKmers] = kmerUtil.stringToLong(kmerString);
+                    numKmers++;
+                }
+            }
+        } catch (IOException ioException) {
+            System.out.println(ioException.getMessage());
+            System.exit(1);
+        }
+
+        accessTrie.build(numKmers == kmers.length ? kmers : Arrays.copyOf(kmers, numKmers));
+        return accessTrie;
+    }
+
+    /**
+     * Construct an index from the solid k-mers of specified read files counted by a specified k-mer counter using a
+     * specified container data structure in the index. The counter passes the k-mers on in ascending order, so the
+     * suffixes of each prefix are collected until the next prefix is encountered and then built into a container,
+     * without writing a k-mer database file.
+     *
+     * @param readFilePaths paths to the plain or gzip-compressed read files of a parent
+     * @param counter k-mer counter for the k-mer size of this index builder
+     * @param containerFactory factory for the container data structure to use in the index
+     * @return index constructed from the solid k-mers using the specified container data structure
+     * @throws IOException if counting the k-mers failed
+     */
+    public DataStructure buildIndexFromReads(String[] readFilePaths, DatabaseCounter counter,
+                                             ContainerFactory containerFactory) throws IOException {
+        if (counter.getKmerSize() != kmerSize) {
+            throw new IllegalArgumentException("The k-mer counter needs to be for the k-mer size of the index builder");
+        }
+        System.out.println("Container data structure for " + String.join(",", readFilePaths) + ": "
+                + containerFactory.getContainerName());
+
+        DataStructure accessTrie = new FixedPrefixLengthAccessTrie(accessTrieHeight, kmerSize);
+        BucketCollector collector = new BucketCollector(accessTrie, containerFactory);
+        counter.count(readFilePaths, collector);
+        collector.flush();
+        System.out.println("Built index for " + counter.getNumSolidKmers() + " solid k-mers");
+
+        return accessTrie;
+    }
+
+    /**
+     * Publish the index of a file of distinct k-mers into a specified index file which can be attached as
+     * {@link shared_index.SharedMemoryIndex}. The suffixes of each prefix are collected on the heap until all of them
+     * have been read and are then written into the mapped index file.
+     *
+     * @param kmerDatabasePath path to the input file containing the distinct k-mers for which to publish the index
+     * @param indexPath path of the index file, e.g. in /dev/shm
+     * @throws IOException if the index file cannot be written
+     */
+    public void publishSharedIndex(String kmerDatabasePath, String indexPath) throws IOException {
+        int numKmers = countLinesOfFile(kmerDatabasePath);
+        System.out.println("Publishing index for " + numKmers + " distinct k-mers to " + indexPath);
+
+        int[] prefixCounts = getPrefixCounts(kmerDatabasePath);
+        int[] currentPositions = new int[prefixCounts.length];
+        long[][] buckets = new long[prefixCounts.length][];
+
+        long bitMask = (1L << ((kmerSize - accessTrieHeight) << 1)) - 1;
+
+        try (SharedIndexWriter writer = new SharedIndexWriter(indexPath, kmerSize, accessTrieHeight, prefixCounts);
+             BufferedReader reader = new BufferedReader(new FileReader(kmerDatabasePath))) {
+            String currentLine = reader.readLine();
+
+            while (currentLine != null) {
+                String kmerString = currentLine.split("\\s+")[0];
+                currentLine = reader.readLine();
+                if (!isSampled(kmerString)) {
+                    continue;
+                }
+
+                long kmer = dnaUtil.stringToLong(kmerString);
+                int prefix = (int) (kmer >> ((kmerSize - accessTrieHeight) << 1));
+
+                if (buckets[prefix] == null) {
+                    buckets[prefix] = new long[prefixCounts[prefix]];
+                }
+                buckets[prefix][currentPositions[prefix]] = kmer & bitMask;
+                currentPositions[prefix]++;
+
+                // all kmers starting with the specific prefix have been found
+                if (currentPositions[prefix] == prefixCounts[prefix]) {
+                    RadixSort.sort(buckets[prefix], (kmerSize - accessTrieHeight) << 1);
+                    writer.writeBucket(prefix, buckets[prefix]);
+                    buckets[prefix] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Attach the shared index of a k-mer database published in a specified directory. The index file is named after
+     * the database file, the k-mer size and the access trie height. If it does not exist or is older than the
+     * database file, it is published first. Sampling k-mers is not supported for shared indices, because the name of
+     * the index file does not encode the k-mer filter.
+     *
+     * @param kmerDatabasePath path to the input file containing the distinct k-mers
+     * @param directory directory of the index files, e.g. /dev/shm
+     * @return shared index of the database
+     * @throws IOException if the index file cannot be published or attached
+     */
+    public DataStructure attachSharedIndex(String kmerDatabasePath, String directory) throws IOException {
+        if (kmerFilter != null) {
+            throw new IllegalArgumentException("Sampling k-mers is not supported for shared indices");
+        }
+        Path databasePath = Paths.get(kmerDatabasePath);
+        Path indexPath = Paths.get(directory,
+                databasePath.getFileName() + ".k" + kmerSize + ".h" + accessTrieHeight + ".idx");
+        if (!Files.exists(indexPath)
+                || Files.getLastModifiedTime(indexPath).compareTo(Files.getLastModifiedTime(databasePath)) < 0) {
+            publishSharedIndex(kmerDatabasePath, indexPath.toString());
+        }
+        return SharedMemoryIndex.attach(indexPath.toString());
+    }
+
+    /**
+     * Construct an index of wide k-mers from a file of distinct k-mers using a specified wide container data structure
+     * in the index. Sampling k-mers by a k-mer filter is not supported for wide k-mers.
+     *
+     * @param kmerDatabasePath path to the input file containing the distinct k-mers for which to construct the index
+     * @param containerFactory factory for the wide container data structure to use in the index
+     * @return index constructed from the specified file using the specified wide container data structure
+     */
+    public WideDataStructure buildWideIndex(String kmerDatabasePath, WideContainerFactory containerFactory) {
+        if (kmerFilter != null) {
+            throw new IllegalArgumentException("Sampling k-mers is not supported for wide k-mers");
+        }
+        int numKmers = countLinesOfFile(kmerDatabasePath);
+        System.out.println("Building index for " + numKmers + " distinct k-mers");
+        System.out.println("Container data structure for " + kmerDatabasePath + ": "
+                + containerFactory.getContainerName());
+
+        WideDataStructure accessTrie = new WideFixedPrefixLengthAccessTrie(accessTrieHeight, kmerSize);
+        WideDNAUtil suffixUtil = new WideDNAUtil(kmerSize - accessTrieHeight);
+
+        int[] prefixCounts = getPrefixCounts(kmerDatabasePath);
+        int[] currentPositions = new int[prefixCounts.length];
+        long[][] highBuckets = new long[prefixCounts.length][];
+        long[][] lowBuckets = new long[prefixCounts.length][];
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(kmerDatabasePath))) {
+            String currentLine = reader.readLine();
+
+            while (currentLine != null) {
+                String kmerString = currentLine.split("\\s+")[0];
+                int prefix = (int) dnaUtil.stringToLong(kmerString.substring(0, accessTrieHeight));
+                String suffix = kmerString.substring(accessTrieHeight);
+
+                if (highBuckets[prefix] == null) {
+                    highBuckets[prefix] = new long[prefixCounts[prefix]];
+                    lowBuckets[prefix] = new long[prefixCounts[prefix]];
+                }
+
+                highBuckets[prefix][currentPositions[prefix]] = suffixUtil.stringToHigh(suffix);
+                lowBuckets[prefix][currentPositions[prefix]] = suffixUtil.stringToLow(suffix);
+                currentPositions[prefix]++;
+
+                // all kmers starting with the specific prefix have been found
+                if (currentPositions[prefix] == prefixCounts[prefix]) {
+                    WideContainer container = containerFactory.createContainer(kmerSize - accessTrieHeight);
+                    container.build(highBuckets[prefix], lowBuckets[prefix]);
+                    accessTrie.add(prefix, container);
+
+                    highBuckets[prefix] = null;
+                    lowBuckets[prefix] = null;
+                }
+
+                currentLine = reader.readLine();
+            }
+        } catch (IOException ioException) {
+            System.out.println(ioException.getMessage());
+            System.exit(1);
+        }
+
+        return accessTrie;
+    }
+
     /**
      * Print the number of lines in a specified file and the name of a specified container data structure.
      *
@@ -167,6 +437,19 @@ public class IndexBuilder {
         return numberOfLines;
     }
 
+    /**
+     * Check whether a specified k-mer is sampled by the k-mer filter of this index builder.
+     *
+     * @param kmer string representation of the k-mer
+     * @return <ul>
+     *     <li>true if the canonical form of the k-mer is sampled or this index builder has no k-mer filter</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    private boolean isSampled(String kmer) {
+        return kmerFilter == null || kmerFilter.accept(kmerUtil.canonicalForm(kmerUtil.stringToLong(kmer)));
+    }
+
     /**
      * Count the number of occurrences of each k-mer prefix of length accessTrieHeight in a
      * specified file for more memory efficient index construction.
@@ -190,7 +473,9 @@ public class IndexBuilder {
                 currentCount = 0;
 
                 while (currentLine != null && currentLine.startsWith(currentPrefix)) {
-                    currentCount++;
+                    if (isSampled(currentLine.split("\\s+")[0])) {
+                        currentCount++;
+                    }
                     currentLine = reader.readLine();
                 }
 
@@ -204,6 +489,64 @@ public class IndexBuilder {
         return counts;
     }
 
+    /**
+     * Consumer of counted k-mers in ascending order which collects the suffixes of the current prefix and adds them
+     * to an access trie as a container as soon as the next prefix is encountered.
+     */
+    private class BucketCollector implements CountedKmerConsumer {
+
+        private final DataStructure accessTrie;
+        private final ContainerFactory containerFactory;
+        private final int suffixBits = (kmerSize - accessTrieHeight) << 1;
+        private final long bitMask = (1L << suffixBits) - 1;
+        /**
+         * The array whose beginning holds the suffixes of the current prefix.
+         */
+        private long[] suffixes = new long[1024];
+        private int numSuffixes = 0;
+        /**
+         * The current prefix or -1 if no k-mer has been received yet.
+         */
+        private long prefix = -1;
+
+        private BucketCollector(DataStructure accessTrie, ContainerFactory containerFactory) {
+            this.accessTrie = accessTrie;
+            this.containerFactory = containerFactory;
+        }
+
+        @Override
+        public void accept(long[] kmers, int[] counts) {
+            for (long kmer : kmers) {
+                if (kmerFilter != null && !kmerFilter.accept(kmer)) {
+                    continue;
+                }
+                if (kmer >>> suffixBits != prefix) {
+                    flush();
+                    prefix = kmer >>> suffixBits;
+                }
+                if (numSuffixes == suffixes.length) {
+                    suffixes = Arrays.copyOf(suffixes, numSuffixes << 1);
+                }
+                suffixes[numSuffixes] = kmer & bitMask;
+                numSuffixes++;
+            }
+        }
+
+        /**
+         * Build the container of the suffixes of the current prefix and add it to the access trie.
+         */
+        private void flush() {
+            if (numSuffixes == 0) {
+                return;
+            }
+            Container container = containerFactory.createContainer(kmerSize - accessTrieHeight);
+            container.build(Arrays.copyOf(suffixes, numSuffixes));
+            accessTrie.add(prefix, container);
+            numSuffixes = 0;
+        }
+
+    }
+
     public int getAccessTrieHeight() {
         return accessTrieHeight;
     }
@@ -212,4 +555,8 @@ public class IndexBuilder {
         return kmerSize;
     }
 
+    public KmerFilter getKmerFilter() {
+        return kmerFilter;
+    }
+
 }
@@ -0,0 +1,149 @@
+package index_server;
+
+import org.apache.commons.cli.*;
+import util.ArgumentValidation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Implements a thin client submitting a single job to a running {@link IndexServer} and writing the streamed results
+ * to a file or the standard output.
+ *
+ * Usage: IndexClient [-p port] [-o file] classify|fingerprint job arguments...
+ * The job arguments are those of the respective job type, e.g. -r reads.fastq --min-quality 20 for classification
+ * or -s 100 -c 1000 for fingerprinting.
+ */
+public class IndexClient {
+
+    /**
+     * The default number of milliseconds the client waits for the next line of the server before giving up.
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 10 * 60 * 1000;
+
+    public static void main(String[] args) throws IOException {
+        // Define options
+        Options options = new Options();
+
+        Option port = Option.builder("p").longOpt("port")
+                .hasArg().argName("P")
+                .desc("port of the index server on the loopback interface. Default: " + IndexServer.DEFAULT_PORT)
+                .build();
+        Option outputFile = Option.builder("o").longOpt("output")
+                .hasArg().argName("file")
+                .desc("path to the output file. Default: standard output")
+                .build();
+
+        options.addOption(port);
+        options.addOption(outputFile);
+
+        // Parse options, the job type and its arguments follow the options of the client
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter helpFormatter = new HelpFormatter();
+        CommandLine cmd = null;
+
+        try {
+            cmd = parser.parse(options, args, true);
+        } catch (ParseException parseException) {
+            System.out.println(parseException.getMessage());
+            helpFormatter.printHelp("index_client [options] classify|fingerprint [job arguments]", options);
+            System.exit(1);
+        }
+        List<String> job = cmd.getArgList();
+        if (job.isEmpty()) {
+            System.out.println("Missing job type");
+            helpFormatter.printHelp("index_client [options] classify|fingerprint [job arguments]", options);
+            System.exit(1);
+        }
+
+        // Validate options
+        int serverPort = IndexServer.DEFAULT_PORT;
+        if (cmd.hasOption(port)) {
+            serverPort = ArgumentValidation.validateIntArgument(cmd.getOptionValue(port));
+        }
+        String[] jobArguments = job.subList(1, job.size()).toArray(new String[0]);
+
+        // Submit the job
+        Writer output = cmd.hasOption(outputFile) ? new FileWriter(cmd.getOptionValue(outputFile))
+                : new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        try (BufferedWriter bufferedWriter = new BufferedWriter(output)) {
+            submit(serverPort, job.get(0), jobArguments, bufferedWriter);
+        } catch (IOException exception) {
+            System.err.println(exception.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Submit a job to the index server listening on a specified port of the loopback interface and write the
+     * result lines it streams back to a specified writer. Relative paths among the arguments are resolved against
+     * the working directory of this process.
+     *
+     * @param port port of the index server
+     * @param jobType type of the job, {@link IndexServer#CLASSIFY} or {@link IndexServer#FINGERPRINT}
+     * @param arguments arguments of the job
+     * @param output writer to write the result lines to
+     * @return number of classified reads or fingerprinted sets
+     * @throws IOException if the server cannot be reached or the job failed
+     */
+    public static long submit(int port, String jobType, String[] arguments, Writer output) throws IOException {
+        return submit(port, jobType, arguments, output, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Submit a job to the index server listening on a specified port of the loopback interface and write the
+     * result lines it streams back to a specified writer, giving up if the server does not send the next line within
+     * a specified number of milliseconds.
+     *
+     * @param port port of the index server
+     * @param jobType type of the job, {@link IndexServer#CLASSIFY} or {@link IndexServer#FINGERPRINT}
+     * @param arguments arguments of the job
+     * @param output writer to write the result lines to
+     * @param readTimeout number of milliseconds to wait for the next line of the server, 0 to wait forever
+     * @return number of classified reads or fingerprinted sets
+     * @throws IOException if the server cannot be reached, does not respond in time or the job failed
+     */
+    public static long submit(int port, String jobType, String[] arguments, Writer output, int readTimeout)
+            throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout(readTimeout);
+            Writer request = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                    StandardCharsets.UTF_8));
+            request.write(System.getProperty("user.dir"));
+            request.write('\n');
+            request.write(jobType);
+            request.write('\n');
+            for (String argument : arguments) {
+                request.write(argument);
+                request.write('\n');
+            }
+            request.write('\n');
+            request.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(IndexServer.STATUS_OK)) {
+                    return Long.parseLong(line.substring(IndexServer.STATUS_OK.length()).trim());
+                }
+                if (line.startsWith(IndexServer.STATUS_ERROR)) {
+                    throw new IOException("Job failed: " + line.substring(IndexServer.STATUS_ERROR.length()).trim());
+                }
+                output.write(line);
+                output.write('\n');
+            }
+            throw new IOException("The connection to the index server was closed before the job finished");
+        }
+    }
+
+}
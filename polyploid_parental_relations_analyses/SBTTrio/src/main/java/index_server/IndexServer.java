@@ -0,0 +1,651 @@
+package index_server;
+
+import containers.bit_packed_sorted_array.BitPackedSortedArrayFactory;
+import containers.wide_sorted_array.WideSortedArrayFactory;
+import dna.DNA;
+import dna.DNAUtil;
+import dna.KmerSetSampler;
+import index_building.IndexBuilder;
+import kmer_counting.KmerCounter;
+import kmer_counting.WideKmerCounter;
+import kmer_fingerprinting.FingerprintingRunner;
+import kmer_fingerprinting.FingerprintingTask;
+import kmer_sampling.KmerFilter;
+import kmer_sampling.SamplingMethod;
+import org.apache.commons.cli.*;
+import trio_binning.CsvResultWriter;
+import trio_binning.ReadSource;
+import trio_binning.ResultWriter;
+import trio_binning.SequentialTest;
+import trio_binning.TrioBinningPipeline;
+import trio_binning.TrioBinningRunner;
+import trio_binning.TrioBinningSettings;
+import util.ArgumentValidation;
+import util.DataStructure;
+import util.DirectBufferedOutputStream;
+import util.WideDataStructure;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implements a long-lived server which builds the indices of a set of k-mer databases once and then performs
+ * classification (trio binning) and fingerprinting jobs against them.
+ *
+ * The server only listens on the loopback interface. Each connection carries a single job, and jobs of concurrent
+ * connections share one pool of worker threads, so the number of threads classifying reads does not grow with the
+ * number of jobs.
+ *
+ * Protocol: the client sends its working directory, the type of the job ({@link #CLASSIFY} or {@link #FINGERPRINT})
+ * and the arguments of the job, one per line, followed by an empty line. Relative paths among the arguments are
+ * resolved against the working directory of the client. The server streams the result lines back as they are
+ * produced, in the same csv format as {@link TrioBinningRunner} and {@link FingerprintingRunner} write them, and
+ * ends the response with a status line, which is either {@link #STATUS_OK} followed by the number of classified
+ * reads or fingerprinted sets, or {@link #STATUS_ERROR} followed by a message.
+ */
+public class IndexServer implements Closeable {
+
+    /**
+     * The default port the server listens on.
+     */
+    public static final int DEFAULT_PORT = 7171;
+    /**
+     * The job type of trio binning a read file.
+     */
+    public static final String CLASSIFY = "classify";
+    /**
+     * The job type of fingerprinting the databases with random k-mer sets.
+     */
+    public static final String FINGERPRINT = "fingerprint";
+    /**
+     * The first characters of the status line of a successful job.
+     */
+    public static final String STATUS_OK = "#OK";
+    /**
+     * The first characters of the status line of a failed job.
+     */
+    public static final String STATUS_ERROR = "#ERROR";
+    /**
+     * The size of the buffer of the results streamed to a client in bytes.
+     */
+    private static final int RESULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The indices of the k-mer databases or null if the databases hold wide k-mers.
+     */
+    private final DataStructure[] databases;
+    /**
+     * The indices of the databases of wide k-mers or null if the databases hold k-mers represented by one long.
+     */
+    private final WideDataStructure[] wideDatabases;
+    private final int numDatabases;
+    private final int kmerSize;
+    /**
+     * The filter the k-mers of the databases were sampled with or null if all k-mers are used.
+     */
+    private final KmerFilter kmerFilter;
+    /**
+     * The number of threads of the worker pool shared by all jobs.
+     */
+    private final int numThreads;
+    /**
+     * The pool of worker threads shared by all jobs.
+     */
+    private final ExecutorService workerPool;
+    /**
+     * The threads reading the jobs of the connections and writing their results.
+     */
+    private final ExecutorService connectionPool = Executors.newCachedThreadPool();
+    private ServerSocket serverSocket;
+    /**
+     * The thread accepting the connections or null if the server has not been started.
+     */
+    private Thread acceptThread;
+
+    /**
+     * Create a server for a specified set of k-mer databases, k-mer size, filter and number of worker threads.
+     *
+     * @param databases array of data structures representing the indices for the set of k-mer databases
+     * @param kmerSize k-mer size of the databases
+     * @param kmerFilter filter the k-mers of the databases were sampled with or null if all k-mers are used
+     * @param numThreads number of worker threads shared by all jobs
+     */
+    public IndexServer(DataStructure[] databases, int kmerSize, KmerFilter kmerFilter, int numThreads) {
+        this(databases, null, databases.length, kmerSize, kmerFilter, numThreads);
+    }
+
+    /**
+     * Create a server for a specified set of databases of wide k-mers, k-mer size and number of worker threads.
+     *
+     * @param databases array of data structures representing the indices for the set of databases of wide k-mers
+     * @param kmerSize k-mer size of the databases
+     * @param numThreads number of worker threads shared by all jobs
+     */
+    public IndexServer(WideDataStructure[] databases, int kmerSize, int numThreads) {
+        this(null, databases, databases.length, kmerSize, null, numThreads);
+    }
+
+    private IndexServer(DataStructure[] databases, WideDataStructure[] wideDatabases, int numDatabases,
+                        int kmerSize, KmerFilter kmerFilter, int numThreads) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("The number of threads needs to be positive");
+        }
+        this.databases = databases;
+        this.wideDatabases = wideDatabases;
+        this.numDatabases = numDatabases;
+        this.kmerSize = kmerSize;
+        this.kmerFilter = kmerFilter;
+        this.numThreads = numThreads;
+        workerPool = Executors.newFixedThreadPool(numThreads);
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Define options
+        Options options = new Options();
+
+        Option databaseFiles = Option.builder("d").longOpt("databases")
+                .hasArgs().argName("file")
+                .valueSeparator(';')
+                .required()
+                .desc("paths to the kmer databases separated by ;")
+                .build();
+        Option accessTrieHeight = Option.builder("h").longOpt("height")
+                .hasArg().argName("H")
+                .required()
+                .desc("use an access trie of height H")
+                .build();
+        Option kmerSize = Option.builder("k").longOpt("kmer-size")
+                .hasArg().argName("K")
+                .required()
+                .desc("length of the kmers, at most 63")
+                .build();
+        Option numThreads = Option.builder("t").longOpt("threads")
+                .hasArg().argName("T")
+                .desc("use T worker threads shared by all jobs. Default: number of available processors")
+                .build();
+        Option port = Option.builder("p").longOpt("port")
+                .hasArg().argName("P")
+                .desc("listen on port P of the loopback interface. Default: " + DEFAULT_PORT)
+                .build();
+        Option sampling = Option.builder("s").longOpt("sampling")
+                .hasArg().argName("method")
+                .desc("only use the kmers of databases and reads sampled by fracminhash or syncmer. Default: all kmers")
+                .build();
+        Option density = Option.builder().longOpt("density")
+                .hasArg().argName("D")
+                .desc("expected fraction D of sampled kmers. Default: " + TrioBinningRunner.DEFAULT_DENSITY)
+                .build();
+
+        options.addOption(databaseFiles);
+        options.addOption(accessTrieHeight);
+        options.addOption(kmerSize);
+        options.addOption(numThreads);
+        options.addOption(port);
+        options.addOption(sampling);
+        options.addOption(density);
+
+        // Parse options
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter helpFormatter = new HelpFormatter();
+        CommandLine cmd = null;
+
+        try {
+            cmd = parser.parse(options, args);
+        } catch (ParseException parseException) {
+            System.out.println(parseException.getMessage());
+            helpFormatter.printHelp("index_server", options);
+            System.exit(1);
+        }
+
+        // Validate options
+        String[] files = cmd.getOptionValues(databaseFiles);
+        for (String file : files) {
+            ArgumentValidation.validateFileArgument(file);
+        }
+        int height = ArgumentValidation.validateIntArgument(cmd.getOptionValue(accessTrieHeight));
+        int size = ArgumentValidation.validateIntArgument(cmd.getOptionValue(kmerSize));
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (cmd.hasOption(numThreads)) {
+            threads = ArgumentValidation.validateIntArgument(cmd.getOptionValue(numThreads));
+        }
+        int serverPort = DEFAULT_PORT;
+        if (cmd.hasOption(port)) {
+            serverPort = ArgumentValidation.validateIntArgument(cmd.getOptionValue(port));
+        }
+        KmerFilter filter = null;
+        if (cmd.hasOption(sampling)) {
+            SamplingMethod method = ArgumentValidation.validateEnumArgument(cmd.getOptionValue(sampling),
+                    SamplingMethod.class);
+            double fraction = TrioBinningRunner.DEFAULT_DENSITY;
+            if (cmd.hasOption(density)) {
+                fraction = ArgumentValidation.validateDoubleArgument(cmd.getOptionValue(density));
+            }
+            filter = method.createFilter(size, fraction);
+        }
+
+        // Build indices and serve jobs until the process is terminated
+        IndexServer server = load(files, height, size, filter, threads);
+        server.start(serverPort);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException exception) {}
+        }));
+        System.out.println("Listening on port " + server.getPort());
+    }
+
+    /**
+     * Build the indices of a specified set of k-mer databases and create a server for them. The k-mers are saved in
+     * bit-packed sorted arrays or, for k-mer sizes above {@link DNA#MAX_KMER_SIZE}, in wide sorted arrays.
+     *
+     * @param databaseFiles array of strings representing the paths to the k-mer databases
+     * @param accessTrieHeight access trie height to use for the indices
+     * @param kmerSize k-mer size of the databases
+     * @param kmerFilter filter sampling the k-mers of the databases and the reads or null if all k-mers are used
+     * @param numThreads number of worker threads shared by all jobs
+     * @return server for the indices of the databases
+     */
+    public static IndexServer load(String[] databaseFiles, int accessTrieHeight, int kmerSize,
+                                   KmerFilter kmerFilter, int numThreads) {
+        System.out.println("Building indices");
+        if (kmerSize > DNA.MAX_KMER_SIZE) {
+            if (kmerFilter != null) {
+                throw new IllegalArgumentException("Sampling k-mers is only supported for k-mer sizes up to "
+                        + DNA.MAX_KMER_SIZE);
+            }
+            IndexBuilder indexBuilder = new IndexBuilder(accessTrieHeight, kmerSize);
+            WideDataStructure[] databases = new WideDataStructure[databaseFiles.length];
+            for (int i = 0; i < databaseFiles.length; i++) {
+                databases[i] = indexBuilder.buildWideIndex(databaseFiles[i], new WideSortedArrayFactory());
+            }
+            return new IndexServer(databases, kmerSize, numThreads);
+        }
+
+        IndexBuilder indexBuilder = new IndexBuilder(accessTrieHeight, kmerSize, kmerFilter);
+        DataStructure[] databases = new DataStructure[databaseFiles.length];
+        for (int i = 0; i < databaseFiles.length; i++) {
+            databases[i] = indexBuilder.buildIndex(databaseFiles[i], new BitPackedSortedArrayFactory());
+        }
+        return new IndexServer(databases, kmerSize, kmerFilter, numThreads);
+    }
+
+    /**
+     * Start accepting connections on a specified port of the loopback interface.
+     *
+     * @param port port to listen on or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("The server has already been started");
+        }
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::accept, "index-server");
+        acceptThread.start();
+    }
+
+    /**
+     * Accept connections and hand each of them to a connection thread until the server socket is closed.
+     */
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                try {
+                    connectionPool.execute(() -> handle(socket));
+                } catch (RejectedExecutionException exception) {
+                    // the server is closing, so the connection is not handled
+                    socket.close();
+                }
+            } catch (IOException exception) {
+                // the server socket was closed
+            }
+        }
+    }
+
+    /**
+     * Read the job of a specified connection, perform it and stream its results and status back.
+     *
+     * @param socket socket of the connection
+     */
+    private void handle(Socket socket) {
+        try (socket) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            List<String> request = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                request.add(line);
+            }
+
+            OutputStream output = new UnclosableOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            String status;
+            try {
+                if (request.size() < 2) {
+                    throw new IllegalArgumentException("Incomplete request");
+                }
+                String workingDirectory = request.get(0);
+                String[] arguments = request.subList(2, request.size()).toArray(new String[0]);
+                long numResults = switch (request.get(1)) {
+                    case CLASSIFY -> classify(workingDirectory, arguments, output);
+                    case FINGERPRINT -> fingerprint(arguments, output);
+                    default -> throw new IllegalArgumentException("Unknown job type " + request.get(1));
+                };
+                status = STATUS_OK + " " + numResults;
+            } catch (IOException | RuntimeException exception) {
+                status = STATUS_ERROR + " " + String.valueOf(exception.getMessage()).replace('\n', ' ');
+            }
+            output.write((status + "\n").getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        } catch (IOException exception) {
+            // the client closed the connection
+        }
+    }
+
+    /**
+     * Perform a classification job: classify the reads of a read file with the shared worker pool and stream the
+     * results in csv format.
+     *
+     * @param workingDirectory working directory of the client
+     * @param arguments arguments of the job
+     * @param output stream to write the results to
+     * @return number of classified reads
+     * @throws IOException
+     */
+    private long classify(String workingDirectory, String[] arguments, OutputStream output) throws IOException {
+        Options options = new Options();
+
+        Option readFile = Option.builder("r").longOpt("readfile")
+                .hasArg().argName("file")
+                .required()
+                .desc("path to the read file in fastq or fasta format. For paired-end reads: file of the first mates")
+                .build();
+        Option mateFile = Option.builder("r2").longOpt("readfile2")
+                .hasArg().argName("file")
+                .desc("path to the file of the second mates of paired-end reads")
+                .build();
+        Option batchSize = Option.builder("b").longOpt("batch-size")
+                .hasArg().argName("B")
+                .desc("process B reads per task. Default: " + TrioBinningSettings.DEFAULT_BATCH_SIZE)
+                .build();
+        Option queueDepth = Option.builder("q").longOpt("queue-depth")
+                .hasArg().argName("Q")
+                .desc("let at most Q batches wait in front of each pipeline stage. Default: number of threads")
+                .build();
+        Option minQuality = Option.builder().longOpt("min-quality")
+                .hasArg().argName("Q")
+                .desc("skip kmers overlapping a base with Phred quality below Q")
+                .build();
+        Option earlyStop = Option.builder().longOpt("early-stop")
+                .desc("stop evaluating the kmers of a read as soon as a sequential test has decided the database")
+                .build();
+        Option confidence = Option.builder().longOpt("confidence")
+                .hasArg().argName("C")
+                .desc("confidence C of the sequential test. Default: " + TrioBinningRunner.DEFAULT_CONFIDENCE)
+                .build();
+        Option window = Option.builder("w").longOpt("window")
+                .hasArg().argName("W")
+                .desc("classify windows of W kmers of each read separately")
+                .build();
+
+        options.addOption(readFile);
+        options.addOption(mateFile);
+        options.addOption(batchSize);
+        options.addOption(queueDepth);
+        options.addOption(minQuality);
+        options.addOption(earlyStop);
+        options.addOption(confidence);
+        options.addOption(window);
+
+        CommandLine cmd = parse(options, arguments);
+        TrioBinningSettings settings = new TrioBinningSettings();
+        if (cmd.hasOption(mateFile)) {
+            settings.setMateFilePath(resolveFile(workingDirectory, cmd.getOptionValue(mateFile)));
+        }
+        if (cmd.hasOption(batchSize)) {
+            settings.setBatchSize(parseInt(cmd.getOptionValue(batchSize)));
+        }
+        if (cmd.hasOption(queueDepth)) {
+            settings.setQueueDepth(parseInt(cmd.getOptionValue(queueDepth)));
+        }
+        if (cmd.hasOption(minQuality)) {
+            settings.setMinBaseQuality(parseInt(cmd.getOptionValue(minQuality)));
+        }
+        if (cmd.hasOption(earlyStop)) {
+            double level = TrioBinningRunner.DEFAULT_CONFIDENCE;
+            if (cmd.hasOption(confidence)) {
+                level = parseDouble(cmd.getOptionValue(confidence));
+            }
+            settings.setSequentialTest(new SequentialTest(level));
+        }
+        if (cmd.hasOption(window)) {
+            if (settings.getMateFilePath() != null) {
+                throw new IllegalArgumentException("Windows are only supported for single-end reads");
+            }
+            settings.setWindowSize(parseInt(cmd.getOptionValue(window)));
+        }
+        String readFilePath = resolveFile(workingDirectory, cmd.getOptionValue(readFile));
+
+        TrioBinningPipeline pipeline;
+        int queue = settings.getQueueDepth(numThreads);
+        if (wideDatabases != null) {
+            pipeline = new TrioBinningPipeline(wideDatabases,
+                    new WideKmerCounter(kmerSize, false, settings.getMinBaseQuality()),
+                    settings.getSequentialTest(), numThreads, settings.getBatchSize(), queue);
+        } else {
+            pipeline = new TrioBinningPipeline(databases,
+                    new KmerCounter(kmerSize, false, kmerFilter, settings.getMinBaseQuality()),
+                    settings.getSequentialTest(), numThreads, settings.getBatchSize(), queue);
+        }
+
+        DirectBufferedOutputStream resultStream = new DirectBufferedOutputStream(Channels.newChannel(output),
+                RESULT_BUFFER_SIZE);
+        try (ReadSource readSource = TrioBinningRunner.createReadSource(readFilePath, settings, kmerSize);
+             ResultWriter resultWriter = new CsvResultWriter(resultStream, settings.getMinBaseQuality() > 0,
+                     settings.getSequentialTest() != null)) {
+            return pipeline.run(readSource, resultWriter, workerPool);
+        }
+    }
+
+    /**
+     * Perform a fingerprinting job: compute the fingerprints of random k-mer sets with the shared worker pool and
+     * stream them in csv format.
+     *
+     * @param arguments arguments of the job
+     * @param output stream to write the results to
+     * @return number of fingerprinted sets
+     * @throws IOException
+     */
+    private long fingerprint(String[] arguments, OutputStream output) throws IOException {
+        if (databases == null) {
+            throw new IllegalArgumentException("Fingerprinting is only supported for k-mer sizes up to "
+                    + DNA.MAX_KMER_SIZE);
+        }
+        Options options = new Options();
+
+        Option numSets = Option.builder("s").longOpt("sets")
+                .hasArg().argName("S")
+                .required()
+                .desc("perform fingerprinting for S sets")
+                .build();
+        Option setSize = Option.builder("c").longOpt("cardinality")
+                .hasArg().argName("C")
+                .required()
+                .desc("use sets with C elements")
+                .build();
+
+        options.addOption(numSets);
+        options.addOption(setSize);
+
+        CommandLine cmd = parse(options, arguments);
+        int sets = parseInt(cmd.getOptionValue(numSets));
+        int cardinality = parseInt(cmd.getOptionValue(setSize));
+
+        KmerSetSampler kmerSetSampler = new KmerSetSampler(kmerSize, new DNAUtil(kmerSize));
+        try (BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(output,
+                StandardCharsets.UTF_8))) {
+            FingerprintingRunner.writeHeader(bufferedWriter, numDatabases);
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[sets];
+            for (int i = 0; i < sets; i++) {
+                tasks[i] = CompletableFuture.runAsync(new FingerprintingTask(databases, kmerSetSampler,
+                        bufferedWriter, i, cardinality), workerPool);
+            }
+            CompletableFuture.allOf(tasks).join();
+        }
+        return sets;
+    }
+
+    /**
+     * Parse the arguments of a job.
+     *
+     * @param options options of the job type
+     * @param arguments arguments of the job
+     * @return parsed arguments
+     */
+    private static CommandLine parse(Options options, String[] arguments) {
+        try {
+            return new DefaultParser().parse(options, arguments);
+        } catch (ParseException parseException) {
+            throw new IllegalArgumentException(parseException.getMessage(), parseException);
+        }
+    }
+
+    /**
+     * Resolve a path of a file against the working directory of a client and check that the file exists.
+     *
+     * @param workingDirectory working directory of the client
+     * @param path absolute path or path relative to the working directory
+     * @return absolute path to the file
+     */
+    private static String resolveFile(String workingDirectory, String path) {
+        String resolved = Paths.get(workingDirectory).resolve(path).toString();
+        if (!new File(resolved).isFile()) {
+            throw new IllegalArgumentException(path + " is not a valid file.");
+        }
+        return resolved;
+    }
+
+    /**
+     * Parse an integer argument of a job.
+     *
+     * @param argument string representation of the integer
+     * @return numeric representation of the integer
+     */
+    private static int parseInt(String argument) {
+        try {
+            return Integer.parseInt(argument);
+        } catch (NumberFormatException numberFormatException) {
+            throw new IllegalArgumentException(argument + " is not a valid integer.");
+        }
+    }
+
+    /**
+     * Parse a floating point argument of a job.
+     *
+     * @param argument string representation of the floating point number
+     * @return numeric representation of the floating point number
+     */
+    private static double parseDouble(String argument) {
+        try {
+            return Double.parseDouble(argument);
+        } catch (NumberFormatException numberFormatException) {
+            throw new IllegalArgumentException(argument + " is not a valid number.");
+        }
+    }
+
+    /**
+     * Stop accepting connections, wait for the running jobs to finish and shut the worker pool down.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        // no connection is handed to the connection threads once the accept thread has terminated
+        if (acceptThread != null) {
+            while (true) {
+                try {
+                    acceptThread.join();
+                    break;
+                } catch (InterruptedException exception) {}
+            }
+        }
+        // complete all running jobs before shutting the worker pool down
+        connectionPool.shutdown();
+        while (true) {
+            try {
+                if (connectionPool.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException exception) {}
+        }
+        workerPool.shutdown();
+    }
+
+    /**
+     * Retrieve the port the server listens on.
+     *
+     * @return port of the server socket or -1 if the server has not been started
+     */
+    public int getPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    public int getNumDatabases() {
+        return numDatabases;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Implements an output stream which only flushes instead of closing the underlying stream, so that the writers
+     * of a job can be closed before the status line is written to the connection.
+     */
+    private static class UnclosableOutputStream extends FilterOutputStream {
+
+        UnclosableOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
+}
@@ -0,0 +1,208 @@
+package kmer_counting;
+
+import dna.RollingKmerEncoder;
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash64Finalizer;
+
+import java.util.Arrays;
+
+/**
+ * Implements a reusable buffer that deduplicates the canonical k-mers of one read at a time.
+ *
+ * The buffer is backed by an open addressing hash table with linear probing in which every slot carries a stamp.
+ * A slot is occupied if and only if its stamp equals the current epoch. Clearing the buffer for the next read
+ * increments the epoch and therefore takes O(1) time instead of re-initializing the table.
+ * The distinct k-mers are additionally saved in a dense array in order of their first occurrence, so iterating over
+ * them takes time linear in their number rather than in the size of the table.
+ *
+ * The arrays of a buffer only grow when a read with more k-mers than any previous read is processed. Processing
+ * a read therefore does not allocate any objects once the buffer has adapted to the read lengths.
+ * A buffer is not thread-safe and is meant to be used by a single worker thread.
+ */
+public class DistinctKmerBuffer {
+
+    /**
+     * The number of k-mers the buffer accommodates initially.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * The hash function used for the table of this buffer.
+     */
+    private final HashFunction hashFunction = new MurmurHash64Finalizer();
+    /**
+     * The array to which the k-mers of the current read are written before deduplication.
+     */
+    private long[] kmers;
+    /**
+     * The distinct k-mers of the current read in order of their first occurrence.
+     */
+    private long[] distinctKmers;
+    /**
+     * The number of distinct k-mers of the current read.
+     */
+    private int numDistinctKmers = 0;
+    /**
+     * The hash table used for deduplication, its size is a power of 2.
+     */
+    private long[] table;
+    /**
+     * The epoch in which each slot of the hash table was last occupied.
+     */
+    private int[] stamps;
+    /**
+     * The current epoch, slots of the hash table with a different stamp are free.
+     */
+    private int epoch = 1;
+    /**
+     * The number of k-mers of the current read skipped because of a low quality base.
+     */
+    private int numSkippedKmers = 0;
+
+    /**
+     * Create a buffer that initially accommodates reads with up to 256 k-mers.
+     */
+    public DistinctKmerBuffer() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Ensure that this buffer accommodates a specified number of k-mers.
+     * The contents of this buffer are discarded if it needs to grow.
+     *
+     * @param numKmers number of k-mers to accommodate
+     */
+    public void ensureCapacity(int numKmers) {
+        if (numKmers > kmers.length) {
+            allocate(Math.max(numKmers, kmers.length << 1));
+        }
+    }
+
+    /**
+     * Remove all k-mers from this buffer.
+     * Time complexity: O(1) amortized
+     */
+    public void clear() {
+        numDistinctKmers = 0;
+        epoch++;
+        if (epoch == 0) {
+            // the epoch overflowed, so stamps of earlier epochs could become valid again
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Add a specified k-mer to this buffer.
+     * Time complexity: O(1) expected
+     *
+     * @param kmer numeric representation of the k-mer to add
+     * @return <ul>
+     *     <li>true if the specified k-mer was added to this buffer</li>
+     *     <li>false if this buffer already contains the specified k-mer</li>
+     * </ul>
+     */
+    public boolean add(long kmer) {
+        int mask = table.length - 1;
+        int index = (int) hashFunction.hash(kmer) & mask;
+
+        // the table is at least twice as large as the number of k-mers, so a free slot always exists
+        while (stamps[index] == epoch) {
+            if (table[index] == kmer) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        stamps[index] = epoch;
+        table[index] = kmer;
+        distinctKmers[numDistinctKmers] = kmer;
+        numDistinctKmers++;
+        return true;
+    }
+
+    /**
+     * Replace the contents of this buffer by the distinct k-mers among the first numKmers elements of the
+     * array returned by {@link #getKmers()}. Elements equal to {@link RollingKmerEncoder#SKIPPED_KMER} are not added
+     * but counted as skipped k-mers.
+     * Time complexity: O(n) expected where n is the specified number of k-mers
+     *
+     * @param numKmers number of k-mers to deduplicate
+     */
+    public void deduplicate(int numKmers) {
+        clear();
+        numSkippedKmers = 0;
+        for (int i = 0; i < numKmers; i++) {
+            if (kmers[i] == RollingKmerEncoder.SKIPPED_KMER) {
+                numSkippedKmers++;
+            } else {
+                add(kmers[i]);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the distinct k-mer at a specified position in order of first occurrence.
+     *
+     * @param index position of the distinct k-mer to retrieve
+     * @return numeric representation of the distinct k-mer at the specified position
+     */
+    public long get(int index) {
+        return distinctKmers[index];
+    }
+
+    /**
+     * Retrieve the number of distinct k-mers in this buffer.
+     *
+     * @return number of distinct k-mers in this buffer
+     */
+    public int size() {
+        return numDistinctKmers;
+    }
+
+    /**
+     * Retrieve the number of k-mers of the current read which were skipped because they overlap a base below
+     * the minimum base quality. Every occurrence of a skipped k-mer is counted.
+     *
+     * @return number of skipped k-mers of the current read
+     */
+    public int getNumSkippedKmers() {
+        return numSkippedKmers;
+    }
+
+    /**
+     * Retrieve the array to which the k-mers of a read are written before deduplication. The array holds at least as
+     * many elements as requested by the last call of {@link #ensureCapacity(int)}.
+     *
+     * @return array for the k-mers of a read
+     */
+    public long[] getKmers() {
+        return kmers;
+    }
+
+    /**
+     * Retrieve the array of which the first {@link #size()} elements are the distinct k-mers in this buffer.
+     *
+     * @return array of the distinct k-mers in this buffer
+     */
+    public long[] getDistinctKmers() {
+        return distinctKmers;
+    }
+
+    /**
+     * Allocate the arrays of this buffer for a specified number of k-mers.
+     *
+     * @param capacity number of k-mers to accommodate
+     */
+    private void allocate(int capacity) {
+        kmers = new long[capacity];
+        distinctKmers = new long[capacity];
+        // load factor of at most 0.5
+        int size = Integer.highestOneBit(capacity) << 2;
+        table = new long[size];
+        stamps = new int[size];
+        numDistinctKmers = 0;
+        epoch = 1;
+    }
+
+}
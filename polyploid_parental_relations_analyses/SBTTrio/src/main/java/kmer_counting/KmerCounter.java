@@ -1,10 +1,17 @@
 package kmer_counting;
 
 import containers.hash_set.HashSet;
-import dna.DNAUtil;
+import dna.RollingKmerEncoder;
+import kmer_sampling.KmerFilter;
 
 /**
  * Implements a simple k-mer counter based on a hash set.
+ *
+ * Each thread using a k-mer counter is given its own reusable {@link DistinctKmerBuffer}, so the distinct k-mers
+ * of a read can be retrieved without allocating any objects per read.
+ *
+ * Optionally, only the k-mers sampled by a context-free k-mer filter are retrieved. If base qualities are available,
+ * k-mers overlapping a base below a minimum Phred quality can be skipped as well.
  */
 public class KmerCounter {
 
@@ -12,39 +19,190 @@ public class KmerCounter {
      * The k-mer size this k-mer counter is for.
      */
     private final int kmerSize;
-    private final DNAUtil dnaUtil;
+    private final RollingKmerEncoder encoder;
+    /**
+     * The filter selecting the retrieved k-mers or null if all k-mers are retrieved.
+     */
+    private final KmerFilter kmerFilter;
+    /**
+     * The minimum Phred quality of the bases of a retrieved k-mer or 0 if base qualities are ignored.
+     */
+    private final int minBaseQuality;
+    /**
+     * The reusable buffer of each thread using this k-mer counter.
+     */
+    private final ThreadLocal<DistinctKmerBuffer> buffers = ThreadLocal.withInitial(DistinctKmerBuffer::new);
 
     /**
-     * Create a k-mer counter for a specified k-mer size.
+     * Create a k-mer counter for a specified k-mer size which ignores k-mers containing ambiguous or
+     * soft-masked bases.
      *
      * @param kmerSize k-mer size for which to create the k-mer counter
      */
     public KmerCounter(int kmerSize) {
+        this(kmerSize, false);
+    }
+
+    /**
+     * Create a k-mer counter for a specified k-mer size which ignores k-mers containing ambiguous bases.
+     *
+     * @param kmerSize k-mer size for which to create the k-mer counter
+     * @param acceptSoftMasked whether soft-masked bases are treated like their upper case counterparts
+     *                         instead of being ignored
+     */
+    public KmerCounter(int kmerSize, boolean acceptSoftMasked) {
+        this(kmerSize, acceptSoftMasked, null);
+    }
+
+    /**
+     * Create a k-mer counter for a specified k-mer size which ignores k-mers containing ambiguous bases and only
+     * retrieves the k-mers sampled by a specified k-mer filter.
+     *
+     * @param kmerSize k-mer size for which to create the k-mer counter
+     * @param acceptSoftMasked whether soft-masked bases are treated like their upper case counterparts
+     *                         instead of being ignored
+     * @param kmerFilter filter selecting the retrieved canonical k-mers or null if all k-mers are retrieved
+     */
+    public KmerCounter(int kmerSize, boolean acceptSoftMasked, KmerFilter kmerFilter) {
+        this(kmerSize, acceptSoftMasked, kmerFilter, 0);
+    }
+
+    /**
+     * Create a k-mer counter for a specified k-mer size which ignores k-mers containing ambiguous bases, only
+     * retrieves the k-mers sampled by a specified k-mer filter and skips k-mers overlapping a base below a specified
+     * Phred quality.
+     *
+     * @param kmerSize k-mer size for which to create the k-mer counter
+     * @param acceptSoftMasked whether soft-masked bases are treated like their upper case counterparts
+     *                         instead of being ignored
+     * @param kmerFilter filter selecting the retrieved canonical k-mers or null if all k-mers are retrieved
+     * @param minBaseQuality minimum Phred quality of the bases of a retrieved k-mer or 0 to ignore base qualities
+     */
+    public KmerCounter(int kmerSize, boolean acceptSoftMasked, KmerFilter kmerFilter, int minBaseQuality) {
+        if (minBaseQuality < 0) {
+            throw new IllegalArgumentException("The minimum base quality must not be negative");
+        }
         this.kmerSize = kmerSize;
-        dnaUtil = new DNAUtil(kmerSize);
+        this.kmerFilter = kmerFilter;
+        this.minBaseQuality = minBaseQuality;
+        encoder = new RollingKmerEncoder(kmerSize, acceptSoftMasked);
     }
 
     /**
-     * Retrieve all distinct canonical k-mers from a specified input sequence.
+     * Retrieve all distinct valid canonical k-mers from a specified input sequence.
+     * k-mers overlapping an ambiguous base are not valid and therefore not retrieved.
      *
      * @param input sequence of which to extract the distinct canonical k-mers
-     * @return iterable of the numeric representations of the distinct canonical k-mers in the specified input
+     * @return hash set of the numeric representations of the distinct valid canonical k-mers in the specified input
      */
-    public Iterable<Long> getAllKmers(String input) {
-        // at most numKmers elements will be saved in the hash table
-        int numKmers = input.length() - kmerSize + 1;
-        HashSet hashSet = new HashSet(kmerSize, numKmers);
+    public HashSet getAllKmers(String input) {
+        DistinctKmerBuffer buffer = getDistinctKmers(input);
+        HashSet hashSet = new HashSet(kmerSize, buffer.size());
 
-        // This takes Theta(n * k) time, but I do not know how to make it more efficient due to the immutability of strings
-        // However it would take that much time anyway as you still need to hash the string to add it to the hash table
-        for (int i = 0; i < numKmers; i++) {
-            hashSet.add(dnaUtil.canonicalForm(dnaUtil.stringToLong(input.substring(i, i + kmerSize))));
+        for (int i = 0; i < buffer.size(); i++) {
+            hashSet.add(buffer.get(i));
         }
 
         return hashSet;
     }
 
+    /**
+     * Retrieve all distinct valid canonical k-mers from a specified input sequence without allocating a new
+     * data structure. The k-mers are saved in the buffer of the calling thread, so the result is only valid until the
+     * same thread calls this method again.
+     * Time complexity: O(n) expected where n is the length of the input sequence
+     *
+     * @param input sequence of which to extract the distinct canonical k-mers
+     * @return buffer of the calling thread containing the distinct valid canonical k-mers in the specified input
+     */
+    public DistinctKmerBuffer getDistinctKmers(CharSequence input) {
+        DistinctKmerBuffer buffer = buffers.get();
+        buffer.ensureCapacity(encoder.numKmers(input.length()));
+
+        int numKmers = encoder.encode(input, buffer.getKmers());
+        buffer.deduplicate(sample(buffer.getKmers(), numKmers));
+
+        return buffer;
+    }
+
+    /**
+     * Retrieve all distinct valid canonical k-mers from the input sequence saved as ASCII characters in a specified
+     * range of a byte array. The k-mers are saved in the buffer of the calling thread, so the result is only valid
+     * until the same thread calls this method again.
+     * Time complexity: O(n) expected where n is the length of the input sequence
+     *
+     * @param input byte array containing the input sequence
+     * @param from index of the first character of the input sequence (inclusive)
+     * @param to index after the last character of the input sequence (exclusive)
+     * @return buffer of the calling thread containing the distinct valid canonical k-mers in the specified input
+     */
+    public DistinctKmerBuffer getDistinctKmers(byte[] input, int from, int to) {
+        DistinctKmerBuffer buffer = buffers.get();
+        buffer.ensureCapacity(encoder.numKmers(to - from));
+
+        int numKmers = encoder.encode(input, from, to, buffer.getKmers());
+        buffer.deduplicate(sample(buffer.getKmers(), numKmers));
+
+        return buffer;
+    }
+
+    /**
+     * Retrieve all distinct valid canonical k-mers from the input sequence saved as ASCII characters in a specified
+     * range of a byte array, skipping k-mers which overlap a base below the minimum base quality. The base qualities
+     * are saved as Phred+33 characters in the same range of a second byte array. The number of skipped k-mers is
+     * saved in the buffer as well. If the minimum base quality is 0 or no qualities are given, no k-mer is skipped.
+     * Time complexity: O(n) expected where n is the length of the input sequence
+     *
+     * @param input byte array containing the input sequence
+     * @param qualities byte array containing the base qualities of the input sequence or null if they are not available
+     * @param from index of the first character of the input sequence (inclusive)
+     * @param to index after the last character of the input sequence (exclusive)
+     * @return buffer of the calling thread containing the distinct valid canonical k-mers in the specified input
+     */
+    public DistinctKmerBuffer getDistinctKmers(byte[] input, byte[] qualities, int from, int to) {
+        if (minBaseQuality == 0 || qualities == null) {
+            return getDistinctKmers(input, from, to);
+        }
+        DistinctKmerBuffer buffer = buffers.get();
+        buffer.ensureCapacity(encoder.numKmers(to - from));
+
+        int numKmers = encoder.encode(input, qualities, minBaseQuality, from, to, buffer.getKmers());
+        buffer.deduplicate(sample(buffer.getKmers(), numKmers));
+
+        return buffer;
+    }
+
+    /**
+     * Move the k-mers sampled by the k-mer filter to the front of a specified array of k-mers, keeping their order.
+     * Sampling before deduplicating saves inserting k-mers which are discarded anyway. Markers of skipped k-mers are
+     * kept, so they are counted by the buffer.
+     *
+     * @param kmers array of canonical k-mers
+     * @param numKmers number of k-mers in the array
+     * @return number of sampled k-mers
+     */
+    private int sample(long[] kmers, int numKmers) {
+        if (kmerFilter == null) {
+            return numKmers;
+        }
+        int numSampled = 0;
+        for (int i = 0; i < numKmers; i++) {
+            if (kmers[i] == RollingKmerEncoder.SKIPPED_KMER || kmerFilter.accept(kmers[i])) {
+                kmers[numSampled++] = kmers[i];
+            }
+        }
+        return numSampled;
+    }
+
     public int getKmerSize() {
         return kmerSize;
     }
+
+    public KmerFilter getKmerFilter() {
+        return kmerFilter;
+    }
+
+    public int getMinBaseQuality() {
+        return minBaseQuality;
+    }
 }
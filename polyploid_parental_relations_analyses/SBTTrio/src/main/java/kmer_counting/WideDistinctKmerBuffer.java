@@ -0,0 +1,229 @@
+package kmer_counting;
+
+import dna.RollingKmerEncoder;
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash64Finalizer;
+
+import java.util.Arrays;
+
+/**
+ * Implements a reusable buffer that deduplicates the canonical wide k-mers of one read at a time.
+ *
+ * This is the counterpart of {@link DistinctKmerBuffer} for k-mers represented by a high and a low word: all arrays
+ * come in pairs holding the high and the low words at the same index, and the hash table uses stamps, so clearing the
+ * buffer takes O(1) time. A buffer is not thread-safe and is meant to be used by a single worker thread.
+ */
+public class WideDistinctKmerBuffer {
+
+    /**
+     * The number of k-mers the buffer accommodates initially.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+    /**
+     * The odd constant used for combining the high and the low word of a k-mer before hashing.
+     */
+    private static final long COMBINATION_CONSTANT = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The hash function used for the table of this buffer.
+     */
+    private final HashFunction hashFunction = new MurmurHash64Finalizer();
+    /**
+     * The array to which the high words of the k-mers of the current read are written before deduplication.
+     */
+    private long[] highs;
+    /**
+     * The array to which the low words of the k-mers of the current read are written before deduplication.
+     */
+    private long[] lows;
+    /**
+     * The high words of the distinct k-mers of the current read in order of their first occurrence.
+     */
+    private long[] distinctHighs;
+    /**
+     * The low words of the distinct k-mers of the current read in order of their first occurrence.
+     */
+    private long[] distinctLows;
+    /**
+     * The number of distinct k-mers of the current read.
+     */
+    private int numDistinctKmers = 0;
+    /**
+     * The high words of the hash table used for deduplication, its size is a power of 2.
+     */
+    private long[] tableHighs;
+    /**
+     * The low words of the hash table used for deduplication.
+     */
+    private long[] tableLows;
+    /**
+     * The epoch in which each slot of the hash table was last occupied.
+     */
+    private int[] stamps;
+    /**
+     * The current epoch, slots of the hash table with a different stamp are free.
+     */
+    private int epoch = 1;
+    /**
+     * The number of k-mers of the current read skipped because of a low quality base.
+     */
+    private int numSkippedKmers = 0;
+
+    /**
+     * Create a buffer that initially accommodates reads with up to 256 k-mers.
+     */
+    public WideDistinctKmerBuffer() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Ensure that this buffer accommodates a specified number of k-mers.
+     * The contents of this buffer are discarded if it needs to grow.
+     *
+     * @param numKmers number of k-mers to accommodate
+     */
+    public void ensureCapacity(int numKmers) {
+        if (numKmers > highs.length) {
+            allocate(Math.max(numKmers, highs.length << 1));
+        }
+    }
+
+    /**
+     * Remove all k-mers from this buffer.
+     * Time complexity: O(1) amortized
+     */
+    public void clear() {
+        numDistinctKmers = 0;
+        epoch++;
+        if (epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Add a specified wide k-mer to this buffer.
+     * Time complexity: O(1) expected
+     *
+     * @param high high word of the k-mer to add
+     * @param low low word of the k-mer to add
+     * @return <ul>
+     *     <li>true if the specified k-mer was added to this buffer</li>
+     *     <li>false if this buffer already contains the specified k-mer</li>
+     * </ul>
+     */
+    public boolean add(long high, long low) {
+        int mask = tableHighs.length - 1;
+        int index = (int) hashFunction.hash(low ^ (high * COMBINATION_CONSTANT)) & mask;
+
+        while (stamps[index] == epoch) {
+            if (tableHighs[index] == high && tableLows[index] == low) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        stamps[index] = epoch;
+        tableHighs[index] = high;
+        tableLows[index] = low;
+        distinctHighs[numDistinctKmers] = high;
+        distinctLows[numDistinctKmers] = low;
+        numDistinctKmers++;
+        return true;
+    }
+
+    /**
+     * Replace the contents of this buffer by the distinct k-mers among the first numKmers elements of the
+     * arrays returned by {@link #getHighs()} and {@link #getLows()}. K-mers with a high word equal to
+     * {@link RollingKmerEncoder#SKIPPED_KMER} are not added but counted as skipped k-mers.
+     * Time complexity: O(n) expected where n is the specified number of k-mers
+     *
+     * @param numKmers number of k-mers to deduplicate
+     */
+    public void deduplicate(int numKmers) {
+        clear();
+        numSkippedKmers = 0;
+        for (int i = 0; i < numKmers; i++) {
+            if (highs[i] == RollingKmerEncoder.SKIPPED_KMER) {
+                numSkippedKmers++;
+            } else {
+                add(highs[i], lows[i]);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the number of distinct k-mers in this buffer.
+     *
+     * @return number of distinct k-mers in this buffer
+     */
+    public int size() {
+        return numDistinctKmers;
+    }
+
+    /**
+     * Retrieve the number of k-mers of the current read which were skipped because they overlap a base below
+     * the minimum base quality.
+     *
+     * @return number of skipped k-mers of the current read
+     */
+    public int getNumSkippedKmers() {
+        return numSkippedKmers;
+    }
+
+    /**
+     * Retrieve the array to which the high words of the k-mers of a read are written before deduplication.
+     *
+     * @return array for the high words of the k-mers of a read
+     */
+    public long[] getHighs() {
+        return highs;
+    }
+
+    /**
+     * Retrieve the array to which the low words of the k-mers of a read are written before deduplication.
+     *
+     * @return array for the low words of the k-mers of a read
+     */
+    public long[] getLows() {
+        return lows;
+    }
+
+    /**
+     * Retrieve the array of which the first {@link #size()} elements are the high words of the distinct k-mers.
+     *
+     * @return array of the high words of the distinct k-mers in this buffer
+     */
+    public long[] getDistinctHighs() {
+        return distinctHighs;
+    }
+
+    /**
+     * Retrieve the array of which the first {@link #size()} elements are the low words of the distinct k-mers.
+     *
+     * @return array of the low words of the distinct k-mers in this buffer
+     */
+    public long[] getDistinctLows() {
+        return distinctLows;
+    }
+
+    /**
+     * Allocate the arrays of this buffer for a specified number of k-mers.
+     *
+     * @param capacity number of k-mers to accommodate
+     */
+    private void allocate(int capacity) {
+        highs = new long[capacity];
+        lows = new long[capacity];
+        distinctHighs = new long[capacity];
+        distinctLows = new long[capacity];
+        // load factor of at most 0.5
+        int size = Integer.highestOneBit(capacity) << 2;
+        tableHighs = new long[size];
+        tableLows = new long[size];
+        stamps = new int[size];
+        numDistinctKmers = 0;
+        epoch = 1;
+    }
+
+}
@@ -0,0 +1,94 @@
+package kmer_counting;
+
+import dna.WideRollingKmerEncoder;
+
+/**
+ * Implements a k-mer counter for wide k-mers, i.e. k-mers of up to {@link dna.DNA#MAX_WIDE_KMER_SIZE} bases
+ * represented by a high and a low word.
+ *
+ * This is the counterpart of {@link KmerCounter}: each thread is given its own reusable
+ * {@link WideDistinctKmerBuffer}, so the distinct k-mers of a read are retrieved without allocating any objects per
+ * read. k-mers overlapping a base below a minimum Phred quality can be skipped. Sampling by a k-mer filter is not
+ * supported for wide k-mers.
+ */
+public class WideKmerCounter {
+
+    /**
+     * The k-mer size this k-mer counter is for.
+     */
+    private final int kmerSize;
+    private final WideRollingKmerEncoder encoder;
+    /**
+     * The minimum Phred quality of the bases of a retrieved k-mer or 0 if base qualities are ignored.
+     */
+    private final int minBaseQuality;
+    /**
+     * The reusable buffer of each thread using this k-mer counter.
+     */
+    private final ThreadLocal<WideDistinctKmerBuffer> buffers = ThreadLocal.withInitial(WideDistinctKmerBuffer::new);
+
+    /**
+     * Create a k-mer counter for a specified k-mer size which ignores k-mers containing ambiguous or
+     * soft-masked bases.
+     *
+     * @param kmerSize k-mer size for which to create the k-mer counter
+     */
+    public WideKmerCounter(int kmerSize) {
+        this(kmerSize, false, 0);
+    }
+
+    /**
+     * Create a k-mer counter for a specified k-mer size which ignores k-mers containing ambiguous bases and skips
+     * k-mers overlapping a base below a specified Phred quality.
+     *
+     * @param kmerSize k-mer size for which to create the k-mer counter
+     * @param acceptSoftMasked whether soft-masked bases are treated like their upper case counterparts
+     *                         instead of being ignored
+     * @param minBaseQuality minimum Phred quality of the bases of a retrieved k-mer or 0 to ignore base qualities
+     */
+    public WideKmerCounter(int kmerSize, boolean acceptSoftMasked, int minBaseQuality) {
+        if (minBaseQuality < 0) {
+            throw new IllegalArgumentException("The minimum base quality must not be negative");
+        }
+        this.kmerSize = kmerSize;
+        this.minBaseQuality = minBaseQuality;
+        encoder = new WideRollingKmerEncoder(kmerSize, acceptSoftMasked);
+    }
+
+    /**
+     * Retrieve all distinct valid canonical wide k-mers from the input sequence saved as ASCII characters in a
+     * specified range of a byte array, skipping k-mers which overlap a base below the minimum base quality if base
+     * qualities are given. The k-mers are saved in the buffer of the calling thread, so the result is only valid until
+     * the same thread calls this method again.
+     * Time complexity: O(n) expected where n is the length of the input sequence
+     *
+     * @param input byte array containing the input sequence
+     * @param qualities byte array containing the base qualities of the input sequence or null if they are not available
+     * @param from index of the first character of the input sequence (inclusive)
+     * @param to index after the last character of the input sequence (exclusive)
+     * @return buffer of the calling thread containing the distinct valid canonical k-mers in the specified input
+     */
+    public WideDistinctKmerBuffer getDistinctKmers(byte[] input, byte[] qualities, int from, int to) {
+        WideDistinctKmerBuffer buffer = buffers.get();
+        buffer.ensureCapacity(encoder.numKmers(to - from));
+
+        int numKmers;
+        if (minBaseQuality == 0 || qualities == null) {
+            numKmers = encoder.encode(input, from, to, buffer.getHighs(), buffer.getLows());
+        } else {
+            numKmers = encoder.encode(input, qualities, minBaseQuality, from, to,
+                    buffer.getHighs(), buffer.getLows());
+        }
+        buffer.deduplicate(numKmers);
+
+        return buffer;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public int getMinBaseQuality() {
+        return minBaseQuality;
+    }
+}
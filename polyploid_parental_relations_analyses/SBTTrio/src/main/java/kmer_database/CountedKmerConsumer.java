@@ -0,0 +1,24 @@
+package kmer_database;
+
+import java.io.IOException;
+
+/**
+ * Functional interface representing the receiver of the solid k-mers counted by a {@link DatabaseCounter}.
+ *
+ * The k-mers are passed on in chunks of consecutive k-mers. The k-mers of a chunk are sorted in ascending order and
+ * all k-mers of a chunk are smaller than the k-mers of the next chunk, so a consumer receives all solid k-mers in
+ * ascending order.
+ */
+@FunctionalInterface
+public interface CountedKmerConsumer {
+
+    /**
+     * Receive the next chunk of solid k-mers and their counts.
+     *
+     * @param kmers sorted array of the numeric representations of the canonical k-mers of the chunk
+     * @param counts array of the number of occurrences of each k-mer
+     * @throws IOException
+     */
+    void accept(long[] kmers, int[] counts) throws IOException;
+
+}
@@ -0,0 +1,735 @@
+package kmer_database;
+
+import containers.concurrent_hash_set.ConcurrentHashSet;
+import dna.DNA;
+import dna.RollingKmerEncoder;
+import trio_binning.FastxReadSource;
+import trio_binning.ReadBatch;
+import trio_binning.ReadSource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Implements a parallel k-mer counter which builds a k-mer database from the reads of a parent.
+ *
+ * The counting phase streams the read files in batches. Worker threads extract the canonical k-mers of the reads with
+ * a {@link RollingKmerEncoder} and count them in counting {@link ConcurrentHashSet}s shared by all threads, one per
+ * partition of the k-mers. A partition consists of all k-mers sharing the same prefix of {@link #MAX_PARTITION_BASES}
+ * bases, so the partitions are disjoint ranges of k-mers. As every k-mer is counted in a single table, the tables
+ * hold each distinct k-mer once instead of once per thread. As soon as the tables exceed the memory budget, they are
+ * spilled as sorted runs to one file per partition and spill in a temporary directory. Counting threads hold a read
+ * lock while counting a batch, so a spill, which holds the write lock, never misses a concurrent insertion.
+ *
+ * The merge phase combines the remaining tables and the runs of each partition with a streaming k-way merge, keeps the solid k-mers occurring at least minCount and at most maxCount
+ * times and passes them on to a {@link CountedKmerConsumer} in ascending order and in chunks of at most
+ * {@link #CHUNK_SIZE} k-mers. Besides the remaining tables, which fit into the memory budget, the merge only holds a
+ * read buffer per run and a few chunks per partition in memory, regardless of the size of the partitions. The
+ * partitions are merged in parallel while the consumer receives them in order, so the sorted k-mers can be written to
+ * a database file or built into an index directly.
+ */
+public class DatabaseCounter {
+
+    /**
+     * The maximum number of bases of the prefix defining the partition of a k-mer, i.e. there are at most 256
+     * partitions.
+     */
+    public static final int MAX_PARTITION_BASES = 4;
+    /**
+     * The number of reads per batch of the counting phase.
+     */
+    public static final int BATCH_SIZE = 1024;
+    /**
+     * The number of k-mers the count tables are initially sized for.
+     */
+    private static final int INITIAL_TABLE_SIZE = 1 << 8;
+    /**
+     * The maximum number of solid k-mers passed on to the consumer at once.
+     */
+    public static final int CHUNK_SIZE = 1 << 16;
+    /**
+     * The number of chunks a merging task may produce ahead of the consumer.
+     */
+    private static final int MERGE_QUEUE_DEPTH = 2;
+    /**
+     * The size of the read buffer of each spill file during the merge phase.
+     */
+    private static final int RUN_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The k-mer size this counter is for.
+     */
+    private final int kmerSize;
+    /**
+     * The number of threads counting and merging the k-mers.
+     */
+    private final int numThreads;
+    /**
+     * The minimum number of occurrences of a solid k-mer.
+     */
+    private final int minCount;
+    /**
+     * The maximum number of occurrences of a solid k-mer.
+     */
+    private final int maxCount;
+    /**
+     * The number of bytes the count tables of all threads may occupy before they are spilled to disk.
+     */
+    private final long memoryBudget;
+    /**
+     * The directory in which the temporary spill files are created or null for the default temporary directory.
+     */
+    private final String spillDirectory;
+    private final RollingKmerEncoder encoder;
+    /**
+     * The number of bits by which a k-mer is shifted to obtain its partition.
+     */
+    private final int partitionShift;
+    private final int numPartitions;
+    /**
+     * The number of spills of the current run, used to name the spill files.
+     */
+    private final AtomicInteger numRuns = new AtomicInteger();
+    /**
+     * The number of k-mer occurrences counted by the last run.
+     */
+    private final AtomicLong numKmers = new AtomicLong();
+    /**
+     * The number of times the count tables of a thread were spilled by the last run.
+     */
+    private final AtomicLong numSpills = new AtomicLong();
+    /**
+     * The number of distinct k-mers found by the last run.
+     */
+    private final AtomicLong numDistinctKmers = new AtomicLong();
+    /**
+     * The number of solid k-mers passed on by the last run.
+     */
+    private long numSolidKmers = 0;
+    /**
+     * The first failure of a worker of the current run or null.
+     */
+    private volatile Throwable failure = null;
+
+    /**
+     * Create a k-mer counter for a specified k-mer size.
+     *
+     * @param kmerSize k-mer size in the range [1, {@link DNA#MAX_KMER_SIZE}]
+     * @param numThreads number of threads counting and merging the k-mers
+     * @param minCount minimum number of occurrences of a solid k-mer
+     * @param maxCount maximum number of occurrences of a solid k-mer
+     * @param memoryBudget number of bytes the count tables may occupy before they are spilled to disk
+     * @param spillDirectory directory in which the temporary spill files are created or null for the default
+     *                       temporary directory
+     */
+    public DatabaseCounter(int kmerSize, int numThreads, int minCount, int maxCount, long memoryBudget,
+                           String spillDirectory) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        if (minCount < 1 || maxCount < minCount) {
+            throw new IllegalArgumentException("The counts need to satisfy 1 <= minCount <= maxCount");
+        }
+        if (memoryBudget < 1) {
+            throw new IllegalArgumentException("The memory budget needs to be positive");
+        }
+        encoder = new RollingKmerEncoder(kmerSize);
+        this.kmerSize = kmerSize;
+        this.numThreads = numThreads;
+        this.minCount = minCount;
+        this.maxCount = maxCount;
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+
+        int partitionBases = Math.min(MAX_PARTITION_BASES, kmerSize);
+        partitionShift = (kmerSize - partitionBases) << 1;
+        numPartitions = 1 << (partitionBases << 1);
+    }
+
+    /**
+     * Count the canonical k-mers of all reads of specified fastq or fasta files and pass the solid k-mers on to a
+     * specified consumer in ascending order.
+     *
+     * @param readFilePaths paths to the plain or gzip-compressed read files
+     * @param consumer consumer receiving the solid k-mers chunk by chunk
+     * @throws IOException if reading the reads, spilling the counts or consuming the k-mers failed
+     */
+    public void count(String[] readFilePaths, CountedKmerConsumer consumer) throws IOException {
+        failure = null;
+        numKmers.set(0);
+        numSpills.set(0);
+        numRuns.set(0);
+        numDistinctKmers.set(0);
+        numSolidKmers = 0;
+
+        Path tempDirectory = spillDirectory == null ? Files.createTempDirectory("kmer-counts")
+                : Files.createTempDirectory(Paths.get(spillDirectory), "kmer-counts");
+        Partitions partitions = new Partitions();
+
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        Throwable runFailure = null;
+        try {
+            for (String readFilePath : readFilePaths) {
+                try (ReadSource readSource = new FastxReadSource(readFilePath)) {
+                    countReads(readSource, pool, partitions, tempDirectory);
+                }
+            }
+            mergePartitions(pool, partitions, tempDirectory, consumer);
+        } catch (Throwable throwable) {
+            runFailure = throwable;
+            throw throwable;
+        } finally {
+            pool.shutdownNow();
+            while (true) {
+                try {
+                    if (pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                        break;
+                    }
+                } catch (InterruptedException exception) {}
+            }
+            try {
+                deleteSpillFiles(tempDirectory);
+            } catch (IOException exception) {
+                // a failure of the run is more relevant than a failed cleanup
+                if (runFailure == null) {
+                    throw exception;
+                }
+                runFailure.addSuppressed(exception);
+            }
+        }
+    }
+
+    /**
+     * Delete the spill files and the temporary directory containing them, trying every file even if deleting one of
+     * them fails.
+     *
+     * @param tempDirectory directory of the spill files
+     * @throws IOException the first failure to list or delete a file, with later failures suppressed
+     */
+    private static void deleteSpillFiles(Path tempDirectory) throws IOException {
+        IOException failure = null;
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                try {
+                    Files.delete(file);
+                } catch (IOException exception) {
+                    failure = addFailure(failure, exception);
+                }
+            }
+        } catch (IOException exception) {
+            failure = addFailure(failure, exception);
+        } catch (UncheckedIOException exception) {
+            failure = addFailure(failure, exception.getCause());
+        }
+        try {
+            Files.delete(tempDirectory);
+        } catch (IOException exception) {
+            failure = addFailure(failure, exception);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Combine a specified failure with the failures seen so far.
+     *
+     * @param failure first failure seen so far or null
+     * @param exception new failure
+     * @return the first failure with the new failure suppressed or the new failure if it is the first one
+     */
+    private static IOException addFailure(IOException failure, IOException exception) {
+        if (failure == null) {
+            return exception;
+        }
+        failure.addSuppressed(exception);
+        return failure;
+    }
+
+    /**
+     * Perform the counting phase for the reads of a specified read source: fill batches of reads and count their
+     * k-mers with tasks of a specified pool. Returns after all tasks have completed.
+     *
+     * @param readSource source of the reads
+     * @param pool pool running the counting tasks
+     * @param partitions count tables of the partitions
+     * @param tempDirectory directory of the spill files
+     * @throws IOException if reading the reads or spilling the counts failed
+     */
+    private void countReads(ReadSource readSource, ExecutorService pool, Partitions partitions,
+                            Path tempDirectory) throws IOException {
+        // every batch is either free or counted by a task, so at most numBatches batches are held in memory
+        int numBatches = 2 * numThreads;
+        BlockingQueue<ReadBatch> freeBatches = new ArrayBlockingQueue<>(numBatches);
+        for (int i = 0; i < numBatches; i++) {
+            freeBatches.add(new ReadBatch(BATCH_SIZE, 0));
+        }
+
+        while (failure == null) {
+            ReadBatch batch = take(freeBatches);
+            batch.clear(0);
+            if (readSource.fill(batch) == 0) {
+                freeBatches.add(batch);
+                break;
+            }
+            pool.execute(() -> {
+                try {
+                    countBatch(batch, partitions, tempDirectory);
+                } catch (Throwable throwable) {
+                    fail(throwable);
+                } finally {
+                    freeBatches.add(batch);
+                }
+            });
+        }
+
+        // all tasks have completed once every batch is free again
+        for (int i = 0; i < numBatches; i++) {
+            take(freeBatches);
+        }
+        if (failure != null) {
+            throw new IOException("Counting k-mers failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Count the k-mers of all reads of a specified batch in the shared count tables, spilling the tables if they
+     * exceed the memory budget.
+     *
+     * @param batch batch of reads
+     * @param partitions count tables of the partitions
+     * @param tempDirectory directory of the spill files
+     * @throws IOException if spilling the counts failed
+     */
+    private void countBatch(ReadBatch batch, Partitions partitions, Path tempDirectory) throws IOException {
+        byte[] bases = batch.getBases();
+        long[] kmers = new long[0];
+        long count = 0;
+        partitions.lock.readLock().lock();
+        try {
+            for (int read = 0; read < batch.getNumReads(); read++) {
+                int start = batch.getStart(read);
+                int end = batch.getEnd(read);
+                int maxKmers = encoder.numKmers(end - start);
+                if (kmers.length < maxKmers) {
+                    kmers = new long[maxKmers];
+                }
+                int numReadKmers = encoder.encode(bases, start, end, kmers);
+                for (int i = 0; i < numReadKmers; i++) {
+                    long kmer = kmers[i];
+                    partitions.tables[(int) (kmer >>> partitionShift)].add(kmer, 1);
+                }
+                count += numReadKmers;
+            }
+        } finally {
+            partitions.lock.readLock().unlock();
+        }
+        numKmers.addAndGet(count);
+
+        if (partitions.getSizeInBytes() > memoryBudget) {
+            partitions.lock.writeLock().lock();
+            try {
+                // another thread may have spilled the tables while this thread waited for the lock
+                if (partitions.getSizeInBytes() > memoryBudget) {
+                    spill(partitions, tempDirectory);
+                }
+            } finally {
+                partitions.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Write the counts of the tables as sorted runs to new spill files of their partitions and replace the tables by
+     * empty ones. Needs to be called while holding the write lock of the tables.
+     *
+     * @param partitions count tables of the partitions
+     * @param tempDirectory directory of the spill files
+     * @throws IOException if writing a spill file failed
+     */
+    private void spill(Partitions partitions, Path tempDirectory) throws IOException {
+        int run = numRuns.getAndIncrement();
+        for (int partition = 0; partition < numPartitions; partition++) {
+            ConcurrentHashSet table = partitions.tables[partition];
+            if (table.getNumElements() == 0) {
+                continue;
+            }
+            long[] kmers = table.toArray();
+            Path runFile = tempDirectory.resolve("partition-" + partition + "-run-" + run + ".bin");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(runFile.toFile())))) {
+                for (long kmer : kmers) {
+                    output.writeLong(kmer);
+                    output.writeInt(table.getCount(kmer));
+                }
+            }
+            partitions.tables[partition] = new ConcurrentHashSet(kmerSize, INITIAL_TABLE_SIZE, true);
+        }
+        numSpills.incrementAndGet();
+    }
+
+    /**
+     * Perform the merge phase: merge the partitions with tasks of a specified pool, keeping at most numThreads
+     * partitions in flight, and pass the solid k-mers of each partition on to a specified consumer in order.
+     * Each task hands its solid k-mers over in chunks through a bounded queue, so a task merging a partition ahead
+     * of the consumer waits instead of buffering the partition.
+     *
+     * @param pool pool running the merging tasks
+     * @param partitions count tables of the partitions
+     * @param tempDirectory directory of the spill files
+     * @param consumer consumer receiving the solid k-mers chunk by chunk
+     * @throws IOException if reading a spill file or consuming the k-mers failed
+     */
+    private void mergePartitions(ExecutorService pool, Partitions partitions, Path tempDirectory,
+                                 CountedKmerConsumer consumer) throws IOException {
+        ArrayDeque<BlockingQueue<Chunk>> inFlight = new ArrayDeque<>();
+        int nextPartition = 0;
+        while (nextPartition < numPartitions || !inFlight.isEmpty()) {
+            while (nextPartition < numPartitions && inFlight.size() < numThreads) {
+                int partition = nextPartition;
+                BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(MERGE_QUEUE_DEPTH);
+                pool.execute(() -> {
+                    try {
+                        mergePartition(partition, partitions, tempDirectory, chunks);
+                    } catch (Throwable throwable) {
+                        fail(throwable);
+                    } finally {
+                        put(chunks, Chunk.END);
+                    }
+                });
+                inFlight.add(chunks);
+                nextPartition++;
+            }
+
+            BlockingQueue<Chunk> chunks = inFlight.poll();
+            while (true) {
+                Chunk chunk;
+                try {
+                    chunk = chunks.take();
+                } catch (InterruptedException exception) {
+                    throw new IOException("Merging k-mer counts was interrupted", exception);
+                }
+                if (chunk == Chunk.END) {
+                    break;
+                }
+                numSolidKmers += chunk.kmers.length;
+                consumer.accept(chunk.kmers, chunk.counts);
+            }
+            if (failure != null) {
+                throw new IOException("Merging k-mer counts failed: " + failure.getMessage(), failure);
+            }
+        }
+    }
+
+    /**
+     * Merge the count table and the sorted spill runs of a specified partition with a k-way merge
+     * and pass its solid k-mers on in chunks of at most {@link #CHUNK_SIZE} k-mers. Only the current k-mer of each
+     * source is held in memory besides the chunks, so the memory needed does not depend on the size of the partition.
+     * The table of the partition is released.
+     *
+     * @param partition index of the partition
+     * @param partitions count tables of the partitions
+     * @param tempDirectory directory of the spill files
+     * @param chunks queue receiving the chunks of solid k-mers
+     * @throws IOException if reading a spill file failed
+     */
+    private void mergePartition(int partition, Partitions partitions, Path tempDirectory,
+                                BlockingQueue<Chunk> chunks) throws IOException {
+        PriorityQueue<RunReader> sources = new PriorityQueue<>(Comparator.comparingLong(source -> source.kmer));
+        try {
+            ConcurrentHashSet table = partitions.tables[partition];
+            partitions.tables[partition] = null;
+            if (table.getNumElements() > 0) {
+                RunReader source = new RunReader(table);
+                source.next();
+                sources.add(source);
+            }
+            try (DirectoryStream<Path> runFiles = Files.newDirectoryStream(tempDirectory,
+                    "partition-" + partition + "-run-*.bin")) {
+                for (Path runFile : runFiles) {
+                    RunReader source = new RunReader(runFile);
+                    if (source.next()) {
+                        sources.add(source);
+                    } else {
+                        source.close();
+                    }
+                }
+            }
+
+            long[] kmers = new long[CHUNK_SIZE];
+            int[] counts = new int[CHUNK_SIZE];
+            int numChunkKmers = 0;
+            long numDistinct = 0;
+            while (!sources.isEmpty()) {
+                // sum the counts of the smallest k-mer over all sources
+                long kmer = sources.peek().kmer;
+                long count = 0;
+                while (!sources.isEmpty() && sources.peek().kmer == kmer) {
+                    RunReader source = sources.poll();
+                    count += source.count;
+                    if (source.next()) {
+                        sources.add(source);
+                    } else {
+                        source.close();
+                    }
+                }
+                numDistinct++;
+
+                if (count >= minCount && count <= maxCount) {
+                    kmers[numChunkKmers] = kmer;
+                    counts[numChunkKmers] = (int) count;
+                    numChunkKmers++;
+                    if (numChunkKmers == CHUNK_SIZE) {
+                        if (!put(chunks, new Chunk(kmers, counts))) {
+                            return;
+                        }
+                        kmers = new long[CHUNK_SIZE];
+                        counts = new int[CHUNK_SIZE];
+                        numChunkKmers = 0;
+                    }
+                }
+            }
+            if (numChunkKmers > 0) {
+                put(chunks, new Chunk(Arrays.copyOf(kmers, numChunkKmers), Arrays.copyOf(counts, numChunkKmers)));
+            }
+            numDistinctKmers.addAndGet(numDistinct);
+        } finally {
+            for (RunReader source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    /**
+     * Put a chunk into a specified queue, waiting until space is available.
+     *
+     * @param queue queue to put the chunk into
+     * @param chunk chunk to put into the queue
+     * @return <ul>
+     *     <li>true if the chunk was put into the queue</li>
+     *     <li>false if the merge phase was aborted</li>
+     * </ul>
+     */
+    private boolean put(BlockingQueue<Chunk> queue, Chunk chunk) {
+        try {
+            queue.put(chunk);
+            return true;
+        } catch (InterruptedException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Take the next batch from a specified queue, waiting until one is available.
+     *
+     * @param queue queue to take the batch from
+     * @return next batch of the queue
+     */
+    private ReadBatch take(BlockingQueue<ReadBatch> queue) {
+        while (true) {
+            try {
+                return queue.take();
+            } catch (InterruptedException exception) {}
+        }
+    }
+
+    /**
+     * Record the failure of a worker, which stops the counting phase.
+     *
+     * @param throwable cause of the failure
+     */
+    private synchronized void fail(Throwable throwable) {
+        if (failure == null) {
+            failure = throwable;
+        }
+    }
+
+    /**
+     * The count tables of the partitions shared by all threads of a run.
+     */
+    private class Partitions {
+
+        private final ConcurrentHashSet[] tables = new ConcurrentHashSet[numPartitions];
+        /**
+         * The lock held for reading while counting k-mers in the tables and for writing while spilling them.
+         */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private Partitions() {
+            for (int partition = 0; partition < numPartitions; partition++) {
+                tables[partition] = new ConcurrentHashSet(kmerSize, INITIAL_TABLE_SIZE, true);
+            }
+        }
+
+        /**
+         * Compute the number of bytes occupied by the count tables.
+         *
+         * @return size of the count tables in bytes
+         */
+        private long getSizeInBytes() {
+            long size = 0;
+            for (ConcurrentHashSet table : tables) {
+                size += table.getSizeInBytes();
+            }
+            return size;
+        }
+
+    }
+
+    /**
+     * A chunk of consecutive solid k-mers of a merged partition.
+     */
+    private static class Chunk {
+
+        /**
+         * The marker of the end of a partition.
+         */
+        private static final Chunk END = new Chunk(new long[0], new int[0]);
+
+        private final long[] kmers;
+        private final int[] counts;
+
+        private Chunk(long[] kmers, int[] counts) {
+            this.kmers = kmers;
+            this.counts = counts;
+        }
+
+    }
+
+    /**
+     * A sorted run of k-mers and their counts, read either from a spill file or from a count table, of which the
+     * current k-mer is the smallest one not yet merged.
+     */
+    private static class RunReader implements Closeable {
+
+        /**
+         * The input stream of the spill file or null if the run is read from a count table.
+         */
+        private final DataInputStream input;
+        private final ConcurrentHashSet table;
+        private final long[] tableKmers;
+        private int position = 0;
+        private long kmer;
+        private int count;
+
+        private RunReader(Path runFile) throws IOException {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(runFile.toFile()),
+                    RUN_BUFFER_SIZE));
+            table = null;
+            tableKmers = null;
+        }
+
+        private RunReader(ConcurrentHashSet table) {
+            input = null;
+            this.table = table;
+            tableKmers = table.toArray();
+        }
+
+        /**
+         * Advance to the next k-mer of the run.
+         *
+         * @return <ul>
+         *     <li>true if the run holds another k-mer</li>
+         *     <li>false if the run is exhausted</li>
+         * </ul>
+         * @throws IOException if reading the spill file failed
+         */
+        private boolean next() throws IOException {
+            if (input == null) {
+                if (position == tableKmers.length) {
+                    return false;
+                }
+                kmer = tableKmers[position];
+                count = table.getCount(kmer);
+                position++;
+                return true;
+            }
+            try {
+                kmer = input.readLong();
+            } catch (EOFException exception) {
+                return false;
+            }
+            count = input.readInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (input != null) {
+                input.close();
+            }
+        }
+
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public int getMinCount() {
+        return minCount;
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public int getNumPartitions() {
+        return numPartitions;
+    }
+
+    public long getNumKmers() {
+        return numKmers.get();
+    }
+
+    public long getNumSpills() {
+        return numSpills.get();
+    }
+
+    public long getNumDistinctKmers() {
+        return numDistinctKmers.get();
+    }
+
+    public long getNumSolidKmers() {
+        return numSolidKmers;
+    }
+
+}
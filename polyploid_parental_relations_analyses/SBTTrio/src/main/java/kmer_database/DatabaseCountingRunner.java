@@ -0,0 +1,140 @@
+package kmer_database;
+
+import org.apache.commons.cli.*;
+import util.ArgumentValidation;
+
+import java.io.File;
+import java.io.IOException;
+
+public class DatabaseCountingRunner {
+
+    public static void main(String[] args) throws IOException {
+        // define options
+        Options options = new Options();
+
+        Option readFiles = Option.builder("r").longOpt("reads")
+                .hasArgs().argName("file")
+                .valueSeparator(';')
+                .required()
+                .desc("paths to the fastq or fasta files of the reads of the parent separated by ;")
+                .build();
+        Option kmerSize = Option.builder("k").longOpt("kmer-size")
+                .hasArg().argName("K")
+                .required()
+                .desc("length of the kmers")
+                .build();
+        Option numThreads = Option.builder("t").longOpt("threads")
+                .hasArg().argName("T")
+                .desc("use T threads. Default: 8")
+                .build();
+        Option minCount = Option.builder().longOpt("min-count")
+                .hasArg().argName("C")
+                .desc("keep only kmers occurring at least C times. Default: 1")
+                .build();
+        Option maxCount = Option.builder().longOpt("max-count")
+                .hasArg().argName("C")
+                .desc("keep only kmers occurring at most C times. Default: unlimited")
+                .build();
+        Option memory = Option.builder().longOpt("memory")
+                .hasArg().argName("M")
+                .desc("spill the kmer counts to disk as soon as they occupy more than M MiB. Default: 4096")
+                .build();
+        Option spillDirectory = Option.builder().longOpt("spill-dir")
+                .hasArg().argName("directory")
+                .desc("directory of the temporary spill files. Default: the system temporary directory")
+                .build();
+        Option outputFile = Option.builder("o").longOpt("output")
+                .hasArg().argName("file")
+                .required()
+                .desc("path of the kmer database to write")
+                .build();
+
+        options.addOption(readFiles);
+        options.addOption(kmerSize);
+        options.addOption(numThreads);
+        options.addOption(minCount);
+        options.addOption(maxCount);
+        options.addOption(memory);
+        options.addOption(spillDirectory);
+        options.addOption(outputFile);
+
+        // parse options
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter helpFormatter = new HelpFormatter();
+        CommandLine cmd = null;
+
+        try {
+            cmd = parser.parse(options, args);
+        } catch (ParseException parseException) {
+            System.out.println(parseException.getMessage());
+            helpFormatter.printHelp("StaticBurstTrieTrio", options);
+            System.exit(1);
+        }
+
+        // validate options
+        String[] files = cmd.getOptionValues(readFiles);
+        for (String file : files) {
+            ArgumentValidation.validateFileArgument(file);
+        }
+        int size = ArgumentValidation.validateIntArgument(cmd.getOptionValue(kmerSize));
+        int threads = 8;
+        if (cmd.hasOption(numThreads)) {
+            threads = ArgumentValidation.validateIntArgument(cmd.getOptionValue(numThreads));
+        }
+        int min = 1;
+        if (cmd.hasOption(minCount)) {
+            min = ArgumentValidation.validateIntArgument(cmd.getOptionValue(minCount));
+        }
+        int max = Integer.MAX_VALUE;
+        if (cmd.hasOption(maxCount)) {
+            max = ArgumentValidation.validateIntArgument(cmd.getOptionValue(maxCount));
+        }
+        int memoryMiB = 4096;
+        if (cmd.hasOption(memory)) {
+            memoryMiB = ArgumentValidation.validateIntArgument(cmd.getOptionValue(memory));
+        }
+        String directory = null;
+        if (cmd.hasOption(spillDirectory)) {
+            directory = cmd.getOptionValue(spillDirectory);
+            if (!new File(directory).isDirectory()) {
+                System.out.println(directory + " is not a valid directory.");
+                System.out.println("Exiting program.");
+                System.exit(1);
+            }
+        }
+
+        // count the kmers
+        countDatabase(files, size, threads, min, max, (long) memoryMiB << 20, directory,
+                cmd.getOptionValue(outputFile));
+    }
+
+    /**
+     * Count the solid k-mers of specified read files and write them to a k-mer database file.
+     *
+     * @param readFiles array of strings representing the paths to the read files of a parent
+     * @param kmerSize k-mer size of the database
+     * @param numThreads number of threads
+     * @param minCount minimum number of occurrences of a solid k-mer
+     * @param maxCount maximum number of occurrences of a solid k-mer
+     * @param memoryBudget number of bytes the k-mer counts may occupy before they are spilled to disk
+     * @param spillDirectory directory of the temporary spill files or null for the default temporary directory
+     * @param outputFile path of the k-mer database file to write
+     * @throws IOException
+     */
+    public static void countDatabase(String[] readFiles, int kmerSize, int numThreads, int minCount, int maxCount,
+                                     long memoryBudget, String spillDirectory, String outputFile) throws IOException {
+        DatabaseCounter counter = new DatabaseCounter(kmerSize, numThreads, minCount, maxCount, memoryBudget,
+                spillDirectory);
+
+        System.out.println("Counting kmers");
+        try (DatabaseWriter writer = new DatabaseWriter(outputFile, kmerSize)) {
+            counter.count(readFiles, writer);
+        }
+
+        System.out.println("Counted " + counter.getNumKmers() + " kmers, " + counter.getNumDistinctKmers()
+                + " distinct kmers and " + counter.getNumSolidKmers() + " solid kmers with "
+                + counter.getNumSpills() + " spills");
+        System.out.println("Done");
+    }
+
+}
@@ -0,0 +1,57 @@
+package kmer_database;
+
+import dna.DNAUtil;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Implements a consumer of counted k-mers which writes them to a k-mer database file.
+ *
+ * Each line of the file holds the string representation of a k-mer and its count separated by a tab. As the k-mers
+ * are received in ascending order, the file is sorted lexicographically and can be indexed by
+ * {@link index_building.IndexBuilder} like any other k-mer database.
+ */
+public class DatabaseWriter implements CountedKmerConsumer, AutoCloseable {
+
+    private final BufferedWriter writer;
+    private final DNAUtil dnaUtil;
+    /**
+     * The number of k-mers written so far.
+     */
+    private long numKmers = 0;
+
+    /**
+     * Create a writer of a k-mer database file of a specified k-mer size.
+     *
+     * @param databasePath path of the database file to create
+     * @param kmerSize k-mer size of the database
+     * @throws IOException if the file cannot be created
+     */
+    public DatabaseWriter(String databasePath, int kmerSize) throws IOException {
+        writer = new BufferedWriter(new FileWriter(databasePath));
+        dnaUtil = new DNAUtil(kmerSize);
+    }
+
+    @Override
+    public void accept(long[] kmers, int[] counts) throws IOException {
+        for (int i = 0; i < kmers.length; i++) {
+            writer.write(dnaUtil.longToString(kmers[i]));
+            writer.write('\t');
+            writer.write(Integer.toString(counts[i]));
+            writer.newLine();
+        }
+        numKmers += kmers.length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    public long getNumKmers() {
+        return numKmers;
+    }
+
+}
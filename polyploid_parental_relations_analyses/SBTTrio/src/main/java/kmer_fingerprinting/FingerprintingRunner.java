@@ -126,17 +126,7 @@ public class FingerprintingRunner {
         KmerSetSampler kmerSetSampler = new KmerSetSampler(kmerSize, new DNAUtil(kmerSize));
         BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(outputPrefix + ".csv"));
 
-        StringBuilder header = new StringBuilder(6 + 28 * databases.length);
-        header.append("setID,");
-        for (int i = 0; i < databases.length; i++) {
-            header.append("fingerprint_").append(i).append(",");
-        }
-        for (int i = 0; i < databases.length - 1; i++) {
-            header.append("intersect_1+").append(i).append(",");
-        }
-        header.deleteCharAt(header.length() - 1);
-        bufferedWriter.write(header.toString());
-        bufferedWriter.newLine();
+        writeHeader(bufferedWriter, databases.length);
 
         System.out.println("Generating fingerprints");
         ExecutorService pool = Executors.newFixedThreadPool(numThreads);
@@ -161,4 +151,25 @@ public class FingerprintingRunner {
         System.out.println("Done");
     }
 
+    /**
+     * Write the header line of the fingerprinting output for a specified number of k-mer databases.
+     *
+     * @param bufferedWriter buffered writer to write the header line with
+     * @param numDatabases number of k-mer databases
+     * @throws IOException
+     */
+    public static void writeHeader(BufferedWriter bufferedWriter, int numDatabases) throws IOException {
+        StringBuilder header = new StringBuilder(6 + 28 * numDatabases);
+        header.append("setID,");
+        for (int i = 0; i < numDatabases; i++) {
+            header.append("fingerprint_").append(i).append(",");
+        }
+        for (int i = 0; i < numDatabases - 1; i++) {
+            header.append("intersect_1+").append(i).append(",");
+        }
+        header.deleteCharAt(header.length() - 1);
+        bufferedWriter.write(header.toString());
+        bufferedWriter.newLine();
+    }
+
 }
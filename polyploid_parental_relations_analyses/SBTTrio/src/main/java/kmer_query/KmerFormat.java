@@ -0,0 +1,18 @@
+package kmer_query;
+
+/**
+ * Represents the formats of the k-mers and membership bitmasks read and written by k-mer queries.
+ */
+public enum KmerFormat {
+
+    /**
+     * One k-mer per line as string of bases, followed by optional whitespace separated columns which are ignored.
+     * Results are written as k-mer and decimal bitmask separated by a tab.
+     */
+    TEXT,
+    /**
+     * One 2-bit encoded k-mer per little-endian long. Results are written as one bitmask per little-endian long.
+     */
+    BINARY
+
+}
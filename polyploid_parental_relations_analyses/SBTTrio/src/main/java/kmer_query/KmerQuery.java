@@ -0,0 +1,200 @@
+package kmer_query;
+
+import dna.SequenceKernels;
+import util.DataStructure;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Implements answering membership queries of k-mers against a set of k-mer databases in parallel batches.
+ *
+ * The calling thread reads the k-mers in batches and submits one task per batch to a pool of worker threads. Each task
+ * computes the membership bitmask of every k-mer of its batch. The calling thread writes the results of the batches in
+ * input order, and at most two batches per worker thread are in flight, so the memory used does not depend on the
+ * size of the input.
+ *
+ * Since the databases contain canonical k-mers, the canonical form of each k-mer is searched by default.
+ */
+public class KmerQuery {
+
+    /**
+     * The maximum number of databases, one per bit of a bitmask.
+     */
+    public static final int MAX_DATABASES = Long.SIZE;
+
+    private final DataStructure[] databases;
+    private final int kmerSize;
+    /**
+     * Whether the canonical forms of the k-mers are searched instead of the k-mers as given.
+     */
+    private final boolean canonical;
+    private final int numThreads;
+    /**
+     * The maximum number of k-mers per batch.
+     */
+    private final int batchSize;
+
+    /**
+     * Create a k-mer query for a specified set of k-mer databases, k-mer size, number of threads and batch size.
+     *
+     * @param databases array of data structures representing the indices for the set of k-mer databases
+     * @param kmerSize size of the queried k-mers
+     * @param canonical whether the canonical forms of the k-mers are searched instead of the k-mers as given
+     * @param numThreads number of worker threads
+     * @param batchSize maximum number of k-mers per batch
+     */
+    public KmerQuery(DataStructure[] databases, int kmerSize, boolean canonical, int numThreads, int batchSize) {
+        if (databases.length < 1 || databases.length > MAX_DATABASES) {
+            throw new IllegalArgumentException("The number of databases must be in the range [1, "
+                    + MAX_DATABASES + "]");
+        }
+        if (numThreads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Number of threads and batch size need to be positive");
+        }
+        this.databases = databases;
+        this.kmerSize = kmerSize;
+        this.canonical = canonical;
+        this.numThreads = numThreads;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Answer the membership queries of all k-mers of a specified reader and write the results with a specified
+     * writer. Neither the reader nor the writer is closed.
+     *
+     * @param kmerReader reader of the queried k-mers
+     * @param resultWriter writer of the membership bitmasks
+     * @return statistics of the queries
+     * @throws IOException if reading the k-mers, querying them or writing the results failed
+     */
+    public QueryStatistics run(KmerReader kmerReader, QueryResultWriter resultWriter) throws IOException {
+        long startTime = System.nanoTime();
+        long numKmers = 0;
+        long[] numHits = new long[databases.length];
+
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        Queue<Future<Batch>> inFlight = new ArrayDeque<>();
+        try {
+            while (true) {
+                Batch batch = new Batch(batchSize);
+                batch.numKmers = kmerReader.read(batch.kmers);
+                if (batch.numKmers == 0) {
+                    break;
+                }
+                numKmers += batch.numKmers;
+                inFlight.add(pool.submit(() -> query(batch)));
+
+                if (inFlight.size() >= 2 * numThreads) {
+                    write(await(inFlight.remove()), resultWriter, numHits);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                write(await(inFlight.remove()), resultWriter, numHits);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new QueryStatistics(numKmers, numHits, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Compute the membership bitmasks of the k-mers of a specified batch.
+     *
+     * @param batch batch of k-mers
+     * @return the batch holding the bitmasks
+     */
+    private Batch query(Batch batch) {
+        long[] patterns = batch.kmers;
+        if (canonical) {
+            patterns = Arrays.copyOf(batch.kmers, batch.numKmers);
+            SequenceKernels.canonicalForms(patterns, 0, batch.numKmers, kmerSize);
+        }
+        for (int i = 0; i < batch.numKmers; i++) {
+            long mask = 0;
+            for (int j = 0; j < databases.length; j++) {
+                if (databases[j].search(patterns[i])) {
+                    mask |= 1L << j;
+                }
+            }
+            batch.masks[i] = mask;
+        }
+        return batch;
+    }
+
+    /**
+     * Write the results of a specified batch and count the hits per database.
+     *
+     * @param batch batch of which to write the results
+     * @param resultWriter writer of the membership bitmasks
+     * @param numHits array containing the number of k-mers contained in each database
+     * @throws IOException
+     */
+    private void write(Batch batch, QueryResultWriter resultWriter, long[] numHits) throws IOException {
+        for (int i = 0; i < batch.numKmers; i++) {
+            long mask = batch.masks[i];
+            while (mask != 0) {
+                numHits[Long.numberOfTrailingZeros(mask)]++;
+                mask &= mask - 1;
+            }
+        }
+        resultWriter.write(batch.kmers, batch.masks, batch.numKmers);
+    }
+
+    /**
+     * Wait for the result of a specified task.
+     *
+     * @param future future of the task
+     * @return batch queried by the task
+     * @throws IOException if the task failed
+     */
+    private static Batch await(Future<Batch> future) throws IOException {
+        while (true) {
+            try {
+                return future.get();
+            } catch (ExecutionException exception) {
+                throw new IOException("Query failed: " + exception.getCause().getMessage(), exception.getCause());
+            } catch (InterruptedException exception) {}
+        }
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Represents a batch of k-mers and their membership bitmasks.
+     */
+    private static class Batch {
+
+        private final long[] kmers;
+        private final long[] masks;
+        private int numKmers;
+
+        private Batch(int batchSize) {
+            kmers = new long[batchSize];
+            masks = new long[batchSize];
+        }
+
+    }
+
+}
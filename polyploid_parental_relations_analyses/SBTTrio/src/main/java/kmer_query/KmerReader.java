@@ -0,0 +1,199 @@
+package kmer_query;
+
+import dna.DNA;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Implements reading batches of k-mers from a file or the standard input in text or binary format.
+ */
+public class KmerReader implements Closeable {
+
+    /**
+     * The path standing for the standard input.
+     */
+    public static final String STANDARD_INPUT = "-";
+    /**
+     * The size of the buffer for binary input in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final KmerFormat format;
+    private final int kmerSize;
+    /**
+     * The reader of text input or null for binary input.
+     */
+    private final BufferedReader reader;
+    /**
+     * The channel of binary input or null for text input.
+     */
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    /**
+     * The number of the last line read from text input.
+     */
+    private long lineNumber = 0;
+
+    /**
+     * Create a k-mer reader for a specified input stream, format and k-mer size.
+     *
+     * @param inputStream stream to read the k-mers from
+     * @param format format of the k-mers
+     * @param kmerSize size of the k-mers in the range [1, {@link DNA#MAX_KMER_SIZE}]
+     */
+    public KmerReader(InputStream inputStream, KmerFormat format, int kmerSize) {
+        if (kmerSize < 1 || kmerSize > DNA.MAX_KMER_SIZE) {
+            throw new IllegalArgumentException("The k-mer size must be in the range [1, " + DNA.MAX_KMER_SIZE + "]");
+        }
+        this.format = format;
+        this.kmerSize = kmerSize;
+        if (format == KmerFormat.TEXT) {
+            reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII), BUFFER_SIZE);
+            channel = null;
+            buffer = null;
+        } else {
+            reader = null;
+            channel = Channels.newChannel(inputStream);
+            buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Create a k-mer reader for a specified file or the standard input.
+     *
+     * @param path path to the file or {@link #STANDARD_INPUT}
+     * @param format format of the k-mers
+     * @param kmerSize size of the k-mers
+     * @return k-mer reader for the file
+     * @throws IOException
+     */
+    public static KmerReader open(String path, KmerFormat format, int kmerSize) throws IOException {
+        InputStream inputStream = path.equals(STANDARD_INPUT) ? System.in : new FileInputStream(path);
+        return new KmerReader(inputStream, format, kmerSize);
+    }
+
+    /**
+     * Read the next k-mers into a specified array until the array is full or the input is exhausted.
+     *
+     * @param kmers array to write the numeric representations of the k-mers to
+     * @return number of k-mers read, 0 if and only if the input is exhausted
+     * @throws IOException if the input cannot be read or contains an invalid k-mer
+     */
+    public int read(long[] kmers) throws IOException {
+        return format == KmerFormat.TEXT ? readText(kmers) : readBinary(kmers);
+    }
+
+    /**
+     * Read the next k-mers from text input, skipping blank lines.
+     *
+     * @param kmers array to write the numeric representations of the k-mers to
+     * @return number of k-mers read
+     * @throws IOException if the input cannot be read or contains an invalid k-mer
+     */
+    private int readText(long[] kmers) throws IOException {
+        int numKmers = 0;
+        String line;
+        while (numKmers < kmers.length && (line = reader.readLine()) != null) {
+            lineNumber++;
+            int end = 0;
+            while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+                end++;
+            }
+            if (end == 0) {
+                continue;
+            }
+            if (end != kmerSize) {
+                throw new IOException("Line " + lineNumber + " does not start with a k-mer of size " + kmerSize);
+            }
+
+            long kmer = 0;
+            for (int i = 0; i < end; i++) {
+                int code = DNA.charToCode(line.charAt(i), true);
+                if (code == DNA.INVALID_CODE) {
+                    throw new IOException("Line " + lineNumber + " contains the invalid base " + line.charAt(i));
+                }
+                kmer = (kmer << 2) | code;
+            }
+            kmers[numKmers++] = kmer;
+        }
+        return numKmers;
+    }
+
+    /**
+     * Read the next k-mers from binary input.
+     *
+     * @param kmers array to write the numeric representations of the k-mers to
+     * @return number of k-mers read
+     * @throws IOException if the input cannot be read, ends within a k-mer or contains an invalid k-mer
+     */
+    private int readBinary(long[] kmers) throws IOException {
+        long limit = 1L << (kmerSize << 1);
+        int numKmers = 0;
+        while (numKmers < kmers.length) {
+            if (buffer.remaining() < Long.BYTES && !refill()) {
+                break;
+            }
+            long kmer = buffer.getLong();
+            if (kmer < 0 || kmer >= limit) {
+                throw new IOException(kmer + " does not represent a k-mer of size " + kmerSize);
+            }
+            kmers[numKmers++] = kmer;
+        }
+        return numKmers;
+    }
+
+    /**
+     * Read more bytes into the buffer until it holds at least one long.
+     *
+     * @return <ul>
+     *     <li>true if the buffer holds at least one long</li>
+     *     <li>false if the input is exhausted</li>
+     * </ul>
+     * @throws IOException if the input ends within a long
+     */
+    private boolean refill() throws IOException {
+        buffer.compact();
+        while (buffer.position() < Long.BYTES) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        if (buffer.remaining() == 0) {
+            return false;
+        }
+        if (buffer.remaining() < Long.BYTES) {
+            throw new IOException("The input ends within a k-mer");
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        } else {
+            channel.close();
+        }
+    }
+
+    public KmerFormat getFormat() {
+        return format;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+}
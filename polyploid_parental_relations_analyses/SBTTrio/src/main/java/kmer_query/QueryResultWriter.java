@@ -0,0 +1,89 @@
+package kmer_query;
+
+import dna.DNAUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Implements writing the membership bitmasks of queried k-mers in text or binary format.
+ * Bit i of the bitmask of a k-mer is set if and only if the k-mer is contained in database i.
+ */
+public class QueryResultWriter implements Closeable {
+
+    /**
+     * The size of the buffer of the output stream in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream outputStream;
+    private final KmerFormat format;
+    private final DNAUtil dnaUtil;
+    /**
+     * The string builder reused for formatting the results of each batch in text format.
+     */
+    private final StringBuilder builder = new StringBuilder();
+    /**
+     * The buffer reused for encoding the results of each batch in binary format.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+    /**
+     * Create a result writer for a specified output stream, format and k-mer size.
+     * The stream is closed when the writer is closed.
+     *
+     * @param outputStream stream to write the results to
+     * @param format format of the results
+     * @param kmerSize size of the queried k-mers
+     */
+    public QueryResultWriter(OutputStream outputStream, KmerFormat format, int kmerSize) {
+        this.outputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        this.format = format;
+        dnaUtil = new DNAUtil(kmerSize);
+    }
+
+    /**
+     * Write the results of a batch of queried k-mers.
+     *
+     * @param kmers numeric representations of the queried k-mers
+     * @param masks membership bitmasks of the k-mers
+     * @param numKmers number of k-mers of the batch
+     * @throws IOException
+     */
+    public void write(long[] kmers, long[] masks, int numKmers) throws IOException {
+        if (format == KmerFormat.TEXT) {
+            builder.setLength(0);
+            for (int i = 0; i < numKmers; i++) {
+                builder.append(dnaUtil.longToString(kmers[i]));
+                builder.append('\t');
+                builder.append(masks[i]);
+                builder.append('\n');
+            }
+            outputStream.write(builder.toString().getBytes(StandardCharsets.US_ASCII));
+        } else {
+            if (buffer.capacity() < numKmers * Long.BYTES) {
+                buffer = ByteBuffer.allocate(numKmers * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            buffer.clear();
+            for (int i = 0; i < numKmers; i++) {
+                buffer.putLong(masks[i]);
+            }
+            outputStream.write(buffer.array(), 0, buffer.position());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputStream.close();
+    }
+
+    public KmerFormat getFormat() {
+        return format;
+    }
+
+}
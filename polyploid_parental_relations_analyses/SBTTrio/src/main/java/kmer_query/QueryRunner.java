@@ -0,0 +1,209 @@
+package kmer_query;
+
+import containers.bit_packed_sorted_array.BitPackedSortedArrayFactory;
+import index_building.IndexBuilder;
+import org.apache.commons.cli.*;
+import util.ArgumentValidation;
+import util.DataStructure;
+
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+public class QueryRunner {
+
+    /**
+     * The path standing for the standard output.
+     */
+    public static final String STANDARD_OUTPUT = "-";
+    /**
+     * The default number of k-mers per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1 << 16;
+
+    public static void main(String[] args) throws IOException {
+        // Define options
+        Options options = new Options();
+
+        Option databaseFiles = Option.builder("d").longOpt("databases")
+                .hasArgs().argName("file")
+                .valueSeparator(';')
+                .required()
+                .desc("paths to the kmer databases separated by ;, at most " + KmerQuery.MAX_DATABASES)
+                .build();
+        Option accessTrieHeight = Option.builder("h").longOpt("height")
+                .hasArg().argName("H")
+                .required()
+                .desc("use an access trie of height H")
+                .build();
+        Option kmerSize = Option.builder("k").longOpt("kmer-size")
+                .hasArg().argName("K")
+                .required()
+                .desc("length of the kmers")
+                .build();
+        Option inputFile = Option.builder("i").longOpt("input")
+                .hasArg().argName("file")
+                .desc("path to the file of the queried kmers or - for the standard input. Default: -")
+                .build();
+        Option inputFormat = Option.builder().longOpt("input-format")
+                .hasArg().argName("format")
+                .desc("format of the queried kmers: text (one kmer per line) or binary (one 2-bit encoded kmer per "
+                        + "little-endian long). Default: text")
+                .build();
+        Option outputFile = Option.builder("o").longOpt("output")
+                .hasArg().argName("file")
+                .desc("path to the output file or - for the standard output. Default: -")
+                .build();
+        Option outputFormat = Option.builder().longOpt("output-format")
+                .hasArg().argName("format")
+                .desc("format of the output: text (kmer and decimal bitmask per line) or binary (one bitmask per "
+                        + "little-endian long). Bit i of a bitmask is set if database i contains the kmer. Default: text")
+                .build();
+        Option numThreads = Option.builder("t").longOpt("threads")
+                .hasArg().argName("T")
+                .desc("use T threads. Default: number of available processors")
+                .build();
+        Option batchSize = Option.builder("b").longOpt("batch-size")
+                .hasArg().argName("B")
+                .desc("query B kmers per task. Default: " + DEFAULT_BATCH_SIZE)
+                .build();
+        Option sharedIndex = Option.builder().longOpt("shared-index")
+                .hasArg().argName("dir")
+                .desc("attach the indices published as memory-mapped files in dir instead of building them. "
+                        + "Missing or outdated indices are published first")
+                .build();
+        Option noCanonical = Option.builder().longOpt("no-canonical")
+                .desc("search the kmers as given instead of their canonical forms")
+                .build();
+
+        options.addOption(databaseFiles);
+        options.addOption(accessTrieHeight);
+        options.addOption(kmerSize);
+        options.addOption(inputFile);
+        options.addOption(inputFormat);
+        options.addOption(outputFile);
+        options.addOption(outputFormat);
+        options.addOption(numThreads);
+        options.addOption(batchSize);
+        options.addOption(sharedIndex);
+        options.addOption(noCanonical);
+
+        // Parse options
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter helpFormatter = new HelpFormatter();
+        CommandLine cmd = null;
+
+        try {
+            cmd = parser.parse(options, args);
+        } catch (ParseException parseException) {
+            System.out.println(parseException.getMessage());
+            helpFormatter.printHelp("kmer_query", options);
+            System.exit(1);
+        }
+
+        // Validate options
+        String[] files = cmd.getOptionValues(databaseFiles);
+        for (String file : files) {
+            ArgumentValidation.validateFileArgument(file);
+        }
+        int height = ArgumentValidation.validateIntArgument(cmd.getOptionValue(accessTrieHeight));
+        int size = ArgumentValidation.validateIntArgument(cmd.getOptionValue(kmerSize));
+        String input = cmd.getOptionValue(inputFile, KmerReader.STANDARD_INPUT);
+        if (!input.equals(KmerReader.STANDARD_INPUT)) {
+            ArgumentValidation.validateFileArgument(input);
+        }
+        KmerFormat readFormat = KmerFormat.TEXT;
+        if (cmd.hasOption(inputFormat)) {
+            readFormat = ArgumentValidation.validateEnumArgument(cmd.getOptionValue(inputFormat), KmerFormat.class);
+        }
+        String output = cmd.getOptionValue(outputFile, STANDARD_OUTPUT);
+        KmerFormat writeFormat = KmerFormat.TEXT;
+        if (cmd.hasOption(outputFormat)) {
+            writeFormat = ArgumentValidation.validateEnumArgument(cmd.getOptionValue(outputFormat), KmerFormat.class);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (cmd.hasOption(numThreads)) {
+            threads = ArgumentValidation.validateIntArgument(cmd.getOptionValue(numThreads));
+        }
+        int batch = DEFAULT_BATCH_SIZE;
+        if (cmd.hasOption(batchSize)) {
+            batch = ArgumentValidation.validateIntArgument(cmd.getOptionValue(batchSize));
+        }
+
+        // Answer the queries
+        performQuery(files, height, size, cmd.getOptionValue(sharedIndex), input, readFormat, output, writeFormat,
+                !cmd.hasOption(noCanonical), threads, batch);
+    }
+
+    /**
+     * Perform the entire query process: build or attach the indices, answer the membership queries of all k-mers of
+     * the input and report the throughput. If the results are written to the standard output, all messages are
+     * written to the standard error instead.
+     *
+     * @param databaseFiles array of strings representing the paths to the k-mer databases
+     * @param accessTrieHeight access trie height to use for the indices
+     * @param kmerSize size of the k-mers
+     * @param sharedIndexDirectory directory of the shared index files or null if the indices are built on the heap
+     * @param inputPath path to the file of the queried k-mers or {@link KmerReader#STANDARD_INPUT}
+     * @param inputFormat format of the queried k-mers
+     * @param outputPath path to the output file or {@link #STANDARD_OUTPUT}
+     * @param outputFormat format of the results
+     * @param canonical whether the canonical forms of the k-mers are searched instead of the k-mers as given
+     * @param numThreads number of threads
+     * @param batchSize number of k-mers per batch
+     * @return statistics of the queries
+     * @throws IOException
+     */
+    public static QueryStatistics performQuery(String[] databaseFiles, int accessTrieHeight, int kmerSize,
+                                               String sharedIndexDirectory, String inputPath,
+                                               KmerFormat inputFormat, String outputPath, KmerFormat outputFormat,
+                                               boolean canonical, int numThreads,
+                                               int batchSize) throws IOException {
+        PrintStream standardOutput = System.out;
+        boolean writeToStandardOutput = outputPath.equals(STANDARD_OUTPUT);
+        if (writeToStandardOutput) {
+            // keep the messages of the index construction out of the results
+            System.setOut(System.err);
+        }
+
+        try {
+            // Build or attach indices
+            IndexBuilder indexBuilder = new IndexBuilder(accessTrieHeight, kmerSize);
+            DataStructure[] databases = new DataStructure[databaseFiles.length];
+            for (int i = 0; i < databaseFiles.length; i++) {
+                if (sharedIndexDirectory != null) {
+                    databases[i] = indexBuilder.attachSharedIndex(databaseFiles[i], sharedIndexDirectory);
+                } else {
+                    databases[i] = indexBuilder.buildIndex(databaseFiles[i], new BitPackedSortedArrayFactory());
+                }
+            }
+
+            KmerQuery query = new KmerQuery(databases, kmerSize, canonical, numThreads, batchSize);
+            OutputStream outputStream = writeToStandardOutput ? new FilterOutputStream(standardOutput) {
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // only flush the standard output
+                    flush();
+                }
+            } : new FileOutputStream(outputPath);
+            QueryStatistics statistics;
+            try (KmerReader kmerReader = KmerReader.open(inputPath, inputFormat, kmerSize);
+                 QueryResultWriter resultWriter = new QueryResultWriter(outputStream, outputFormat, kmerSize)) {
+                statistics = query.run(kmerReader, resultWriter);
+            }
+
+            System.out.println(statistics.format());
+            return statistics;
+        } finally {
+            System.setOut(standardOutput);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package kmer_query;
+
+/**
+ * Represents the statistics of answering the membership queries of a set of k-mers.
+ */
+public class QueryStatistics {
+
+    private final long numKmers;
+    /**
+     * The number of queried k-mers contained in each database.
+     */
+    private final long[] numHits;
+    /**
+     * The time spent on reading, querying and writing in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Create the statistics for a specified number of k-mers, numbers of hits and elapsed time.
+     *
+     * @param numKmers number of queried k-mers
+     * @param numHits array containing the number of queried k-mers contained in each database
+     * @param elapsedNanos time spent on the queries in nanoseconds
+     */
+    public QueryStatistics(long numKmers, long[] numHits, long elapsedNanos) {
+        this.numKmers = numKmers;
+        this.numHits = numHits;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Compute the throughput of the queries.
+     *
+     * @return number of queried k-mers per second
+     */
+    public double getKmersPerSecond() {
+        return elapsedNanos == 0 ? 0 : numKmers * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Create a human-readable summary of the statistics.
+     *
+     * @return summary comprising the number of k-mers, the throughput and the number of hits per database
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Queried ").append(numKmers).append(" k-mers in ")
+                .append(String.format("%.3f", elapsedNanos / 1e9)).append(" s (")
+                .append(String.format("%.0f", getKmersPerSecond())).append(" k-mers/s)");
+        for (int i = 0; i < numHits.length; i++) {
+            builder.append('\n').append("database_").append(i).append(": ").append(numHits[i]).append(" hits");
+        }
+        return builder.toString();
+    }
+
+    public long getNumKmers() {
+        return numKmers;
+    }
+
+    public long[] getNumHits() {
+        return numHits;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+}
@@ -0,0 +1,53 @@
+package kmer_sampling;
+
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash64Finalizer;
+
+/**
+ * Implements FracMinHash sampling: a k-mer is sampled if its hash value lies in the lowest fraction of the range of
+ * hash values, where the fraction is given by the density.
+ */
+public class FracMinHashFilter implements KmerFilter {
+
+    private final HashFunction hashFunction = new MurmurHash64Finalizer();
+    private final double density;
+    /**
+     * The hash values of sampled k-mers shifted right by one bit are less than this threshold.
+     */
+    private final long threshold;
+
+    /**
+     * Create a FracMinHash filter for a specified density.
+     *
+     * @param density expected fraction of sampled k-mers, greater than 0 and at most 1
+     */
+    public FracMinHashFilter(double density) {
+        if (!(density > 0 && density <= 1)) {
+            throw new IllegalArgumentException("The density needs to be greater than 0 and at most 1");
+        }
+        this.density = density;
+        // compare unsigned 63-bit values to avoid unsigned 64-bit arithmetic
+        threshold = (long) (density * 0x1p63);
+    }
+
+    /**
+     * Check whether a specified canonical k-mer is sampled.
+     * Time complexity: O(1)
+     *
+     * @param kmer numeric representation of the canonical k-mer
+     * @return <ul>
+     *     <li>true if the k-mer is sampled</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    @Override
+    public boolean accept(long kmer) {
+        return density == 1 || (hashFunction.hash(kmer) >>> 1) < threshold;
+    }
+
+    @Override
+    public double getDensity() {
+        return density;
+    }
+
+}
@@ -0,0 +1,31 @@
+package kmer_sampling;
+
+/**
+ * Interface for context-free k-mer sampling schemes.
+ *
+ * A context-free scheme decides whether a k-mer is sampled based on the k-mer alone, i.e. independently of the
+ * sequence it occurs in. Hence, the same scheme can be applied to the k-mers of a k-mer database and to the k-mers of
+ * a read, and a sampled k-mer of a read is contained in the sampled database if and only if it is contained in the
+ * full database.
+ */
+public interface KmerFilter {
+
+    /**
+     * Check whether a specified canonical k-mer is sampled.
+     *
+     * @param kmer numeric representation of the canonical k-mer
+     * @return <ul>
+     *     <li>true if the k-mer is sampled</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    boolean accept(long kmer);
+
+    /**
+     * Retrieve the expected fraction of k-mers sampled by this filter.
+     *
+     * @return expected fraction of sampled k-mers
+     */
+    double getDensity();
+
+}
@@ -0,0 +1,120 @@
+package kmer_sampling;
+
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash64Finalizer;
+
+/**
+ * Implements open syncmer sampling: a k-mer is sampled if the smallest of its s-mers (with respect to a hash function)
+ * starts at a fixed offset within the k-mer. The expected density is 1 / (k - s + 1).
+ *
+ * In contrast to minimizers, whether a k-mer is a syncmer only depends on the k-mer itself, so syncmers can also be
+ * selected from k-mer databases which do not contain the sequences the k-mers originate from.
+ */
+public class OpenSyncmerFilter implements KmerFilter {
+
+    private final HashFunction hashFunction = new MurmurHash64Finalizer();
+    private final int kmerSize;
+    /**
+     * The length of the s-mers the k-mers are compared by.
+     */
+    private final int smerSize;
+    /**
+     * The position of the smallest s-mer in sampled k-mers.
+     */
+    private final int offset;
+    private final long smerMask;
+
+    /**
+     * Create an open syncmer filter for a specified k-mer size and s-mer size. The smallest s-mer of a sampled k-mer
+     * is located in the middle of the k-mer, which makes sampling more robust to sequencing errors.
+     *
+     * @param kmerSize k-mer size
+     * @param smerSize s-mer size, between 1 and the k-mer size
+     */
+    public OpenSyncmerFilter(int kmerSize, int smerSize) {
+        this(kmerSize, smerSize, (kmerSize - smerSize) / 2);
+    }
+
+    /**
+     * Create an open syncmer filter for a specified k-mer size, s-mer size and offset.
+     *
+     * @param kmerSize k-mer size
+     * @param smerSize s-mer size, between 1 and the k-mer size
+     * @param offset position of the smallest s-mer in sampled k-mers, between 0 and kmerSize - smerSize
+     */
+    public OpenSyncmerFilter(int kmerSize, int smerSize, int offset) {
+        if (smerSize < 1 || smerSize > kmerSize || offset < 0 || offset > kmerSize - smerSize) {
+            throw new IllegalArgumentException("The s-mer size needs to be between 1 and the k-mer size and the "
+                    + "offset between 0 and the k-mer size minus the s-mer size");
+        }
+        this.kmerSize = kmerSize;
+        this.smerSize = smerSize;
+        this.offset = offset;
+        smerMask = (1L << (smerSize << 1)) - 1;
+    }
+
+    /**
+     * Create an open syncmer filter for a specified k-mer size whose expected density is as close as possible to
+     * a specified density.
+     *
+     * @param kmerSize k-mer size
+     * @param density expected fraction of sampled k-mers, greater than 0 and at most 1
+     * @return open syncmer filter of the s-mer size k - round(1 / density) + 1
+     */
+    public static OpenSyncmerFilter forDensity(int kmerSize, double density) {
+        if (!(density > 0 && density <= 1)) {
+            throw new IllegalArgumentException("The density needs to be greater than 0 and at most 1");
+        }
+        long numSmers = Math.round(1 / density);
+        if (numSmers > kmerSize) {
+            throw new IllegalArgumentException("The density of open syncmers is at least 1 / k");
+        }
+        return new OpenSyncmerFilter(kmerSize, kmerSize - (int) numSmers + 1);
+    }
+
+    /**
+     * Check whether a specified canonical k-mer is an open syncmer.
+     * Time complexity: O(k - s)
+     *
+     * @param kmer numeric representation of the canonical k-mer
+     * @return <ul>
+     *     <li>true if the smallest s-mer of the k-mer starts at the offset</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    @Override
+    public boolean accept(long kmer) {
+        int numSmers = kmerSize - smerSize + 1;
+        long minHash = 0;
+        int minPosition = 0;
+        for (int i = 0; i < numSmers; i++) {
+            // the s-mer starting at position i occupies the bits after the bits of the first i bases
+            long smer = (kmer >>> ((numSmers - 1 - i) << 1)) & smerMask;
+            long hash = hashFunction.hash(smer);
+            // ties are broken in favour of the leftmost s-mer
+            if (i == 0 || Long.compareUnsigned(hash, minHash) < 0) {
+                minHash = hash;
+                minPosition = i;
+            }
+        }
+        return minPosition == offset;
+    }
+
+    @Override
+    public double getDensity() {
+        return 1.0 / (kmerSize - smerSize + 1);
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public int getSmerSize() {
+        return smerSize;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+}
@@ -0,0 +1,25 @@
+package kmer_sampling;
+
+/**
+ * Represents the available context-free k-mer sampling schemes.
+ */
+public enum SamplingMethod {
+
+    FRACMINHASH,
+    SYNCMER;
+
+    /**
+     * Create a k-mer filter of this sampling scheme for a specified k-mer size and density.
+     *
+     * @param kmerSize k-mer size
+     * @param density expected fraction of sampled k-mers, greater than 0 and at most 1
+     * @return k-mer filter of this sampling scheme
+     */
+    public KmerFilter createFilter(int kmerSize, double density) {
+        return switch (this) {
+            case FRACMINHASH -> new FracMinHashFilter(density);
+            case SYNCMER -> OpenSyncmerFilter.forDensity(kmerSize, density);
+        };
+    }
+
+}
@@ -0,0 +1,96 @@
+package runtime_tests;
+
+import dna.DNAUtil;
+import dna.SequenceKernels;
+
+import java.util.Random;
+
+/**
+ * Orchestrates throughput tests of the bulk kernel for the canonicalization of k-mers, comparing the scalar
+ * implementation with the implementation used on this JVM.
+ *
+ * The vectorized kernels are only used if the JVM is started with --add-modules jdk.incubator.vector.
+ */
+public class KernelRuntimeTestRunner {
+
+    public static final int KMER_SIZE = 31;
+    public static final int ITERATIONS = 20;
+    public static final int NUM_KMERS = 1 << 22;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        long[] kmers = new long[NUM_KMERS];
+        long maxKmer = 1L << (KMER_SIZE << 1);
+        for (int i = 0; i < kmers.length; i++) {
+            kmers[i] = random.nextLong(maxKmer);
+        }
+        long[] copy = new long[NUM_KMERS];
+        DNAUtil dnaUtil = new DNAUtil(KMER_SIZE);
+
+        System.out.println("Vectorized kernels: " + SequenceKernels.VECTORIZED);
+        System.out.println("Canonical forms (per base): " + toThroughput(NUM_KMERS, measure(() -> {
+            System.arraycopy(kmers, 0, copy, 0, kmers.length);
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = Math.min(copy[i], reverseComplementPerBase(copy[i]));
+            }
+        })) + " M k-mers/s");
+        System.out.println("Canonical forms (scalar): " + toThroughput(NUM_KMERS, measure(() -> {
+            System.arraycopy(kmers, 0, copy, 0, kmers.length);
+            SequenceKernels.canonicalFormsScalar(copy, 0, copy.length, KMER_SIZE);
+        })) + " M k-mers/s");
+        System.out.println("Canonical forms: " + toThroughput(NUM_KMERS, measure(() -> {
+            System.arraycopy(kmers, 0, copy, 0, kmers.length);
+            SequenceKernels.canonicalForms(copy, 0, copy.length, KMER_SIZE);
+        })) + " M k-mers/s");
+        System.out.println("Canonical forms (DNAUtil): " + toThroughput(NUM_KMERS, measure(() -> {
+            System.arraycopy(kmers, 0, copy, 0, kmers.length);
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = dnaUtil.canonicalForm(copy[i]);
+            }
+        })) + " M k-mers/s");
+    }
+
+    /**
+     * Measure the average runtime of a specified task after the same number of warm-up runs.
+     *
+     * @param task task to measure
+     * @return average runtime in ns
+     */
+    private static long measure(Runnable task) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - startTime) / ITERATIONS;
+    }
+
+    /**
+     * Convert a number of processed elements and a runtime to a throughput.
+     *
+     * @param numElements number of processed elements
+     * @param runtime runtime in ns
+     * @return throughput in million elements per second
+     */
+    private static long toThroughput(long numElements, long runtime) {
+        return numElements * 1000 / Math.max(runtime, 1);
+    }
+
+    /**
+     * Compute the reverse complement of a k-mer base by base as a baseline.
+     *
+     * @param kmer numeric representation of the k-mer
+     * @return numeric representation of the reverse complement of the k-mer
+     */
+    private static long reverseComplementPerBase(long kmer) {
+        long result = 0;
+        for (int i = 0; i < KMER_SIZE; i++) {
+            result = (result << 2) | (3 - (kmer & 0b11L));
+            kmer >>>= 2;
+        }
+        return result;
+    }
+
+}
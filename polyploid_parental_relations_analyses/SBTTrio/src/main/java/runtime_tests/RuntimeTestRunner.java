@@ -2,6 +2,8 @@ package runtime_tests;
 
 import containers.Container;
 import containers.ContainerFactory;
+import containers.block_compressed_array.BlockCompressedArrayFactory;
+import containers.concurrent_hash_set.ConcurrentHashSetFactory;
 import containers.bit_packed_hash_set.BitPackedHashSetFactory;
 import containers.bit_packed_sorted_array.BitPackedSortedArrayFactory;
 import containers.hash_set.HashSetFactory;
@@ -28,7 +30,9 @@ public class RuntimeTestRunner {
                 new SortedArrayFactory(),
                 new BitPackedSortedArrayFactory(),
                 new HashSetFactory(),
-                new BitPackedHashSetFactory()};
+                new BitPackedHashSetFactory(),
+                new BlockCompressedArrayFactory(),
+                new ConcurrentHashSetFactory()};
 
         for (ContainerFactory factory : factories) {
             System.out.println(factory.getContainerName());
@@ -0,0 +1,109 @@
+package shared_index;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Implements an array of longs backed by a memory-mapped region of a file.
+ *
+ * A single mapping is limited to 2 GiB, so the region is mapped in chunks of a fixed number of longs and an index is
+ * split into the number of its chunk and the position within the chunk. The longs are stored in little-endian order.
+ * Once mapped, the array remains valid after the file channel is closed.
+ */
+public class MappedLongArray {
+
+    /**
+     * The default number of longs per chunk (1 GiB).
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 27;
+
+    /**
+     * The views of the mapped chunks as arrays of longs.
+     */
+    private final LongBuffer[] chunks;
+    /**
+     * The number of longs of the array.
+     */
+    private final long size;
+    /**
+     * The number of bits of an index which address the position within a chunk.
+     */
+    private final int chunkBits;
+    private final long chunkMask;
+
+    private MappedLongArray(LongBuffer[] chunks, long size, int chunkBits) {
+        this.chunks = chunks;
+        this.size = size;
+        this.chunkBits = chunkBits;
+        chunkMask = (1L << chunkBits) - 1;
+    }
+
+    /**
+     * Map a specified region of a file as an array of longs with the default chunk size.
+     *
+     * @param channel channel of the file to map
+     * @param mode read-only or read-write mapping
+     * @param size number of longs of the region starting at the beginning of the file
+     * @return array of longs backed by the region
+     * @throws IOException
+     */
+    public static MappedLongArray map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        return map(channel, mode, size, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Map a specified region of a file as an array of longs with a specified chunk size.
+     *
+     * @param channel channel of the file to map
+     * @param mode read-only or read-write mapping
+     * @param size number of longs of the region starting at the beginning of the file
+     * @param chunkSize number of longs per chunk, a power of 2 of at most {@link #DEFAULT_CHUNK_SIZE}
+     * @return array of longs backed by the region
+     * @throws IOException
+     */
+    static MappedLongArray map(FileChannel channel, FileChannel.MapMode mode, long size,
+                               int chunkSize) throws IOException {
+        if (Integer.bitCount(chunkSize) != 1 || chunkSize > DEFAULT_CHUNK_SIZE) {
+            throw new IllegalArgumentException("The chunk size must be a power of 2 of at most " + DEFAULT_CHUNK_SIZE);
+        }
+        int numChunks = (int) ((size + chunkSize - 1) / chunkSize);
+        LongBuffer[] chunks = new LongBuffer[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            long first = (long) i * chunkSize;
+            long length = Math.min(chunkSize, size - first);
+            MappedByteBuffer buffer = channel.map(mode, first << 3, length << 3);
+            chunks[i] = buffer.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+        return new MappedLongArray(chunks, size, Integer.numberOfTrailingZeros(chunkSize));
+    }
+
+    /**
+     * Get the long at a specified index of this array.
+     * Time complexity: O(1)
+     *
+     * @param index index in the range [0, size)
+     * @return long at the index
+     */
+    public long get(long index) {
+        return chunks[(int) (index >>> chunkBits)].get((int) (index & chunkMask));
+    }
+
+    /**
+     * Set the long at a specified index of this array. Requires a read-write mapping.
+     * Time complexity: O(1)
+     *
+     * @param index index in the range [0, size)
+     * @param value long to set
+     */
+    public void set(long index, long value) {
+        chunks[(int) (index >>> chunkBits)].put((int) (index & chunkMask), value);
+    }
+
+    public long size() {
+        return size;
+    }
+
+}
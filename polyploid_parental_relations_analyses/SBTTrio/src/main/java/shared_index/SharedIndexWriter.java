@@ -0,0 +1,126 @@
+package shared_index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implements publishing an index file which is attached as {@link SharedMemoryIndex}.
+ *
+ * The number of k-mers per prefix has to be known in advance, so that the offsets and the size of the file are fixed
+ * before the suffixes of the buckets are written in any order. The file is written under a temporary name in the
+ * target directory and only moved to its final name when the writer is closed. Hence, other processes never attach
+ * a partially written file, and processes still attached to a replaced file keep their mapping.
+ */
+public class SharedIndexWriter implements Closeable {
+
+    private final Path path;
+    private final Path temporaryPath;
+    private final FileChannel channel;
+    private final MappedLongArray data;
+    private final int suffixBits;
+    /**
+     * The number of k-mers per prefix.
+     */
+    private final int[] prefixCounts;
+    /**
+     * The index of the first suffix of each prefix.
+     */
+    private final long[] offsets;
+    /**
+     * Whether the suffixes of each prefix have been written.
+     */
+    private final boolean[] written;
+
+    /**
+     * Create a writer for an index file with a specified k-mer size, prefix length and number of k-mers per prefix.
+     *
+     * @param path path of the index file to publish
+     * @param kmerSize k-mer size of the index
+     * @param height length of the prefixes
+     * @param prefixCounts array of length 4^height containing the number of k-mers of each prefix
+     * @throws IOException
+     */
+    public SharedIndexWriter(String path, int kmerSize, int height, int[] prefixCounts) throws IOException {
+        if (prefixCounts.length != SharedMemoryIndex.getNumPrefixes(height)) {
+            throw new IllegalArgumentException("The number of prefix counts must be 4^height");
+        }
+        this.path = Paths.get(path).toAbsolutePath();
+        this.prefixCounts = prefixCounts;
+        suffixBits = (kmerSize - height) << 1;
+        offsets = new long[prefixCounts.length + 1];
+        for (int i = 0; i < prefixCounts.length; i++) {
+            offsets[i + 1] = offsets[i] + prefixCounts[i];
+        }
+        written = new boolean[prefixCounts.length];
+        long numKmers = offsets[prefixCounts.length];
+
+        temporaryPath = Files.createTempFile(this.path.getParent(), this.path.getFileName().toString(), ".tmp");
+        channel = FileChannel.open(temporaryPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = SharedMemoryIndex.getFileSize(kmerSize, height, numKmers);
+        // a new file is filled with zeros when it is extended, so the suffixes can be combined by bitwise or
+        channel.write(ByteBuffer.wrap(new byte[1]), (size << 3) - 1);
+        data = MappedLongArray.map(channel, FileChannel.MapMode.READ_WRITE, size);
+
+        data.set(0, SharedMemoryIndex.MAGIC);
+        data.set(1, kmerSize);
+        data.set(2, height);
+        data.set(3, numKmers);
+        for (int i = 0; i < offsets.length; i++) {
+            data.set(SharedMemoryIndex.HEADER_SIZE + i, offsets[i]);
+        }
+    }
+
+    /**
+     * Write the suffixes of the k-mers with a specified prefix.
+     * Time complexity: Theta(n) where n is the number of suffixes
+     *
+     * @param prefix numeric representation of the prefix
+     * @param suffixes numeric representations of the suffixes in ascending order, as many as specified for the prefix
+     */
+    public void writeBucket(int prefix, long[] suffixes) {
+        if (suffixes.length != prefixCounts[prefix]) {
+            throw new IllegalArgumentException("Expected " + prefixCounts[prefix] + " suffixes for prefix " + prefix);
+        }
+        long suffixStart = SharedMemoryIndex.HEADER_SIZE + offsets.length;
+        long bitIndex = offsets[prefix] * suffixBits;
+        for (long suffix : suffixes) {
+            long wordIndex = suffixStart + (bitIndex >>> 6);
+            int offset = (int) (bitIndex & 63);
+            data.set(wordIndex, data.get(wordIndex) | (suffix << offset));
+            if (offset + suffixBits > 64) {
+                data.set(wordIndex + 1, data.get(wordIndex + 1) | (suffix >>> (64 - offset)));
+            }
+            bitIndex += suffixBits;
+        }
+        written[prefix] = true;
+    }
+
+    /**
+     * Publish the index file under its final name. All buckets with at least one k-mer must have been written.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        for (int i = 0; i < written.length; i++) {
+            if (!written[i] && prefixCounts[i] > 0) {
+                Files.deleteIfExists(temporaryPath);
+                throw new IOException("The suffixes of prefix " + i + " have not been written");
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+}
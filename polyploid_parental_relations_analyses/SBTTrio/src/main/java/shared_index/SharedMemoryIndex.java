@@ -0,0 +1,197 @@
+package shared_index;
+
+import exceptions.AddStructureToContainerException;
+import util.DataStructure;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implements a read-only index of a k-mer database which is searched directly in a memory-mapped file.
+ *
+ * The file is published once by {@link SharedIndexWriter}, e.g. under /dev/shm, and attached by any number of
+ * processes on the same node. All processes map the same pages of the page cache, so the index occupies memory only
+ * once instead of once per process, and attaching it does not require building or loading anything.
+ *
+ * Like {@link access_trie.FixedPrefixLengthAccessTrie} with bit-packed sorted arrays, the index splits each k-mer into
+ * a prefix of fixed length and a suffix. The file consists of little-endian longs:
+ * <ul>
+ *     <li>header: {@link #MAGIC}, k-mer size, prefix length (access trie height) and number of k-mers</li>
+ *     <li>offsets: for each of the 4^height prefixes, the index of its first suffix, followed by the number of
+ *     k-mers</li>
+ *     <li>suffixes: the suffixes of all k-mers bit-packed with 2 * (k - height) bits each, sorted by prefix and
+ *     within each prefix in ascending order</li>
+ * </ul>
+ * A search locates the range of suffixes of the prefix of a k-mer in the offsets and performs a binary search within
+ * this range.
+ */
+public class SharedMemoryIndex implements DataStructure {
+
+    /**
+     * The first long of every index file.
+     */
+    public static final long MAGIC = 0x5342545472696F31L;
+    /**
+     * The number of longs of the header.
+     */
+    static final int HEADER_SIZE = 4;
+
+    private final int kmerSize;
+    /**
+     * The length of the prefixes encoded by the offsets.
+     */
+    private final int height;
+    private final long numKmers;
+    /**
+     * The number of bits per suffix.
+     */
+    private final int suffixBits;
+    /**
+     * Bit mask used for extracting suffixes of k-mers.
+     */
+    private final long bitMask;
+    /**
+     * The index of the first long of the bit-packed suffixes in the file.
+     */
+    private final long suffixStart;
+    /**
+     * The mapped longs of the whole file.
+     */
+    private final MappedLongArray data;
+
+    private SharedMemoryIndex(MappedLongArray data, int kmerSize, int height, long numKmers) {
+        this.data = data;
+        this.kmerSize = kmerSize;
+        this.height = height;
+        this.numKmers = numKmers;
+        suffixBits = (kmerSize - height) << 1;
+        bitMask = (1L << suffixBits) - 1;
+        suffixStart = HEADER_SIZE + getNumPrefixes(height) + 1;
+    }
+
+    /**
+     * Attach the index published in a specified file by mapping the file read-only.
+     *
+     * @param path path to the index file
+     * @return index backed by the mapped file
+     * @throws IOException if the file cannot be mapped or is not a valid index file
+     */
+    public static SharedMemoryIndex attach(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long numLongs = channel.size() >>> 3;
+            if (numLongs < HEADER_SIZE) {
+                throw new IOException(path + " is not an index file");
+            }
+            MappedLongArray data = MappedLongArray.map(channel, FileChannel.MapMode.READ_ONLY, numLongs);
+            if (data.get(0) != MAGIC) {
+                throw new IOException(path + " is not an index file");
+            }
+            int kmerSize = (int) data.get(1);
+            int height = (int) data.get(2);
+            long numKmers = data.get(3);
+            if (numLongs != getFileSize(kmerSize, height, numKmers)) {
+                throw new IOException("The index file " + path + " is truncated");
+            }
+            return new SharedMemoryIndex(data, kmerSize, height, numKmers);
+        }
+    }
+
+    /**
+     * Search for a specified k-mer in this index.
+     * Time complexity: O(log n) where n is the number of k-mers with the prefix of the specified k-mer
+     *
+     * @param pattern numeric representation of the k-mer to search for
+     * @return <ul>
+     *     <li>true if this index contains the specified k-mer</li>
+     *     <li>false if this index does not contain the specified k-mer</li>
+     * </ul>
+     */
+    @Override
+    public boolean search(long pattern) {
+        int prefix = (int) (pattern >>> suffixBits);
+        long suffix = pattern & bitMask;
+        long left = data.get(HEADER_SIZE + prefix);
+        long right = data.get(HEADER_SIZE + prefix + 1) - 1;
+
+        while (left <= right) {
+            long mid = (left + right) >>> 1;
+            long midElement = getSuffix(mid);
+
+            if (suffix < midElement) {
+                right = mid - 1;
+            } else if (suffix > midElement) {
+                left = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the suffix at a specified index of the bit-packed suffixes.
+     *
+     * @param index index of the suffix
+     * @return numeric representation of the suffix
+     */
+    private long getSuffix(long index) {
+        long bitIndex = index * suffixBits;
+        long wordIndex = suffixStart + (bitIndex >>> 6);
+        int offset = (int) (bitIndex & 63);
+        long value = data.get(wordIndex) >>> offset;
+        if (offset + suffixBits > 64) {
+            value |= data.get(wordIndex + 1) << (64 - offset);
+        }
+        return value & bitMask;
+    }
+
+    /**
+     * Because a shared index is read-only, this method only throws an exception and does nothing else.
+     *
+     * @param prefix numeric representation of the k-mer prefix that corresponds to the sub data structure
+     * @param dataStructure sub data structure to add
+     */
+    @Override
+    public void add(long prefix, DataStructure dataStructure) {
+        throw new AddStructureToContainerException("Cannot add data structure to a shared index");
+    }
+
+    /**
+     * Compute the number of prefixes of a specified length.
+     *
+     * @param height length of the prefixes
+     * @return 4^height
+     */
+    static int getNumPrefixes(int height) {
+        return 1 << (height << 1);
+    }
+
+    /**
+     * Compute the number of longs of an index file.
+     *
+     * @param kmerSize k-mer size of the index
+     * @param height length of the prefixes
+     * @param numKmers number of k-mers of the index
+     * @return number of longs of the header, the offsets and the bit-packed suffixes including one long of padding
+     *         which allows reading two longs for every suffix
+     */
+    static long getFileSize(int kmerSize, int height, long numKmers) {
+        long suffixWords = (numKmers * ((kmerSize - height) << 1) + 63) >>> 6;
+        return HEADER_SIZE + getNumPrefixes(height) + 1 + suffixWords + 1;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getNumKmers() {
+        return numKmers;
+    }
+
+}
@@ -0,0 +1,87 @@
+package trio_binning;
+
+import org.apache.commons.cli.*;
+import util.ArgumentValidation;
+import util.DirectBufferedOutputStream;
+
+import java.io.IOException;
+
+/**
+ * Implements converting the binary results of trio binning to the CSV format written by {@link CsvResultWriter}.
+ */
+public class BinaryResultConverter {
+
+    /**
+     * The number of records formatted before the formatted lines are written to the output file.
+     */
+    private static final int LINES_PER_WRITE = 4096;
+
+    public static void main(String[] args) throws IOException {
+        // Define options
+        Options options = new Options();
+
+        Option inputFile = Option.builder("i").longOpt("input")
+                .hasArg().argName("file")
+                .required()
+                .desc("path to the binary result file")
+                .build();
+        Option outputFile = Option.builder("o").longOpt("output")
+                .hasArg().argName("file")
+                .required()
+                .desc("path to the CSV output file")
+                .build();
+
+        options.addOption(inputFile);
+        options.addOption(outputFile);
+
+        // Parse options
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter helpFormatter = new HelpFormatter();
+        CommandLine cmd = null;
+
+        try {
+            cmd = parser.parse(options, args);
+        } catch (ParseException parseException) {
+            System.out.println(parseException.getMessage());
+            helpFormatter.printHelp("binary_result_converter", options);
+            System.exit(1);
+        }
+
+        // Validate options
+        ArgumentValidation.validateFileArgument(cmd.getOptionValue(inputFile));
+
+        // Convert results
+        long numRecords = convertToCsv(cmd.getOptionValue(inputFile), cmd.getOptionValue(outputFile));
+        System.out.println("Converted " + numRecords + " records");
+    }
+
+    /**
+     * Convert a binary result file to a CSV file.
+     *
+     * @param inputPath path to the binary result file
+     * @param outputPath path to the CSV output file
+     * @return number of converted records
+     * @throws IOException
+     */
+    public static long convertToCsv(String inputPath, String outputPath) throws IOException {
+        long numRecords = 0;
+        StringBuilder builder = new StringBuilder();
+        try (BinaryResultReader reader = new BinaryResultReader(inputPath);
+             DirectBufferedOutputStream outputStream = new DirectBufferedOutputStream(outputPath)) {
+            while (reader.next()) {
+                CsvResultWriter.appendResult(builder, reader.getReadID(), reader.getNumValidKmers(),
+                        reader.getCounts(), 0, reader.getNumDatabases());
+                builder.append('\n');
+                numRecords++;
+
+                if (numRecords % LINES_PER_WRITE == 0) {
+                    outputStream.writeAscii(builder);
+                    builder.setLength(0);
+                }
+            }
+            outputStream.writeAscii(builder);
+        }
+        return numRecords;
+    }
+
+}
@@ -0,0 +1,164 @@
+package trio_binning;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implements reading the results of trio binning written by a {@link BinaryResultWriter} record by record.
+ *
+ * Usage: call {@link #next()} until it returns false and retrieve the values of the current record in between.
+ */
+public class BinaryResultReader implements Closeable {
+
+    /**
+     * The size of the buffer used for reading the file in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int numDatabases;
+    private final int kmerSize;
+    private final int recordSize;
+    /**
+     * The number of distinct valid canonical k-mers of the current read contained in each k-mer database.
+     */
+    private final int[] counts;
+    /**
+     * The id of the current read.
+     */
+    private long readID;
+    /**
+     * The number of distinct valid canonical k-mers of the current read.
+     */
+    private int numValidKmers;
+
+    /**
+     * Create a binary result reader for a specified file and read the header of the file.
+     *
+     * @param inputPath path to the binary result file
+     * @throws IOException if the file cannot be read or is not a binary result file of a supported version
+     */
+    public BinaryResultReader(String inputPath) throws IOException {
+        channel = FileChannel.open(Paths.get(inputPath), StandardOpenOption.READ);
+        buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.limit(0);
+
+        try {
+            if (!ensureAvailable(BinaryResultWriter.HEADER_SIZE)) {
+                throw new IOException(inputPath + " is too short to be a binary result file");
+            }
+            if (buffer.getInt() != BinaryResultWriter.MAGIC) {
+                throw new IOException(inputPath + " is not a binary result file");
+            }
+            int version = buffer.getInt();
+            if (version != BinaryResultWriter.VERSION) {
+                throw new IOException("Unsupported binary result file version " + version);
+            }
+            numDatabases = buffer.getInt();
+            kmerSize = buffer.getInt();
+        } catch (IOException exception) {
+            channel.close();
+            throw exception;
+        }
+
+        recordSize = BinaryResultWriter.recordSize(numDatabases);
+        counts = new int[numDatabases];
+    }
+
+    /**
+     * Advance to the next record of the file.
+     *
+     * @return <ul>
+     *     <li>true if the next record was read</li>
+     *     <li>false if the end of the file was reached</li>
+     * </ul>
+     * @throws IOException if the file cannot be read or ends within a record
+     */
+    public boolean next() throws IOException {
+        if (!ensureAvailable(recordSize)) {
+            if (buffer.hasRemaining()) {
+                throw new IOException("Binary result file ends within a record");
+            }
+            return false;
+        }
+
+        readID = buffer.getLong();
+        numValidKmers = buffer.getInt();
+        for (int i = 0; i < numDatabases; i++) {
+            counts[i] = buffer.getInt();
+        }
+        return true;
+    }
+
+    /**
+     * Retrieve the number of distinct valid canonical k-mers of the current read contained in a specified database.
+     *
+     * @param database index of the k-mer database
+     * @return number of k-mers of the current read contained in the database
+     */
+    public int getCount(int database) {
+        return counts[database];
+    }
+
+    /**
+     * Retrieve the counts of the current read for all k-mer databases.
+     * The array is overwritten when advancing to the next record.
+     *
+     * @return array of the number of k-mers of the current read contained in each database
+     */
+    public int[] getCounts() {
+        return counts;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Ensure that the buffer contains at least a specified number of unread bytes by reading from the file.
+     *
+     * @param numBytes number of bytes to ensure
+     * @return <ul>
+     *     <li>true if the buffer contains the number of bytes</li>
+     *     <li>false if the end of the file was reached before</li>
+     * </ul>
+     * @throws IOException
+     */
+    private boolean ensureAvailable(int numBytes) throws IOException {
+        if (buffer.remaining() >= numBytes) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < numBytes) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= numBytes;
+    }
+
+    public long getReadID() {
+        return readID;
+    }
+
+    public int getNumValidKmers() {
+        return numValidKmers;
+    }
+
+    public int getNumDatabases() {
+        return numDatabases;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+}
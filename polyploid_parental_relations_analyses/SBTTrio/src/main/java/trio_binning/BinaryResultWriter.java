@@ -0,0 +1,113 @@
+package trio_binning;
+
+import util.DirectBufferedOutputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Implements writing the results of trio binning in a compact binary format.
+ *
+ * In contrast to the CSV format, the binary format stores the raw number of distinct valid canonical k-mers of each
+ * read and the raw number of those k-mers contained in each database as integers, so no precision is lost and no
+ * conversion of floating point numbers to text is required.
+ *
+ * All values are stored in little-endian byte order. A file starts with a header of {@link #HEADER_SIZE} bytes:
+ * <ul>
+ *     <li>the magic number {@link #MAGIC} (4 bytes)</li>
+ *     <li>the format version {@link #VERSION} (int)</li>
+ *     <li>the number of k-mer databases n (int)</li>
+ *     <li>the k-mer size (int)</li>
+ * </ul>
+ * The header is followed by one fixed-width record of 12 + 4n bytes per read:
+ * <ul>
+ *     <li>the id of the read (long)</li>
+ *     <li>the number of distinct valid canonical k-mers of the read (int)</li>
+ *     <li>the number of those k-mers contained in each of the n databases (n ints)</li>
+ * </ul>
+ */
+public class BinaryResultWriter implements ResultWriter {
+
+    /**
+     * The magic number identifying a binary result file, i.e. the ASCII characters "TBRS" read as little-endian int.
+     */
+    public static final int MAGIC = 0x53524254;
+    /**
+     * The version of the binary format.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The size of the header in bytes.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * The stream the results are written to.
+     */
+    private final DirectBufferedOutputStream outputStream;
+    /**
+     * The number of k-mer databases each record holds counts for.
+     */
+    private final int numDatabases;
+    /**
+     * The buffer reused for encoding the records of each batch.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Create a binary result writer for a specified output file, number of k-mer databases and k-mer size,
+     * and write the header to the file.
+     *
+     * @param outputPath path to the output file
+     * @param numDatabases number of k-mer databases each record holds counts for
+     * @param kmerSize k-mer size used during trio binning
+     * @throws IOException
+     */
+    public BinaryResultWriter(String outputPath, int numDatabases, int kmerSize) throws IOException {
+        this.numDatabases = numDatabases;
+        outputStream = new DirectBufferedOutputStream(outputPath);
+        buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(numDatabases).putInt(kmerSize);
+        outputStream.write(buffer.array(), 0, buffer.position());
+    }
+
+    /**
+     * Compute the size of a single record in bytes for a specified number of k-mer databases.
+     *
+     * @param numDatabases number of k-mer databases
+     * @return size of a record in bytes
+     */
+    public static int recordSize(int numDatabases) {
+        return Long.BYTES + Integer.BYTES + numDatabases * Integer.BYTES;
+    }
+
+    @Override
+    public void write(ReadBatch batch) throws IOException {
+        int size = batch.getNumReads() * recordSize(numDatabases);
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        buffer.clear();
+        for (int read = 0; read < batch.getNumReads(); read++) {
+            buffer.putLong(batch.getReadID(read));
+            buffer.putInt(batch.getNumValidKmers(read));
+            for (int i = 0; i < numDatabases; i++) {
+                buffer.putInt(batch.getCount(read, i));
+            }
+        }
+        outputStream.write(buffer.array(), 0, buffer.position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputStream.close();
+    }
+
+    public int getNumDatabases() {
+        return numDatabases;
+    }
+
+}
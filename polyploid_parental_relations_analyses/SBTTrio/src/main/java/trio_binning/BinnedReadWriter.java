@@ -0,0 +1,276 @@
+package trio_binning;
+
+import util.DirectBufferedOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implements writing the original records of classified reads into one read file per bin.
+ *
+ * Each read is assigned to a bin by a binning rule. There is one bin per k-mer database as well as a bin for
+ * ambiguous and a bin for unassigned reads. For an output prefix p and the extension e of the read format,
+ * the files are named p_bin{i}.e for the database with index i, p_ambiguous.e and p_unassigned.e,
+ * each followed by .gz if the files are compressed. For paired-end reads, each bin consists of two files whose
+ * bin names are suffixed with _R1 and _R2 and which contain the first and second mates in the same order.
+ *
+ * The records of a batch are first collected per bin in memory and then handed to the (compressing) output stream
+ * of the bin at once, which keeps the number of calls to the compressor low. The writer requires batches which
+ * contain the names of their reads and, for the fastq format, their base qualities.
+ */
+public class BinnedReadWriter implements ResultWriter {
+
+    /**
+     * The size of the buffer of the compressor of each bin in bytes.
+     */
+    private static final int COMPRESSION_BUFFER_SIZE = 1 << 16;
+    /**
+     * The size of the direct buffer of the file of each bin in bytes. The records of a batch are already collected
+     * per bin, so the buffer only needs to be large enough to avoid small writes.
+     */
+    private static final int FILE_BUFFER_SIZE = 1 << 18;
+
+    private final BinningRule binningRule;
+    private final ReadFormat readFormat;
+    private final int numDatabases;
+    /**
+     * The number of files per bin, i.e. 2 for paired-end reads and 1 otherwise.
+     */
+    private final int numMates;
+    /**
+     * The output streams of the bins: one per database, followed by the bins of ambiguous and unassigned reads.
+     * For paired-end reads, the streams of the first and second mates of a bin are adjacent.
+     */
+    private final OutputStream[] outputStreams;
+    /**
+     * The buffers collecting the records of the current batch for each bin.
+     */
+    private final ByteArrayOutputStream[] binBuffers;
+    /**
+     * The number of reads (or pairs) written to each bin.
+     */
+    private final long[] binSizes;
+
+    /**
+     * Create a binned read writer for single reads, a specified output prefix, number of k-mer databases,
+     * binning rule and read format and create the files of all bins.
+     *
+     * @param outputPrefix prefix of the output files
+     * @param numDatabases number of k-mer databases
+     * @param binningRule binning rule to assign reads to bins with
+     * @param readFormat format of the output files
+     * @param compress whether the output files are compressed with gzip
+     * @throws IOException
+     */
+    public BinnedReadWriter(String outputPrefix, int numDatabases, BinningRule binningRule,
+                            ReadFormat readFormat, boolean compress) throws IOException {
+        this(outputPrefix, numDatabases, binningRule, readFormat, compress, false);
+    }
+
+    /**
+     * Create a binned read writer for a specified output prefix, number of k-mer databases, binning rule and
+     * read format and create the files of all bins.
+     *
+     * @param outputPrefix prefix of the output files
+     * @param numDatabases number of k-mer databases
+     * @param binningRule binning rule to assign reads to bins with
+     * @param readFormat format of the output files
+     * @param compress whether the output files are compressed with gzip
+     * @param paired whether the batches contain pairs of mates instead of single reads
+     * @throws IOException
+     */
+    public BinnedReadWriter(String outputPrefix, int numDatabases, BinningRule binningRule,
+                            ReadFormat readFormat, boolean compress, boolean paired) throws IOException {
+        this.binningRule = binningRule;
+        this.readFormat = readFormat;
+        this.numDatabases = numDatabases;
+        this.numMates = paired ? 2 : 1;
+
+        int numBins = numDatabases + 2;
+        outputStreams = new OutputStream[numBins * numMates];
+        binBuffers = new ByteArrayOutputStream[numBins * numMates];
+        binSizes = new long[numBins];
+        try {
+            for (int i = 0; i < outputStreams.length; i++) {
+                String binName = getBinName(i / numMates);
+                if (paired) {
+                    binName += "_R" + (i % numMates + 1);
+                }
+                String path = getBinPath(outputPrefix, binName, readFormat, compress);
+                OutputStream outputStream = new DirectBufferedOutputStream(path, FILE_BUFFER_SIZE);
+                if (compress) {
+                    outputStream = new GZIPOutputStream(outputStream, COMPRESSION_BUFFER_SIZE);
+                }
+                outputStreams[i] = outputStream;
+                binBuffers[i] = new ByteArrayOutputStream();
+            }
+        } catch (IOException exception) {
+            closeStreams();
+            throw exception;
+        }
+    }
+
+    /**
+     * Retrieve the path of the file of a specified bin.
+     *
+     * @param outputPrefix prefix of the output files
+     * @param binName name of the bin, see {@link #getBinName(int)}
+     * @param readFormat format of the output files
+     * @param compress whether the output files are compressed with gzip
+     * @return path of the file of the bin
+     */
+    public static String getBinPath(String outputPrefix, String binName, ReadFormat readFormat, boolean compress) {
+        return outputPrefix + "_" + binName + "." + readFormat.getExtension() + (compress ? ".gz" : "");
+    }
+
+    /**
+     * Retrieve the name of a specified bin.
+     *
+     * @param bin index of the bin
+     * @return <ul>
+     *     <li>bin{i} for the bin of the database with index i</li>
+     *     <li>ambiguous for the bin of ambiguous reads</li>
+     *     <li>unassigned for the bin of unassigned reads</li>
+     * </ul>
+     */
+    private String getBinName(int bin) {
+        if (bin < numDatabases) {
+            return "bin" + bin;
+        }
+        return bin == numDatabases ? "ambiguous" : "unassigned";
+    }
+
+    @Override
+    public void write(ReadBatch batch) throws IOException {
+        for (ByteArrayOutputStream binBuffer : binBuffers) {
+            binBuffer.reset();
+        }
+
+        for (int read = 0; read < batch.getNumReads(); read++) {
+            int bin = binningRule.assign(batch, read);
+            if (bin == BinningRule.AMBIGUOUS) {
+                bin = numDatabases;
+            } else if (bin == BinningRule.UNASSIGNED) {
+                bin = numDatabases + 1;
+            }
+            if (batch.isPaired(read) != (numMates == 2)) {
+                throw new IllegalArgumentException("Read " + batch.getReadID(read)
+                        + (numMates == 2 ? " is not a pair of mates" : " is a pair of mates"));
+            }
+
+            int firstMateEnd = batch.getFirstMateEnd(read);
+            appendRecord(binBuffers[bin * numMates], batch, read, batch.getNameStart(read), batch.getNameEnd(read),
+                    batch.getStart(read), firstMateEnd);
+            if (numMates == 2) {
+                appendRecord(binBuffers[bin * numMates + 1], batch, read, batch.getMateNameStart(read),
+                        batch.getMateNameEnd(read), batch.getMateStart(read), batch.getEnd(read));
+            }
+            binSizes[bin]++;
+        }
+
+        for (int i = 0; i < outputStreams.length; i++) {
+            binBuffers[i].writeTo(outputStreams[i]);
+        }
+    }
+
+    /**
+     * Append the record of a specified read or mate of a specified batch in the read format to a specified buffer.
+     *
+     * @param binBuffer buffer to append the record to
+     * @param batch batch containing the read
+     * @param read index of the read in the batch
+     * @param nameStart index of the first character of the name of the read or mate in the byte array of names
+     * @param nameEnd index after the last character of the name of the read or mate in the byte array of names
+     * @param start index of the first base of the read or mate in the byte array of bases
+     * @param end index after the last base of the read or mate in the byte array of bases
+     */
+    private void appendRecord(ByteArrayOutputStream binBuffer, ReadBatch batch, int read,
+                              int nameStart, int nameEnd, int start, int end) {
+        int length = end - start;
+
+        binBuffer.write(readFormat == ReadFormat.FASTQ ? '@' : '>');
+        binBuffer.write(batch.getNames(), nameStart, nameEnd - nameStart);
+        binBuffer.write('\n');
+        binBuffer.write(batch.getBases(), start, length);
+        binBuffer.write('\n');
+
+        if (readFormat == ReadFormat.FASTQ) {
+            if (!batch.hasQualities(read)) {
+                throw new IllegalArgumentException("Read " + batch.getReadID(read) + " has no base qualities");
+            }
+            binBuffer.write('+');
+            binBuffer.write('\n');
+            binBuffer.write(batch.getQualities(), start, length);
+            binBuffer.write('\n');
+        }
+    }
+
+    /**
+     * Close the files of all bins, even if closing one of them fails.
+     *
+     * @throws IOException the failure of the first file that could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closeStreams();
+    }
+
+    /**
+     * Close the output streams of all bins which were opened, even if closing one of them fails.
+     *
+     * @throws IOException the failure of the first stream that could not be closed
+     */
+    private void closeStreams() throws IOException {
+        IOException failure = null;
+        for (OutputStream outputStream : outputStreams) {
+            if (outputStream == null) {
+                continue;
+            }
+            try {
+                outputStream.close();
+            } catch (IOException exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Retrieve the number of reads written to the bin of a specified database.
+     *
+     * @param database index of the k-mer database
+     * @return number of reads assigned to the database
+     */
+    public long getBinSize(int database) {
+        return binSizes[database];
+    }
+
+    public long getNumAmbiguous() {
+        return binSizes[numDatabases];
+    }
+
+    public long getNumUnassigned() {
+        return binSizes[numDatabases + 1];
+    }
+
+    public BinningRule getBinningRule() {
+        return binningRule;
+    }
+
+    public ReadFormat getReadFormat() {
+        return readFormat;
+    }
+
+    public boolean isPaired() {
+        return numMates == 2;
+    }
+
+}
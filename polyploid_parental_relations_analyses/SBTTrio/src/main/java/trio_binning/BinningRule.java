@@ -0,0 +1,117 @@
+package trio_binning;
+
+/**
+ * Implements assigning a read to a bin based on the fraction of its distinct valid canonical k-mers contained in
+ * each k-mer database.
+ *
+ * A read is assigned to the bin of the database with the highest ratio if
+ * <ul>
+ *     <li>that ratio is positive and at least the minimum ratio and</li>
+ *     <li>that ratio is higher than the second highest ratio by at least the minimum margin.</li>
+ * </ul>
+ * If the first condition is violated, the read is unassigned. If only the second condition is violated, the read
+ * is ambiguous. In particular, a read whose highest ratio is shared by several databases is always ambiguous.
+ */
+public class BinningRule {
+
+    /**
+     * The bin of reads whose highest ratio is not sufficiently higher than the second highest ratio.
+     */
+    public static final int AMBIGUOUS = -1;
+    /**
+     * The bin of reads whose highest ratio is below the minimum ratio.
+     */
+    public static final int UNASSIGNED = -2;
+
+    /**
+     * The minimum ratio of a read for being assigned to a database.
+     */
+    private final double minRatio;
+    /**
+     * The minimum difference between the highest and the second highest ratio of a read for being assigned to a
+     * database.
+     */
+    private final double minMargin;
+
+    /**
+     * Create a binning rule for a specified minimum ratio and minimum margin.
+     *
+     * @param minRatio minimum ratio of a read for being assigned to a database, between 0 and 1
+     * @param minMargin minimum difference between the highest and the second highest ratio, between 0 and 1
+     */
+    public BinningRule(double minRatio, double minMargin) {
+        if (minRatio < 0 || minRatio > 1 || minMargin < 0 || minMargin > 1) {
+            throw new IllegalArgumentException("Minimum ratio and minimum margin need to be between 0 and 1");
+        }
+        this.minRatio = minRatio;
+        this.minMargin = minMargin;
+    }
+
+    /**
+     * Assign a read to a bin based on its number of distinct valid canonical k-mers and the number of those k-mers
+     * contained in each database.
+     *
+     * Time complexity: O(n) where n is the number of databases
+     *
+     * @param numValidKmers number of distinct valid canonical k-mers of the read
+     * @param counts array containing the number of those k-mers contained in each database
+     * @param offset index of the count of the first database in the array
+     * @param numDatabases number of k-mer databases
+     * @return <ul>
+     *     <li>index of the database the read is assigned to</li>
+     *     <li>{@link #AMBIGUOUS} if the read cannot be assigned to a single database</li>
+     *     <li>{@link #UNASSIGNED} if the read does not share enough k-mers with any database</li>
+     * </ul>
+     */
+    public int assign(int numValidKmers, int[] counts, int offset, int numDatabases) {
+        if (numValidKmers == 0) {
+            return UNASSIGNED;
+        }
+
+        // compare the counts instead of the ratios since all ratios share the same denominator
+        int best = -1;
+        int bestCount = -1;
+        int secondBestCount = 0;
+        for (int i = 0; i < numDatabases; i++) {
+            int count = counts[offset + i];
+            if (count > bestCount) {
+                secondBestCount = Math.max(bestCount, 0);
+                bestCount = count;
+                best = i;
+            } else if (count > secondBestCount) {
+                secondBestCount = count;
+            }
+        }
+
+        double bestRatio = (double) bestCount / numValidKmers;
+        double secondBestRatio = (double) secondBestCount / numValidKmers;
+        if (bestCount <= 0 || bestRatio < minRatio) {
+            return UNASSIGNED;
+        }
+        if (bestCount == secondBestCount || bestRatio - secondBestRatio < minMargin) {
+            return AMBIGUOUS;
+        }
+        return best;
+    }
+
+    /**
+     * Assign a specified read of a specified classified batch to a bin.
+     *
+     * @param batch classified batch containing the read
+     * @param read index of the read in the batch
+     * @return bin of the read as returned by {@link #assign(int, int[], int, int)}
+     */
+    public int assign(ReadBatch batch, int read) {
+        return assign(batch.getNumValidKmers(read), batch.getCounts(),
+                read * batch.getNumDatabases(), batch.getNumDatabases());
+    }
+
+    public double getMinRatio() {
+        return minRatio;
+    }
+
+    public double getMinMargin() {
+        return minMargin;
+    }
+
+}
@@ -0,0 +1,56 @@
+package trio_binning;
+
+import java.io.IOException;
+
+/**
+ * Implements a result writer which hands each batch to several result writers in turn.
+ */
+public class CompositeResultWriter implements ResultWriter {
+
+    private final ResultWriter[] resultWriters;
+
+    /**
+     * Create a composite result writer for specified result writers.
+     *
+     * @param resultWriters result writers to hand each batch to
+     */
+    public CompositeResultWriter(ResultWriter... resultWriters) {
+        this.resultWriters = resultWriters;
+    }
+
+    @Override
+    public void write(ReadBatch batch) throws IOException {
+        for (ResultWriter resultWriter : resultWriters) {
+            resultWriter.write(batch);
+        }
+    }
+
+    /**
+     * Close all result writers, even if closing one of them fails.
+     *
+     * @throws IOException the failure of the first result writer that could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (ResultWriter resultWriter : resultWriters) {
+            try {
+                resultWriter.close();
+            } catch (IOException exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public ResultWriter[] getResultWriters() {
+        return resultWriters;
+    }
+
+}
@@ -0,0 +1,160 @@
+package trio_binning;
+
+import util.DirectBufferedOutputStream;
+
+import java.io.IOException;
+
+/**
+ * Implements writing the results of trio binning as comma separated values.
+ * Each line consists of the id of a read followed by the fraction of its distinct valid canonical k-mers contained
+ * in each k-mer database. For a window of a read, the id of the read is followed by the start and the end of the
+ * window in the read. Optionally, the ratios are followed by the number of k-mers of the read skipped because of low
+ * base qualities and by the number of database lookups spent on the read.
+ */
+public class CsvResultWriter implements ResultWriter {
+
+    /**
+     * The stream the results are written to.
+     */
+    private final DirectBufferedOutputStream outputStream;
+    /**
+     * The string builder reused for formatting the results of each batch.
+     */
+    private final StringBuilder builder = new StringBuilder();
+    /**
+     * Whether the number of k-mers of each read skipped because of low base qualities is written.
+     */
+    private final boolean writeSkippedKmers;
+    /**
+     * Whether the number of database lookups of each read is written.
+     */
+    private final boolean writeLookups;
+
+    /**
+     * Create a CSV result writer for a specified output file.
+     *
+     * @param outputPath path to the output file
+     * @throws IOException
+     */
+    public CsvResultWriter(String outputPath) throws IOException {
+        this(outputPath, false);
+    }
+
+    /**
+     * Create a CSV result writer for a specified output file which optionally writes the number of database
+     * lookups of each read as last column.
+     *
+     * @param outputPath path to the output file
+     * @param writeLookups whether the number of database lookups of each read is written
+     * @throws IOException
+     */
+    public CsvResultWriter(String outputPath, boolean writeLookups) throws IOException {
+        this(outputPath, false, writeLookups);
+    }
+
+    /**
+     * Create a CSV result writer for a specified output file which optionally writes the number of skipped k-mers
+     * and the number of database lookups of each read after the ratios.
+     *
+     * @param outputPath path to the output file
+     * @param writeSkippedKmers whether the number of k-mers of each read skipped because of low base qualities
+     *                          is written
+     * @param writeLookups whether the number of database lookups of each read is written
+     * @throws IOException
+     */
+    public CsvResultWriter(String outputPath, boolean writeSkippedKmers, boolean writeLookups) throws IOException {
+        this(new DirectBufferedOutputStream(outputPath), writeSkippedKmers, writeLookups);
+    }
+
+    /**
+     * Create a CSV result writer for a specified output stream, e.g. to a socket, which optionally writes the number
+     * of skipped k-mers and the number of database lookups of each read after the ratios. The stream is closed when
+     * the writer is closed.
+     *
+     * @param outputStream stream to write the results to
+     * @param writeSkippedKmers whether the number of k-mers of each read skipped because of low base qualities
+     *                          is written
+     * @param writeLookups whether the number of database lookups of each read is written
+     */
+    public CsvResultWriter(DirectBufferedOutputStream outputStream, boolean writeSkippedKmers, boolean writeLookups) {
+        this.writeSkippedKmers = writeSkippedKmers;
+        this.writeLookups = writeLookups;
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void write(ReadBatch batch) throws IOException {
+        builder.setLength(0);
+        for (int read = 0; read < batch.getNumReads(); read++) {
+            builder.append(batch.getReadID(read));
+            if (batch.isWindow(read)) {
+                int windowStart = batch.getWindowStart(read);
+                builder.append(',');
+                builder.append(windowStart);
+                builder.append(',');
+                builder.append(windowStart + batch.getEnd(read) - batch.getStart(read));
+            }
+            appendRatios(builder, batch.getNumValidKmers(read),
+                    batch.getCounts(), read * batch.getNumDatabases(), batch.getNumDatabases());
+            if (writeSkippedKmers) {
+                builder.append(',');
+                builder.append(batch.getNumSkippedKmers(read));
+            }
+            if (writeLookups) {
+                builder.append(',');
+                builder.append(batch.getNumLookups(read));
+            }
+            builder.append('\n');
+        }
+        outputStream.writeAscii(builder);
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputStream.close();
+    }
+
+    public boolean isWriteSkippedKmers() {
+        return writeSkippedKmers;
+    }
+
+    public boolean isWriteLookups() {
+        return writeLookups;
+    }
+
+    /**
+     * Append the id and the ratios of a single read to a specified string builder without terminating the line.
+     *
+     * @param builder string builder to append the output line to
+     * @param readID id of the read
+     * @param numValidKmers number of distinct valid canonical k-mers of the read
+     * @param counts array containing the number of those k-mers contained in each database
+     * @param offset index of the count of the first database in the array
+     * @param numDatabases number of k-mer databases
+     */
+    static void appendResult(StringBuilder builder, long readID, int numValidKmers,
+                             int[] counts, int offset, int numDatabases) {
+        builder.append(readID);
+        appendRatios(builder, numValidKmers, counts, offset, numDatabases);
+    }
+
+    /**
+     * Append the ratios of a single read, each preceded by a comma, to a specified string builder.
+     *
+     * @param builder string builder to append the ratios to
+     * @param numValidKmers number of distinct valid canonical k-mers of the read
+     * @param counts array containing the number of those k-mers contained in each database
+     * @param offset index of the count of the first database in the array
+     * @param numDatabases number of k-mer databases
+     */
+    private static void appendRatios(StringBuilder builder, int numValidKmers,
+                                     int[] counts, int offset, int numDatabases) {
+        // prevent division by 0
+        int denominator = Math.max(numValidKmers, 1);
+        for (int i = 0; i < numDatabases; i++) {
+            builder.append(',');
+            builder.append((double) counts[offset + i] / denominator);
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package trio_binning;
+
+import java.io.IOException;
+
+/**
+ * Implements a read source for plain or gzip-compressed files in fastq or fasta format based on a {@link FastxReader}.
+ *
+ * The records are copied from the buffer of the reader into the batches without creating any objects per record,
+ * so the workers encode the k-mers of the reads directly from the bytes of the file.
+ */
+public class FastxReadSource implements ReadSource {
+
+    private final FastxReader reader;
+    /**
+     * Whether the names and base qualities of the reads are added to the batches besides their sequences.
+     */
+    private final boolean keepRecords;
+
+    /**
+     * Create a read source for a specified fastq or fasta file which is decompressed if its name ends with .gz.
+     * Only the sequences of the reads are added to the batches.
+     *
+     * @param readFilePath path to the read file
+     * @throws IOException
+     */
+    public FastxReadSource(String readFilePath) throws IOException {
+        this(readFilePath, false);
+    }
+
+    /**
+     * Create a read source for a specified fastq or fasta file which is decompressed if its name ends with .gz.
+     *
+     * @param readFilePath path to the read file
+     * @param keepRecords whether the names and base qualities of the reads are added to the batches
+     * @throws IOException
+     */
+    public FastxReadSource(String readFilePath, boolean keepRecords) throws IOException {
+        this.keepRecords = keepRecords;
+        reader = new FastxReader(readFilePath);
+    }
+
+    @Override
+    public int fill(ReadBatch batch) throws IOException {
+        int numReads = 0;
+        while (!batch.isFull() && reader.next()) {
+            if (keepRecords) {
+                batch.add(reader.getBuffer(), reader.getNameStart(), reader.getNameEnd(),
+                        reader.getSequenceStart(), reader.getSequenceEnd(), reader.getQualitiesStart());
+            } else {
+                batch.add(reader.getBuffer(), -1, -1, reader.getSequenceStart(), reader.getSequenceEnd(), -1);
+            }
+            numReads++;
+        }
+        return numReads;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public boolean isKeepRecords() {
+        return keepRecords;
+    }
+
+}
@@ -0,0 +1,377 @@
+package trio_binning;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Implements a parser for plain or gzip-compressed files in fastq or fasta format which does not create any objects
+ * per record.
+ *
+ * The file is read in large blocks into a single byte array and each record is parsed in place: instead of strings,
+ * the parser exposes the ranges of the name, the sequence and the base qualities of the current record in that
+ * array, which can be copied into a batch or encoded directly. The format is determined per record by its first
+ * character, so both the fastq format (4 lines per record) and the fasta format with sequences spanning any number
+ * of lines are accepted. The lines of a multi-line fasta sequence are joined in place. Blank lines and carriage
+ * returns are ignored.
+ *
+ * Usage: call {@link #next()} until it returns false and retrieve the ranges of the current record in between.
+ * The ranges are only valid until the next call of {@link #next()}.
+ */
+public class FastxReader implements Closeable {
+
+    /**
+     * The default size of the buffer the file is read into in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 22;
+    /**
+     * The size of the buffer of the decompressor for gzip-compressed files in bytes.
+     */
+    private static final int DECOMPRESSION_BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    /**
+     * The buffer the file is read into; it only grows if a single record does not fit.
+     */
+    private byte[] buffer;
+    /**
+     * The index of the first byte in the buffer which has not been parsed yet.
+     */
+    private int position = 0;
+    /**
+     * The index after the last byte read into the buffer.
+     */
+    private int limit = 0;
+    /**
+     * Whether the end of the file has been reached.
+     */
+    private boolean endOfInput = false;
+
+    private ReadFormat format;
+    private int nameStart;
+    private int nameEnd;
+    private int sequenceStart;
+    private int sequenceEnd;
+    /**
+     * The index of the first base quality of the current record or -1 for records without base qualities.
+     */
+    private int qualitiesStart;
+
+    /**
+     * Create a reader for a specified file in fastq or fasta format which is decompressed if its name ends with .gz.
+     *
+     * @param path path to the file
+     * @throws IOException
+     */
+    public FastxReader(String path) throws IOException {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a reader for a specified file in fastq or fasta format with a specified initial buffer size.
+     * The file is decompressed if its name ends with .gz.
+     *
+     * @param path path to the file
+     * @param bufferSize initial size of the buffer the file is read into in bytes
+     * @throws IOException
+     */
+    public FastxReader(String path, int bufferSize) throws IOException {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size needs to be positive");
+        }
+        if (path.endsWith(".gz")) {
+            channel = Channels.newChannel(new GZIPInputStream(new FileInputStream(path), DECOMPRESSION_BUFFER_SIZE));
+        } else {
+            channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        }
+        buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Advance to the next record of the file.
+     *
+     * @return <ul>
+     *     <li>true if the next record was parsed</li>
+     *     <li>false if the end of the file was reached</li>
+     * </ul>
+     * @throws IOException if the file cannot be read or contains a malformed record
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            position = skipBlankLines(position);
+            if (position < limit && parseRecord()) {
+                return true;
+            }
+            if (endOfInput) {
+                if (position < limit) {
+                    throw new IOException("Incomplete record at the end of the file");
+                }
+                return false;
+            }
+            refill();
+        }
+    }
+
+    /**
+     * Parse the record starting at the current position if it is completely contained in the buffer.
+     *
+     * @return <ul>
+     *     <li>true if the record was parsed and the position was advanced after it</li>
+     *     <li>false if more data needs to be read first</li>
+     * </ul>
+     * @throws IOException if the record is malformed
+     */
+    private boolean parseRecord() throws IOException {
+        byte first = buffer[position];
+        if (first == '@') {
+            return parseFastqRecord();
+        }
+        if (first == '>') {
+            return parseFastaRecord();
+        }
+        throw new IOException("Record does not start with '@' or '>'");
+    }
+
+    /**
+     * Parse the fastq record starting at the current position if it is completely contained in the buffer.
+     *
+     * The four lines of a record are parsed one after another. Blank lines in between are skipped only where they
+     * cannot be part of the record: a sequence never starts with '+', so a blank line directly followed by the '+'
+     * line is an empty sequence, and the quality line of an empty sequence is the line directly after the '+' line.
+     *
+     * @return <ul>
+     *     <li>true if the record was parsed</li>
+     *     <li>false if more data needs to be read first</li>
+     * </ul>
+     * @throws IOException if the record is malformed
+     */
+    private boolean parseFastqRecord() throws IOException {
+        int headerEnd = findLineEnd(position);
+        if (headerEnd < 0) {
+            return false;
+        }
+        int sequenceLine = skipBlankLines(headerEnd);
+        int sequenceLineEnd;
+        int separatorLine;
+        if (sequenceLine < limit && buffer[sequenceLine] == '+') {
+            // empty sequence
+            sequenceLine = headerEnd;
+            sequenceLineEnd = headerEnd;
+            separatorLine = skipBlankLines(headerEnd);
+        } else {
+            sequenceLineEnd = findLineEnd(sequenceLine);
+            if (sequenceLineEnd < 0) {
+                return false;
+            }
+            separatorLine = skipBlankLines(sequenceLineEnd);
+        }
+        int separatorLineEnd = findLineEnd(separatorLine);
+        if (separatorLineEnd < 0) {
+            return false;
+        }
+        int length = trimmedEnd(sequenceLine, sequenceLineEnd) - sequenceLine;
+        int qualitiesLine = length == 0 ? separatorLineEnd : skipBlankLines(separatorLineEnd);
+        int qualitiesLineEnd = findLineEnd(qualitiesLine);
+        if (qualitiesLineEnd < 0) {
+            return false;
+        }
+
+        if (separatorLine == limit || buffer[separatorLine] != '+') {
+            throw new IOException("Fastq record does not contain a '+' line");
+        }
+        if (trimmedEnd(qualitiesLine, qualitiesLineEnd) - qualitiesLine != length) {
+            throw new IOException("Sequence and base qualities of a fastq record differ in length");
+        }
+
+        format = ReadFormat.FASTQ;
+        nameStart = position + 1;
+        nameEnd = trimmedEnd(nameStart, headerEnd);
+        sequenceStart = sequenceLine;
+        sequenceEnd = sequenceLine + length;
+        qualitiesStart = qualitiesLine;
+        position = qualitiesLineEnd;
+        return true;
+    }
+
+    /**
+     * Parse the fasta record starting at the current position if it is completely contained in the buffer and join
+     * the lines of its sequence in place.
+     *
+     * @return <ul>
+     *     <li>true if the record was parsed</li>
+     *     <li>false if more data needs to be read first</li>
+     * </ul>
+     */
+    private boolean parseFastaRecord() {
+        int headerEnd = findLineEnd(position);
+        if (headerEnd < 0) {
+            return false;
+        }
+
+        // find the end of the record first, so the buffer is only modified once the whole record is available
+        int recordEnd = headerEnd;
+        while (true) {
+            recordEnd = skipBlankLines(recordEnd);
+            if (recordEnd == limit) {
+                if (!endOfInput) {
+                    return false;
+                }
+                break;
+            }
+            if (buffer[recordEnd] == '>') {
+                break;
+            }
+            int lineEnd = findLineEnd(recordEnd);
+            if (lineEnd < 0) {
+                return false;
+            }
+            recordEnd = lineEnd;
+        }
+
+        // join the sequence lines by moving each line directly behind the previous one
+        int write = headerEnd;
+        int line = skipBlankLines(headerEnd);
+        while (line < recordEnd) {
+            int lineEnd = findLineEnd(line);
+            int end = trimmedEnd(line, lineEnd);
+            System.arraycopy(buffer, line, buffer, write, end - line);
+            write += end - line;
+            line = skipBlankLines(lineEnd);
+        }
+
+        format = ReadFormat.FASTA;
+        nameStart = position + 1;
+        nameEnd = trimmedEnd(nameStart, headerEnd);
+        sequenceStart = headerEnd;
+        sequenceEnd = write;
+        qualitiesStart = -1;
+        position = recordEnd;
+        return true;
+    }
+
+    /**
+     * Find the end of the line starting at a specified index.
+     *
+     * @param from index of the first character of the line
+     * @return <ul>
+     *     <li>index after the line feed terminating the line</li>
+     *     <li>the limit of the buffer if the line is the last line of the file and not terminated, which includes an
+     *     empty last line starting at the limit</li>
+     *     <li>-1 if the line is not completely contained in the buffer</li>
+     * </ul>
+     */
+    private int findLineEnd(int from) {
+        for (int i = from; i < limit; i++) {
+            if (buffer[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return endOfInput ? limit : -1;
+    }
+
+    /**
+     * Compute the end of the content of a line without its line feed and carriage return.
+     *
+     * @param from index of the first character of the line
+     * @param lineEnd index after the end of the line as returned by {@link #findLineEnd(int)}
+     * @return index after the last character of the content of the line
+     */
+    private int trimmedEnd(int from, int lineEnd) {
+        int end = lineEnd;
+        while (end > from && (buffer[end - 1] == '\n' || buffer[end - 1] == '\r')) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Skip line feeds and carriage returns starting at a specified index.
+     *
+     * @param from index to start at
+     * @return index of the first other character or the limit of the buffer
+     */
+    private int skipBlankLines(int from) {
+        int i = from;
+        while (i < limit && (buffer[i] == '\n' || buffer[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Move the unparsed bytes to the beginning of the buffer, grow the buffer if it is full and read more bytes.
+     *
+     * @throws IOException
+     */
+    private void refill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        } else if (limit == buffer.length) {
+            // a single record does not fit into the buffer
+            byte[] grown = new byte[buffer.length << 1];
+            System.arraycopy(buffer, 0, grown, 0, limit);
+            buffer = grown;
+        }
+
+        ByteBuffer target = ByteBuffer.wrap(buffer, limit, buffer.length - limit);
+        while (target.hasRemaining()) {
+            int numBytes = channel.read(target);
+            if (numBytes < 0) {
+                endOfInput = true;
+                break;
+            }
+            if (numBytes == 0 && target.position() > limit) {
+                break;
+            }
+        }
+        limit = target.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Retrieve the buffer containing the current record. The buffer may be replaced when advancing to the next record.
+     *
+     * @return byte array containing the name, sequence and base qualities of the current record
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public ReadFormat getFormat() {
+        return format;
+    }
+
+    public int getNameStart() {
+        return nameStart;
+    }
+
+    public int getNameEnd() {
+        return nameEnd;
+    }
+
+    public int getSequenceStart() {
+        return sequenceStart;
+    }
+
+    public int getSequenceEnd() {
+        return sequenceEnd;
+    }
+
+    public int getQualitiesStart() {
+        return qualitiesStart;
+    }
+
+}
@@ -0,0 +1,155 @@
+package trio_binning;
+
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash64Finalizer;
+import util.DataStructure;
+
+import java.util.Arrays;
+
+/**
+ * Implements a fixed-size direct-mapped cache in front of a set of k-mer databases which holds recently looked up
+ * k-mers together with the databases containing them.
+ *
+ * High-copy repeats cause the same k-mers to be looked up in every read spanning a copy of the repeat. A lookup of a
+ * cached k-mer only reads a single slot instead of searching every database. Each k-mer is mapped to exactly one slot
+ * by a hash of the k-mer and replaces the k-mer previously held by this slot, so neither lookups nor insertions
+ * depend on the number of cached k-mers. The databases of a k-mer are stored as a bit mask, so at most
+ * {@link #MAX_DATABASES} databases are supported.
+ *
+ * A cache is not thread-safe and is meant to be used by a single thread, so no synchronization is needed and each
+ * thread keeps the k-mers of its own reads.
+ */
+public class MembershipCache {
+
+    /**
+     * The maximum number of databases as the databases of a k-mer are stored in one long.
+     */
+    public static final int MAX_DATABASES = 64;
+    /**
+     * The marker of empty slots, which is no valid k-mer because k-mers of at most
+     * {@link dna.DNA#MAX_KMER_SIZE} bases are non-negative.
+     */
+    private static final long EMPTY = -1;
+
+    private final DataStructure[] databases;
+    private final HashFunction hashFunction = new MurmurHash64Finalizer();
+    /**
+     * The number of bits of the slot index, i.e. the number of slots is 2^slotBits.
+     */
+    private final int slotBits;
+    /**
+     * The k-mer held by each slot or {@link #EMPTY}.
+     */
+    private final long[] kmers;
+    /**
+     * The bit mask of the databases containing the k-mer of each slot, with bit i representing database i.
+     */
+    private final long[] masks;
+    /**
+     * The number of lookups answered by the cache.
+     */
+    private long numHits = 0;
+    /**
+     * The number of lookups which searched the databases.
+     */
+    private long numMisses = 0;
+    /**
+     * Whether the last lookup searched the databases.
+     */
+    private boolean lastLookupMiss = false;
+
+    /**
+     * Create an empty cache for a specified set of k-mer databases with at least a specified number of slots.
+     * The number of slots is rounded up to the next power of two.
+     *
+     * @param databases array of data structures representing the indices for the set of k-mer databases
+     * @param numSlots minimum number of slots
+     */
+    public MembershipCache(DataStructure[] databases, int numSlots) {
+        if (databases.length > MAX_DATABASES) {
+            throw new IllegalArgumentException("At most " + MAX_DATABASES + " databases can be cached");
+        }
+        if (numSlots < 1 || numSlots > 1 << 30) {
+            throw new IllegalArgumentException("The number of slots needs to be in the range [1, 2^30]");
+        }
+        this.databases = databases;
+        slotBits = 32 - Integer.numberOfLeadingZeros(numSlots - 1);
+        kmers = new long[1 << slotBits];
+        masks = new long[1 << slotBits];
+        Arrays.fill(kmers, EMPTY);
+    }
+
+    /**
+     * Look up a specified k-mer in all databases, answering from the cache if the k-mer is cached and searching the
+     * databases and caching the result otherwise. Whether the databases were searched is reported by
+     * {@link #isLastLookupMiss()}.
+     * Time complexity: O(1) for cached k-mers, O(d * s) otherwise where d is the number of databases and s is the
+     * time complexity of a search in a database
+     *
+     * @param kmer numeric representation of a canonical k-mer
+     * @return bit mask of the databases containing the k-mer, with bit i representing database i
+     */
+    public long lookup(long kmer) {
+        // the upper bits of the hash are used, which also works for a single slot
+        int slot = (int) (hashFunction.hash(kmer) >>> 1 >>> (63 - slotBits));
+        if (kmers[slot] == kmer) {
+            numHits++;
+            lastLookupMiss = false;
+            return masks[slot];
+        }
+
+        numMisses++;
+        lastLookupMiss = true;
+        long mask = 0;
+        for (int i = 0; i < databases.length; i++) {
+            if (databases[i].search(kmer)) {
+                mask |= 1L << i;
+            }
+        }
+        kmers[slot] = kmer;
+        masks[slot] = mask;
+        return mask;
+    }
+
+    /**
+     * Compute the fraction of lookups answered by the cache.
+     *
+     * @return <ul>
+     *     <li>number of hits divided by the number of lookups</li>
+     *     <li>0 if no k-mer was looked up</li>
+     * </ul>
+     */
+    public double getHitRate() {
+        long numLookups = numHits + numMisses;
+        return numLookups == 0 ? 0 : (double) numHits / numLookups;
+    }
+
+    /**
+     * Check whether the last lookup searched the databases, i.e. the looked up k-mer was not cached.
+     *
+     * @return <ul>
+     *     <li>true if the last lookup was a miss</li>
+     *     <li>false if the last lookup was answered by the cache or no k-mer was looked up</li>
+     * </ul>
+     */
+    public boolean isLastLookupMiss() {
+        return lastLookupMiss;
+    }
+
+    public DataStructure[] getDatabases() {
+        return databases;
+    }
+
+    public int getNumSlots() {
+        return kmers.length;
+    }
+
+    public long getNumHits() {
+        return numHits;
+    }
+
+    public long getNumMisses() {
+        return numMisses;
+    }
+
+}
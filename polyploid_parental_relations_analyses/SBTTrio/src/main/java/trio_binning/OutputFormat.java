@@ -0,0 +1,30 @@
+package trio_binning;
+
+/**
+ * Represents the formats the results of trio binning can be written in.
+ */
+public enum OutputFormat {
+
+    /**
+     * One line of comma separated values per read containing the ratio of k-mers contained in each database.
+     */
+    CSV("csv"),
+    /**
+     * One fixed-width binary record per read containing the raw counts, see {@link BinaryResultWriter}.
+     */
+    BINARY("bin");
+
+    /**
+     * The extension of output files in this format.
+     */
+    private final String extension;
+
+    OutputFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+}
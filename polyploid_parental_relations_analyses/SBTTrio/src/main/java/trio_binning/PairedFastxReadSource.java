@@ -0,0 +1,110 @@
+package trio_binning;
+
+import java.io.IOException;
+
+/**
+ * Implements a read source for paired-end reads stored in two plain or gzip-compressed files in fastq or fasta format.
+ *
+ * The files are read in lockstep, i.e. the i-th record of the first file and the i-th record of the second file are
+ * added to a batch as a single pair which is classified as a whole. Both files are parsed by a {@link FastxReader},
+ * so no objects are created per record.
+ */
+public class PairedFastxReadSource implements ReadSource {
+
+    private final FastxReader firstMateReader;
+    private final FastxReader secondMateReader;
+    /**
+     * Whether the names and base qualities of the mates are added to the batches besides their sequences.
+     */
+    private final boolean keepRecords;
+    /**
+     * Whether the file of the first mates was exhausted while the file of the second mates still contained a record.
+     */
+    private boolean missingFirstMate = false;
+
+    /**
+     * Create a read source for two specified fastq or fasta files containing the first and second mates of the pairs.
+     * Files are decompressed if their name ends with .gz.
+     *
+     * @param firstMateFilePath path to the file containing the first mates
+     * @param secondMateFilePath path to the file containing the second mates
+     * @param keepRecords whether the names and base qualities of the mates are added to the batches
+     * @throws IOException
+     */
+    public PairedFastxReadSource(String firstMateFilePath, String secondMateFilePath,
+                                 boolean keepRecords) throws IOException {
+        this.keepRecords = keepRecords;
+        firstMateReader = new FastxReader(firstMateFilePath);
+        try {
+            secondMateReader = new FastxReader(secondMateFilePath);
+        } catch (IOException exception) {
+            firstMateReader.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Fill a specified batch with pairs of mates.
+     *
+     * @param batch batch to fill
+     * @return number of added pairs
+     * @throws IOException if one of the files contains more records than the other
+     */
+    @Override
+    public int fill(ReadBatch batch) throws IOException {
+        int numPairs = 0;
+        while (!batch.isFull() && !missingFirstMate) {
+            boolean hasFirstMate = firstMateReader.next();
+            boolean hasSecondMate = secondMateReader.next();
+            if (hasFirstMate && !hasSecondMate) {
+                throw new IOException("The file of the second mates contains less records than the file of the first mates");
+            }
+            if (!hasFirstMate) {
+                // the pairs added so far are returned before the error is reported
+                missingFirstMate = hasSecondMate;
+                break;
+            }
+            add(batch, firstMateReader, false);
+            add(batch, secondMateReader, true);
+            numPairs++;
+        }
+
+        if (numPairs == 0 && missingFirstMate) {
+            throw new IOException("The file of the first mates contains less records than the file of the second mates");
+        }
+        return numPairs;
+    }
+
+    /**
+     * Add the current record of a specified reader to a specified batch as a read or as the mate of the last read.
+     *
+     * @param batch batch to add the record to
+     * @param reader reader positioned at the record
+     * @param mate whether the record is the second mate of the last read of the batch
+     */
+    private void add(ReadBatch batch, FastxReader reader, boolean mate) {
+        int nameStart = keepRecords ? reader.getNameStart() : -1;
+        int qualitiesStart = keepRecords ? reader.getQualitiesStart() : -1;
+        if (mate) {
+            batch.addMate(reader.getBuffer(), nameStart, reader.getNameEnd(),
+                    reader.getSequenceStart(), reader.getSequenceEnd(), qualitiesStart);
+        } else {
+            batch.add(reader.getBuffer(), nameStart, reader.getNameEnd(),
+                    reader.getSequenceStart(), reader.getSequenceEnd(), qualitiesStart);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            firstMateReader.close();
+        } finally {
+            secondMateReader.close();
+        }
+    }
+
+    public boolean isKeepRecords() {
+        return keepRecords;
+    }
+
+}
@@ -0,0 +1,586 @@
+package trio_binning;
+
+import java.util.Arrays;
+
+/**
+ * Represents a batch of consecutive reads processed together during trio binning.
+ *
+ * The sequences of all reads of a batch are packed into a single shared byte array as ASCII characters and are
+ * addressed by their offsets into that array. Besides the sequences, a batch holds the results of trio binning
+ * for each of its reads, i.e. the number of distinct valid canonical k-mers of a read and the number of those k-mers
+ * contained in each k-mer database. If the classification of a read stops early, both refer to the k-mers of the
+ * read which were evaluated. The number of database lookups spent on each read and the number of its k-mers skipped
+ * because of low base qualities are saved as well.
+ *
+ * Optionally, a batch also keeps the name and the base qualities of each read, so that the original records can be
+ * written again after classification and k-mers overlapping low quality bases can be skipped. Names are packed into a
+ * separate byte array and qualities are packed into a byte array addressed by the same offsets as the bases.
+ *
+ * An entry of a batch can also be a pair of mates, which are classified together. The sequences of both mates are
+ * then stored consecutively, separated by {@link #MATE_SEPARATOR}, which is not a base, so that no k-mer spans both
+ * mates while the distinct k-mers of both mates are extracted together.
+ *
+ * An entry of a batch can also be a window of a longer read, in which case the entry keeps the id of the read it
+ * belongs to and the position of the window in that read instead of an id of its own.
+ *
+ * A batch can be cleared and refilled, so its arrays only grow until they accommodate the longest batch seen.
+ */
+public class ReadBatch {
+
+    /**
+     * The number of bases per read the byte array of a batch accommodates initially.
+     */
+    private static final int INITIAL_BASES_PER_READ = 160;
+    /**
+     * The number of name characters per read the byte array of names accommodates initially.
+     */
+    private static final int INITIAL_NAME_LENGTH = 64;
+    /**
+     * The character separating the sequences and base qualities of the two mates of a pair.
+     */
+    public static final byte MATE_SEPARATOR = '|';
+
+    /**
+     * The maximum number of reads in this batch.
+     */
+    private final int capacity;
+    /**
+     * The number of k-mer databases this batch holds results for.
+     */
+    private final int numDatabases;
+    /**
+     * The offsets of the reads in the byte array of bases; read i occupies [offsets[i], offsets[i + 1]).
+     */
+    private final int[] offsets;
+    /**
+     * The offsets of the read names in the byte array of names; the name of read i occupies
+     * [nameOffsets[i], nameOffsets[i + 1]).
+     */
+    private final int[] nameOffsets;
+    /**
+     * Whether base qualities were saved for each read.
+     */
+    private final boolean[] hasQualities;
+    /**
+     * The offset of the second mate of each pair in the byte array of bases or -1 for reads without mate.
+     */
+    private final int[] mateOffsets;
+    /**
+     * The offset of the name of the second mate of each pair in the byte array of names; for reads without mate,
+     * this is the end of the name of the read.
+     */
+    private final int[] mateNameOffsets;
+    /**
+     * The position of each window in the read it belongs to or -1 for entries which are not windows.
+     */
+    private final int[] windowStarts;
+    /**
+     * The id of the read each window belongs to; only valid for entries which are windows.
+     */
+    private final long[] windowReadIDs;
+    /**
+     * The number of distinct valid canonical k-mers of each read.
+     */
+    private final int[] numValidKmers;
+    /**
+     * The number of database lookups spent on classifying each read.
+     */
+    private final int[] numLookups;
+    /**
+     * The number of k-mers of each read skipped because they overlap a low quality base.
+     */
+    private final int[] numSkippedKmers;
+    /**
+     * The number of distinct valid canonical k-mers of each read contained in each k-mer database where the count
+     * of read i and database j is saved at index i * numDatabases + j.
+     */
+    private final int[] counts;
+    /**
+     * The byte array the sequences of all reads of this batch are packed into.
+     */
+    private byte[] bases;
+    /**
+     * The byte array the base qualities of all reads of this batch are packed into.
+     */
+    private byte[] qualities;
+    /**
+     * The byte array the names of all reads of this batch are packed into.
+     */
+    private byte[] names;
+    /**
+     * The number of reads in this batch.
+     */
+    private int numReads = 0;
+    /**
+     * The id of the first read in this batch; the ids of the remaining reads are consecutive.
+     */
+    private long firstReadID = 0;
+    /**
+     * The position of this batch in the order in which the batches were filled.
+     */
+    private long sequenceNumber = 0;
+
+    /**
+     * Create a read batch for a specified maximum number of reads and a specified number of k-mer databases.
+     *
+     * @param capacity maximum number of reads in the batch
+     * @param numDatabases number of k-mer databases the batch holds results for
+     */
+    public ReadBatch(int capacity, int numDatabases) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A read batch needs to hold at least one read");
+        }
+        this.capacity = capacity;
+        this.numDatabases = numDatabases;
+
+        offsets = new int[capacity + 1];
+        numValidKmers = new int[capacity];
+        numLookups = new int[capacity];
+        numSkippedKmers = new int[capacity];
+        counts = new int[capacity * numDatabases];
+        bases = new byte[capacity * INITIAL_BASES_PER_READ];
+        qualities = new byte[0];
+        nameOffsets = new int[capacity + 1];
+        hasQualities = new boolean[capacity];
+        mateOffsets = new int[capacity];
+        mateNameOffsets = new int[capacity];
+        windowStarts = new int[capacity];
+        windowReadIDs = new long[capacity];
+        names = new byte[0];
+    }
+
+    /**
+     * Remove all reads from this batch and set the id of the first read added next.
+     *
+     * @param firstReadID id of the first read added to this batch
+     */
+    public void clear(long firstReadID) {
+        this.firstReadID = firstReadID;
+        numReads = 0;
+    }
+
+    /**
+     * Add a read given as ranges of a byte array of ASCII characters, e.g. the buffer of a {@link FastxReader},
+     * to this batch. Assumes that this batch is not full.
+     *
+     * @param record byte array containing the name, the sequence and the base qualities of the read
+     * @param nameStart index of the first character of the name or -1 if the name is not required
+     * @param nameEnd index after the last character of the name
+     * @param start index of the first base of the read
+     * @param end index after the last base of the read
+     * @param qualitiesStart index of the first base quality of the read or -1 if they are not available
+     */
+    public void add(byte[] record, int nameStart, int nameEnd, int start, int end, int qualitiesStart) {
+        int sequenceEnd = appendSequence(offsets[numReads], record, start, end, qualitiesStart);
+        int namesEnd = appendName(nameOffsets[numReads], record, nameStart, nameEnd);
+
+        hasQualities[numReads] = qualitiesStart >= 0;
+        mateOffsets[numReads] = -1;
+        mateNameOffsets[numReads] = namesEnd;
+        windowStarts[numReads] = -1;
+        numReads++;
+        offsets[numReads] = sequenceEnd;
+        nameOffsets[numReads] = namesEnd;
+    }
+
+    /**
+     * Add a second mate given as ranges of a byte array of ASCII characters to the last read of this batch, which
+     * turns the read into a pair of mates.
+     *
+     * @param record byte array containing the name, the sequence and the base qualities of the mate
+     * @param nameStart index of the first character of the name or -1 if the name is not required
+     * @param nameEnd index after the last character of the name
+     * @param start index of the first base of the mate
+     * @param end index after the last base of the mate
+     * @param qualitiesStart index of the first base quality of the mate or -1 if they are not available
+     */
+    public void addMate(byte[] record, int nameStart, int nameEnd, int start, int end, int qualitiesStart) {
+        int read = numReads - 1;
+        if (read < 0 || isPaired(read) || isWindow(read)) {
+            throw new IllegalArgumentException("A mate can only be added to a single read");
+        }
+        if (hasQualities[read] != qualitiesStart >= 0) {
+            throw new IllegalArgumentException("Either both or none of the mates need to have base qualities");
+        }
+
+        int firstMateEnd = offsets[numReads];
+        bases = ensureCapacity(bases, firstMateEnd + 1);
+        bases[firstMateEnd] = MATE_SEPARATOR;
+        if (hasQualities[read]) {
+            qualities = ensureCapacity(qualities, firstMateEnd + 1);
+            qualities[firstMateEnd] = MATE_SEPARATOR;
+        }
+        int sequenceEnd = appendSequence(firstMateEnd + 1, record, start, end, qualitiesStart);
+        int namesEnd = appendName(nameOffsets[numReads], record, nameStart, nameEnd);
+
+        mateOffsets[read] = firstMateEnd + 1;
+        mateNameOffsets[read] = nameOffsets[numReads];
+        offsets[numReads] = sequenceEnd;
+        nameOffsets[numReads] = namesEnd;
+    }
+
+    /**
+     * Add a window of a read, given as a range of a byte array of ASCII characters, to this batch as a single entry.
+     * Assumes that this batch is not full.
+     *
+     * @param readID id of the read the window belongs to
+     * @param windowStart position of the first base of the window in the read
+     * @param sequence byte array containing the bases of the window
+     * @param sequenceQualities byte array containing the base qualities of the window in the same range as the bases
+     *                          or null if they are not available
+     * @param from index of the first base of the window in the byte arrays (inclusive)
+     * @param to index after the last base of the window in the byte arrays (exclusive)
+     */
+    public void addWindow(long readID, int windowStart, byte[] sequence, byte[] sequenceQualities, int from, int to) {
+        int start = offsets[numReads];
+        int end = start + to - from;
+        bases = ensureCapacity(bases, end);
+        System.arraycopy(sequence, from, bases, start, to - from);
+        if (sequenceQualities != null) {
+            qualities = ensureCapacity(qualities, end);
+            System.arraycopy(sequenceQualities, from, qualities, start, to - from);
+        }
+
+        hasQualities[numReads] = sequenceQualities != null;
+        mateOffsets[numReads] = -1;
+        mateNameOffsets[numReads] = nameOffsets[numReads];
+        windowStarts[numReads] = windowStart;
+        windowReadIDs[numReads] = readID;
+        numReads++;
+        offsets[numReads] = end;
+        nameOffsets[numReads] = nameOffsets[numReads - 1];
+    }
+
+    /**
+     * Append a sequence and its base qualities given as ranges of a byte array at a specified offset of the byte
+     * arrays of bases and qualities.
+     *
+     * @param offset offset to append the sequence at
+     * @param record byte array containing the sequence and its base qualities
+     * @param start index of the first base of the sequence in the byte array
+     * @param end index after the last base of the sequence in the byte array
+     * @param qualitiesStart index of the first base quality in the byte array or -1 if they are not available
+     * @return offset after the appended sequence
+     */
+    private int appendSequence(int offset, byte[] record, int start, int end, int qualitiesStart) {
+        int length = end - start;
+        bases = ensureCapacity(bases, offset + length);
+        System.arraycopy(record, start, bases, offset, length);
+        if (qualitiesStart >= 0) {
+            qualities = ensureCapacity(qualities, offset + length);
+            System.arraycopy(record, qualitiesStart, qualities, offset, length);
+        }
+        return offset + length;
+    }
+
+    /**
+     * Append a name given as range of a byte array at a specified offset of the byte array of names.
+     *
+     * @param offset offset to append the name at
+     * @param record byte array containing the name
+     * @param nameStart index of the first character of the name or -1 if the name is not required
+     * @param nameEnd index after the last character of the name
+     * @return offset after the appended name
+     */
+    private int appendName(int offset, byte[] record, int nameStart, int nameEnd) {
+        if (nameStart < 0) {
+            return offset;
+        }
+        int end = offset + nameEnd - nameStart;
+        names = ensureCapacity(names, Math.max(end, capacity * INITIAL_NAME_LENGTH));
+        System.arraycopy(record, nameStart, names, offset, nameEnd - nameStart);
+        return end;
+    }
+
+    /**
+     * Check whether this batch contains the maximum number of reads.
+     *
+     * @return <ul>
+     *     <li>true if no more reads can be added to this batch</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    public boolean isFull() {
+        return numReads == capacity;
+    }
+
+    /**
+     * Check whether this batch does not contain any read.
+     *
+     * @return <ul>
+     *     <li>true if this batch does not contain any read</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    public boolean isEmpty() {
+        return numReads == 0;
+    }
+
+    /**
+     * Retrieve the index of the first base of a specified read in the byte array of bases.
+     *
+     * @param read index of the read in this batch
+     * @return index of the first base of the read (inclusive)
+     */
+    public int getStart(int read) {
+        return offsets[read];
+    }
+
+    /**
+     * Retrieve the index after the last base of a specified read in the byte array of bases.
+     * For a pair, this is the end of the second mate.
+     *
+     * @param read index of the read in this batch
+     * @return index after the last base of the read (exclusive)
+     */
+    public int getEnd(int read) {
+        return offsets[read + 1];
+    }
+
+    /**
+     * Retrieve the index of the first character of the name of a specified read in the byte array of names.
+     *
+     * @param read index of the read in this batch
+     * @return index of the first character of the name (inclusive)
+     */
+    public int getNameStart(int read) {
+        return nameOffsets[read];
+    }
+
+    /**
+     * Retrieve the index after the last character of the name of a specified read in the byte array of names.
+     * For a pair, this is the end of the name of the first mate.
+     *
+     * @param read index of the read in this batch
+     * @return index after the last character of the name (exclusive)
+     */
+    public int getNameEnd(int read) {
+        return mateNameOffsets[read];
+    }
+
+    /**
+     * Check whether a specified entry of this batch is a pair of mates.
+     *
+     * @param read index of the entry in this batch
+     * @return <ul>
+     *     <li>true if the entry is a pair of mates</li>
+     *     <li>false if the entry is a single read</li>
+     * </ul>
+     */
+    public boolean isPaired(int read) {
+        return mateOffsets[read] >= 0;
+    }
+
+    /**
+     * Retrieve the index after the last base of the first mate of a specified entry in the byte array of bases.
+     * For a single read, this is the end of the read.
+     *
+     * @param read index of the entry in this batch
+     * @return index after the last base of the first mate (exclusive)
+     */
+    public int getFirstMateEnd(int read) {
+        return isPaired(read) ? mateOffsets[read] - 1 : offsets[read + 1];
+    }
+
+    /**
+     * Retrieve the index of the first base of the second mate of a specified pair in the byte array of bases.
+     * The second mate ends at {@link #getEnd(int)}.
+     *
+     * @param read index of the pair in this batch
+     * @return index of the first base of the second mate (inclusive)
+     */
+    public int getMateStart(int read) {
+        return mateOffsets[read];
+    }
+
+    /**
+     * Retrieve the index of the first character of the name of the second mate of a specified pair in the
+     * byte array of names.
+     *
+     * @param read index of the pair in this batch
+     * @return index of the first character of the name of the second mate (inclusive)
+     */
+    public int getMateNameStart(int read) {
+        return mateNameOffsets[read];
+    }
+
+    /**
+     * Retrieve the index after the last character of the name of the second mate of a specified pair in the
+     * byte array of names.
+     *
+     * @param read index of the pair in this batch
+     * @return index after the last character of the name of the second mate (exclusive)
+     */
+    public int getMateNameEnd(int read) {
+        return nameOffsets[read + 1];
+    }
+
+    /**
+     * Check whether base qualities were saved for a specified read.
+     * The qualities of the read occupy the same range of the byte array of qualities as its bases do in the
+     * byte array of bases.
+     *
+     * @param read index of the read in this batch
+     * @return <ul>
+     *     <li>true if base qualities were saved for the read</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    public boolean hasQualities(int read) {
+        return hasQualities[read];
+    }
+
+    /**
+     * Check whether a specified entry of this batch is a window of a read.
+     *
+     * @param read index of the entry in this batch
+     * @return <ul>
+     *     <li>true if the entry is a window of a read</li>
+     *     <li>false if the entry is a whole read or pair</li>
+     * </ul>
+     */
+    public boolean isWindow(int read) {
+        return windowStarts[read] >= 0;
+    }
+
+    /**
+     * Retrieve the position of the first base of a specified window in the read it belongs to.
+     *
+     * @param read index of the window in this batch
+     * @return position of the window in its read or -1 if the entry is not a window
+     */
+    public int getWindowStart(int read) {
+        return windowStarts[read];
+    }
+
+    /**
+     * Retrieve the id of a specified read. For a window, this is the id of the read the window belongs to.
+     *
+     * @param read index of the read in this batch
+     * @return id of the read
+     */
+    public long getReadID(int read) {
+        return isWindow(read) ? windowReadIDs[read] : firstReadID + read;
+    }
+
+    /**
+     * Retrieve the total number of bases (including mate separators) of all reads in this batch.
+     *
+     * @return number of bases in this batch
+     */
+    public int getNumBases() {
+        return offsets[numReads];
+    }
+
+    /**
+     * Save the results of trio binning for a specified read.
+     *
+     * @param read index of the read in this batch
+     * @param numValidKmers number of distinct valid canonical k-mers of the read
+     */
+    public void setNumValidKmers(int read, int numValidKmers) {
+        this.numValidKmers[read] = numValidKmers;
+    }
+
+    public int getNumValidKmers(int read) {
+        return numValidKmers[read];
+    }
+
+    /**
+     * Save the number of database lookups spent on classifying a specified read.
+     *
+     * @param read index of the read in this batch
+     * @param numLookups number of searches for k-mers of the read in any k-mer database
+     */
+    public void setNumLookups(int read, int numLookups) {
+        this.numLookups[read] = numLookups;
+    }
+
+    public int getNumLookups(int read) {
+        return numLookups[read];
+    }
+
+    /**
+     * Save the number of k-mers of a specified read skipped because they overlap a low quality base.
+     *
+     * @param read index of the read in this batch
+     * @param numSkippedKmers number of skipped k-mers of the read
+     */
+    public void setNumSkippedKmers(int read, int numSkippedKmers) {
+        this.numSkippedKmers[read] = numSkippedKmers;
+    }
+
+    public int getNumSkippedKmers(int read) {
+        return numSkippedKmers[read];
+    }
+
+    /**
+     * Save the number of distinct valid canonical k-mers of a specified read contained in a specified database.
+     *
+     * @param read index of the read in this batch
+     * @param database index of the k-mer database
+     * @param count number of k-mers of the read contained in the database
+     */
+    public void setCount(int read, int database, int count) {
+        counts[read * numDatabases + database] = count;
+    }
+
+    public int getCount(int read, int database) {
+        return counts[read * numDatabases + database];
+    }
+
+    public int[] getCounts() {
+        return counts;
+    }
+
+    public byte[] getBases() {
+        return bases;
+    }
+
+    public byte[] getQualities() {
+        return qualities;
+    }
+
+    public byte[] getNames() {
+        return names;
+    }
+
+    public int getNumReads() {
+        return numReads;
+    }
+
+    public long getFirstReadID() {
+        return firstReadID;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getNumDatabases() {
+        return numDatabases;
+    }
+
+    /**
+     * Ensure that a specified byte array accommodates a specified number of bytes.
+     *
+     * @param array byte array to grow if necessary
+     * @param numBytes number of bytes to accommodate
+     * @return the byte array itself or a copy of it accommodating the number of bytes
+     */
+    private static byte[] ensureCapacity(byte[] array, int numBytes) {
+        if (numBytes > array.length) {
+            return Arrays.copyOf(array, Math.max(numBytes, array.length << 1));
+        }
+        return array;
+    }
+
+}
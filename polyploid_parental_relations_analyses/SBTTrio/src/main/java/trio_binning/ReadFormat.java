@@ -0,0 +1,24 @@
+package trio_binning;
+
+/**
+ * Represents the formats binned reads can be written in.
+ */
+public enum ReadFormat {
+
+    FASTQ("fastq"),
+    FASTA("fasta");
+
+    /**
+     * The extension of read files in this format.
+     */
+    private final String extension;
+
+    ReadFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+}
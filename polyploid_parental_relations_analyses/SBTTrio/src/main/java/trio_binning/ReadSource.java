@@ -0,0 +1,20 @@
+package trio_binning;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source of the reads consumed by the parse stage of the trio binning pipeline.
+ */
+public interface ReadSource extends Closeable {
+
+    /**
+     * Add the next reads of this source to a specified batch until the batch is full or this source is exhausted.
+     *
+     * @param batch batch to add the reads to
+     * @return number of reads added to the batch, 0 if and only if this source is exhausted
+     * @throws IOException
+     */
+    int fill(ReadBatch batch) throws IOException;
+
+}
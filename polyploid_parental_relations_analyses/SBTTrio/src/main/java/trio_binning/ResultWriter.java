@@ -0,0 +1,20 @@
+package trio_binning;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sink for the results of trio binning used by the write stage of the trio binning pipeline.
+ * A result writer is only ever used by a single thread.
+ */
+public interface ResultWriter extends Closeable {
+
+    /**
+     * Write the results of all reads of a specified classified batch.
+     *
+     * @param batch batch of which to write the results
+     * @throws IOException
+     */
+    void write(ReadBatch batch) throws IOException;
+
+}
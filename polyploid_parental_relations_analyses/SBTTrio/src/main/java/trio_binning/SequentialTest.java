@@ -0,0 +1,105 @@
+package trio_binning;
+
+/**
+ * Implements a sequential probability ratio test (SPRT) deciding which k-mer database a read originates from while
+ * its k-mers are being evaluated one by one.
+ *
+ * Only informative k-mers, i.e. k-mers contained in exactly one database, carry evidence. Under the hypothesis that
+ * a read originates from a database, each informative k-mer of the read is assumed to be exclusive to that database
+ * with probability p (the k-mer accuracy) and exclusive to another database otherwise. For two databases A and B
+ * with a and b informative k-mers, respectively, the log-likelihood ratio of the hypotheses is
+ * (a - b) * log(p / (1 - p)). The test accepts a hypothesis as soon as this ratio reaches log((1 - e) / e) for the
+ * error rate e = 1 - confidence, i.e. as soon as the leading database is ahead by at least
+ * ceil(log((1 - e) / e) / log(p / (1 - p))) informative k-mers. For more than two databases, the leading database is
+ * compared with the second one.
+ */
+public class SequentialTest {
+
+    /**
+     * The default probability that an informative k-mer of a read is exclusive to the database the read originates
+     * from.
+     */
+    public static final double DEFAULT_KMER_ACCURACY = 0.9;
+
+    /**
+     * The probability that the test decides for the correct database.
+     */
+    private final double confidence;
+    /**
+     * The probability that an informative k-mer of a read is exclusive to the database the read originates from.
+     */
+    private final double kmerAccuracy;
+    /**
+     * The number of informative k-mers by which the leading database needs to be ahead for a decision.
+     */
+    private final int decisionMargin;
+
+    /**
+     * Create a sequential test for a specified confidence and the default k-mer accuracy.
+     *
+     * @param confidence probability of deciding for the correct database, greater than 0.5 and less than 1
+     */
+    public SequentialTest(double confidence) {
+        this(confidence, DEFAULT_KMER_ACCURACY);
+    }
+
+    /**
+     * Create a sequential test for a specified confidence and k-mer accuracy.
+     *
+     * @param confidence probability of deciding for the correct database, greater than 0.5 and less than 1
+     * @param kmerAccuracy probability that an informative k-mer is exclusive to the database the read originates
+     *                     from, greater than 0.5 and less than 1
+     */
+    public SequentialTest(double confidence, double kmerAccuracy) {
+        if (!(confidence > 0.5 && confidence < 1) || !(kmerAccuracy > 0.5 && kmerAccuracy < 1)) {
+            throw new IllegalArgumentException("Confidence and k-mer accuracy need to be greater than 0.5 and less than 1");
+        }
+        this.confidence = confidence;
+        this.kmerAccuracy = kmerAccuracy;
+
+        double threshold = Math.log(confidence / (1 - confidence));
+        double evidencePerKmer = Math.log(kmerAccuracy / (1 - kmerAccuracy));
+        decisionMargin = Math.max((int) Math.ceil(threshold / evidencePerKmer - 1e-9), 1);
+    }
+
+    /**
+     * Check whether the test has decided for a database given the number of informative k-mers of each database
+     * evaluated so far.
+     *
+     * Time complexity: O(n) where n is the number of databases
+     *
+     * @param informativeCounts array containing the number of evaluated k-mers exclusive to each database
+     * @param numDatabases number of k-mer databases
+     * @return <ul>
+     *     <li>true if the leading database is ahead of all other databases by at least the decision margin</li>
+     *     <li>false otherwise</li>
+     * </ul>
+     */
+    public boolean isDecided(int[] informativeCounts, int numDatabases) {
+        int bestCount = 0;
+        int secondBestCount = 0;
+        for (int i = 0; i < numDatabases; i++) {
+            int count = informativeCounts[i];
+            if (count > bestCount) {
+                secondBestCount = bestCount;
+                bestCount = count;
+            } else if (count > secondBestCount) {
+                secondBestCount = count;
+            }
+        }
+        return bestCount - secondBestCount >= decisionMargin;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public double getKmerAccuracy() {
+        return kmerAccuracy;
+    }
+
+    public int getDecisionMargin() {
+        return decisionMargin;
+    }
+
+}
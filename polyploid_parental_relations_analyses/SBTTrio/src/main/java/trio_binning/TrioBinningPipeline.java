@@ -0,0 +1,610 @@
+package trio_binning;
+
+import dna.DNA;
+import kmer_counting.KmerCounter;
+import kmer_counting.WideKmerCounter;
+import util.DataStructure;
+import util.WideDataStructure;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implements trio binning as a staged pipeline with bounded queues between the stages.
+ *
+ * The pipeline comprises three stages:
+ * <ul>
+ *     <li>parse: the calling thread fills batches with the reads of a read source</li>
+ *     <li>classify: a fixed number of worker threads perform a trio binning task for each parsed batch</li>
+ *     <li>write: a single writer thread hands the classified batches to a result writer in input order</li>
+ * </ul>
+ *
+ * All batches are allocated once and recycled after they have been written. Because the number of batches is fixed,
+ * a stage blocks as soon as the following stage falls behind (backpressure), and the memory used by the pipeline
+ * only depends on the batch size and the queue depth but not on the size of the input.
+ *
+ * Since the workers finish their batches in arbitrary order, the write stage keeps classified batches which are
+ * ahead of the next batch in input order in a reorder buffer. The buffer holds at most as many batches as exist in
+ * total, because a batch is only recycled after it has been written. Hence, the output is deterministic and workers
+ * never wait for I/O.
+ *
+ * If any stage fails, all stages stop and the failure is reported to the caller.
+ *
+ * Alternatively, the batches can be classified by the threads of an executor shared with other pipelines, e.g. by
+ * several jobs running concurrently against the same databases. In this case, the parse stage submits one short task
+ * per batch to the executor instead of starting dedicated worker threads. These tasks never block, so the jobs
+ * sharing the executor cannot deadlock, and the backpressure is still provided by the fixed number of batches.
+ *
+ * Optionally, each thread classifying batches looks up the k-mers through its own membership cache, so the k-mers of
+ * high-copy repeats are only searched in the databases once per thread while they stay in the cache. The caches are
+ * kept for the lifetime of the pipeline and their hits and misses are summed up over all threads.
+ *
+ * A pipeline either classifies with k-mer databases of k-mers represented by one long or, for k-mer sizes above
+ * {@link DNA#MAX_KMER_SIZE}, with databases of wide k-mers represented by two longs.
+ */
+public class TrioBinningPipeline {
+
+    /**
+     * The time in milliseconds a stage waits for a batch before checking whether another stage failed.
+     */
+    private static final long POLL_TIMEOUT = 100;
+
+    /**
+     * Marker which signals the end of the input to the classify and write stages.
+     */
+    private final ReadBatch endOfInput = new ReadBatch(1, 0);
+
+    /**
+     * The indices of the k-mer databases or null if the databases hold wide k-mers.
+     */
+    private final DataStructure[] databases;
+    private final KmerCounter kmerCounter;
+    /**
+     * The indices of the databases of wide k-mers or null if the databases hold k-mers represented by one long.
+     */
+    private final WideDataStructure[] wideDatabases;
+    private final WideKmerCounter wideKmerCounter;
+    /**
+     * The number of k-mer databases.
+     */
+    private final int numDatabases;
+    /**
+     * The sequential test used during classification or null if all k-mers of each read are evaluated.
+     */
+    private final SequentialTest sequentialTest;
+    /**
+     * The minimum number of slots of the membership cache of each thread or 0 if no caches are used.
+     */
+    private final int cacheSize;
+    /**
+     * The membership cache of each thread classifying batches, created on the first batch of the thread.
+     */
+    private final ThreadLocal<MembershipCache> caches = ThreadLocal.withInitial(this::createCache);
+    /**
+     * All membership caches created by any thread.
+     */
+    private final List<MembershipCache> createdCaches = new CopyOnWriteArrayList<>();
+    /**
+     * The number of worker threads of the classify stage.
+     */
+    private final int numThreads;
+    /**
+     * The maximum number of reads per batch.
+     */
+    private final int batchSize;
+    /**
+     * The maximum number of batches waiting in front of the classify stage and the write stage, respectively.
+     */
+    private final int queueDepth;
+    /**
+     * The first failure of any stage or null if no stage failed.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Create a trio binning pipeline for a specified set of k-mer databases, a specified k-mer counter, number of
+     * worker threads, batch size and queue depth.
+     *
+     * @param databases array of data structures representing the indices for the set of k-mer databases
+     * @param kmerCounter k-mer counter to use during classification
+     * @param numThreads number of worker threads of the classify stage
+     * @param batchSize maximum number of reads per batch
+     * @param queueDepth maximum number of batches waiting in front of each of the classify and write stages
+     */
+    public TrioBinningPipeline(DataStructure[] databases, KmerCounter kmerCounter,
+                               int numThreads, int batchSize, int queueDepth) {
+        this(databases, kmerCounter, null, numThreads, batchSize, queueDepth);
+    }
+
+    /**
+     * Create a trio binning pipeline for a specified set of k-mer databases, a specified k-mer counter, sequential
+     * test, number of worker threads, batch size and queue depth.
+     *
+     * @param databases array of data structures representing the indices for the set of k-mer databases
+     * @param kmerCounter k-mer counter to use during classification
+     * @param sequentialTest sequential test deciding when to stop evaluating the k-mers of a read or null if
+     *                       all k-mers are evaluated
+     * @param numThreads number of worker threads of the classify stage
+     * @param batchSize maximum number of reads per batch
+     * @param queueDepth maximum number of batches waiting in front of each of the classify and write stages
+     */
+    public TrioBinningPipeline(DataStructure[] databases, KmerCounter kmerCounter, SequentialTest sequentialTest,
+                               int numThreads, int batchSize, int queueDepth) {
+        this(databases, kmerCounter, sequentialTest, 0, numThreads, batchSize, queueDepth);
+    }
+
+    /**
+     * Create a trio binning pipeline for a specified set of k-mer databases, a specified k-mer counter, sequential
+     * test, membership cache size, number of worker threads, batch size and queue depth.
+     *
+     * @param databases array of data structures representing the indices for the set of k-mer databases
+     * @param kmerCounter k-mer counter to use during classification
+     * @param sequentialTest sequential test deciding when to stop evaluating the k-mers of a read or null if
+     *                       all k-mers are evaluated
+     * @param cacheSize minimum number of slots of the membership cache of each thread or 0 if no caches are used
+     * @param numThreads number of worker threads of the classify stage
+     * @param batchSize maximum number of reads per batch
+     * @param queueDepth maximum number of batches waiting in front of each of the classify and write stages
+     */
+    public TrioBinningPipeline(DataStructure[] databases, KmerCounter kmerCounter, SequentialTest sequentialTest,
+                               int cacheSize, int numThreads, int batchSize, int queueDepth) {
+        this(databases, kmerCounter, null, null, databases.length, sequentialTest, cacheSize,
+                numThreads, batchSize, queueDepth);
+    }
+
+    /**
+     * Create a trio binning pipeline for a specified set of databases of wide k-mers, a specified wide k-mer counter,
+     * sequential test, number of worker threads, batch size and queue depth.
+     *
+     * @param databases array of data structures representing the indices for the set of databases of wide k-mers
+     * @param kmerCounter wide k-mer counter to use during classification
+     * @param sequentialTest sequential test deciding when to stop evaluating the k-mers of a read or null if
+     *                       all k-mers are evaluated
+     * @param numThreads number of worker threads of the classify stage
+     * @param batchSize maximum number of reads per batch
+     * @param queueDepth maximum number of batches waiting in front of each of the classify and write stages
+     */
+    public TrioBinningPipeline(WideDataStructure[] databases, WideKmerCounter kmerCounter,
+                               SequentialTest sequentialTest, int numThreads, int batchSize, int queueDepth) {
+        this(null, null, databases, kmerCounter, databases.length, sequentialTest, 0,
+                numThreads, batchSize, queueDepth);
+    }
+
+    /**
+     * Create a trio binning pipeline for either a set of k-mer databases or a set of databases of wide k-mers.
+     *
+     * @param databases indices for the k-mer databases or null if wide databases are given
+     * @param kmerCounter k-mer counter or null if wide databases are given
+     * @param wideDatabases indices for the databases of wide k-mers or null if k-mer databases are given
+     * @param wideKmerCounter wide k-mer counter or null if k-mer databases are given
+     * @param numDatabases number of databases
+     * @param sequentialTest sequential test deciding when to stop evaluating the k-mers of a read or null
+     * @param cacheSize minimum number of slots of the membership cache of each thread or 0 if no caches are used
+     * @param numThreads number of worker threads of the classify stage
+     * @param batchSize maximum number of reads per batch
+     * @param queueDepth maximum number of batches waiting in front of each of the classify and write stages
+     */
+    private TrioBinningPipeline(DataStructure[] databases, KmerCounter kmerCounter,
+                                WideDataStructure[] wideDatabases, WideKmerCounter wideKmerCounter, int numDatabases,
+                                SequentialTest sequentialTest, int cacheSize,
+                                int numThreads, int batchSize, int queueDepth) {
+        if (numThreads < 1 || batchSize < 1 || queueDepth < 1) {
+            throw new IllegalArgumentException("Number of threads, batch size and queue depth need to be positive");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("The cache size must not be negative");
+        }
+        if (cacheSize > 0 && databases == null) {
+            throw new IllegalArgumentException("Membership caches are only supported for k-mer sizes up to "
+                    + DNA.MAX_KMER_SIZE);
+        }
+        if (cacheSize > 0 && numDatabases > MembershipCache.MAX_DATABASES) {
+            throw new IllegalArgumentException("Membership caches support at most " + MembershipCache.MAX_DATABASES
+                    + " databases");
+        }
+        this.databases = databases;
+        this.kmerCounter = kmerCounter;
+        this.wideDatabases = wideDatabases;
+        this.wideKmerCounter = wideKmerCounter;
+        this.numDatabases = numDatabases;
+        this.sequentialTest = sequentialTest;
+        this.cacheSize = cacheSize;
+        this.numThreads = numThreads;
+        this.batchSize = batchSize;
+        this.queueDepth = queueDepth;
+    }
+
+    /**
+     * Perform trio binning for all reads of a specified read source and write the results with a specified
+     * result writer. The result writer is not closed.
+     *
+     * @param readSource source of the reads to classify
+     * @param resultWriter result writer to write the results of all reads with
+     * @return number of classified reads
+     * @throws IOException if reading the reads, classifying them or writing the results failed
+     */
+    public long run(ReadSource readSource, ResultWriter resultWriter) throws IOException {
+        failure = null;
+
+        // every batch is either free, waiting in one of the queues or processed by one of the threads
+        int numBatches = 2 * queueDepth + numThreads + 1;
+        BlockingQueue<ReadBatch> freeBatches = new ArrayBlockingQueue<>(numBatches);
+        BlockingQueue<ReadBatch> parsedBatches = new ArrayBlockingQueue<>(queueDepth);
+        BlockingQueue<ReadBatch> classifiedBatches = new ArrayBlockingQueue<>(queueDepth);
+        for (int i = 0; i < numBatches; i++) {
+            freeBatches.add(new ReadBatch(batchSize, numDatabases));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads + 1);
+        AtomicInteger activeWorkers = new AtomicInteger(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            pool.execute(() -> classify(parsedBatches, classifiedBatches, activeWorkers));
+        }
+        pool.execute(() -> write(classifiedBatches, freeBatches, resultWriter, numBatches));
+
+        long numReads = 0;
+        try {
+            numReads = parse(readSource, freeBatches, batch -> put(parsedBatches, batch));
+            // signal the end of the input to every worker
+            for (int i = 0; i < numThreads && failure == null; i++) {
+                put(parsedBatches, endOfInput);
+            }
+        } catch (IOException | RuntimeException exception) {
+            fail(exception);
+        }
+
+        // complete all existing tasks and then shutdown the pool
+        pool.shutdown();
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException exception) {}
+        }
+
+        if (failure != null) {
+            throw new IOException("Trio binning failed: " + failure.getMessage(), failure);
+        }
+        return numReads;
+    }
+
+    /**
+     * Perform trio binning for all reads of a specified read source and write the results with a specified
+     * result writer, classifying the batches with tasks of a specified executor which may be shared with other
+     * pipelines. Only the write stage runs on a dedicated thread. The result writer and the executor are not closed.
+     *
+     * @param readSource source of the reads to classify
+     * @param resultWriter result writer to write the results of all reads with
+     * @param executor executor running the classification of the batches
+     * @return number of classified reads
+     * @throws IOException if reading the reads, classifying them or writing the results failed
+     */
+    public long run(ReadSource readSource, ResultWriter resultWriter, Executor executor) throws IOException {
+        failure = null;
+
+        int numBatches = 2 * queueDepth + numThreads + 1;
+        BlockingQueue<ReadBatch> freeBatches = new ArrayBlockingQueue<>(numBatches);
+        // holds all batches and the end marker, so the classification tasks never block
+        BlockingQueue<ReadBatch> classifiedBatches = new ArrayBlockingQueue<>(numBatches + 1);
+        for (int i = 0; i < numBatches; i++) {
+            freeBatches.add(new ReadBatch(batchSize, numDatabases));
+        }
+
+        Thread writer = new Thread(() -> write(classifiedBatches, freeBatches, resultWriter, numBatches));
+        writer.start();
+
+        long numReads = 0;
+        try {
+            numReads = parse(readSource, freeBatches, batch -> {
+                executor.execute(() -> {
+                    try {
+                        classify(batch);
+                        classifiedBatches.add(batch);
+                    } catch (Throwable throwable) {
+                        fail(throwable);
+                    }
+                });
+                return true;
+            });
+            if (failure == null) {
+                classifiedBatches.add(endOfInput);
+            }
+        } catch (IOException | RuntimeException exception) {
+            fail(exception);
+        }
+
+        while (true) {
+            try {
+                writer.join();
+                break;
+            } catch (InterruptedException exception) {}
+        }
+
+        if (failure != null) {
+            throw new IOException("Trio binning failed: " + failure.getMessage(), failure);
+        }
+        return numReads;
+    }
+
+    /**
+     * Perform the parse stage: fill free batches with reads and pass them on to the classify stage.
+     * The end marker passed on last holds the number of parsed batches as its sequence number.
+     *
+     * @param readSource source of the reads to classify
+     * @param freeBatches queue of free batches
+     * @param classifyStage consumer passing a parsed batch on to the classify stage and returning false if any stage
+     *                      failed
+     * @return number of parsed reads
+     * @throws IOException
+     */
+    private long parse(ReadSource readSource, BlockingQueue<ReadBatch> freeBatches,
+                       BatchConsumer classifyStage) throws IOException {
+        long readID = 0;
+        long sequenceNumber = 0;
+        while (true) {
+            ReadBatch batch = take(freeBatches);
+            if (batch == null) {
+                return readID;
+            }
+
+            batch.clear(readID);
+            batch.setSequenceNumber(sequenceNumber);
+            int numReads = readSource.fill(batch);
+            if (numReads == 0) {
+                freeBatches.add(batch);
+                break;
+            }
+            readID += numReads;
+            sequenceNumber++;
+
+            if (!classifyStage.accept(batch)) {
+                return readID;
+            }
+        }
+
+        endOfInput.setSequenceNumber(sequenceNumber);
+        return readID;
+    }
+
+    /**
+     * Perform the classify stage on one worker thread: perform a trio binning task for each parsed batch and pass
+     * the batch on to the write stage.
+     *
+     * @param parsedBatches queue of batches waiting to be classified
+     * @param classifiedBatches queue of batches waiting to be written
+     * @param activeWorkers number of workers that have not reached the end of the input yet
+     */
+    private void classify(BlockingQueue<ReadBatch> parsedBatches, BlockingQueue<ReadBatch> classifiedBatches,
+                          AtomicInteger activeWorkers) {
+        try {
+            while (true) {
+                ReadBatch batch = take(parsedBatches);
+                if (batch == null) {
+                    return;
+                }
+                if (batch == endOfInput) {
+                    break;
+                }
+
+                classify(batch);
+
+                if (!put(classifiedBatches, batch)) {
+                    return;
+                }
+            }
+
+            // the last worker signals the end of the input to the write stage
+            if (activeWorkers.decrementAndGet() == 0) {
+                put(classifiedBatches, endOfInput);
+            }
+        } catch (Throwable throwable) {
+            fail(throwable);
+        }
+    }
+
+    /**
+     * Perform the write stage: write the results of the classified batches in the order in which they were parsed
+     * and recycle each batch after it has been written.
+     *
+     * @param classifiedBatches queue of batches waiting to be written
+     * @param freeBatches queue of free batches
+     * @param resultWriter result writer to write the results with
+     * @param numBatches total number of batches of the pipeline
+     */
+    private void write(BlockingQueue<ReadBatch> classifiedBatches, BlockingQueue<ReadBatch> freeBatches,
+                       ResultWriter resultWriter, int numBatches) {
+        // batches in flight have sequence numbers in [nextSequenceNumber, nextSequenceNumber + numBatches),
+        // so each of them has its own slot in the reorder buffer
+        ReadBatch[] reorderBuffer = new ReadBatch[numBatches];
+        long nextSequenceNumber = 0;
+        // the number of parsed batches, which is known once the end marker arrived
+        long endSequenceNumber = -1;
+        try {
+            while (true) {
+                ReadBatch batch = take(classifiedBatches);
+                if (batch == null) {
+                    return;
+                }
+                if (batch == endOfInput) {
+                    // the end marker may overtake batches which are still waiting to be written
+                    endSequenceNumber = batch.getSequenceNumber();
+                } else {
+                    reorderBuffer[(int) (batch.getSequenceNumber() % numBatches)] = batch;
+                }
+
+                // write all batches that are next in input order
+                int slot = (int) (nextSequenceNumber % numBatches);
+                while (reorderBuffer[slot] != null) {
+                    ReadBatch nextBatch = reorderBuffer[slot];
+                    reorderBuffer[slot] = null;
+                    resultWriter.write(nextBatch);
+
+                    // the queue of free batches can hold all batches, so this never blocks
+                    freeBatches.add(nextBatch);
+                    nextSequenceNumber++;
+                    slot = (int) (nextSequenceNumber % numBatches);
+                }
+                if (nextSequenceNumber == endSequenceNumber) {
+                    return;
+                }
+            }
+        } catch (Throwable throwable) {
+            fail(throwable);
+        }
+    }
+
+    /**
+     * Perform the trio binning task matching the type of the databases for a specified batch.
+     *
+     * @param batch batch of which to classify the reads
+     */
+    private void classify(ReadBatch batch) {
+        if (wideDatabases == null) {
+            MembershipCache cache = cacheSize > 0 ? caches.get() : null;
+            new TrioBinningTask(databases, kmerCounter, batch, sequentialTest, cache).run();
+        } else {
+            new WideTrioBinningTask(wideDatabases, wideKmerCounter, batch, sequentialTest).run();
+        }
+    }
+
+    /**
+     * Create the membership cache of the calling thread and register it for the statistics of the pipeline.
+     *
+     * @return empty membership cache for the databases of the pipeline
+     */
+    private MembershipCache createCache() {
+        MembershipCache cache = new MembershipCache(databases, cacheSize);
+        createdCaches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Sum up the number of lookups answered by the membership caches of all threads.
+     * The sum is only exact while no batches are classified.
+     *
+     * @return number of cache hits
+     */
+    public long getNumCacheHits() {
+        long numHits = 0;
+        for (MembershipCache cache : createdCaches) {
+            numHits += cache.getNumHits();
+        }
+        return numHits;
+    }
+
+    /**
+     * Sum up the number of lookups which missed the membership caches of all threads and searched the databases.
+     * The sum is only exact while no batches are classified.
+     *
+     * @return number of cache misses
+     */
+    public long getNumCacheMisses() {
+        long numMisses = 0;
+        for (MembershipCache cache : createdCaches) {
+            numMisses += cache.getNumMisses();
+        }
+        return numMisses;
+    }
+
+    /**
+     * Take the next batch from a specified queue, waiting until one is available or any stage failed.
+     *
+     * @param queue queue to take the batch from
+     * @return next batch of the queue or null if any stage failed
+     */
+    private ReadBatch take(BlockingQueue<ReadBatch> queue) {
+        try {
+            while (failure == null) {
+                ReadBatch batch = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    return batch;
+                }
+            }
+        } catch (InterruptedException exception) {
+            fail(exception);
+        }
+        return null;
+    }
+
+    /**
+     * Put a batch into a specified queue, waiting until space is available or any stage failed.
+     *
+     * @param queue queue to put the batch into
+     * @param batch batch to put into the queue
+     * @return <ul>
+     *     <li>true if the batch was put into the queue</li>
+     *     <li>false if any stage failed</li>
+     * </ul>
+     */
+    private boolean put(BlockingQueue<ReadBatch> queue, ReadBatch batch) {
+        try {
+            while (failure == null) {
+                if (queue.offer(batch, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException exception) {
+            fail(exception);
+        }
+        return false;
+    }
+
+    /**
+     * Record the failure of a stage, which stops all stages.
+     *
+     * @param throwable cause of the failure
+     */
+    private synchronized void fail(Throwable throwable) {
+        if (failure == null) {
+            failure = throwable;
+        }
+    }
+
+    /**
+     * Represents the classify stage as seen by the parse stage.
+     */
+    private interface BatchConsumer {
+
+        /**
+         * Pass a parsed batch on to the classify stage.
+         *
+         * @param batch parsed batch
+         * @return <ul>
+         *     <li>true if the batch was passed on</li>
+         *     <li>false if any stage failed</li>
+         * </ul>
+         */
+        boolean accept(ReadBatch batch);
+
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public SequentialTest getSequentialTest() {
+        return sequentialTest;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+}
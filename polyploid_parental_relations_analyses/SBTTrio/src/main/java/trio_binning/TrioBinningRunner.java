@@ -1,22 +1,32 @@
 package trio_binning;
 
+import access_trie.CompactAccessTrie;
 import containers.bit_packed_sorted_array.BitPackedSortedArrayFactory;
-import htsjdk.samtools.fastq.FastqReader;
+import containers.wide_sorted_array.WideSortedArrayFactory;
+import dna.DNA;
 import index_building.IndexBuilder;
 import kmer_counting.KmerCounter;
+import kmer_counting.WideKmerCounter;
+import kmer_sampling.SamplingMethod;
 import org.apache.commons.cli.*;
 import util.ArgumentValidation;
 import util.DataStructure;
+import util.WideDataStructure;
 
-import java.io.*;
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPInputStream;
 
 public class TrioBinningRunner {
 
+    /**
+     * The default fraction of sampled k-mers if k-mer sampling is enabled.
+     */
+    public static final double DEFAULT_DENSITY = 0.1;
+    /**
+     * The default confidence of the sequential test if early termination is enabled.
+     */
+    public static final double DEFAULT_CONFIDENCE = 0.99;
+
     public static void main(String[] args) throws IOException {
         // Define options
         Options options = new Options();
@@ -30,7 +40,12 @@ public class TrioBinningRunner {
         Option readFile = Option.builder("r").longOpt("readfile")
                 .hasArg().argName("file")
                 .required()
-                .desc("path to the read file in fastq format")
+                .desc("path to the read file in fastq or fasta format. For paired-end reads: file of the first mates")
+                .build();
+        Option mateFile = Option.builder("r2").longOpt("readfile2")
+                .hasArg().argName("file")
+                .desc("path to the file of the second mates of paired-end reads in fastq or fasta format. "
+                        + "Pairs are classified as a whole")
                 .build();
         Option accessTrieHeight = Option.builder("h").longOpt("height")
                 .hasArg().argName("H")
@@ -40,22 +55,116 @@ public class TrioBinningRunner {
         Option kmerSize = Option.builder("k").longOpt("kmer-size")
                 .hasArg().argName("K")
                 .required()
-                .desc("length of the kmers")
+                .desc("length of the kmers, at most 63. Kmers longer than 31 bases are represented by two longs")
                 .build();
         Option numThreads = Option.builder("t").longOpt("threads")
                 .hasArg().argName("T")
-                .desc("use T threads. Default: 8")
+                .desc("use T threads. Default: number of available processors")
+                .build();
+        Option batchSize = Option.builder("b").longOpt("batch-size")
+                .hasArg().argName("B")
+                .desc("process B reads per task. Default: " + TrioBinningSettings.DEFAULT_BATCH_SIZE)
+                .build();
+        Option queueDepth = Option.builder("q").longOpt("queue-depth")
+                .hasArg().argName("Q")
+                .desc("let at most Q batches wait in front of each pipeline stage. Default: number of threads")
+                .build();
+        Option outputFormat = Option.builder("f").longOpt("format")
+                .hasArg().argName("format")
+                .desc("format of the output file: csv (ratios) or binary (raw counts). Default: csv")
+                .build();
+        Option sampling = Option.builder("s").longOpt("sampling")
+                .hasArg().argName("method")
+                .desc("only use the kmers of databases and reads sampled by fracminhash or syncmer. Default: all kmers")
+                .build();
+        Option density = Option.builder().longOpt("density")
+                .hasArg().argName("D")
+                .desc("expected fraction D of sampled kmers. Default: " + DEFAULT_DENSITY)
+                .build();
+        Option sharedIndex = Option.builder().longOpt("shared-index")
+                .hasArg().argName("dir")
+                .desc("attach the indices published as memory-mapped files in dir, e.g. /dev/shm, so that processes "
+                        + "on the same node share them. Missing or outdated indices are published first")
+                .build();
+        Option compact = Option.builder().longOpt("compact")
+                .desc("index the databases with compact access tries which only store occupied buckets and "
+                        + "support heights up to " + CompactAccessTrie.MAX_HEIGHT)
+                .build();
+        Option mergeThreshold = Option.builder().longOpt("merge-threshold")
+                .hasArg().argName("M")
+                .desc("merge neighbouring buckets of a compact access trie into a shared container of at most M "
+                        + "kmers. Default: " + CompactAccessTrie.DEFAULT_MERGE_THRESHOLD)
+                .build();
+        Option minQuality = Option.builder().longOpt("min-quality")
+                .hasArg().argName("Q")
+                .desc("skip kmers overlapping a base with Phred quality below Q and add the number of skipped kmers "
+                        + "per read to the csv output. Default: 0 (use all kmers)")
+                .build();
+        Option earlyStop = Option.builder().longOpt("early-stop")
+                .desc("evaluate the kmers of each read in random order and stop as soon as a sequential test has decided "
+                        + "the database. Adds the number of lookups per read to the csv output")
+                .build();
+        Option confidence = Option.builder().longOpt("confidence")
+                .hasArg().argName("C")
+                .desc("confidence C of the sequential test. Default: " + DEFAULT_CONFIDENCE)
+                .build();
+        Option cache = Option.builder().longOpt("cache")
+                .hasArg().argName("S")
+                .desc("look up the kmers of each thread through a direct-mapped cache with at least S slots, which "
+                        + "speeds up kmers of high-copy repeats. Default: 0 (no cache)")
+                .build();
+        Option window = Option.builder("w").longOpt("window")
+                .hasArg().argName("W")
+                .desc("classify windows of W kmers of each read separately and in parallel and write one line "
+                        + "per window containing read id, window start and window end")
+                .build();
+        Option bin = Option.builder().longOpt("bin")
+                .desc("additionally write the reads into one file per database, ambiguous and unassigned reads")
+                .build();
+        Option minRatio = Option.builder().longOpt("min-ratio")
+                .hasArg().argName("R")
+                .desc("assign a read to a database only if at least a fraction R of its kmers is contained in it. Default: 0")
+                .build();
+        Option minMargin = Option.builder().longOpt("min-margin")
+                .hasArg().argName("M")
+                .desc("assign a read to a database only if its ratio exceeds the second highest ratio by at least M. Default: 0")
+                .build();
+        Option binFormat = Option.builder().longOpt("bin-format")
+                .hasArg().argName("format")
+                .desc("format of the binned read files: fastq or fasta. Default: fastq")
+                .build();
+        Option compressBins = Option.builder().longOpt("gzip")
+                .desc("compress the binned read files with gzip")
                 .build();
         Option outputPrefix = Option.builder("o").longOpt("output")
                 .hasArg().argName("output_prefix")
-                .desc("prefix of the output files. Default: results")
+                .desc("prefix of the output file. Default: results")
                 .build();
 
         options.addOption(databaseFiles);
         options.addOption(readFile);
+        options.addOption(mateFile);
         options.addOption(accessTrieHeight);
         options.addOption(kmerSize);
         options.addOption(numThreads);
+        options.addOption(batchSize);
+        options.addOption(queueDepth);
+        options.addOption(outputFormat);
+        options.addOption(sampling);
+        options.addOption(density);
+        options.addOption(sharedIndex);
+        options.addOption(compact);
+        options.addOption(mergeThreshold);
+        options.addOption(minQuality);
+        options.addOption(earlyStop);
+        options.addOption(confidence);
+        options.addOption(cache);
+        options.addOption(window);
+        options.addOption(bin);
+        options.addOption(minRatio);
+        options.addOption(minMargin);
+        options.addOption(binFormat);
+        options.addOption(compressBins);
         options.addOption(outputPrefix);
 
         // Parse options
@@ -79,10 +188,76 @@ public class TrioBinningRunner {
         ArgumentValidation.validateFileArgument(cmd.getOptionValue(readFile));
         int height = ArgumentValidation.validateIntArgument(cmd.getOptionValue(accessTrieHeight));
         int size = ArgumentValidation.validateIntArgument(cmd.getOptionValue(kmerSize));
-        int threads = 8;
+        int threads = Runtime.getRuntime().availableProcessors();
         if (cmd.hasOption(numThreads)) {
             threads = ArgumentValidation.validateIntArgument(cmd.getOptionValue(numThreads));
         }
+        TrioBinningSettings settings = new TrioBinningSettings();
+        if (cmd.hasOption(mateFile)) {
+            ArgumentValidation.validateFileArgument(cmd.getOptionValue(mateFile));
+            settings.setMateFilePath(cmd.getOptionValue(mateFile));
+        }
+        if (cmd.hasOption(sampling)) {
+            SamplingMethod method = ArgumentValidation.validateEnumArgument(cmd.getOptionValue(sampling),
+                    SamplingMethod.class);
+            double fraction = DEFAULT_DENSITY;
+            if (cmd.hasOption(density)) {
+                fraction = ArgumentValidation.validateDoubleArgument(cmd.getOptionValue(density));
+            }
+            settings.setKmerFilter(method.createFilter(size, fraction));
+        }
+        if (cmd.hasOption(sharedIndex)) {
+            settings.setSharedIndexDirectory(cmd.getOptionValue(sharedIndex));
+        }
+        if (cmd.hasOption(compact)) {
+            int threshold = CompactAccessTrie.DEFAULT_MERGE_THRESHOLD;
+            if (cmd.hasOption(mergeThreshold)) {
+                threshold = ArgumentValidation.validateIntArgument(cmd.getOptionValue(mergeThreshold));
+            }
+            settings.setCompactMergeThreshold(threshold);
+        }
+        if (cmd.hasOption(minQuality)) {
+            settings.setMinBaseQuality(ArgumentValidation.validateIntArgument(cmd.getOptionValue(minQuality)));
+        }
+        if (cmd.hasOption(earlyStop)) {
+            double level = DEFAULT_CONFIDENCE;
+            if (cmd.hasOption(confidence)) {
+                level = ArgumentValidation.validateDoubleArgument(cmd.getOptionValue(confidence));
+            }
+            settings.setSequentialTest(new SequentialTest(level));
+        }
+        if (cmd.hasOption(cache)) {
+            settings.setCacheSize(ArgumentValidation.validateIntArgument(cmd.getOptionValue(cache)));
+        }
+        if (cmd.hasOption(window)) {
+            settings.setWindowSize(ArgumentValidation.validateIntArgument(cmd.getOptionValue(window)));
+        }
+        if (cmd.hasOption(batchSize)) {
+            settings.setBatchSize(ArgumentValidation.validateIntArgument(cmd.getOptionValue(batchSize)));
+        }
+        if (cmd.hasOption(queueDepth)) {
+            settings.setQueueDepth(ArgumentValidation.validateIntArgument(cmd.getOptionValue(queueDepth)));
+        }
+        if (cmd.hasOption(outputFormat)) {
+            settings.setOutputFormat(ArgumentValidation.validateEnumArgument(cmd.getOptionValue(outputFormat),
+                    OutputFormat.class));
+        }
+        if (cmd.hasOption(bin)) {
+            double ratio = 0;
+            if (cmd.hasOption(minRatio)) {
+                ratio = ArgumentValidation.validateDoubleArgument(cmd.getOptionValue(minRatio));
+            }
+            double margin = 0;
+            if (cmd.hasOption(minMargin)) {
+                margin = ArgumentValidation.validateDoubleArgument(cmd.getOptionValue(minMargin));
+            }
+            settings.setBinningRule(new BinningRule(ratio, margin));
+            if (cmd.hasOption(binFormat)) {
+                settings.setBinFormat(ArgumentValidation.validateEnumArgument(cmd.getOptionValue(binFormat),
+                        ReadFormat.class));
+            }
+            settings.setCompressBins(cmd.hasOption(compressBins));
+        }
         String output = "./results";
         if (cmd.hasOption(outputPrefix)) {
             output = cmd.getOptionValue(outputPrefix);
@@ -90,73 +265,243 @@ public class TrioBinningRunner {
 
         // Perform trio binning
         performTrioBinning(files, cmd.getOptionValue(readFile),
-                height, size, threads, output);
+                height, size, threads, output, settings);
     }
 
     /**
-     * Perform the entire trio binning process.
+     * Perform the entire trio binning process with the default settings.
      *
      * @param databaseFiles array of strings representing the paths to the k-mer databases for which to perform trio binning
      * @param readFilePath path to the read file
      * @param accessTrieHeight access trie height to use for the indices
      * @param kmerSize k-mer size to use during trio binning
      * @param numThreads number of threads
-     * @param outputPrefix prefix of the output files
+     * @param outputPrefix prefix of the output file
      * @throws IOException
      */
     public static void performTrioBinning(String[] databaseFiles,
                                           String readFilePath,
                                           int accessTrieHeight, int kmerSize,
                                           int numThreads, String outputPrefix) throws IOException {
-        // Build index
-        System.out.println("Building indices");
-        IndexBuilder indexBuilder = new IndexBuilder(accessTrieHeight, kmerSize);
+        performTrioBinning(databaseFiles, readFilePath, accessTrieHeight, kmerSize,
+                numThreads, outputPrefix, new TrioBinningSettings());
+    }
+
+    /**
+     * Perform the entire trio binning process.
+     *
+     * @param databaseFiles array of strings representing the paths to the k-mer databases for which to perform trio binning
+     * @param readFilePath path to the read file or, for paired-end reads, the file of the first mates
+     * @param accessTrieHeight access trie height to use for the indices
+     * @param kmerSize k-mer size to use during trio binning
+     * @param numThreads number of threads
+     * @param outputPrefix prefix of the output files
+     * @param settings optional settings of the trio binning process
+     * @throws IOException
+     */
+    public static void performTrioBinning(String[] databaseFiles,
+                                          String readFilePath,
+                                          int accessTrieHeight, int kmerSize,
+                                          int numThreads, String outputPrefix,
+                                          TrioBinningSettings settings) throws IOException {
+        if (settings.getWindowSize() > 0 && (settings.getMateFilePath() != null
+                || settings.getBinningRule() != null || settings.getOutputFormat() != OutputFormat.CSV)) {
+            throw new IllegalArgumentException("Windows are only supported for single-end reads and csv output "
+                    + "without binned read files");
+        }
+        if (settings.getBinningRule() != null && settings.getBinFormat() == ReadFormat.FASTQ) {
+            validateFastqInput(readFilePath);
+            if (settings.getMateFilePath() != null) {
+                validateFastqInput(settings.getMateFilePath());
+            }
+        }
+
+        TrioBinningPipeline pipeline;
+        int numDatabases = databaseFiles.length;
+        if (kmerSize > DNA.MAX_KMER_SIZE) {
+            pipeline = createWidePipeline(databaseFiles, accessTrieHeight, kmerSize, numThreads, settings);
+        } else {
+            DataStructure[] databases;
+            if (settings.getSharedIndexDirectory() != null && settings.getCompactMergeThreshold() > 0) {
+                throw new IllegalArgumentException("Shared indices cannot be compact access tries");
+            }
+            if (settings.getSharedIndexDirectory() != null) {
+                databases = attachSharedIndices(databaseFiles, accessTrieHeight, kmerSize, settings);
+            } else {
+                // Build index
+                System.out.println("Building indices");
+                IndexBuilder indexBuilder = new IndexBuilder(accessTrieHeight, kmerSize, settings.getKmerFilter());
+                databases = new DataStructure[numDatabases];
+                for (int i = 0; i < databaseFiles.length; i++) {
+                    if (settings.getCompactMergeThreshold() > 0) {
+                        databases[i] = indexBuilder.buildCompactIndex(databaseFiles[i],
+                                new BitPackedSortedArrayFactory(), settings.getCompactMergeThreshold());
+                    } else {
+                        databases[i] = indexBuilder.buildIndex(databaseFiles[i], new BitPackedSortedArrayFactory());
+                    }
+                    System.out.println(Arrays.toString(databases));
+                }
+            }
+
+            // Process reads in a pipeline with bounded queues
+            // the k-mers of the reads are sampled in the same way as the k-mers of the databases
+            KmerCounter kmerCounter = new KmerCounter(kmerSize, false, settings.getKmerFilter(),
+                    settings.getMinBaseQuality());
+            pipeline = new TrioBinningPipeline(databases, kmerCounter, settings.getSequentialTest(),
+                    settings.getCacheSize(), numThreads, settings.getBatchSize(), settings.getQueueDepth(numThreads));
+        }
+
+        System.out.println("Calculating counts");
+        try (ReadSource readSource = createReadSource(readFilePath, settings, kmerSize);
+             ResultWriter resultWriter = createResultWriter(settings, outputPrefix, numDatabases, kmerSize)) {
+            pipeline.run(readSource, resultWriter);
+        }
+        if (settings.getCacheSize() > 0) {
+            long numCacheLookups = pipeline.getNumCacheHits() + pipeline.getNumCacheMisses();
+            System.out.printf("Cache hits: %d of %d lookups (%.1f%%)%n", pipeline.getNumCacheHits(), numCacheLookups,
+                    numCacheLookups == 0 ? 0.0 : 100.0 * pipeline.getNumCacheHits() / numCacheLookups);
+        }
+
+        System.out.println("Done");
+    }
+
+    /**
+     * Attach the shared indices of a set of k-mer databases, publishing missing or outdated index files first.
+     *
+     * @param databaseFiles array of strings representing the paths to the k-mer databases
+     * @param accessTrieHeight access trie height to use for the indices
+     * @param kmerSize k-mer size to use during trio binning
+     * @param settings settings of the trio binning process holding the directory of the index files
+     * @return shared indices of the databases
+     * @throws IOException
+     */
+    private static DataStructure[] attachSharedIndices(String[] databaseFiles, int accessTrieHeight, int kmerSize,
+                                                       TrioBinningSettings settings) throws IOException {
+        System.out.println("Attaching shared indices");
+        IndexBuilder indexBuilder = new IndexBuilder(accessTrieHeight, kmerSize, settings.getKmerFilter());
         DataStructure[] databases = new DataStructure[databaseFiles.length];
         for (int i = 0; i < databaseFiles.length; i++) {
-            databases[i] = indexBuilder.buildIndex(databaseFiles[i], new BitPackedSortedArrayFactory());
-            System.out.println(Arrays.toString(databases));
+            databases[i] = indexBuilder.attachSharedIndex(databaseFiles[i], settings.getSharedIndexDirectory());
         }
+        return databases;
+    }
 
-        // Process reads
-        BufferedReader bufferedReader;
-        if (readFilePath.endsWith(".gz")) {
-            bufferedReader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(readFilePath))));
-        } else {
-            bufferedReader = new BufferedReader(new FileReader(readFilePath));
+    /**
+     * Build the indices of wide k-mers for k-mer sizes above {@link DNA#MAX_KMER_SIZE} and create the pipeline
+     * classifying with them. The k-mers are saved in wide sorted arrays.
+     *
+     * @param databaseFiles array of strings representing the paths to the k-mer databases
+     * @param accessTrieHeight access trie height to use for the indices
+     * @param kmerSize k-mer size to use during trio binning
+     * @param numThreads number of threads
+     * @param settings optional settings of the trio binning process
+     * @return pipeline classifying the reads with databases of wide k-mers
+     */
+    private static TrioBinningPipeline createWidePipeline(String[] databaseFiles, int accessTrieHeight, int kmerSize,
+                                                          int numThreads, TrioBinningSettings settings) {
+        if (settings.getKmerFilter() != null) {
+            throw new IllegalArgumentException("Sampling k-mers is only supported for k-mer sizes up to "
+                    + DNA.MAX_KMER_SIZE);
+        }
+        if (settings.getSharedIndexDirectory() != null) {
+            throw new IllegalArgumentException("Shared indices are only supported for k-mer sizes up to "
+                    + DNA.MAX_KMER_SIZE);
+        }
+        if (settings.getCompactMergeThreshold() > 0) {
+            throw new IllegalArgumentException("Compact access tries are only supported for k-mer sizes up to "
+                    + DNA.MAX_KMER_SIZE);
+        }
+        if (settings.getCacheSize() > 0) {
+            throw new IllegalArgumentException("Membership caches are only supported for k-mer sizes up to "
+                    + DNA.MAX_KMER_SIZE);
         }
 
-        FastqReader fastqReader = new FastqReader(new File(readFilePath), bufferedReader, true);
-        KmerCounter kmerCounter = new KmerCounter(kmerSize);
+        System.out.println("Building indices");
+        IndexBuilder indexBuilder = new IndexBuilder(accessTrieHeight, kmerSize);
+        WideDataStructure[] databases = new WideDataStructure[databaseFiles.length];
+        for (int i = 0; i < databaseFiles.length; i++) {
+            databases[i] = indexBuilder.buildWideIndex(databaseFiles[i], new WideSortedArrayFactory());
+        }
 
-        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
-        RoundRobinBufferedWriter writer =
-                new RoundRobinBufferedWriter(numThreads, outputPrefix, "csv");
+        WideKmerCounter kmerCounter = new WideKmerCounter(kmerSize, false, settings.getMinBaseQuality());
+        return new TrioBinningPipeline(databases, kmerCounter, settings.getSequentialTest(),
+                numThreads, settings.getBatchSize(), settings.getQueueDepth(numThreads));
+    }
 
-        System.out.println("Calculating counts");
-        int readID = 0;
-        while (fastqReader.hasNext()) {
-            String read = fastqReader.next().getReadString();
-            Runnable task = new TrioBinningTask(databases,
-                    kmerCounter, writer.getNextWriter(), readID, read);
-            pool.execute(task);
-            readID++;
-        }
-
-        // complete all existing tasks and then shutdown the pool
-        pool.shutdown();
-
-        while (true) {
-            try {
-                if (pool.awaitTermination(1, TimeUnit.SECONDS)) {
-                    break;
-                }
-            } catch (InterruptedException exception) {}
+    /**
+     * Check that the first record of a specified read file is in fastq format, so that its reads can be binned into
+     * fastq files, which need base qualities.
+     *
+     * @param readFilePath path to the read file
+     * @throws IOException if the read file cannot be read
+     * @throws IllegalArgumentException if the read file is in fasta format
+     */
+    private static void validateFastqInput(String readFilePath) throws IOException {
+        try (FastxReader reader = new FastxReader(readFilePath)) {
+            if (reader.next() && reader.getFormat() == ReadFormat.FASTA) {
+                throw new IllegalArgumentException("Reads in fasta format cannot be binned into fastq files: "
+                        + readFilePath + ". Use --bin-format fasta");
+            }
         }
+    }
 
-        // write all remaining output to disk and close writers
-        writer.closeAll();
+    /**
+     * Create a read source for a specified read file and specified settings. If a file of second mates is set,
+     * the reads of both files are classified as pairs. If a window size is set, the reads are split into windows.
+     * The names and base qualities of the reads are only kept if they are written into binned read files or
+     * k-mers overlapping low quality bases are skipped.
+     *
+     * @param readFilePath path to the read file or, for paired-end reads, the file of the first mates
+     * @param settings settings of the trio binning process
+     * @param kmerSize k-mer size used during trio binning
+     * @return read source for the read files
+     * @throws IOException
+     */
+    public static ReadSource createReadSource(String readFilePath, TrioBinningSettings settings,
+                                               int kmerSize) throws IOException {
+        boolean keepRecords = settings.getBinningRule() != null || settings.getMinBaseQuality() > 0;
+        if (settings.getWindowSize() > 0) {
+            return new WindowedReadSource(new FastxReadSource(readFilePath, keepRecords),
+                    settings.getWindowSize(), kmerSize);
+        }
+        if (settings.getMateFilePath() != null) {
+            return new PairedFastxReadSource(readFilePath, settings.getMateFilePath(), keepRecords);
+        }
+        return new FastxReadSource(readFilePath, keepRecords);
+    }
 
-        System.out.println("Done");
+    /**
+     * Create a result writer for specified settings. The result file is named after the output prefix and the
+     * extension of the output format. If a binning rule is set, the reads are additionally written into one file
+     * per bin.
+     *
+     * @param settings settings of the trio binning process
+     * @param outputPrefix prefix of the output files
+     * @param numDatabases number of k-mer databases
+     * @param kmerSize k-mer size used during trio binning
+     * @return result writer writing the results according to the settings
+     * @throws IOException
+     */
+    private static ResultWriter createResultWriter(TrioBinningSettings settings, String outputPrefix,
+                                                   int numDatabases, int kmerSize) throws IOException {
+        String outputPath = outputPrefix + "." + settings.getOutputFormat().getExtension();
+        ResultWriter resultWriter = switch (settings.getOutputFormat()) {
+            case CSV -> new CsvResultWriter(outputPath, settings.getMinBaseQuality() > 0,
+                    settings.getSequentialTest() != null);
+            case BINARY -> new BinaryResultWriter(outputPath, numDatabases, kmerSize);
+        };
+
+        if (settings.getBinningRule() == null) {
+            return resultWriter;
+        }
+        try {
+            return new CompositeResultWriter(resultWriter, new BinnedReadWriter(outputPrefix, numDatabases,
+                    settings.getBinningRule(), settings.getBinFormat(), settings.isCompressBins(),
+                    settings.getMateFilePath() != null));
+        } catch (IOException exception) {
+            resultWriter.close();
+            throw exception;
+        }
     }
 
 }
@@ -0,0 +1,197 @@
+package trio_binning;
+
+import kmer_sampling.KmerFilter;
+
+/**
+ * Represents the optional settings of the trio binning process.
+ * A newly created instance holds the default value of every setting.
+ */
+public class TrioBinningSettings {
+
+    /**
+     * The default number of reads processed together by a single task.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    /**
+     * The path to the file containing the second mates of paired-end reads or null for single-end reads.
+     */
+    private String mateFilePath = null;
+    /**
+     * The filter sampling the k-mers of the databases and the reads or null if all k-mers are used.
+     */
+    private KmerFilter kmerFilter = null;
+    /**
+     * The directory of the shared index files attached instead of building the indices on the heap or null if the
+     * indices are built on the heap.
+     */
+    private String sharedIndexDirectory = null;
+    /**
+     * The number of k-mers up to which neighbouring buckets share a container if the indices are compact access
+     * tries or 0 if the indices are fixed prefix length access tries.
+     */
+    private int compactMergeThreshold = 0;
+    /**
+     * The minimum Phred quality of the bases of a k-mer used for classification or 0 if base qualities are ignored.
+     */
+    private int minBaseQuality = 0;
+    /**
+     * The sequential test deciding when to stop evaluating the k-mers of a read or null if all k-mers are evaluated.
+     */
+    private SequentialTest sequentialTest = null;
+    /**
+     * The minimum number of slots of the membership cache of each classifying thread or 0 if no caches are used.
+     */
+    private int cacheSize = 0;
+    /**
+     * The number of k-mer start positions per window if reads are classified in windows or 0 for whole reads.
+     */
+    private int windowSize = 0;
+    /**
+     * The number of reads processed together by a single task.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    /**
+     * The maximum number of batches waiting in front of each stage of the pipeline or 0 to use the number of threads.
+     */
+    private int queueDepth = 0;
+    /**
+     * The format of the result file.
+     */
+    private OutputFormat outputFormat = OutputFormat.CSV;
+    /**
+     * The binning rule used to write the reads into one file per bin or null if no binned read files are written.
+     */
+    private BinningRule binningRule = null;
+    /**
+     * The format of the binned read files.
+     */
+    private ReadFormat binFormat = ReadFormat.FASTQ;
+    /**
+     * Whether the binned read files are compressed with gzip.
+     */
+    private boolean compressBins = false;
+
+    /**
+     * Retrieve the queue depth for a specified number of threads.
+     *
+     * @param numThreads number of threads
+     * @return the queue depth if it was set or the number of threads otherwise
+     */
+    public int getQueueDepth(int numThreads) {
+        return queueDepth > 0 ? queueDepth : numThreads;
+    }
+
+    public String getMateFilePath() {
+        return mateFilePath;
+    }
+
+    public void setMateFilePath(String mateFilePath) {
+        this.mateFilePath = mateFilePath;
+    }
+
+    public KmerFilter getKmerFilter() {
+        return kmerFilter;
+    }
+
+    public void setKmerFilter(KmerFilter kmerFilter) {
+        this.kmerFilter = kmerFilter;
+    }
+
+    public String getSharedIndexDirectory() {
+        return sharedIndexDirectory;
+    }
+
+    public void setSharedIndexDirectory(String sharedIndexDirectory) {
+        this.sharedIndexDirectory = sharedIndexDirectory;
+    }
+
+    public int getCompactMergeThreshold() {
+        return compactMergeThreshold;
+    }
+
+    public void setCompactMergeThreshold(int compactMergeThreshold) {
+        this.compactMergeThreshold = compactMergeThreshold;
+    }
+
+    public int getMinBaseQuality() {
+        return minBaseQuality;
+    }
+
+    public void setMinBaseQuality(int minBaseQuality) {
+        this.minBaseQuality = minBaseQuality;
+    }
+
+    public SequentialTest getSequentialTest() {
+        return sequentialTest;
+    }
+
+    public void setSequentialTest(SequentialTest sequentialTest) {
+        this.sequentialTest = sequentialTest;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    public void setOutputFormat(OutputFormat outputFormat) {
+        this.outputFormat = outputFormat;
+    }
+
+    public BinningRule getBinningRule() {
+        return binningRule;
+    }
+
+    public void setBinningRule(BinningRule binningRule) {
+        this.binningRule = binningRule;
+    }
+
+    public ReadFormat getBinFormat() {
+        return binFormat;
+    }
+
+    public void setBinFormat(ReadFormat binFormat) {
+        this.binFormat = binFormat;
+    }
+
+    public boolean isCompressBins() {
+        return compressBins;
+    }
+
+    public void setCompressBins(boolean compressBins) {
+        this.compressBins = compressBins;
+    }
+
+}
@@ -1,87 +1,267 @@
 package trio_binning;
 
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash64Finalizer;
+import kmer_counting.DistinctKmerBuffer;
 import kmer_counting.KmerCounter;
 import util.DataStructure;
 
-import java.io.BufferedWriter;
-import java.io.IOException;
-
 /**
  * Represents a single task performed during trio binning.
- * A task comprises computing the number of distinct canonical k-mers a given read shares with each of
+ * A task comprises computing the number of distinct canonical k-mers each read of a batch shares with each of
  * a given set of k-mer databases by first extracting the distinct canonical k-mers in the read and then
- * searching for them in the indices for the specified k-mer databases.
+ * searching for them in the indices for the specified k-mer databases. For a pair of mates, the distinct k-mers
+ * of both mates are extracted together, so a k-mer contained in both mates is only counted once.
+ *
+ * Optionally, the k-mers of a read are evaluated in a random order until a sequential test has decided which database
+ * the read originates from. The counts of such a read then refer to the evaluated k-mers only, so the ratios are
+ * estimates of the ratios of all k-mers of the read. The order of the k-mers of a read is derived from its id, so the
+ * results do not depend on the number of threads.
+ *
+ * Optionally, the k-mers are looked up through a membership cache of the calling thread, which answers repeated
+ * lookups of the same k-mer without searching the databases. The results do not depend on whether a cache is used.
  */
 public class TrioBinningTask implements Runnable {
 
     private final DataStructure[] databases;
     private final KmerCounter kmerCounter;
-    private final BufferedWriter bufferedWriter;
-    private final int readID;
-    private final String read;
+    private final ReadBatch batch;
+    /**
+     * The sequential test deciding when to stop evaluating the k-mers of a read or null if all k-mers are evaluated.
+     */
+    private final SequentialTest sequentialTest;
+    /**
+     * The membership cache of the thread performing the task or null if the databases are searched directly.
+     */
+    private final MembershipCache cache;
+    /**
+     * The hash function deriving the random order of the k-mers of a read from its id.
+     */
+    private final HashFunction hashFunction = new MurmurHash64Finalizer();
+    /**
+     * The number of evaluated k-mers of the current read contained in each database.
+     */
+    private final int[] hitCounts;
+    /**
+     * The number of evaluated k-mers of the current read contained in exactly one database, for each database.
+     */
+    private final int[] informativeCounts;
+
+    /**
+     * Create a trio binning task for a specified set of k-mer databases, a specified k-mer counter and batch of reads.
+     *
+     * @param databases array of data structures representing the indices for the set of k-mer databases
+     * @param kmerCounter k-mer counter to use in the task
+     * @param batch batch of reads to use in the task
+     */
+    public TrioBinningTask(DataStructure[] databases,
+                           KmerCounter kmerCounter,
+                           ReadBatch batch) {
+        this(databases, kmerCounter, batch, null);
+    }
+
+    /**
+     * Create a trio binning task for a specified set of k-mer databases, a specified k-mer counter, batch of reads
+     * and sequential test.
+     *
+     * @param databases array of data structures representing the indices for the set of k-mer databases
+     * @param kmerCounter k-mer counter to use in the task
+     * @param batch batch of reads to use in the task
+     * @param sequentialTest sequential test deciding when to stop evaluating the k-mers of a read or null if
+     *                       all k-mers are evaluated
+     */
+    public TrioBinningTask(DataStructure[] databases,
+                           KmerCounter kmerCounter,
+                           ReadBatch batch,
+                           SequentialTest sequentialTest) {
+        this(databases, kmerCounter, batch, sequentialTest, null);
+    }
 
     /**
-     * Create a trio binning task for a specified set of k-mer databases, a specified k-mer counter and buffered writer,
-     * read id and read.
+     * Create a trio binning task for a specified set of k-mer databases, a specified k-mer counter, batch of reads,
+     * sequential test and membership cache.
      *
      * @param databases array of data structures representing the indices for the set of k-mer databases
      * @param kmerCounter k-mer counter to use in the task
-     * @param bufferedWriter buffered writer to write the output of the task
-     * @param readID id of the read
-     * @param read read to use in the task
+     * @param batch batch of reads to use in the task
+     * @param sequentialTest sequential test deciding when to stop evaluating the k-mers of a read or null if
+     *                       all k-mers are evaluated
+     * @param cache membership cache for the same databases owned by the thread performing the task or null if the
+     *              databases are searched directly
      */
     public TrioBinningTask(DataStructure[] databases,
                            KmerCounter kmerCounter,
-                           BufferedWriter bufferedWriter,
-                           int readID, String read) {
+                           ReadBatch batch,
+                           SequentialTest sequentialTest,
+                           MembershipCache cache) {
         this.databases = databases;
         this.kmerCounter = kmerCounter;
-        this.bufferedWriter = bufferedWriter;
+        this.batch = batch;
+        this.sequentialTest = sequentialTest;
+        this.cache = cache;
 
-        this.readID = readID;
-        this.read = read;
+        hitCounts = new int[databases.length];
+        informativeCounts = new int[databases.length];
     }
 
     /**
-     * Perform a single trio binning task which comprises extracting the distinct canonical k-mers of a read and
-     * computing the number of such k-mers the read shares with each of a given set of k-mer databases.
+     * Perform a single trio binning task which comprises extracting the distinct canonical k-mers of each read of
+     * the batch and computing the number of such k-mers the read shares with each of a given set of k-mer databases.
+     * The results are saved in the batch.
      */
     @Override
     public void run() {
-        Iterable<Long> readKmers = kmerCounter.getAllKmers(read);
+        for (int read = 0; read < batch.getNumReads(); read++) {
+            if (sequentialTest == null) {
+                classify(read);
+            } else {
+                classifySequentially(read);
+            }
+        }
+    }
+
+    /**
+     * Extract the distinct valid canonical k-mers of a specified read of the batch, skipping k-mers overlapping low
+     * quality bases if the read has base qualities, and save the number of skipped k-mers in the batch.
+     *
+     * @param read index of the read in the batch
+     * @return buffer of the calling thread containing the distinct k-mers of the read
+     */
+    private DistinctKmerBuffer extractKmers(int read) {
+        byte[] qualities = batch.hasQualities(read) ? batch.getQualities() : null;
+        DistinctKmerBuffer readKmers = kmerCounter.getDistinctKmers(batch.getBases(), qualities,
+                batch.getStart(read), batch.getEnd(read));
+        batch.setNumSkippedKmers(read, readKmers.getNumSkippedKmers());
+        return readKmers;
+    }
 
-        StringBuilder builder = new StringBuilder(databases.length << 4);
-        builder.append(readID);
-        builder.append(',');
+    /**
+     * Compute the number of distinct valid canonical k-mers a specified read of the batch shares with each k-mer
+     * database and save the results in the batch.
+     *
+     * @param read index of the read in the batch
+     */
+    private void classify(int read) {
+        DistinctKmerBuffer readKmers = extractKmers(read);
+        // k-mers overlapping ambiguous bases are not extracted and do not count towards the denominator
+        int numValidKmers = readKmers.size();
+        batch.setNumValidKmers(read, numValidKmers);
 
+        if (cache != null) {
+            classifyCached(read, readKmers);
+            return;
+        }
         for (int i = 0; i < databases.length; i++) {
             DataStructure currentDatabase = databases[i];
 
             int count = 0;
-            int numDistinctKmers = 0;
-            for (long kmer : readKmers) {
-                numDistinctKmers++;
-                if (currentDatabase.search(kmer)) {
+            // reads without any valid k-mer are not searched for at all
+            for (int j = 0; j < numValidKmers; j++) {
+                if (currentDatabase.search(readKmers.get(j))) {
                     count++;
                 }
             }
-            // prevent division by 0
-            if (numDistinctKmers == 0) {
-                numDistinctKmers++;
+            batch.setCount(read, i, count);
+        }
+        batch.setNumLookups(read, numValidKmers * databases.length);
+    }
+
+    /**
+     * Compute the number of distinct valid canonical k-mers a specified read of the batch shares with each k-mer
+     * database by looking up each k-mer in the membership cache and save the results in the batch.
+     * Time complexity: O(n * d) where n is the number of k-mers of the read and d is the number of databases
+     *
+     * @param read index of the read in the batch
+     * @param readKmers buffer containing the distinct k-mers of the read
+     */
+    private void classifyCached(int read, DistinctKmerBuffer readKmers) {
+        for (int i = 0; i < databases.length; i++) {
+            hitCounts[i] = 0;
+        }
+        int numValidKmers = readKmers.size();
+        int numMisses = 0;
+        for (int j = 0; j < numValidKmers; j++) {
+            long mask = cache.lookup(readKmers.get(j));
+            if (cache.isLastLookupMiss()) {
+                numMisses++;
+            }
+            while (mask != 0) {
+                hitCounts[Long.numberOfTrailingZeros(mask)]++;
+                mask &= mask - 1;
             }
+        }
+        for (int i = 0; i < databases.length; i++) {
+            batch.setCount(read, i, hitCounts[i]);
+        }
+        // k-mers answered by the cache are not searched in any database
+        batch.setNumLookups(read, numMisses * databases.length);
+    }
 
-            builder.append((double) count / numDistinctKmers);
-            builder.append(',');
+    /**
+     * Evaluate the distinct valid canonical k-mers of a specified read of the batch in a random order until the
+     * sequential test has decided for a database and save the number of evaluated k-mers, the number of those
+     * k-mers contained in each database and the number of lookups in the batch.
+     * Time complexity: O(m * d) where m is the number of evaluated k-mers and d is the number of databases
+     *
+     * @param read index of the read in the batch
+     */
+    private void classifySequentially(int read) {
+        DistinctKmerBuffer readKmers = extractKmers(read);
+        long[] kmers = readKmers.getDistinctKmers();
+        int numValidKmers = readKmers.size();
+        long seed = hashFunction.hash(batch.getReadID(read));
+
+        for (int i = 0; i < databases.length; i++) {
+            hitCounts[i] = 0;
+            informativeCounts[i] = 0;
         }
 
-        builder.deleteCharAt(builder.length() - 1);
-        builder.append('\n');
+        int numEvaluated = 0;
+        int numSearched = 0;
+        while (numEvaluated < numValidKmers && !sequentialTest.isDecided(informativeCounts, databases.length)) {
+            // draw the next k-mer uniformly from the ones not evaluated yet (lazy Fisher-Yates shuffle)
+            long random = hashFunction.hash(seed + numEvaluated) >>> 32;
+            int next = numEvaluated + (int) ((random * (numValidKmers - numEvaluated)) >>> 32);
+            long kmer = kmers[next];
+            kmers[next] = kmers[numEvaluated];
+            kmers[numEvaluated] = kmer;
+            numEvaluated++;
+
+            if (cache != null) {
+                long mask = cache.lookup(kmer);
+                if (cache.isLastLookupMiss()) {
+                    numSearched++;
+                }
+                if (Long.bitCount(mask) == 1) {
+                    informativeCounts[Long.numberOfTrailingZeros(mask)]++;
+                }
+                while (mask != 0) {
+                    hitCounts[Long.numberOfTrailingZeros(mask)]++;
+                    mask &= mask - 1;
+                }
+                continue;
+            }
+
+            numSearched++;
+            int numHits = 0;
+            int lastHit = -1;
+            for (int i = 0; i < databases.length; i++) {
+                if (databases[i].search(kmer)) {
+                    hitCounts[i]++;
+                    numHits++;
+                    lastHit = i;
+                }
+            }
+            if (numHits == 1) {
+                informativeCounts[lastHit]++;
+            }
+        }
 
-        try {
-            bufferedWriter.write(builder.toString());
-        } catch (IOException ioException) {
-            System.out.println("Could not write results for read " + readID);
+        batch.setNumValidKmers(read, numEvaluated);
+        for (int i = 0; i < databases.length; i++) {
+            batch.setCount(read, i, hitCounts[i]);
         }
+        batch.setNumLookups(read, numSearched * databases.length);
     }
 
     public DataStructure[] getDatabases() {
@@ -92,11 +272,15 @@ public class TrioBinningTask implements Runnable {
         return kmerCounter;
     }
 
-    public int getReadID() {
-        return readID;
+    public ReadBatch getBatch() {
+        return batch;
+    }
+
+    public SequentialTest getSequentialTest() {
+        return sequentialTest;
     }
 
-    public String getRead() {
-        return read;
+    public MembershipCache getCache() {
+        return cache;
     }
 }
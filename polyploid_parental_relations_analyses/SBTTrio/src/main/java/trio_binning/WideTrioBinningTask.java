@@ -0,0 +1,176 @@
+package trio_binning;
+
+import hash_functions.HashFunction;
+import hash_functions.MurmurHash64Finalizer;
+import kmer_counting.WideDistinctKmerBuffer;
+import kmer_counting.WideKmerCounter;
+import util.WideDataStructure;
+
+/**
+ * Represents a single task performed during trio binning with databases of wide k-mers, i.e. k-mers of more than
+ * {@link dna.DNA#MAX_KMER_SIZE} bases represented by a high and a low word.
+ *
+ * This is the counterpart of {@link TrioBinningTask} and computes the same results: the number of distinct canonical
+ * k-mers each read of a batch shares with each database or, with a sequential test, with the k-mers evaluated in
+ * a random order derived from the read id until the test has decided.
+ */
+public class WideTrioBinningTask implements Runnable {
+
+    private final WideDataStructure[] databases;
+    private final WideKmerCounter kmerCounter;
+    private final ReadBatch batch;
+    /**
+     * The sequential test deciding when to stop evaluating the k-mers of a read or null if all k-mers are evaluated.
+     */
+    private final SequentialTest sequentialTest;
+    /**
+     * The hash function deriving the random order of the k-mers of a read from its id.
+     */
+    private final HashFunction hashFunction = new MurmurHash64Finalizer();
+    /**
+     * The number of evaluated k-mers of the current read contained in each database.
+     */
+    private final int[] hitCounts;
+    /**
+     * The number of evaluated k-mers of the current read contained in exactly one database, for each database.
+     */
+    private final int[] informativeCounts;
+
+    /**
+     * Create a trio binning task for a specified set of databases of wide k-mers, a specified wide k-mer counter,
+     * batch of reads and sequential test.
+     *
+     * @param databases array of data structures representing the indices for the set of databases of wide k-mers
+     * @param kmerCounter wide k-mer counter to use in the task
+     * @param batch batch of reads to use in the task
+     * @param sequentialTest sequential test deciding when to stop evaluating the k-mers of a read or null if
+     *                       all k-mers are evaluated
+     */
+    public WideTrioBinningTask(WideDataStructure[] databases,
+                               WideKmerCounter kmerCounter,
+                               ReadBatch batch,
+                               SequentialTest sequentialTest) {
+        this.databases = databases;
+        this.kmerCounter = kmerCounter;
+        this.batch = batch;
+        this.sequentialTest = sequentialTest;
+
+        hitCounts = new int[databases.length];
+        informativeCounts = new int[databases.length];
+    }
+
+    /**
+     * Perform a single trio binning task for all reads of the batch and save the results in the batch.
+     */
+    @Override
+    public void run() {
+        for (int read = 0; read < batch.getNumReads(); read++) {
+            byte[] qualities = batch.hasQualities(read) ? batch.getQualities() : null;
+            WideDistinctKmerBuffer readKmers = kmerCounter.getDistinctKmers(batch.getBases(), qualities,
+                    batch.getStart(read), batch.getEnd(read));
+            batch.setNumSkippedKmers(read, readKmers.getNumSkippedKmers());
+
+            if (sequentialTest == null) {
+                classify(read, readKmers);
+            } else {
+                classifySequentially(read, readKmers);
+            }
+        }
+    }
+
+    /**
+     * Compute the number of distinct valid canonical k-mers a specified read of the batch shares with each database
+     * and save the results in the batch.
+     *
+     * @param read index of the read in the batch
+     * @param readKmers buffer containing the distinct k-mers of the read
+     */
+    private void classify(int read, WideDistinctKmerBuffer readKmers) {
+        long[] highs = readKmers.getDistinctHighs();
+        long[] lows = readKmers.getDistinctLows();
+        int numValidKmers = readKmers.size();
+        batch.setNumValidKmers(read, numValidKmers);
+
+        for (int i = 0; i < databases.length; i++) {
+            WideDataStructure currentDatabase = databases[i];
+
+            int count = 0;
+            for (int j = 0; j < numValidKmers; j++) {
+                if (currentDatabase.search(highs[j], lows[j])) {
+                    count++;
+                }
+            }
+            batch.setCount(read, i, count);
+        }
+        batch.setNumLookups(read, numValidKmers * databases.length);
+    }
+
+    /**
+     * Evaluate the distinct valid canonical k-mers of a specified read of the batch in a random order until the
+     * sequential test has decided for a database and save the results in the batch.
+     * Time complexity: O(m * d) where m is the number of evaluated k-mers and d is the number of databases
+     *
+     * @param read index of the read in the batch
+     * @param readKmers buffer containing the distinct k-mers of the read
+     */
+    private void classifySequentially(int read, WideDistinctKmerBuffer readKmers) {
+        long[] highs = readKmers.getDistinctHighs();
+        long[] lows = readKmers.getDistinctLows();
+        int numValidKmers = readKmers.size();
+        long seed = hashFunction.hash(batch.getReadID(read));
+
+        for (int i = 0; i < databases.length; i++) {
+            hitCounts[i] = 0;
+            informativeCounts[i] = 0;
+        }
+
+        int numEvaluated = 0;
+        while (numEvaluated < numValidKmers && !sequentialTest.isDecided(informativeCounts, databases.length)) {
+            // draw the next k-mer uniformly from the ones not evaluated yet (lazy Fisher-Yates shuffle)
+            long random = hashFunction.hash(seed + numEvaluated) >>> 32;
+            int next = numEvaluated + (int) ((random * (numValidKmers - numEvaluated)) >>> 32);
+            long high = highs[next];
+            long low = lows[next];
+            highs[next] = highs[numEvaluated];
+            lows[next] = lows[numEvaluated];
+            highs[numEvaluated] = high;
+            lows[numEvaluated] = low;
+            numEvaluated++;
+
+            int numHits = 0;
+            int lastHit = -1;
+            for (int i = 0; i < databases.length; i++) {
+                if (databases[i].search(high, low)) {
+                    hitCounts[i]++;
+                    numHits++;
+                    lastHit = i;
+                }
+            }
+            if (numHits == 1) {
+                informativeCounts[lastHit]++;
+            }
+        }
+
+        batch.setNumValidKmers(read, numEvaluated);
+        for (int i = 0; i < databases.length; i++) {
+            batch.setCount(read, i, hitCounts[i]);
+        }
+        batch.setNumLookups(read, numEvaluated * databases.length);
+    }
+
+    public WideDataStructure[] getDatabases() {
+        return databases;
+    }
+
+    public WideKmerCounter getKmerCounter() {
+        return kmerCounter;
+    }
+
+    public ReadBatch getBatch() {
+        return batch;
+    }
+
+    public SequentialTest getSequentialTest() {
+        return sequentialTest;
+    }
+}
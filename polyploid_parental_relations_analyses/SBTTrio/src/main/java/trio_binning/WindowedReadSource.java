@@ -0,0 +1,135 @@
+package trio_binning;
+
+import java.io.IOException;
+
+/**
+ * Implements a read source which splits the reads of another read source into windows of a fixed size, so that the
+ * windows of a long read are classified separately and in parallel.
+ *
+ * For a window size w and a k-mer size k, window i of a read covers the bases [i * w, (i + 1) * w + k - 1) of the
+ * read, truncated at the end of the read. Consecutive windows therefore overlap by k - 1 bases and every k-mer of
+ * the read belongs to exactly one window, namely the window in which it starts. A read with fewer than k bases
+ * yields a single window without any k-mer.
+ *
+ * The windows of a read may be spread across several batches. Besides the capacity of a batch, the number of bases
+ * per batch is limited as well, so that a single long read is split across batches which are classified by different
+ * worker threads instead of occupying one thread for the whole read. The ids of the reads are assigned consecutively
+ * in the order of the underlying read source. Base qualities of the reads are kept for their windows.
+ */
+public class WindowedReadSource implements ReadSource {
+
+    /**
+     * The default number of bases after which no further window is added to a batch.
+     */
+    public static final int DEFAULT_BASES_PER_BATCH = 1 << 16;
+
+    private final ReadSource readSource;
+    private final int windowSize;
+    private final int kmerSize;
+    /**
+     * The number of bases after which no further window is added to a batch.
+     */
+    private final int basesPerBatch;
+    /**
+     * The batch holding the read which is currently split into windows.
+     */
+    private final ReadBatch currentRead = new ReadBatch(1, 0);
+    /**
+     * The id of the read which is currently split into windows.
+     */
+    private long currentReadID = 0;
+    /**
+     * The position of the next window in the current read or -1 if the next read has to be fetched.
+     */
+    private int nextWindowStart = -1;
+
+    /**
+     * Create a windowed read source for a specified read source, window size and k-mer size with the default number
+     * of bases per batch.
+     *
+     * @param readSource read source of which to split the reads into windows
+     * @param windowSize number of k-mer start positions per window
+     * @param kmerSize k-mer size used during trio binning
+     */
+    public WindowedReadSource(ReadSource readSource, int windowSize, int kmerSize) {
+        this(readSource, windowSize, kmerSize, DEFAULT_BASES_PER_BATCH);
+    }
+
+    /**
+     * Create a windowed read source for a specified read source, window size, k-mer size and number of bases per batch.
+     *
+     * @param readSource read source of which to split the reads into windows
+     * @param windowSize number of k-mer start positions per window
+     * @param kmerSize k-mer size used during trio binning
+     * @param basesPerBatch number of bases after which no further window is added to a batch
+     */
+    public WindowedReadSource(ReadSource readSource, int windowSize, int kmerSize, int basesPerBatch) {
+        if (windowSize < 1 || kmerSize < 1 || basesPerBatch < 1) {
+            throw new IllegalArgumentException("Window size, k-mer size and bases per batch need to be positive");
+        }
+        this.readSource = readSource;
+        this.windowSize = windowSize;
+        this.kmerSize = kmerSize;
+        this.basesPerBatch = basesPerBatch;
+    }
+
+    /**
+     * Add the next windows to a specified batch until the batch is full, holds at least the maximum number of bases
+     * or the underlying read source is exhausted. At least one window is added unless the source is exhausted.
+     *
+     * @param batch batch to add the windows to
+     * @return number of windows added to the batch, 0 if and only if the underlying source is exhausted
+     * @throws IOException
+     */
+    @Override
+    public int fill(ReadBatch batch) throws IOException {
+        int numWindows = 0;
+        while (!batch.isFull() && (numWindows == 0 || batch.getNumBases() < basesPerBatch)) {
+            if (nextWindowStart < 0) {
+                currentRead.clear(0);
+                if (readSource.fill(currentRead) == 0) {
+                    break;
+                }
+                if (currentRead.isPaired(0)) {
+                    throw new IllegalArgumentException("Pairs of mates cannot be split into windows");
+                }
+                nextWindowStart = 0;
+            }
+
+            int start = currentRead.getStart(0);
+            int length = currentRead.getEnd(0) - start;
+            int windowEnd = (int) Math.min((long) nextWindowStart + windowSize + kmerSize - 1, length);
+            batch.addWindow(currentReadID, nextWindowStart, currentRead.getBases(),
+                    currentRead.hasQualities(0) ? currentRead.getQualities() : null,
+                    start + nextWindowStart, start + windowEnd);
+            numWindows++;
+
+            // the read is finished once no k-mer starts at the position of the next window
+            if ((long) nextWindowStart + windowSize + kmerSize > length) {
+                nextWindowStart = -1;
+                currentReadID++;
+            } else {
+                nextWindowStart += windowSize;
+            }
+        }
+        return numWindows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        readSource.close();
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getKmerSize() {
+        return kmerSize;
+    }
+
+    public int getBasesPerBatch() {
+        return basesPerBatch;
+    }
+
+}
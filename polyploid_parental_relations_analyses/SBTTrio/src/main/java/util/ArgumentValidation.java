@@ -1,6 +1,7 @@
 package util;
 
 import java.io.File;
+import java.util.Arrays;
 
 /**
  * Implements validating filepath and numeric arguments.
@@ -39,4 +40,42 @@ public class ArgumentValidation {
         return integer;
     }
 
+    /**
+     * Validate that a given string is a valid floating point number.
+     *
+     * @param argument string representation of the input floating point number
+     * @return numeric representation of the input floating point number
+     */
+    public static double validateDoubleArgument(String argument) {
+        double number = 0;
+        try {
+            number = Double.parseDouble(argument);
+        } catch(NumberFormatException numberFormatException) {
+            System.out.println(numberFormatException.getMessage());
+            System.out.println("Exiting program.");
+            System.exit(1);
+        }
+        return number;
+    }
+
+    /**
+     * Validate that a given string is the name of a constant of a specified enum, ignoring case.
+     *
+     * @param argument string representation of the enum constant
+     * @param enumClass class of the enum
+     * @return enum constant with the given name
+     */
+    public static <E extends Enum<E>> E validateEnumArgument(String argument, Class<E> enumClass) {
+        for (E constant : enumClass.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(argument)) {
+                return constant;
+            }
+        }
+        System.out.println(argument + " is not a valid value. Valid values: "
+                + Arrays.toString(enumClass.getEnumConstants()).toLowerCase());
+        System.out.println("Exiting program.");
+        System.exit(1);
+        return null;
+    }
+
 }
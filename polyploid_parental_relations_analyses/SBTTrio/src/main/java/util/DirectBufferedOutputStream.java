@@ -0,0 +1,128 @@
+package util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implements an output stream to a file or another channel which collects the written bytes in a large direct buffer
+ * and hands the buffer to the channel once it is full.
+ *
+ * Since a direct buffer is not copied by the channel, this avoids the intermediate copies of a
+ * BufferedWriter wrapping a FileWriter. Writing to the stream is not thread-safe.
+ */
+public class DirectBufferedOutputStream extends OutputStream {
+
+    /**
+     * The default size of the direct buffer in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 23;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Create an output stream to a specified file with a direct buffer of default size.
+     * The file is created or truncated.
+     *
+     * @param path path to the output file
+     * @throws IOException
+     */
+    public DirectBufferedOutputStream(String path) throws IOException {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create an output stream to a specified file with a direct buffer of specified size.
+     * The file is created or truncated.
+     *
+     * @param path path to the output file
+     * @param bufferSize size of the direct buffer in bytes
+     * @throws IOException
+     */
+    public DirectBufferedOutputStream(String path, int bufferSize) throws IOException {
+        channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Create an output stream to a specified channel with a direct buffer of specified size.
+     * The channel is closed when the stream is closed.
+     *
+     * @param channel channel to write the bytes to
+     * @param bufferSize size of the direct buffer in bytes
+     */
+    public DirectBufferedOutputStream(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flushBuffer();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Write the characters of a specified character sequence which are all assumed to be ASCII characters.
+     * In contrast to converting the sequence to a string and encoding it, this does not allocate any objects.
+     *
+     * @param sequence character sequence to write
+     * @throws IOException
+     */
+    public void writeAscii(CharSequence sequence) throws IOException {
+        for (int i = 0; i < sequence.length(); i++) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            buffer.put((byte) sequence.charAt(i));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            flushBuffer();
+            channel.close();
+        }
+    }
+
+    /**
+     * Write the contents of the direct buffer to the channel and empty the buffer.
+     *
+     * @throws IOException
+     */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,201 @@
+package util;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Implements radix sorts for arrays of k-mers, i.e. of non-negative longs with a known number of significant bits.
+ *
+ * The least significant digit (LSD) sort distributes the values by digits of at most {@link #MAX_DIGIT_BITS} bits
+ * from the lowest to the highest digit, alternating between the array and a buffer of the same size. The number of
+ * passes is derived from the number of significant bits, e.g. 3 passes of 10 bits for the 30-bit suffixes of 21-mers
+ * in an access trie of height 6, and passes in which all values share the same digit are skipped.
+ *
+ * The parallel sort first distributes the values by their most significant digit (MSD) with the chunks of the array
+ * counted and scattered in parallel, and then sorts the resulting buckets in parallel with the LSD sort on the
+ * remaining bits. The parallel tasks run in the common fork-join pool.
+ *
+ * Small arrays are sorted with {@link Arrays#sort(long[])}, as counting the digits does not pay off for them.
+ */
+public class RadixSort {
+
+    /**
+     * The maximum number of bits of a digit, so that the counts of a digit fit into the L1 cache.
+     */
+    public static final int MAX_DIGIT_BITS = 11;
+    /**
+     * The number of values below which arrays are sorted with {@link Arrays#sort(long[])}.
+     */
+    public static final int MIN_RADIX_SIZE = 256;
+    /**
+     * The number of values from which {@link #sort(long[], int)} uses the parallel sort.
+     */
+    public static final int MIN_PARALLEL_SIZE = 1 << 20;
+
+    /**
+     * Sort a specified array of non-negative values in ascending order, deriving the number of significant bits from
+     * the maximum value. Arrays containing negative values are sorted with {@link Arrays#sort(long[])}.
+     * Time complexity: Theta(n * b / 11) where n is the number of values and b is the number of significant bits
+     *
+     * @param values array of values to sort
+     */
+    public static void sort(long[] values) {
+        long max = 0;
+        for (long value : values) {
+            max |= value;
+        }
+        if (max < 0) {
+            Arrays.sort(values);
+        } else {
+            sort(values, 64 - Long.numberOfLeadingZeros(max));
+        }
+    }
+
+    /**
+     * Sort a specified array of non-negative values below 2^numBits in ascending order. Large arrays are sorted in
+     * parallel.
+     * Time complexity: Theta(n * b / 11) where n is the number of values and b is the number of bits
+     *
+     * @param values array of values to sort
+     * @param numBits number of significant bits of the values in the range [0, 63]
+     */
+    public static void sort(long[] values, int numBits) {
+        validateNumBits(numBits);
+        if (values.length >= MIN_PARALLEL_SIZE) {
+            parallelSort(values, numBits);
+        } else if (values.length >= MIN_RADIX_SIZE) {
+            lsdSort(values, 0, values.length, numBits, new long[values.length]);
+        } else {
+            Arrays.sort(values);
+        }
+    }
+
+    /**
+     * Sort a specified array of non-negative values below 2^numBits in ascending order with parallel tasks.
+     * Time complexity: Theta(n * b / 11) work where n is the number of values and b is the number of bits
+     *
+     * @param values array of values to sort
+     * @param numBits number of significant bits of the values in the range [0, 63]
+     */
+    public static void parallelSort(long[] values, int numBits) {
+        validateNumBits(numBits);
+        int n = values.length;
+        if (n < MIN_RADIX_SIZE || numBits == 0) {
+            Arrays.sort(values);
+            return;
+        }
+
+        // distribute the values by their most significant digit
+        int digitBits = Math.min(numBits, MAX_DIGIT_BITS);
+        int shift = numBits - digitBits;
+        int numDigits = 1 << digitBits;
+        int numChunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, n / MIN_RADIX_SIZE));
+        int chunkSize = (n + numChunks - 1) / numChunks;
+
+        int[][] counts = new int[numChunks][numDigits];
+        IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+            int[] chunkCounts = counts[chunk];
+            for (int i = chunk * chunkSize; i < Math.min(n, (chunk + 1) * chunkSize); i++) {
+                chunkCounts[(int) (values[i] >>> shift)]++;
+            }
+        });
+
+        // the values of a digit are scattered to the bucket of the digit in the order of the chunks
+        int[] bucketStarts = new int[numDigits + 1];
+        int position = 0;
+        for (int digit = 0; digit < numDigits; digit++) {
+            bucketStarts[digit] = position;
+            for (int chunk = 0; chunk < numChunks; chunk++) {
+                int count = counts[chunk][digit];
+                counts[chunk][digit] = position;
+                position += count;
+            }
+        }
+        bucketStarts[numDigits] = n;
+
+        long[] buffer = new long[n];
+        IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+            int[] positions = counts[chunk];
+            for (int i = chunk * chunkSize; i < Math.min(n, (chunk + 1) * chunkSize); i++) {
+                buffer[positions[(int) (values[i] >>> shift)]++] = values[i];
+            }
+        });
+
+        // sort the buckets on the remaining bits, using the range of each bucket in the array as buffer
+        IntStream.range(0, numDigits).parallel().forEach(digit -> {
+            int from = bucketStarts[digit];
+            int to = bucketStarts[digit + 1];
+            if (to - from < MIN_RADIX_SIZE) {
+                Arrays.sort(buffer, from, to);
+            } else {
+                lsdSort(buffer, from, to, shift, values);
+            }
+            System.arraycopy(buffer, from, values, from, to - from);
+        });
+    }
+
+    /**
+     * Sort a specified range of an array of non-negative values below 2^numBits with the LSD radix sort.
+     * Time complexity: Theta(n * b / 11) where n is the length of the range and b is the number of bits
+     *
+     * @param values array containing the range of values to sort
+     * @param from index of the first value of the range (inclusive)
+     * @param to index after the last value of the range (exclusive)
+     * @param numBits number of significant bits of the values
+     * @param buffer array of at least the length of the array of values of which the same range is overwritten
+     */
+    private static void lsdSort(long[] values, int from, int to, int numBits, long[] buffer) {
+        if (numBits == 0 || to - from < 2) {
+            return;
+        }
+        // digits of equal width minimize the number of passes and the size of the counts
+        int numPasses = (numBits + MAX_DIGIT_BITS - 1) / MAX_DIGIT_BITS;
+        int digitBits = (numBits + numPasses - 1) / numPasses;
+        int mask = (1 << digitBits) - 1;
+        int[] counts = new int[1 << digitBits];
+
+        long[] source = values;
+        long[] target = buffer;
+        for (int shift = 0; shift < numBits; shift += digitBits) {
+            Arrays.fill(counts, 0);
+            for (int i = from; i < to; i++) {
+                counts[(int) (source[i] >>> shift) & mask]++;
+            }
+            // all values share this digit, so the pass would not change the order
+            if (counts[(int) (source[from] >>> shift) & mask] == to - from) {
+                continue;
+            }
+
+            int position = from;
+            for (int digit = 0; digit < counts.length; digit++) {
+                int count = counts[digit];
+                counts[digit] = position;
+                position += count;
+            }
+            for (int i = from; i < to; i++) {
+                long value = source[i];
+                target[counts[(int) (value >>> shift) & mask]++] = value;
+            }
+
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+
+        if (source != values) {
+            System.arraycopy(source, from, values, from, to - from);
+        }
+    }
+
+    /**
+     * Validate that a specified number of significant bits can be sorted.
+     *
+     * @param numBits number of significant bits
+     */
+    private static void validateNumBits(int numBits) {
+        if (numBits < 0 || numBits > 63) {
+            throw new IllegalArgumentException("The number of bits needs to be in the range [0, 63]");
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package util;
+
+/**
+ * Counterpart of {@link DataStructure} for wide k-mers represented by a high and a low word
+ * (see {@link dna.WideDNAUtil}).
+ */
+public interface WideDataStructure {
+
+    /**
+     * Search for a wide k-mer in the data structure.
+     *
+     * @param high high word of the k-mer to search for
+     * @param low low word of the k-mer to search for
+     * @return <ul>
+     *     <li>true if the data structure contains the specified k-mer</li>
+     *     <li>false if the data structure does not contain the specified k-mer</li>
+     * </ul>
+     */
+    boolean search(long high, long low);
+
+    /**
+     * Add a sub data structure to this data structure.
+     *
+     * @param prefix numeric representation of the k-mer prefix that corresponds to the sub data structure
+     * @param dataStructure sub data structure to add
+     */
+    void add(long prefix, WideDataStructure dataStructure);
+
+}
@@ -0,0 +1,125 @@
+package access_trie;
+
+import containers.bit_packed_sorted_array.BitPackedSortedArrayFactory;
+import containers.hash_set.HashSetFactory;
+import exceptions.AddStructureToContainerException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompactAccessTrieTest {
+
+    @Test
+    void createCompactAccessTrie() {
+        CompactAccessTrie accessTrie = new CompactAccessTrie(3, 21, new BitPackedSortedArrayFactory(), 16);
+
+        assertThat(accessTrie.getHeight()).isEqualTo(3);
+        assertThat(accessTrie.getKmerSize()).isEqualTo(21);
+        assertThat(accessTrie.getMergeThreshold()).isEqualTo(16);
+        assertThat(accessTrie.getNumContainers()).isEqualTo(0);
+        assertThat(accessTrie.getDirectorySizeInBits()).isEqualTo(0);
+
+        assertThatThrownBy(() -> new CompactAccessTrie(CompactAccessTrie.MAX_HEIGHT + 1, 31,
+                new BitPackedSortedArrayFactory(), 16)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CompactAccessTrie(8, 7, new BitPackedSortedArrayFactory(), 16))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CompactAccessTrie(3, 21, new BitPackedSortedArrayFactory(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void add() {
+        CompactAccessTrie accessTrie = new CompactAccessTrie(3, 7, new BitPackedSortedArrayFactory(), 16);
+
+        assertThatThrownBy(() -> accessTrie.add(7L, null)).isInstanceOf(AddStructureToContainerException.class);
+    }
+
+    @Test
+    void build() {
+        // ACTAAAA, ACTAAAC, ACTAAAG (prefix 7), ACGAAAA (prefix 6) and TTTTTTT (prefix 63)
+        long[] kmers = new long[]{7L << 8, (7L << 8) + 1, (7L << 8) + 2, 6L << 8, 16383L};
+
+        CompactAccessTrie separate = new CompactAccessTrie(3, 7, new BitPackedSortedArrayFactory(), 1);
+        separate.build(kmers.clone());
+        assertThat(separate.getNumContainers()).isEqualTo(3);
+
+        // the neighbouring prefixes 6 and 7 share a container, prefix 63 is too far away
+        CompactAccessTrie merged = new CompactAccessTrie(3, 7, new BitPackedSortedArrayFactory(), 4);
+        merged.build(kmers.clone());
+        assertThat(merged.getNumContainers()).isEqualTo(2);
+
+        for (CompactAccessTrie accessTrie : new CompactAccessTrie[]{separate, merged}) {
+            for (long kmer : kmers) {
+                assertThat(accessTrie.search(kmer)).isTrue();
+            }
+            assertThat(accessTrie.search(0L)).isFalse();
+            assertThat(accessTrie.search((6L << 8) + 1)).isFalse();
+            assertThat(accessTrie.search((7L << 8) + 3)).isFalse();
+            assertThat(accessTrie.search(8L << 8)).isFalse();
+            assertThat(accessTrie.search(16382L)).isFalse();
+        }
+    }
+
+    @Test
+    void buildEmpty() {
+        CompactAccessTrie accessTrie = new CompactAccessTrie(3, 7, new BitPackedSortedArrayFactory(), 16);
+        accessTrie.build(new long[0]);
+
+        assertThat(accessTrie.getNumContainers()).isEqualTo(0);
+        assertThat(accessTrie.search(0L)).isFalse();
+        assertThat(accessTrie.search(16383L)).isFalse();
+    }
+
+    @Test
+    void searchLargeHeight() {
+        // a height of 16 exceeds the fixed prefix length access trie
+        int kmerSize = 21;
+        int height = 16;
+        Random random = new Random(11);
+        // spread k-mers in mostly distinct buckets and clustered k-mers with about 5 k-mers per bucket
+        long[] spread = random.longs(10000, 0, 1L << (kmerSize << 1)).toArray();
+        long[] clustered = random.longs(20000, 1L << 30, (1L << 30) + (1L << 22)).toArray();
+        long[] kmers = LongStream.concat(Arrays.stream(spread), Arrays.stream(clustered))
+                .distinct().toArray();
+        long[] sorted = kmers.clone();
+        Arrays.sort(sorted);
+
+        int numContainers = Integer.MAX_VALUE;
+        for (int threshold : new int[]{1, 8, CompactAccessTrie.DEFAULT_MERGE_THRESHOLD}) {
+            CompactAccessTrie accessTrie = new CompactAccessTrie(height, kmerSize, new BitPackedSortedArrayFactory(),
+                    threshold);
+            accessTrie.build(kmers.clone());
+
+            for (long kmer : kmers) {
+                assertThat(accessTrie.search(kmer)).isTrue();
+            }
+            for (int i = 0; i < 20000; i++) {
+                long kmer = random.nextLong(1L << (kmerSize << 1));
+                assertThat(accessTrie.search(kmer)).isEqualTo(Arrays.binarySearch(sorted, kmer) >= 0);
+            }
+            // merging more buckets reduces the number of containers
+            assertThat(accessTrie.getNumContainers()).isLessThan(numContainers);
+            numContainers = accessTrie.getNumContainers();
+            // 1 bit per prefix instead of one reference per prefix
+            assertThat(accessTrie.getDirectorySizeInBits()).isLessThan(2L << (height << 1));
+        }
+    }
+
+    @Test
+    void searchFullHeight() {
+        // the whole k-mer is the prefix, so the containers only hold the offset within their group
+        CompactAccessTrie accessTrie = new CompactAccessTrie(5, 5, new HashSetFactory(), 4);
+        long[] kmers = new long[]{0L, 1L, 3L, 100L, 1023L};
+        accessTrie.build(kmers.clone());
+
+        for (long kmer = 0; kmer < 1024; kmer++) {
+            assertThat(accessTrie.search(kmer)).isEqualTo(Arrays.binarySearch(kmers, kmer) >= 0);
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import util.DataStructure;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class FixedPrefixLengthAccessTrieTest {
 
@@ -21,6 +22,9 @@ public class FixedPrefixLengthAccessTrieTest {
         assertThat(accessTrie.getBitMask()).isEqualTo(68719476735L);
         assertThat(accessTrie.getLeaves()).hasSize(64);
         assertThat(accessTrie.getLeaves()).containsOnlyNulls();
+
+        assertThatThrownBy(() -> new FixedPrefixLengthAccessTrie(FixedPrefixLengthAccessTrie.MAX_HEIGHT + 1, 31))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
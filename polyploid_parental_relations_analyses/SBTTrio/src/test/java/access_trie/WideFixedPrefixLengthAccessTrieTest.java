@@ -0,0 +1,70 @@
+package access_trie;
+
+import containers.wide_sorted_array.WideSortedArray;
+import dna.WideDNAUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WideFixedPrefixLengthAccessTrieTest {
+
+    @Test
+    void createWideFixedPrefixLengthAccessTrie() {
+        WideFixedPrefixLengthAccessTrie accessTrie = new WideFixedPrefixLengthAccessTrie(3, 40);
+
+        assertThat(accessTrie.getHeight()).isEqualTo(3);
+        assertThat(accessTrie.getKmerSize()).isEqualTo(40);
+        assertThat(accessTrie.getLeaves()).hasSize(64);
+        assertThat(accessTrie.getLeaves()).containsOnlyNulls();
+
+        assertThatThrownBy(() -> new WideFixedPrefixLengthAccessTrie(16, 40))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new WideFixedPrefixLengthAccessTrie(5, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void prefix() {
+        // the suffix of 37 bases spans both words, so the prefix is taken from the high word
+        WideDNAUtil wideDNAUtil = new WideDNAUtil(40);
+        String kmer = "ACT" + "GATTACAGATTACAGATTACAGATTACAGATTACAGA";
+        WideFixedPrefixLengthAccessTrie accessTrie = new WideFixedPrefixLengthAccessTrie(3, 40);
+        assertThat(accessTrie.prefix(wideDNAUtil.stringToHigh(kmer), wideDNAUtil.stringToLow(kmer))).isEqualTo(7);
+
+        // the suffix of 30 bases fits into the low word, so the prefix spans both words
+        accessTrie = new WideFixedPrefixLengthAccessTrie(10, 40);
+        assertThat(accessTrie.prefix(wideDNAUtil.stringToHigh(kmer), wideDNAUtil.stringToLow(kmer)))
+                .isEqualTo((int) wideDNAUtil.stringToLow("ACTGATTACA"));
+
+        // the suffix of exactly 32 bases is the low word
+        accessTrie = new WideFixedPrefixLengthAccessTrie(8, 40);
+        assertThat(accessTrie.prefix(wideDNAUtil.stringToHigh(kmer), wideDNAUtil.stringToLow(kmer)))
+                .isEqualTo((int) wideDNAUtil.stringToHigh(kmer));
+    }
+
+    @Test
+    void search() {
+        WideDNAUtil wideDNAUtil = new WideDNAUtil(40);
+        WideDNAUtil suffixUtil = new WideDNAUtil(37);
+        String[] suffixes = new String[]{"GATTACAGATTACAGATTACAGATTACAGATTACAGA", "TTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTC"};
+
+        WideSortedArray sortedArray = new WideSortedArray();
+        sortedArray.build(new long[]{suffixUtil.stringToHigh(suffixes[0]), suffixUtil.stringToHigh(suffixes[1])},
+                new long[]{suffixUtil.stringToLow(suffixes[0]), suffixUtil.stringToLow(suffixes[1])});
+        WideFixedPrefixLengthAccessTrie accessTrie = new WideFixedPrefixLengthAccessTrie(3, 40);
+        // the index corresponding to ACT is 7
+        accessTrie.add(7L, sortedArray);
+        assertThat(accessTrie.getLeaves()[7]).isEqualTo(sortedArray);
+
+        for (String suffix : suffixes) {
+            String kmer = "ACT" + suffix;
+            assertThat(accessTrie.search(wideDNAUtil.stringToHigh(kmer), wideDNAUtil.stringToLow(kmer))).isTrue();
+            kmer = "ACG" + suffix;
+            assertThat(accessTrie.search(wideDNAUtil.stringToHigh(kmer), wideDNAUtil.stringToLow(kmer))).isFalse();
+        }
+        String kmer = "ACT" + "GATTACAGATTACAGATTACAGATTACAGATTACAGC";
+        assertThat(accessTrie.search(wideDNAUtil.stringToHigh(kmer), wideDNAUtil.stringToLow(kmer))).isFalse();
+    }
+
+}
@@ -0,0 +1,75 @@
+package base_data_structures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RankBitVectorTest {
+
+    @Test
+    void createRankBitVector() {
+        RankBitVector vector = new RankBitVector(65);
+        assertThat(vector.getNumBits()).isEqualTo(65);
+        assertThat(vector.getWords()).hasSize(2);
+
+        assertThat(new RankBitVector(0).getWords()).isEmpty();
+        assertThatThrownBy(() -> new RankBitVector(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RankBitVector((1L << 36) + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void setAndGet() {
+        RankBitVector vector = new RankBitVector(200);
+        vector.set(0);
+        vector.set(63);
+        vector.set(64);
+        vector.set(199);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(vector.get(i)).isEqualTo(i == 0 || i == 63 || i == 64 || i == 199);
+        }
+    }
+
+    @Test
+    void rank() {
+        // several blocks and a partial last word
+        int numBits = 64 * RankBitVector.BLOCK_WORDS * 3 + 37;
+        RankBitVector vector = new RankBitVector(numBits);
+        boolean[] bits = new boolean[numBits];
+        Random random = new Random(5);
+        for (int i = 0; i < numBits; i++) {
+            if (random.nextInt(3) == 0) {
+                bits[i] = true;
+                vector.set(i);
+            }
+        }
+        vector.buildRank();
+
+        int expected = 0;
+        for (int i = 0; i <= numBits; i++) {
+            assertThat(vector.rank(i)).isEqualTo(expected);
+            if (i < numBits && bits[i]) {
+                expected++;
+            }
+        }
+        assertThat(vector.getSizeInBits()).isGreaterThan(64L * vector.getWords().length);
+    }
+
+    @Test
+    void rankFullBlocks() {
+        int numBits = 64 * RankBitVector.BLOCK_WORDS;
+        RankBitVector vector = new RankBitVector(numBits);
+        for (int i = 0; i < numBits; i++) {
+            vector.set(i);
+        }
+        vector.buildRank();
+
+        assertThat(vector.rank(0)).isEqualTo(0);
+        assertThat(vector.rank(64)).isEqualTo(64);
+        assertThat(vector.rank(numBits)).isEqualTo(numBits);
+    }
+
+}
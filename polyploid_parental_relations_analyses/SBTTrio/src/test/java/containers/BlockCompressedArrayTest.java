@@ -0,0 +1,96 @@
+package containers;
+
+import containers.block_compressed_array.BlockCompressedArray;
+import containers.block_compressed_array.BlockCompressedArrayFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockCompressedArrayTest {
+
+    @Test
+    void createBlockCompressedArray() {
+        BlockCompressedArray array = new BlockCompressedArray(4);
+        assertThat(array.getBitKmerSize()).isEqualTo(8);
+        assertThat(array.getSkips()).isNull();
+        assertThat(array.getSizeInBits()).isEqualTo(0);
+    }
+
+    @Test
+    void build() {
+        BlockCompressedArray array = new BlockCompressedArray(4);
+
+        array.build(TestUtil.PATTERNS);
+        assertThat(array.size()).isEqualTo(TestUtil.PATTERNS.length);
+        assertThat(array.getSkips()).containsExactly(21L);
+
+        array.build(TestUtil.OTHER_PATTERNS);
+        assertThat(array.size()).isEqualTo(TestUtil.OTHER_PATTERNS.length);
+    }
+
+    @Test
+    void search() {
+        TestUtil.search(new BlockCompressedArrayFactory());
+    }
+
+    @Test
+    void searchEmpty() {
+        BlockCompressedArray array = new BlockCompressedArray(4);
+        array.build(new long[0]);
+
+        assertThat(array.search(0)).isFalse();
+        assertThat(array.search(21)).isFalse();
+    }
+
+    @Test
+    void searchManyBlocks() {
+        Random random = new Random(17);
+        // dense runs and single large gaps, so that blocks have different bit widths including 0
+        long[] patterns = new long[5000];
+        long value = 3;
+        for (int i = 0; i < patterns.length; i++) {
+            if (i % 700 == 0) {
+                value += random.nextLong() >>> 30;
+            } else if (i < 2000 || i > 2300) {
+                value += 1 + random.nextInt(i % 3 == 0 ? 4 : 300);
+            }
+            patterns[i] = value;
+        }
+        long[] sorted = patterns.clone();
+        Arrays.sort(sorted);
+
+        BlockCompressedArray array = new BlockCompressedArray(31);
+        array.build(patterns);
+
+        assertThat(array.getSkips()).hasSize((patterns.length + BlockCompressedArray.BLOCK_SIZE - 1)
+                / BlockCompressedArray.BLOCK_SIZE);
+        for (long pattern : sorted) {
+            assertThat(array.search(pattern)).isTrue();
+            for (long neighbour : new long[]{pattern - 1, pattern + 1}) {
+                assertThat(array.search(neighbour)).isEqualTo(Arrays.binarySearch(sorted, neighbour) >= 0);
+            }
+        }
+        assertThat(array.search(0)).isFalse();
+        assertThat(array.search(Long.MAX_VALUE >>> 2)).isFalse();
+    }
+
+    @Test
+    void sizeInBits() {
+        // random k-mers of 21 bases in a bucket of an access trie of height 6
+        Random random = new Random(3);
+        long[] patterns = new long[100000];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = random.nextLong() >>> (64 - 30);
+        }
+
+        BlockCompressedArray array = new BlockCompressedArray(15);
+        array.build(patterns);
+
+        // the gaps of about 15 bits and the skip table need clearly fewer bits than the 30 bits of bit-packed values
+        assertThat(array.getSizeInBits()).isLessThan((long) patterns.length * 18);
+    }
+
+}
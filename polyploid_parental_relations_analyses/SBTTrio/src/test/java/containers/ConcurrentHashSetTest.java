@@ -0,0 +1,136 @@
+package containers;
+
+import containers.concurrent_hash_set.ConcurrentHashSet;
+import containers.concurrent_hash_set.ConcurrentHashSetFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrentHashSetTest {
+
+    @Test
+    void createConcurrentHashSet() {
+        ConcurrentHashSet hashSet = new ConcurrentHashSet(21, 100, true);
+
+        assertThat(hashSet.getKmerSize()).isEqualTo(21);
+        assertThat(hashSet.isCounting()).isTrue();
+        assertThat(hashSet.getNumElements()).isZero();
+        assertThat(hashSet.size()).isEqualTo(256);
+        assertThat(new ConcurrentHashSet(4).size()).isEqualTo(ConcurrentHashSet.MIN_CAPACITY);
+    }
+
+    @Test
+    void createConcurrentHashSetInvalidSize() {
+        assertThatThrownBy(() -> new ConcurrentHashSet(21, -1, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void search() {
+        TestUtil.search(new ConcurrentHashSetFactory());
+    }
+
+    @Test
+    void addAndResize() {
+        ConcurrentHashSet hashSet = new ConcurrentHashSet(15);
+        for (long pattern = 0; pattern < 10_000; pattern++) {
+            assertThat(hashSet.add(pattern * 3)).isTrue();
+        }
+        for (long pattern = 0; pattern < 10_000; pattern++) {
+            assertThat(hashSet.add(pattern * 3)).isFalse();
+        }
+
+        assertThat(hashSet.getNumElements()).isEqualTo(10_000);
+        assertThat(hashSet.size()).isGreaterThanOrEqualTo(10_000 * 4 / 3);
+        for (long pattern = 0; pattern < 30_000; pattern++) {
+            assertThat(hashSet.search(pattern)).isEqualTo(pattern % 3 == 0);
+        }
+        assertThat(hashSet.toArray()).containsExactly(LongStream.range(0, 10_000).map(p -> p * 3).toArray());
+    }
+
+    @Test
+    void count() {
+        ConcurrentHashSet hashSet = new ConcurrentHashSet(4, 0, true);
+        hashSet.add(5);
+        hashSet.add(5, 3);
+        hashSet.add(7, Integer.MAX_VALUE);
+        hashSet.add(7);
+
+        assertThat(hashSet.getCount(5)).isEqualTo(4);
+        assertThat(hashSet.getCount(7)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(hashSet.getCount(6)).isZero();
+        assertThat(hashSet.getNumElements()).isEqualTo(2);
+    }
+
+    @Test
+    void countWithoutCounters() {
+        ConcurrentHashSet hashSet = new ConcurrentHashSet(4);
+        hashSet.add(5);
+
+        assertThatThrownBy(() -> hashSet.getCount(5)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void buildReplacesElements() {
+        ConcurrentHashSet hashSet = new ConcurrentHashSet(4);
+        hashSet.add(255);
+        hashSet.build(TestUtil.PATTERNS);
+
+        assertThat(hashSet.getNumElements()).isEqualTo(TestUtil.PATTERNS.length);
+        assertThat(hashSet.search(255)).isFalse();
+        assertThat(hashSet.toArray()).containsExactly(TestUtil.PATTERNS);
+    }
+
+    @Test
+    void addConcurrently() throws Exception {
+        int numThreads = 8;
+        int numPatterns = 200_000;
+        // every thread adds an overlapping range of k-mers, so most k-mers are added by several threads
+        for (boolean counting : new boolean[]{false, true}) {
+            ConcurrentHashSet hashSet = new ConcurrentHashSet(31, 0, counting);
+            AtomicLong numAdded = new AtomicLong();
+            ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < numThreads; thread++) {
+                long seed = thread;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < numPatterns; i++) {
+                        long pattern = (seed * numPatterns / 2 + i) * 0x9E3779B97L & ((1L << 62) - 1);
+                        if (hashSet.add(pattern)) {
+                            numAdded.incrementAndGet();
+                        }
+                        // concurrent searches never miss a k-mer added before
+                        assertThat(hashSet.search(pattern)).isTrue();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            pool.shutdown();
+
+            long numDistinct = (long) numThreads * numPatterns / 2 + numPatterns / 2;
+            assertThat(hashSet.getNumElements()).isEqualTo(numDistinct);
+            assertThat(numAdded.get()).isEqualTo(numDistinct);
+            long[] patterns = hashSet.toArray();
+            assertThat(patterns).hasSize((int) numDistinct);
+            if (counting) {
+                long total = 0;
+                for (long pattern : patterns) {
+                    total += hashSet.getCount(pattern);
+                }
+                assertThat(total).isEqualTo((long) numThreads * numPatterns);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package containers;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WideContainerTestUtil {
+
+    /**
+     * Build a container of a specified factory for random distinct 45-mers and search for them and for k-mers
+     * which are not contained.
+     *
+     * @param containerFactory factory of the wide container to test
+     */
+    public static void search(WideContainerFactory containerFactory) {
+        Random random = new Random(19);
+        int numKmers = 1000;
+        long[] highs = new long[numKmers];
+        long[] lows = new long[numKmers];
+        for (int i = 0; i < numKmers; i++) {
+            // distinct high words with 26 bits (13 bases) and arbitrary low words
+            highs[i] = (long) i * 4099;
+            lows[i] = random.nextLong();
+        }
+        long[] expectedHighs = highs.clone();
+        long[] expectedLows = lows.clone();
+
+        WideContainer container = containerFactory.createContainer(45);
+        container.build(highs, lows);
+
+        for (int i = 0; i < numKmers; i++) {
+            assertThat(container.search(expectedHighs[i], expectedLows[i])).isTrue();
+            assertThat(container.search(expectedHighs[i], expectedLows[i] ^ 1)).isFalse();
+            assertThat(container.search(expectedHighs[i] + 1, expectedLows[i])).isFalse();
+        }
+    }
+
+}
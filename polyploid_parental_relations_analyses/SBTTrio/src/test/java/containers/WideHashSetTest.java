@@ -0,0 +1,28 @@
+package containers;
+
+import containers.wide_hash_set.WideHashSet;
+import containers.wide_hash_set.WideHashSetFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WideHashSetTest {
+
+    @Test
+    void build() {
+        WideHashSet hashSet = new WideHashSet();
+        hashSet.build(new long[]{2, 1, 1, 0, 1}, new long[]{0, -1L, 5, 7, 3});
+
+        assertThat(hashSet.getNumElements()).isEqualTo(5);
+        assertThat(hashSet.size()).isEqualTo(16);
+        assertThat(hashSet.getHighs()).hasSize(16).containsOnly(-1L, 0L, 1L, 2L);
+        assertThat(hashSet.search(1, -1L)).isTrue();
+        assertThat(hashSet.search(1, 7)).isFalse();
+    }
+
+    @Test
+    void search() {
+        WideContainerTestUtil.search(new WideHashSetFactory());
+    }
+
+}
@@ -0,0 +1,37 @@
+package containers;
+
+import containers.wide_sorted_array.WideSortedArray;
+import containers.wide_sorted_array.WideSortedArrayFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WideSortedArrayTest {
+
+    @Test
+    void createWideSortedArray() {
+        WideSortedArray sortedArray = new WideSortedArray();
+        assertThat(sortedArray.getHighs()).isNull();
+        assertThat(sortedArray.getLows()).isNull();
+    }
+
+    @Test
+    void build() {
+        WideSortedArray sortedArray = new WideSortedArray();
+
+        // the low words are ordered unsigned
+        sortedArray.build(new long[]{2, 1, 1, 0, 1}, new long[]{0, -1L, 5, 7, 3});
+        assertThat(sortedArray.getHighs()).containsExactly(0, 1, 1, 1, 2);
+        assertThat(sortedArray.getLows()).containsExactly(7, 3, 5, -1L, 0);
+
+        assertThatThrownBy(() -> sortedArray.build(new long[2], new long[1]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void search() {
+        WideContainerTestUtil.search(new WideSortedArrayFactory());
+    }
+
+}
@@ -14,6 +14,23 @@ public class DNATest {
         assertThat(DNA.charToInt('T')).isEqualTo(3);
     }
 
+    @Test
+    void charToCode() {
+        assertThat(DNA.charToCode('A', false)).isEqualTo(0);
+        assertThat(DNA.charToCode('C', false)).isEqualTo(1);
+        assertThat(DNA.charToCode('G', false)).isEqualTo(2);
+        assertThat(DNA.charToCode('T', false)).isEqualTo(3);
+        assertThat(DNA.charToCode('N', false)).isEqualTo(DNA.INVALID_CODE);
+        assertThat(DNA.charToCode('a', false)).isEqualTo(DNA.INVALID_CODE);
+        assertThat(DNA.charToCode('\u00e4', false)).isEqualTo(DNA.INVALID_CODE);
+
+        assertThat(DNA.charToCode('a', true)).isEqualTo(0);
+        assertThat(DNA.charToCode('c', true)).isEqualTo(1);
+        assertThat(DNA.charToCode('g', true)).isEqualTo(2);
+        assertThat(DNA.charToCode('t', true)).isEqualTo(3);
+        assertThat(DNA.charToCode('n', true)).isEqualTo(DNA.INVALID_CODE);
+    }
+
     @Test
     void intToChar() {
         assertThat(DNA.intToChar(0)).isEqualTo('A');
@@ -0,0 +1,147 @@
+package dna;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RollingKmerEncoderTest {
+
+    @Test
+    void createRollingKmerEncoder() {
+        RollingKmerEncoder encoder = new RollingKmerEncoder(21);
+
+        assertThat(encoder.getKmerSize()).isEqualTo(21);
+        assertThat(encoder.numKmers(100)).isEqualTo(80);
+        assertThat(encoder.numKmers(10)).isEqualTo(0);
+
+        assertThatThrownBy(() -> new RollingKmerEncoder(32)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void encode() {
+        RollingKmerEncoder encoder = new RollingKmerEncoder(5);
+        String read = "ACGTACGTA";
+
+        // corresponds to ["ACGTA", "CGTAC", "GTACG" -> "CGTAC", "TACGT" -> "ACGTA", "ACGTA"]
+        long[] kmers = new long[encoder.numKmers(read.length())];
+        assertThat(encoder.encode(read, kmers)).isEqualTo(5);
+        assertThat(kmers).containsExactly(108L, 433L, 433L, 108L, 108L);
+    }
+
+    @Test
+    void encodeShortSequence() {
+        RollingKmerEncoder encoder = new RollingKmerEncoder(5);
+
+        assertThat(encoder.encode("ACGT", new long[0])).isEqualTo(0);
+        assertThat(encoder.encode("", new long[0])).isEqualTo(0);
+    }
+
+    @Test
+    void encodeAmbiguousSequence() {
+        RollingKmerEncoder encoder = new RollingKmerEncoder(5);
+        long[] kmers = new long[20];
+
+        // only "ACGTA", "CGTAC" and "ACGTA" do not overlap an ambiguous base
+        assertThat(encoder.encode("ACGTANCGTACNNACGTA", kmers)).isEqualTo(3);
+        assertThat(kmers).startsWith(108L, 433L, 108L);
+
+        assertThat(encoder.encode("NNNNNNNNN", kmers)).isEqualTo(0);
+        assertThat(encoder.encode("ACGTNACGT", kmers)).isEqualTo(0);
+    }
+
+    @Test
+    void encodeSoftMaskedSequence() {
+        long[] kmers = new long[20];
+
+        RollingKmerEncoder encoder = new RollingKmerEncoder(5);
+        assertThat(encoder.isAcceptSoftMasked()).isFalse();
+        // only "ACGTA" does not overlap a soft-masked base
+        assertThat(encoder.encode("acgtACGTA", kmers)).isEqualTo(1);
+        assertThat(kmers).startsWith(108L);
+
+        encoder = new RollingKmerEncoder(5, true);
+        assertThat(encoder.isAcceptSoftMasked()).isTrue();
+        assertThat(encoder.encode("acgtACGTA", kmers)).isEqualTo(5);
+        assertThat(kmers).startsWith(108L, 433L, 433L, 108L, 108L);
+    }
+
+    @Test
+    void encodeBytes() {
+        RollingKmerEncoder encoder = new RollingKmerEncoder(5);
+        byte[] sequence = "TTACGTACGTANCGTACTT".getBytes(StandardCharsets.US_ASCII);
+        long[] kmers = new long[20];
+
+        // only the range "ACGTACGTANCGTAC" is encoded
+        assertThat(encoder.encode(sequence, 2, 17, kmers)).isEqualTo(6);
+        assertThat(kmers).startsWith(108L, 433L, 433L, 108L, 108L, 433L);
+
+        // non-ASCII characters are invalid, only "TACGT" and "ACGTA" remain
+        sequence[4] = (byte) 0xC4;
+        assertThat(encoder.encode(sequence, 2, 11, kmers)).isEqualTo(2);
+        assertThat(kmers).startsWith(108L, 108L);
+    }
+
+    @Test
+    void encodeRandomSequences() {
+        for (int kmerSize : new int[]{1, 8, 17, 31}) {
+            RollingKmerEncoder encoder = new RollingKmerEncoder(kmerSize);
+            DNAUtil dnaUtil = new DNAUtil(kmerSize);
+            long[] kmers = new long[200];
+
+            for (int i = 0; i < 20; i++) {
+                StringBuilder builder = new StringBuilder(200);
+                for (int j = 0; j < 200; j++) {
+                    builder.append(DNA.intToChar(ThreadLocalRandom.current().nextInt(4)));
+                }
+                String read = builder.toString();
+
+                int numKmers = encoder.encode(read, kmers);
+                assertThat(numKmers).isEqualTo(200 - kmerSize + 1);
+                for (int j = 0; j < numKmers; j++) {
+                    long expected = dnaUtil.canonicalForm(dnaUtil.stringToLong(read.substring(j, j + kmerSize)));
+                    assertThat(kmers[j]).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void encodeQualities() {
+        RollingKmerEncoder encoder = new RollingKmerEncoder(5);
+        byte[] read = "ACGTACGTACGTA".getBytes(StandardCharsets.US_ASCII);
+        // Phred qualities 40 except for a quality of 2 at position 6
+        byte[] qualities = "IIIIII#IIIIII".getBytes(StandardCharsets.US_ASCII);
+        long[] kmers = new long[encoder.numKmers(read.length)];
+        long skipped = RollingKmerEncoder.SKIPPED_KMER;
+
+        // the k-mers starting at positions 2 to 6 overlap the low quality base
+        assertThat(encoder.encode(read, qualities, 20, 0, read.length, kmers)).isEqualTo(9);
+        assertThat(kmers).containsExactly(108L, 433L, skipped, skipped, skipped, skipped, skipped, 108L, 108L);
+
+        // a threshold at or below the low quality keeps all k-mers
+        assertThat(encoder.encode(read, qualities, 2, 0, read.length, kmers)).isEqualTo(9);
+        assertThat(kmers).doesNotContain(skipped);
+
+        // k-mers overlapping ambiguous bases are not marked as skipped, only the k-mer starting at position 6 is
+        byte[] ambiguousRead = "ACGTANCGTACGT".getBytes(StandardCharsets.US_ASCII);
+        assertThat(encoder.encode(ambiguousRead, qualities, 20, 0, read.length, kmers)).isEqualTo(4);
+        assertThat(kmers).startsWith(108L, skipped, 433L, 108L);
+    }
+
+    @Test
+    void encodeQualitiesRange() {
+        RollingKmerEncoder encoder = new RollingKmerEncoder(5);
+        byte[] read = "NNACGTAN".getBytes(StandardCharsets.US_ASCII);
+        byte[] qualities = "##IIIII#".getBytes(StandardCharsets.US_ASCII);
+        long[] kmers = new long[4];
+
+        // the low quality bases outside of the range are ignored
+        assertThat(encoder.encode(read, qualities, 30, 2, 7, kmers)).isEqualTo(1);
+        assertThat(kmers[0]).isEqualTo(108L);
+    }
+
+}
@@ -0,0 +1,56 @@
+package dna;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SequenceKernelsTest {
+
+    @Test
+    void vectorized() {
+        // the tests are run with the module jdk.incubator.vector
+        assertThat(SequenceKernels.VECTORIZED).isTrue();
+    }
+
+    @Test
+    void reverseComplement() {
+        DNAUtil dnaUtil = new DNAUtil(18);
+        long kmer = dnaUtil.stringToLong("ACGTTAGCTAACCCTGAT");
+        assertThat(SequenceKernels.reverseComplement(kmer, 18)).isEqualTo(dnaUtil.stringToLong("ATCAGGGTTAGCTAACGT"));
+
+        assertThat(SequenceKernels.reverseComplement(0b00L, 1)).isEqualTo(0b11L);
+        assertThat(SequenceKernels.reverseComplement(0L, 32)).isEqualTo(-1L);
+        // bits above the k-mer are ignored
+        assertThat(SequenceKernels.reverseComplement(0b111000L, 2)).isEqualTo(0b1101L);
+    }
+
+    @Test
+    void canonicalForms() {
+        Random random = new Random(11);
+        for (int kmerSize = 1; kmerSize <= DNA.MAX_KMER_SIZE; kmerSize++) {
+            DNAUtil dnaUtil = new DNAUtil(kmerSize);
+            long[] kmers = new long[37];
+            for (int i = 0; i < kmers.length; i++) {
+                kmers[i] = random.nextLong(1L << (kmerSize << 1));
+            }
+            long[] scalar = kmers.clone();
+
+            SequenceKernels.canonicalForms(kmers, 1, 36, kmerSize);
+            SequenceKernels.canonicalFormsScalar(scalar, 1, 36, kmerSize);
+            assertThat(kmers).isEqualTo(scalar);
+            for (int i = 1; i < 36; i++) {
+                assertThat(kmers[i]).isEqualTo(Math.min(kmers[i], dnaUtil.reverseComplement(kmers[i])));
+            }
+        }
+    }
+
+    @Test
+    void canonicalFormsInvalidKmerSize() {
+        assertThatThrownBy(() -> SequenceKernels.canonicalForms(new long[1], 0, 1, 32))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
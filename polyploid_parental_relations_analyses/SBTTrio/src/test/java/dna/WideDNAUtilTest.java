@@ -0,0 +1,88 @@
+package dna;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WideDNAUtilTest {
+
+    @Test
+    void createWideDNAUtil() {
+        assertThat(new WideDNAUtil(63).getKmerSize()).isEqualTo(63);
+        assertThatThrownBy(() -> new WideDNAUtil(64)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new WideDNAUtil(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void stringToLongs() {
+        WideDNAUtil wideDNAUtil = new WideDNAUtil(34);
+        String kmer = "GT" + "ACGTACGTACGTACGTACGTACGTACGTACGT";
+
+        assertThat(wideDNAUtil.stringToHigh(kmer)).isEqualTo(0b1011L);
+        assertThat(wideDNAUtil.stringToLow(kmer)).isEqualTo(0x1B1B1B1B1B1B1B1BL);
+        assertThat(wideDNAUtil.longsToString(0b1011L, 0x1B1B1B1B1B1B1B1BL)).isEqualTo(kmer);
+
+        // k-mers of at most 32 bases only use the low word
+        WideDNAUtil shortUtil = new WideDNAUtil(5);
+        assertThat(shortUtil.stringToHigh("ACGTA")).isEqualTo(0L);
+        assertThat(shortUtil.stringToLow("ACGTA")).isEqualTo(108L);
+        assertThat(shortUtil.longsToString(0L, 108L)).isEqualTo("ACGTA");
+    }
+
+    @Test
+    void reverseComplement() {
+        Random random = new Random(3);
+        for (int kmerSize = 1; kmerSize <= DNA.MAX_WIDE_KMER_SIZE; kmerSize++) {
+            WideDNAUtil wideDNAUtil = new WideDNAUtil(kmerSize);
+            for (int i = 0; i < 10; i++) {
+                String kmer = randomKmer(random, kmerSize);
+                String reverseComplement = reverseComplement(kmer);
+                long high = wideDNAUtil.stringToHigh(kmer);
+                long low = wideDNAUtil.stringToLow(kmer);
+
+                assertThat(wideDNAUtil.reverseComplementHigh(high, low))
+                        .isEqualTo(wideDNAUtil.stringToHigh(reverseComplement));
+                assertThat(wideDNAUtil.reverseComplementLow(high, low))
+                        .isEqualTo(wideDNAUtil.stringToLow(reverseComplement));
+            }
+        }
+    }
+
+    @Test
+    void compare() {
+        Random random = new Random(5);
+        WideDNAUtil wideDNAUtil = new WideDNAUtil(50);
+        for (int i = 0; i < 100; i++) {
+            String kmer = randomKmer(random, 50);
+            String other = random.nextBoolean() ? kmer : randomKmer(random, 50);
+
+            int comparison = WideDNAUtil.compare(wideDNAUtil.stringToHigh(kmer), wideDNAUtil.stringToLow(kmer),
+                    wideDNAUtil.stringToHigh(other), wideDNAUtil.stringToLow(other));
+            assertThat(Integer.signum(comparison)).isEqualTo(Integer.signum(kmer.compareTo(other)));
+        }
+
+        // the low word is compared unsigned
+        assertThat(WideDNAUtil.compare(0, -1L, 0, 1L)).isPositive();
+        assertThat(WideDNAUtil.compare(1, 0, 0, -1L)).isPositive();
+    }
+
+    static String randomKmer(Random random, int kmerSize) {
+        StringBuilder builder = new StringBuilder(kmerSize);
+        for (int i = 0; i < kmerSize; i++) {
+            builder.append(DNA.BASES[random.nextInt(4)]);
+        }
+        return builder.toString();
+    }
+
+    static String reverseComplement(String kmer) {
+        StringBuilder builder = new StringBuilder(kmer.length());
+        for (int i = kmer.length() - 1; i >= 0; i--) {
+            builder.append(DNA.intToChar(3 - DNA.charToInt(kmer.charAt(i))));
+        }
+        return builder.toString();
+    }
+
+}
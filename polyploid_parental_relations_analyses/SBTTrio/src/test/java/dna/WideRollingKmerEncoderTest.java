@@ -0,0 +1,85 @@
+package dna;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WideRollingKmerEncoderTest {
+
+    @Test
+    void createWideRollingKmerEncoder() {
+        WideRollingKmerEncoder encoder = new WideRollingKmerEncoder(40);
+
+        assertThat(encoder.getKmerSize()).isEqualTo(40);
+        assertThat(encoder.isAcceptSoftMasked()).isFalse();
+        assertThat(encoder.numKmers(100)).isEqualTo(61);
+        assertThat(encoder.numKmers(10)).isEqualTo(0);
+
+        assertThatThrownBy(() -> new WideRollingKmerEncoder(64)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void encode() {
+        // the same k-mers as the narrow encoder for small k
+        WideRollingKmerEncoder encoder = new WideRollingKmerEncoder(5);
+        byte[] sequence = "ACGTACGTA".getBytes(StandardCharsets.US_ASCII);
+        long[] highs = new long[5];
+        long[] lows = new long[5];
+
+        assertThat(encoder.encode(sequence, 0, sequence.length, highs, lows)).isEqualTo(5);
+        assertThat(highs).containsOnly(0L);
+        assertThat(lows).containsExactly(108L, 433L, 433L, 108L, 108L);
+    }
+
+    @Test
+    void encodeRandom() {
+        Random random = new Random(13);
+        for (int kmerSize : new int[]{1, 17, 31, 32, 33, 40, 62, 63}) {
+            WideRollingKmerEncoder encoder = new WideRollingKmerEncoder(kmerSize);
+            WideDNAUtil wideDNAUtil = new WideDNAUtil(kmerSize);
+            String sequence = WideDNAUtilTest.randomKmer(random, 200);
+            // an ambiguous base restarts the rolling window
+            sequence = sequence.substring(0, 120) + "N" + sequence.substring(121);
+            byte[] bytes = sequence.getBytes(StandardCharsets.US_ASCII);
+
+            long[] highs = new long[encoder.numKmers(bytes.length)];
+            long[] lows = new long[encoder.numKmers(bytes.length)];
+            int numKmers = encoder.encode(bytes, 0, bytes.length, highs, lows);
+
+            int expected = 0;
+            for (int i = 0; i + kmerSize <= sequence.length(); i++) {
+                String kmer = sequence.substring(i, i + kmerSize);
+                if (kmer.contains("N")) {
+                    continue;
+                }
+                String reverseComplement = WideDNAUtilTest.reverseComplement(kmer);
+                String canonical = kmer.compareTo(reverseComplement) <= 0 ? kmer : reverseComplement;
+                assertThat(wideDNAUtil.longsToString(highs[expected], lows[expected])).isEqualTo(canonical);
+                expected++;
+            }
+            assertThat(numKmers).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void encodeQualities() {
+        WideRollingKmerEncoder encoder = new WideRollingKmerEncoder(33);
+        String sequence = WideDNAUtilTest.randomKmer(new Random(17), 40);
+        byte[] bytes = sequence.getBytes(StandardCharsets.US_ASCII);
+        byte[] qualities = "IIIIIIIIII#IIIIIIIIIIIIIIIIIIIIIIIIIIIII".getBytes(StandardCharsets.US_ASCII);
+        long[] highs = new long[8];
+        long[] lows = new long[8];
+
+        // the 8 k-mers starting at positions 0 to 7 all overlap the low quality base at position 10
+        assertThat(encoder.encode(bytes, qualities, 20, 0, bytes.length, highs, lows)).isEqualTo(8);
+        assertThat(highs).containsOnly(RollingKmerEncoder.SKIPPED_KMER);
+
+        assertThat(encoder.encode(bytes, qualities, 2, 0, bytes.length, highs, lows)).isEqualTo(8);
+        assertThat(highs).doesNotContain(RollingKmerEncoder.SKIPPED_KMER);
+    }
+
+}
@@ -1,10 +1,32 @@
 package index_building;
 
+import containers.WideContainerFactory;
 import containers.bit_packed_sorted_array.BitPackedSortedArrayFactory;
+import containers.wide_hash_set.WideHashSetFactory;
+import containers.wide_sorted_array.WideSortedArrayFactory;
+import dna.DNA;
+import dna.DNAUtil;
+import dna.WideDNAUtil;
+import kmer_database.DatabaseCounter;
+import kmer_database.DatabaseWriter;
+import kmer_sampling.FracMinHashFilter;
+import kmer_sampling.KmerFilter;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import shared_index.SharedMemoryIndex;
 import util.DataStructure;
+import util.WideDataStructure;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class IndexBuilderTest {
 
@@ -60,4 +82,159 @@ public class IndexBuilderTest {
         }
     }
 
+    @Test
+    void buildCompactIndex() {
+        String kmerDatabasePath = "src/test/resources/testKmerDatabase.txt";
+
+        for (int height = 0; height <= 8; height++) {
+            IndexBuilder indexBuilder = new IndexBuilder(height, 8);
+            DataStructure index = indexBuilder.buildCompactIndex(kmerDatabasePath, new BitPackedSortedArrayFactory(),
+                    4);
+
+            for (long kmer : KMERS_INCLUDED) {
+                assertThat(index.search(kmer)).isTrue();
+            }
+            for (long kmer : KMERS_EXCLUDED) {
+                assertThat(index.search(kmer)).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void buildCompactIndexSampled() throws Exception {
+        String kmerDatabasePath = "src/test/resources/testKmerDatabase.txt";
+        KmerFilter kmerFilter = new FracMinHashFilter(0.5);
+
+        IndexBuilder indexBuilder = new IndexBuilder(2, 8, kmerFilter);
+        DataStructure index = indexBuilder.buildIndex(kmerDatabasePath, new BitPackedSortedArrayFactory());
+        DataStructure compactIndex = indexBuilder.buildCompactIndex(kmerDatabasePath,
+                new BitPackedSortedArrayFactory(), 4);
+
+        DNAUtil dnaUtil = new DNAUtil(8);
+        for (String line : Files.readAllLines(Paths.get(kmerDatabasePath))) {
+            long kmer = dnaUtil.stringToLong(line.split("\\s+")[0]);
+            assertThat(compactIndex.search(kmer)).isEqualTo(index.search(kmer));
+        }
+    }
+
+    @Test
+    void buildIndexSampled() throws Exception {
+        String kmerDatabasePath = "src/test/resources/testKmerDatabase.txt";
+        KmerFilter kmerFilter = new FracMinHashFilter(0.5);
+        DNAUtil dnaUtil = new DNAUtil(8);
+
+        IndexBuilder indexBuilder = new IndexBuilder(2, 8, kmerFilter);
+        assertThat(indexBuilder.getKmerFilter()).isEqualTo(kmerFilter);
+        DataStructure index = indexBuilder.buildIndex(kmerDatabasePath, new BitPackedSortedArrayFactory());
+        DataStructure sortedIndex = indexBuilder.buildIndexSorted(kmerDatabasePath, new BitPackedSortedArrayFactory());
+
+        // exactly the k-mers whose canonical form is sampled are indexed
+        List<String> lines = Files.readAllLines(Paths.get(kmerDatabasePath));
+        int numSampled = 0;
+        for (String line : lines) {
+            long kmer = dnaUtil.stringToLong(line.split("\\s+")[0]);
+            boolean sampled = kmerFilter.accept(dnaUtil.canonicalForm(kmer));
+            assertThat(index.search(kmer)).isEqualTo(sampled);
+            assertThat(sortedIndex.search(kmer)).isEqualTo(sampled);
+            if (sampled) {
+                numSampled++;
+            }
+        }
+        assertThat(numSampled).isGreaterThan(0).isLessThan(lines.size());
+        for (long kmer : KMERS_EXCLUDED) {
+            assertThat(index.search(kmer)).isFalse();
+        }
+    }
+
+    @Test
+    void publishSharedIndex(@TempDir Path tempDir) throws Exception {
+        String kmerDatabasePath = "src/test/resources/testKmerDatabase.txt";
+        String indexPath = tempDir.resolve("index.idx").toString();
+
+        IndexBuilder indexBuilder = new IndexBuilder(2, 8);
+        indexBuilder.publishSharedIndex(kmerDatabasePath, indexPath);
+        SharedMemoryIndex index = SharedMemoryIndex.attach(indexPath);
+
+        assertThat(index.getNumKmers()).isEqualTo(Files.readAllLines(Paths.get(kmerDatabasePath)).size());
+        for (long kmer : KMERS_INCLUDED) {
+            assertThat(index.search(kmer)).isTrue();
+        }
+        for (long kmer : KMERS_EXCLUDED) {
+            assertThat(index.search(kmer)).isFalse();
+        }
+        // only the published file remains in the directory
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void buildWideIndex(@TempDir Path tempDir) throws Exception {
+        // sorted distinct 40-mers with counts
+        Random random = new Random(23);
+        TreeSet<String> kmers = new TreeSet<>();
+        while (kmers.size() < 500) {
+            StringBuilder kmer = new StringBuilder();
+            for (int i = 0; i < 40; i++) {
+                kmer.append(DNA.BASES[random.nextInt(4)]);
+            }
+            kmers.add(kmer.toString());
+        }
+        List<String> lines = new ArrayList<>();
+        for (String kmer : kmers) {
+            lines.add(kmer + "\t3");
+        }
+        Path kmerDatabasePath = tempDir.resolve("kmers.txt");
+        Files.write(kmerDatabasePath, lines);
+
+        WideDNAUtil wideDNAUtil = new WideDNAUtil(40);
+        // suffixes spanning both words and suffixes fitting into the low word
+        for (int height : new int[]{2, 10}) {
+            IndexBuilder indexBuilder = new IndexBuilder(height, 40);
+            for (WideContainerFactory factory : new WideContainerFactory[]{
+                    new WideSortedArrayFactory(), new WideHashSetFactory()}) {
+                WideDataStructure index = indexBuilder.buildWideIndex(kmerDatabasePath.toString(), factory);
+
+                for (String kmer : kmers) {
+                    assertThat(index.search(wideDNAUtil.stringToHigh(kmer), wideDNAUtil.stringToLow(kmer))).isTrue();
+                    String other = kmer.substring(0, 39) + (kmer.charAt(39) == 'A' ? 'C' : 'A');
+                    assertThat(index.search(wideDNAUtil.stringToHigh(other), wideDNAUtil.stringToLow(other)))
+                            .isEqualTo(kmers.contains(other));
+                }
+            }
+        }
+
+        IndexBuilder samplingIndexBuilder = new IndexBuilder(2, 40, new FracMinHashFilter(0.5));
+        assertThatThrownBy(() -> samplingIndexBuilder.buildWideIndex(kmerDatabasePath.toString(),
+                new WideSortedArrayFactory())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void buildIndexFromReads(@TempDir Path tempDir) throws Exception {
+        String[] readFiles = {"src/test/resources/testReads.fastq"};
+        DatabaseCounter counter = new DatabaseCounter(8, 4, 2, Integer.MAX_VALUE, 1L << 20, null);
+        Path kmerDatabasePath = tempDir.resolve("kmers.txt");
+        try (DatabaseWriter writer = new DatabaseWriter(kmerDatabasePath.toString(), 8)) {
+            counter.count(readFiles, writer);
+        }
+
+        // prefixes within a partition of the counter and prefixes spanning several partitions
+        for (int height : new int[]{1, 2, 6}) {
+            IndexBuilder indexBuilder = new IndexBuilder(height, 8);
+            DataStructure expected = indexBuilder.buildIndex(kmerDatabasePath.toString(),
+                    new BitPackedSortedArrayFactory());
+            DataStructure index = indexBuilder.buildIndexFromReads(readFiles, counter,
+                    new BitPackedSortedArrayFactory());
+
+            for (long kmer = 0; kmer < 1 << 16; kmer++) {
+                assertThat(index.search(kmer)).isEqualTo(expected.search(kmer));
+            }
+        }
+        assertThat(counter.getNumSolidKmers()).isEqualTo(Files.readAllLines(kmerDatabasePath).size());
+
+        IndexBuilder otherIndexBuilder = new IndexBuilder(2, 9);
+        assertThatThrownBy(() -> otherIndexBuilder.buildIndexFromReads(readFiles, counter,
+                new BitPackedSortedArrayFactory())).isInstanceOf(IllegalArgumentException.class);
+    }
+
 }
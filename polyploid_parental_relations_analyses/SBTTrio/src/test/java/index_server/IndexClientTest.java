@@ -0,0 +1,65 @@
+package index_server;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IndexClientTest {
+
+    private final String[] databaseFiles = new String[]{"src/test/resources/testHapmerDatabase01.txt"};
+
+    @Test
+    void main(@TempDir Path directory) throws IOException {
+        try (IndexServer server = IndexServer.load(databaseFiles, 1, 5, null, 2)) {
+            server.start(0);
+            Path output = directory.resolve("results.csv");
+
+            IndexClient.main(new String[]{"-p", String.valueOf(server.getPort()), "-o", output.toString(),
+                    IndexServer.CLASSIFY, "-r", "src/test/resources/testReads.fastq.gz"});
+
+            List<String> lines = Files.readAllLines(output);
+            assertThat(lines).hasSize(8);
+            assertThat(lines.get(0)).isEqualTo("0," + (double) 2/81);
+        }
+    }
+
+    @Test
+    void submitToClosingServer() throws IOException {
+        // a server which closes every connection without answering
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> {
+                try (Socket socket = serverSocket.accept()) {
+                    socket.getInputStream().read();
+                } catch (IOException exception) {}
+            });
+            acceptor.start();
+
+            assertThatThrownBy(() -> IndexClient.submit(serverSocket.getLocalPort(), IndexServer.CLASSIFY,
+                    new String[]{"-r", "src/test/resources/testReads.fastq.gz"}, new StringWriter(), 5000))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void submitToSilentServer() throws IOException {
+        // the connection is accepted by the backlog of the server socket, but the server never answers
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            assertThatThrownBy(() -> IndexClient.submit(serverSocket.getLocalPort(), IndexServer.CLASSIFY,
+                    new String[]{"-r", "src/test/resources/testReads.fastq.gz"}, new StringWriter(), 200))
+                    .isInstanceOf(SocketTimeoutException.class);
+        }
+    }
+
+}
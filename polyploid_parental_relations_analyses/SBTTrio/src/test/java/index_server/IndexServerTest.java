@@ -0,0 +1,136 @@
+package index_server;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IndexServerTest {
+
+    private final String[] databaseFiles = new String[]{"src/test/resources/testHapmerDatabase01.txt",
+            "src/test/resources/testHapmerDatabase02.txt"};
+    private final List<String> expected = Arrays.asList("0," + (double) 2/81 + ",0.0", "1," + (double) 1/105 + ",0.0",
+            "2,0.0,0.01", "3," + (double) 2/99 + "," + (double) 1/99, "4," + (double) 2/81 + ",0.0",
+            "5," + (double) 1/105 + ",0.0", "6,0.0,0.01", "7," + (double) 2/99 + "," + (double) 1/99);
+
+    @Test
+    void load() throws IOException {
+        try (IndexServer server = IndexServer.load(databaseFiles, 1, 5, null, 2)) {
+            assertThat(server.getNumDatabases()).isEqualTo(2);
+            assertThat(server.getKmerSize()).isEqualTo(5);
+            assertThat(server.getNumThreads()).isEqualTo(2);
+            assertThat(server.getPort()).isEqualTo(-1);
+        }
+        assertThatThrownBy(() -> IndexServer.load(databaseFiles, 1, 5, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void classify() throws IOException {
+        try (IndexServer server = IndexServer.load(databaseFiles, 1, 5, null, 2)) {
+            server.start(0);
+
+            StringWriter output = new StringWriter();
+            long numReads = IndexClient.submit(server.getPort(), IndexServer.CLASSIFY,
+                    new String[]{"-r", "src/test/resources/testReads.fastq.gz", "-b", "3"}, output);
+
+            assertThat(numReads).isEqualTo(8);
+            assertThat(output.toString().split("\n")).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void classifyConcurrently() throws Exception {
+        try (IndexServer server = IndexServer.load(databaseFiles, 1, 5, null, 2)) {
+            server.start(0);
+
+            // several jobs share the indices and the worker threads of the server
+            StringWriter[] outputs = new StringWriter[4];
+            Thread[] jobs = new Thread[outputs.length];
+            for (int i = 0; i < jobs.length; i++) {
+                StringWriter output = new StringWriter();
+                outputs[i] = output;
+                jobs[i] = new Thread(() -> {
+                    try {
+                        IndexClient.submit(server.getPort(), IndexServer.CLASSIFY,
+                                new String[]{"-r", "src/test/resources/testReads.fasta", "-b", "2"}, output);
+                    } catch (IOException exception) {
+                        throw new RuntimeException(exception);
+                    }
+                });
+                jobs[i].start();
+            }
+            for (Thread job : jobs) {
+                job.join();
+            }
+
+            for (StringWriter output : outputs) {
+                assertThat(output.toString().split("\n")).containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void classifyWithOptions() throws IOException {
+        try (IndexServer server = IndexServer.load(databaseFiles, 1, 5, null, 2)) {
+            server.start(0);
+
+            StringWriter output = new StringWriter();
+            long numReads = IndexClient.submit(server.getPort(), IndexServer.CLASSIFY,
+                    new String[]{"-r", "src/test/resources/testReads.fastq", "--min-quality", "0", "--early-stop"},
+                    output);
+
+            // the number of skipped k-mers and the number of lookups are appended to the ratios
+            assertThat(numReads).isEqualTo(8);
+            String[] lines = output.toString().split("\n");
+            assertThat(lines).hasSize(8);
+            for (String line : lines) {
+                assertThat(line.split(",")).hasSize(4);
+            }
+        }
+    }
+
+    @Test
+    void fingerprint() throws IOException {
+        try (IndexServer server = IndexServer.load(databaseFiles, 1, 5, null, 2)) {
+            server.start(0);
+
+            StringWriter output = new StringWriter();
+            long numSets = IndexClient.submit(server.getPort(), IndexServer.FINGERPRINT,
+                    new String[]{"-s", "10", "-c", "100"}, output);
+
+            assertThat(numSets).isEqualTo(10);
+            String[] lines = output.toString().split("\n");
+            assertThat(lines).hasSize(11);
+            assertThat(lines[0]).isEqualTo("setID,fingerprint_0,fingerprint_1,intersect_1+0");
+        }
+    }
+
+    @Test
+    void failingJobs() throws IOException {
+        try (IndexServer server = IndexServer.load(databaseFiles, 1, 5, null, 2)) {
+            server.start(0);
+
+            assertThatThrownBy(() -> IndexClient.submit(server.getPort(), "assemble", new String[0],
+                    new StringWriter())).isInstanceOf(IOException.class).hasMessageContaining("Unknown job type");
+            assertThatThrownBy(() -> IndexClient.submit(server.getPort(), IndexServer.CLASSIFY,
+                    new String[]{"-r", "missing.fastq"}, new StringWriter()))
+                    .isInstanceOf(IOException.class).hasMessageContaining("missing.fastq");
+            assertThatThrownBy(() -> IndexClient.submit(server.getPort(), IndexServer.FINGERPRINT,
+                    new String[]{"-s", "ten", "-c", "100"}, new StringWriter()))
+                    .isInstanceOf(IOException.class).hasMessageContaining("ten");
+
+            // the server keeps serving jobs after a failed job
+            StringWriter output = new StringWriter();
+            IndexClient.submit(server.getPort(), IndexServer.CLASSIFY,
+                    new String[]{"-r", "src/test/resources/testReads.fastq.gz"}, output);
+            assertThat(output.toString().split("\n")).containsExactlyElementsOf(expected);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package kmer_counting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DistinctKmerBufferTest {
+
+    @Test
+    void createDistinctKmerBuffer() {
+        DistinctKmerBuffer buffer = new DistinctKmerBuffer();
+
+        assertThat(buffer.size()).isEqualTo(0);
+        assertThat(buffer.getKmers().length).isEqualTo(256);
+    }
+
+    @Test
+    void add() {
+        DistinctKmerBuffer buffer = new DistinctKmerBuffer();
+
+        assertThat(buffer.add(108L)).isTrue();
+        assertThat(buffer.add(433L)).isTrue();
+        assertThat(buffer.add(108L)).isFalse();
+        assertThat(buffer.add(0L)).isTrue();
+
+        assertThat(buffer.size()).isEqualTo(3);
+        assertThat(buffer.get(0)).isEqualTo(108L);
+        assertThat(buffer.get(1)).isEqualTo(433L);
+        assertThat(buffer.get(2)).isEqualTo(0L);
+    }
+
+    @Test
+    void clear() {
+        DistinctKmerBuffer buffer = new DistinctKmerBuffer();
+
+        for (int i = 0; i < 10; i++) {
+            buffer.add(i);
+        }
+        buffer.clear();
+
+        assertThat(buffer.size()).isEqualTo(0);
+        for (int i = 0; i < 10; i++) {
+            assertThat(buffer.add(i)).isTrue();
+        }
+        assertThat(buffer.size()).isEqualTo(10);
+    }
+
+    @Test
+    void deduplicate() {
+        DistinctKmerBuffer buffer = new DistinctKmerBuffer();
+        buffer.ensureCapacity(1000);
+        assertThat(buffer.getKmers().length).isGreaterThanOrEqualTo(1000);
+
+        for (int round = 0; round < 20; round++) {
+            long[] kmers = buffer.getKmers();
+            Set<Long> expected = new LinkedHashSet<>();
+            for (int i = 0; i < 1000; i++) {
+                kmers[i] = ThreadLocalRandom.current().nextLong(0, 500);
+                expected.add(kmers[i]);
+            }
+
+            buffer.deduplicate(1000);
+
+            assertThat(buffer.size()).isEqualTo(expected.size());
+            long[] distinctKmers = new long[buffer.size()];
+            System.arraycopy(buffer.getDistinctKmers(), 0, distinctKmers, 0, buffer.size());
+            assertThat(distinctKmers).containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+}
@@ -1,11 +1,17 @@
 package kmer_counting;
 
+import containers.hash_set.HashSet;
+import kmer_sampling.FracMinHashFilter;
+import kmer_sampling.KmerFilter;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class KmerCounterTest {
 
@@ -30,4 +36,89 @@ public class KmerCounterTest {
         assertThat(canonicalKmers).containsAll(expected);
     }
 
+    @Test
+    void getAllKmersAmbiguous() {
+        KmerCounter kmerCounter = new KmerCounter(5);
+
+        // corresponds to ["ACGTA", "CGTAC"], k-mers overlapping N are skipped
+        List<Long> expected = Arrays.asList(108L, 433L);
+
+        HashSet canonicalKmers = kmerCounter.getAllKmers("NACGTACNNACGTAN");
+        assertThat(canonicalKmers.getNumElements()).isEqualTo(2);
+        assertThat(canonicalKmers).containsOnlyOnceElementsOf(expected);
+
+        assertThat(kmerCounter.getAllKmers("ACGNACGNACGN").getNumElements()).isEqualTo(0);
+    }
+
+    @Test
+    void getDistinctKmers() {
+        KmerCounter kmerCounter = new KmerCounter(5);
+
+        // corresponds to ["ACGTA", "CGTAC"] in order of first occurrence
+        DistinctKmerBuffer buffer = kmerCounter.getDistinctKmers("ACGTACGTA");
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.get(0)).isEqualTo(108L);
+        assertThat(buffer.get(1)).isEqualTo(433L);
+
+        // the buffer of the thread is reused for the next read
+        assertThat(kmerCounter.getDistinctKmers("NNACGTANN")).isSameAs(buffer);
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(buffer.get(0)).isEqualTo(108L);
+
+        // long reads let the buffer grow
+        String longRead = "ACGT".repeat(200);
+        assertThat(kmerCounter.getDistinctKmers(longRead).size()).isEqualTo(2);
+    }
+
+    @Test
+    void getDistinctKmersSampled() {
+        String read = "ATTTTTATTCCTATATAATTGATTTGAGAATCCAAAAGATATTATTAATCAAAGATAAAAATAATCTTTGAATTTTGG";
+        KmerFilter kmerFilter = new FracMinHashFilter(0.3);
+        KmerCounter kmerCounter = new KmerCounter(11);
+        KmerCounter samplingKmerCounter = new KmerCounter(11, false, kmerFilter);
+        assertThat(samplingKmerCounter.getKmerFilter()).isEqualTo(kmerFilter);
+
+        // the sampled k-mers are the distinct k-mers accepted by the filter in the same order
+        List<Long> expected = new ArrayList<>();
+        DistinctKmerBuffer all = kmerCounter.getDistinctKmers(read);
+        for (int i = 0; i < all.size(); i++) {
+            if (kmerFilter.accept(all.get(i))) {
+                expected.add(all.get(i));
+            }
+        }
+
+        DistinctKmerBuffer sampled = samplingKmerCounter.getDistinctKmers(read);
+        List<Long> actual = new ArrayList<>();
+        for (int i = 0; i < sampled.size(); i++) {
+            actual.add(sampled.get(i));
+        }
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.size()).isGreaterThan(0).isLessThan(all.size());
+    }
+
+    @Test
+    void getDistinctKmersQualities() {
+        KmerCounter kmerCounter = new KmerCounter(5, false, null, 20);
+        assertThat(kmerCounter.getMinBaseQuality()).isEqualTo(20);
+        byte[] read = "ACGTACGTACGTA".getBytes(StandardCharsets.US_ASCII);
+        byte[] qualities = "IIIIII#IIIIII".getBytes(StandardCharsets.US_ASCII);
+
+        DistinctKmerBuffer buffer = kmerCounter.getDistinctKmers(read, qualities, 0, read.length);
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.getNumSkippedKmers()).isEqualTo(5);
+
+        // without qualities, no k-mer is skipped
+        buffer = kmerCounter.getDistinctKmers(read, null, 0, read.length);
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.getNumSkippedKmers()).isEqualTo(0);
+
+        // all k-mers overlap a low quality base
+        byte[] lowQualities = "#############".getBytes(StandardCharsets.US_ASCII);
+        buffer = kmerCounter.getDistinctKmers(read, lowQualities, 0, read.length);
+        assertThat(buffer.size()).isEqualTo(0);
+        assertThat(buffer.getNumSkippedKmers()).isEqualTo(9);
+
+        assertThatThrownBy(() -> new KmerCounter(5, false, null, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
 }
@@ -0,0 +1,58 @@
+package kmer_counting;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WideKmerCounterTest {
+
+    @Test
+    void createWideKmerCounter() {
+        WideKmerCounter kmerCounter = new WideKmerCounter(40);
+
+        assertThat(kmerCounter.getKmerSize()).isEqualTo(40);
+        assertThat(kmerCounter.getMinBaseQuality()).isEqualTo(0);
+        assertThatThrownBy(() -> new WideKmerCounter(40, false, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getDistinctKmers() {
+        WideKmerCounter kmerCounter = new WideKmerCounter(5);
+        byte[] read = "ACGTACGTA".getBytes(StandardCharsets.US_ASCII);
+
+        // corresponds to ["ACGTA", "CGTAC"] in order of first occurrence
+        WideDistinctKmerBuffer buffer = kmerCounter.getDistinctKmers(read, null, 0, read.length);
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.getDistinctHighs()).startsWith(0L, 0L);
+        assertThat(buffer.getDistinctLows()).startsWith(108L, 433L);
+        assertThat(buffer.getNumSkippedKmers()).isEqualTo(0);
+
+        // a repeat of ACGT has 3 distinct canonical 40-mers as 2 of its 4 phases are their own reverse complements,
+        // long reads let the buffer grow
+        byte[] longRead = "ACGT".repeat(200).getBytes(StandardCharsets.US_ASCII);
+        WideKmerCounter wideKmerCounter = new WideKmerCounter(40);
+        assertThat(wideKmerCounter.getDistinctKmers(longRead, null, 0, longRead.length).size()).isEqualTo(3);
+        assertThat(wideKmerCounter.getDistinctKmers(longRead, null, 0, 39).size()).isEqualTo(0);
+    }
+
+    @Test
+    void getDistinctKmersQualities() {
+        WideKmerCounter kmerCounter = new WideKmerCounter(5, false, 20);
+        byte[] read = "ACGTACGTA".getBytes(StandardCharsets.US_ASCII);
+        byte[] qualities = "IIIIIII#I".getBytes(StandardCharsets.US_ASCII);
+
+        // the k-mers starting at positions 3 and 4 overlap the low quality base at position 7
+        WideDistinctKmerBuffer buffer = kmerCounter.getDistinctKmers(read, qualities, 0, read.length);
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.getNumSkippedKmers()).isEqualTo(2);
+
+        // without qualities, no k-mer is skipped
+        buffer = kmerCounter.getDistinctKmers(read, null, 0, read.length);
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.getNumSkippedKmers()).isEqualTo(0);
+    }
+
+}
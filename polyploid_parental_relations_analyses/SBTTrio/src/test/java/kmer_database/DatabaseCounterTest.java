@@ -0,0 +1,170 @@
+package kmer_database;
+
+import dna.RollingKmerEncoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import trio_binning.FastxReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DatabaseCounterTest {
+
+    private final String fastqPath = "src/test/resources/testReads.fastq";
+    private final String fastaPath = "src/test/resources/testReads.fasta";
+
+    @Test
+    void createCounter() {
+        DatabaseCounter counter = new DatabaseCounter(21, 4, 2, 100, 1 << 20, null);
+
+        assertThat(counter.getKmerSize()).isEqualTo(21);
+        assertThat(counter.getNumThreads()).isEqualTo(4);
+        assertThat(counter.getMinCount()).isEqualTo(2);
+        assertThat(counter.getMaxCount()).isEqualTo(100);
+        assertThat(counter.getMemoryBudget()).isEqualTo(1 << 20);
+        assertThat(counter.getNumPartitions()).isEqualTo(256);
+    }
+
+    @Test
+    void createCounterInvalidArguments() {
+        assertThatThrownBy(() -> new DatabaseCounter(0, 4, 1, 1, 1, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DatabaseCounter(21, 0, 1, 1, 1, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DatabaseCounter(21, 4, 0, 1, 1, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DatabaseCounter(21, 4, 3, 2, 1, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DatabaseCounter(21, 4, 1, 1, 0, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void countMatchesNaiveCounting() throws Exception {
+        for (int kmerSize : new int[]{3, 5, 21, 31}) {
+            DatabaseCounter counter = new DatabaseCounter(kmerSize, 4, 1, Integer.MAX_VALUE, 1L << 30, null);
+            TreeMap<Long, Integer> counts = collect(counter, new String[]{fastqPath});
+
+            TreeMap<Long, Integer> expected = countNaively(new String[]{fastqPath}, kmerSize);
+            assertThat(counts).containsExactlyEntriesOf(expected);
+            assertThat(counter.getNumKmers()).isEqualTo(expected.values().stream().mapToLong(c -> c).sum());
+            assertThat(counter.getNumDistinctKmers()).isEqualTo(expected.size());
+            assertThat(counter.getNumSolidKmers()).isEqualTo(expected.size());
+            assertThat(counter.getNumSpills()).isZero();
+        }
+    }
+
+    @Test
+    void countWithSpills(@TempDir Path spillDirectory) throws Exception {
+        String[] readFiles = {fastqPath, fastaPath, fastqPath};
+        DatabaseCounter counter = new DatabaseCounter(15, 2, 1, Integer.MAX_VALUE, 1,
+                spillDirectory.toString());
+        TreeMap<Long, Integer> counts = collect(counter, readFiles);
+
+        assertThat(counts).containsExactlyEntriesOf(countNaively(readFiles, 15));
+        assertThat(counter.getNumSpills()).isGreaterThanOrEqualTo(3);
+        // the spill files are deleted
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void countMissingFile(@TempDir Path spillDirectory) throws Exception {
+        DatabaseCounter counter = new DatabaseCounter(15, 2, 1, Integer.MAX_VALUE, 1, spillDirectory.toString());
+
+        // the failure of the run is reported and the spill files of the reads counted so far are deleted
+        assertThatThrownBy(() -> collect(counter, new String[]{fastqPath, "src/test/resources/missing.fastq"}))
+                .isInstanceOf(IOException.class)
+                .hasNoSuppressedExceptions();
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void countSolidKmers() throws Exception {
+        String[] readFiles = {fastqPath, fastaPath};
+        DatabaseCounter counter = new DatabaseCounter(7, 3, 3, 5, 1L << 30, null);
+        TreeMap<Long, Integer> counts = collect(counter, readFiles);
+
+        TreeMap<Long, Integer> expected = countNaively(readFiles, 7);
+        expected.values().removeIf(count -> count < 3 || count > 5);
+        assertThat(expected).isNotEmpty();
+        assertThat(counts).containsExactlyEntriesOf(expected);
+        assertThat(counter.getNumSolidKmers()).isEqualTo(expected.size());
+        assertThat(counter.getNumDistinctKmers()).isGreaterThan(expected.size());
+    }
+
+    @Test
+    void countSolidKmersWithSpills(@TempDir Path spillDirectory) throws Exception {
+        String[] readFiles = {fastqPath, fastaPath, fastqPath};
+        DatabaseCounter counter = new DatabaseCounter(7, 3, 4, 9, 1, spillDirectory.toString());
+        TreeMap<Long, Integer> counts = collect(counter, readFiles);
+
+        TreeMap<Long, Integer> all = countNaively(readFiles, 7);
+        TreeMap<Long, Integer> expected = new TreeMap<>(all);
+        expected.values().removeIf(count -> count < 4 || count > 9);
+        assertThat(expected).isNotEmpty();
+        assertThat(counts).containsExactlyEntriesOf(expected);
+        assertThat(counter.getNumDistinctKmers()).isEqualTo(all.size());
+        assertThat(counter.getNumSpills()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void countInAscendingOrder() throws Exception {
+        DatabaseCounter counter = new DatabaseCounter(11, 4, 1, Integer.MAX_VALUE, 1L << 30, null);
+        List<Long> kmers = new ArrayList<>();
+        counter.count(new String[]{fastqPath}, (partitionKmers, counts) -> {
+            for (long kmer : partitionKmers) {
+                kmers.add(kmer);
+            }
+        });
+
+        assertThat(kmers).isSorted().doesNotHaveDuplicates().isNotEmpty();
+    }
+
+    /**
+     * Collect the k-mers passed on by a counter together with their counts.
+     */
+    private TreeMap<Long, Integer> collect(DatabaseCounter counter, String[] readFiles) throws IOException {
+        TreeMap<Long, Integer> counts = new TreeMap<>();
+        counter.count(readFiles, (kmers, kmerCounts) -> {
+            for (int i = 0; i < kmers.length; i++) {
+                counts.put(kmers[i], kmerCounts[i]);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Count the canonical k-mers of read files one read at a time.
+     */
+    private TreeMap<Long, Integer> countNaively(String[] readFiles, int kmerSize) throws IOException {
+        RollingKmerEncoder encoder = new RollingKmerEncoder(kmerSize);
+        TreeMap<Long, Integer> counts = new TreeMap<>();
+        for (String readFile : readFiles) {
+            try (FastxReader reader = new FastxReader(readFile)) {
+                while (reader.next()) {
+                    long[] kmers = new long[reader.getSequenceEnd() - reader.getSequenceStart()];
+                    int numKmers = encoder.encode(reader.getBuffer(), reader.getSequenceStart(),
+                            reader.getSequenceEnd(), kmers);
+                    for (int i = 0; i < numKmers; i++) {
+                        counts.merge(kmers[i], 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+}
@@ -0,0 +1,40 @@
+package kmer_database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatabaseCountingRunnerTest {
+
+    @Test
+    void countDatabase(@TempDir Path directory) throws Exception {
+        Path databasePath = directory.resolve("database.txt");
+
+        DatabaseCountingRunner.countDatabase(new String[]{"src/test/resources/testReads.fastq"}, 5, 4, 2, 50,
+                1L << 20, directory.toString(), databasePath.toString());
+
+        List<String> lines = Files.readAllLines(databasePath);
+        assertThat(lines).isNotEmpty().isSorted();
+        for (String line : lines) {
+            String[] fields = line.split("\t");
+            assertThat(fields[0]).hasSize(5).matches("[ACGT]+");
+            assertThat(Integer.parseInt(fields[1])).isBetween(2, 50);
+        }
+    }
+
+    @Test
+    void mainWritesDatabase(@TempDir Path directory) throws Exception {
+        Path databasePath = directory.resolve("database.txt");
+
+        DatabaseCountingRunner.main(new String[]{"-r", "src/test/resources/testReads.fastq", "-k", "7", "-t", "2",
+                "--min-count", "2", "--memory", "1", "-o", databasePath.toString()});
+
+        assertThat(Files.readAllLines(databasePath)).isNotEmpty().isSorted();
+    }
+
+}
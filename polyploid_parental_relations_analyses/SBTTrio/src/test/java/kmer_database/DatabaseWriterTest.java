@@ -0,0 +1,29 @@
+package kmer_database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatabaseWriterTest {
+
+    @Test
+    void writeDatabase(@TempDir Path directory) throws Exception {
+        Path databasePath = directory.resolve("database.txt");
+
+        try (DatabaseWriter writer = new DatabaseWriter(databasePath.toString(), 4)) {
+            // AAAC, AAGT
+            writer.accept(new long[]{1, 11}, new int[]{3, 1});
+            // CGTA
+            writer.accept(new long[]{108}, new int[]{12});
+
+            assertThat(writer.getNumKmers()).isEqualTo(3);
+        }
+
+        assertThat(Files.readAllLines(databasePath)).containsExactly("AAAC\t3", "AAGT\t1", "CGTA\t12");
+    }
+
+}
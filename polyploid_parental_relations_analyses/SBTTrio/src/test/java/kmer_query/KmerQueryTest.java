@@ -0,0 +1,96 @@
+package kmer_query;
+
+import containers.bit_packed_sorted_array.BitPackedSortedArrayFactory;
+import dna.DNAUtil;
+import index_building.IndexBuilder;
+import org.junit.jupiter.api.Test;
+import util.DataStructure;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KmerQueryTest {
+
+    private static DataStructure[] buildDatabases() {
+        IndexBuilder indexBuilder = new IndexBuilder(1, 5);
+        return new DataStructure[]{
+                indexBuilder.buildIndex("src/test/resources/testHapmerDatabase01.txt", new BitPackedSortedArrayFactory()),
+                indexBuilder.buildIndex("src/test/resources/testHapmerDatabase02.txt", new BitPackedSortedArrayFactory())
+        };
+    }
+
+    @Test
+    void createKmerQuery() {
+        KmerQuery query = new KmerQuery(buildDatabases(), 5, true, 4, 16);
+
+        assertThat(query.getKmerSize()).isEqualTo(5);
+        assertThat(query.isCanonical()).isTrue();
+        assertThat(query.getNumThreads()).isEqualTo(4);
+        assertThat(query.getBatchSize()).isEqualTo(16);
+
+        assertThatThrownBy(() -> new KmerQuery(new DataStructure[0], 5, true, 4, 16))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new KmerQuery(new DataStructure[65], 5, true, 4, 16))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new KmerQuery(buildDatabases(), 5, true, 4, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void run() throws Exception {
+        DataStructure[] databases = buildDatabases();
+        DNAUtil dnaUtil = new DNAUtil(5);
+
+        // all k-mers of size 5 in several batches
+        int numKmers = 1 << 10;
+        ByteBuffer input = ByteBuffer.allocate(numKmers * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long kmer = 0; kmer < numKmers; kmer++) {
+            input.putLong(kmer);
+        }
+
+        for (boolean canonical : new boolean[]{true, false}) {
+            KmerQuery query = new KmerQuery(databases, 5, canonical, 3, 10);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            QueryStatistics statistics;
+            try (KmerReader kmerReader = new KmerReader(new ByteArrayInputStream(input.array()), KmerFormat.BINARY, 5);
+                 QueryResultWriter resultWriter = new QueryResultWriter(outputStream, KmerFormat.BINARY, 5)) {
+                statistics = query.run(kmerReader, resultWriter);
+            }
+
+            // the results are written in input order
+            ByteBuffer output = ByteBuffer.wrap(outputStream.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+            long[] expectedHits = new long[2];
+            for (long kmer = 0; kmer < numKmers; kmer++) {
+                long pattern = canonical ? dnaUtil.canonicalForm(kmer) : kmer;
+                long expected = 0;
+                for (int i = 0; i < databases.length; i++) {
+                    if (databases[i].search(pattern)) {
+                        expected |= 1L << i;
+                        expectedHits[i]++;
+                    }
+                }
+                assertThat(output.getLong()).isEqualTo(expected);
+            }
+            assertThat(output.hasRemaining()).isFalse();
+            assertThat(statistics.getNumKmers()).isEqualTo(numKmers);
+            assertThat(statistics.getNumHits()).containsExactly(expectedHits);
+            assertThat(expectedHits[0]).isGreaterThan(0);
+        }
+    }
+
+    @Test
+    void runInvalidInput() {
+        KmerQuery query = new KmerQuery(buildDatabases(), 5, true, 2, 1);
+        byte[] input = "ACGTA\nACGT\n".getBytes();
+
+        assertThatThrownBy(() -> query.run(new KmerReader(new ByteArrayInputStream(input), KmerFormat.TEXT, 5),
+                new QueryResultWriter(new ByteArrayOutputStream(), KmerFormat.TEXT, 5)))
+                .hasMessageContaining("Line 2");
+    }
+
+}
@@ -0,0 +1,84 @@
+package kmer_query;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KmerReaderTest {
+
+    @Test
+    void createKmerReader() {
+        KmerReader kmerReader = new KmerReader(new ByteArrayInputStream(new byte[0]), KmerFormat.BINARY, 5);
+
+        assertThat(kmerReader.getFormat()).isEqualTo(KmerFormat.BINARY);
+        assertThat(kmerReader.getKmerSize()).isEqualTo(5);
+
+        assertThatThrownBy(() -> new KmerReader(new ByteArrayInputStream(new byte[0]), KmerFormat.TEXT, 32))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readText() throws IOException {
+        // additional columns are ignored, soft-masked bases are accepted and blank lines are skipped
+        String input = "ACGTA\t3\nacgtt\n\nTTTTT 1\nAAAAA\n";
+        KmerReader kmerReader = new KmerReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)),
+                KmerFormat.TEXT, 5);
+
+        long[] kmers = new long[3];
+        assertThat(kmerReader.read(kmers)).isEqualTo(3);
+        assertThat(kmers).containsExactly(0b0001101100L, 0b0001101111L, 0b1111111111L);
+        assertThat(kmerReader.read(kmers)).isEqualTo(1);
+        assertThat(kmers[0]).isEqualTo(0L);
+        assertThat(kmerReader.read(kmers)).isEqualTo(0);
+    }
+
+    @Test
+    void readInvalidText() {
+        KmerReader wrongSize = new KmerReader(new ByteArrayInputStream("ACGT\n".getBytes(StandardCharsets.US_ASCII)),
+                KmerFormat.TEXT, 5);
+        assertThatThrownBy(() -> wrongSize.read(new long[1])).isInstanceOf(IOException.class)
+                .hasMessageContaining("Line 1");
+
+        KmerReader invalidBase = new KmerReader(new ByteArrayInputStream(
+                "ACGTA\nACNTA\n".getBytes(StandardCharsets.US_ASCII)), KmerFormat.TEXT, 5);
+        assertThatThrownBy(() -> invalidBase.read(new long[2])).isInstanceOf(IOException.class)
+                .hasMessageContaining("Line 2");
+    }
+
+    @Test
+    void readBinary() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(5 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long kmer = 0; kmer < 5; kmer++) {
+            buffer.putLong(kmer * 100);
+        }
+        KmerReader kmerReader = new KmerReader(new ByteArrayInputStream(buffer.array()), KmerFormat.BINARY, 5);
+
+        long[] kmers = new long[3];
+        assertThat(kmerReader.read(kmers)).isEqualTo(3);
+        assertThat(kmers).containsExactly(0L, 100L, 200L);
+        assertThat(kmerReader.read(kmers)).isEqualTo(2);
+        assertThat(kmers[0]).isEqualTo(300L);
+        assertThat(kmers[1]).isEqualTo(400L);
+        assertThat(kmerReader.read(kmers)).isEqualTo(0);
+    }
+
+    @Test
+    void readInvalidBinary() {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(1 << 10);
+        KmerReader tooLarge = new KmerReader(new ByteArrayInputStream(buffer.array()), KmerFormat.BINARY, 5);
+        assertThatThrownBy(() -> tooLarge.read(new long[1])).isInstanceOf(IOException.class);
+
+        KmerReader truncated = new KmerReader(new ByteArrayInputStream(new byte[12]), KmerFormat.BINARY, 5);
+        assertThatThrownBy(() -> truncated.read(new long[2])).isInstanceOf(IOException.class)
+                .hasMessageContaining("ends within a k-mer");
+    }
+
+}
@@ -0,0 +1,44 @@
+package kmer_query;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryResultWriterTest {
+
+    private static final long[] KMERS = new long[]{0b0001101100L, 0b1111111111L, 0L};
+    private static final long[] MASKS = new long[]{3L, 0L, 1L << 63};
+
+    @Test
+    void writeText() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (QueryResultWriter resultWriter = new QueryResultWriter(outputStream, KmerFormat.TEXT, 5)) {
+            assertThat(resultWriter.getFormat()).isEqualTo(KmerFormat.TEXT);
+            resultWriter.write(KMERS, MASKS, 2);
+            resultWriter.write(new long[]{KMERS[2]}, new long[]{MASKS[2]}, 1);
+        }
+
+        assertThat(outputStream.toString(StandardCharsets.US_ASCII))
+                .isEqualTo("ACGTA\t3\nTTTTT\t0\nAAAAA\t" + (1L << 63) + "\n");
+    }
+
+    @Test
+    void writeBinary() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (QueryResultWriter resultWriter = new QueryResultWriter(outputStream, KmerFormat.BINARY, 5)) {
+            resultWriter.write(KMERS, MASKS, 3);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(outputStream.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(buffer.remaining()).isEqualTo(3 * Long.BYTES);
+        for (long mask : MASKS) {
+            assertThat(buffer.getLong()).isEqualTo(mask);
+        }
+    }
+
+}
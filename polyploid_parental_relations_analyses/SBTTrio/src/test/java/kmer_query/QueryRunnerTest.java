@@ -0,0 +1,52 @@
+package kmer_query;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryRunnerTest {
+
+    private final String[] databaseFiles = new String[]{"src/test/resources/testHapmerDatabase01.txt",
+            "src/test/resources/testHapmerDatabase02.txt"};
+
+    @Test
+    void performQuery(@TempDir Path tempDir) throws Exception {
+        // the first k-mer of each database and a k-mer contained in neither of them
+        String first = Files.readAllLines(Path.of(databaseFiles[0])).get(0).split("\\s+")[0];
+        String second = Files.readAllLines(Path.of(databaseFiles[1])).get(0).split("\\s+")[0];
+        Path input = tempDir.resolve("kmers.txt");
+        Files.write(input, Arrays.asList(first, second));
+        Path output = tempDir.resolve("results.txt");
+
+        for (String sharedIndexDirectory : new String[]{null, tempDir.toString()}) {
+            QueryStatistics statistics = QueryRunner.performQuery(databaseFiles, 1, 5, sharedIndexDirectory,
+                    input.toString(), KmerFormat.TEXT, output.toString(), KmerFormat.TEXT, true, 2, 1);
+
+            List<String> lines = Files.readAllLines(output);
+            assertThat(lines).hasSize(2);
+            assertThat(lines.get(0)).startsWith(first + "\t");
+            assertThat(Long.parseLong(lines.get(0).split("\t")[1]) & 1).isEqualTo(1);
+            assertThat(Long.parseLong(lines.get(1).split("\t")[1]) & 2).isEqualTo(2);
+            assertThat(statistics.getNumKmers()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void main(@TempDir Path tempDir) throws Exception {
+        Path input = tempDir.resolve("kmers.txt");
+        Files.write(input, Arrays.asList("AAAAA", "ACGTA", "TTTTT"));
+        Path output = tempDir.resolve("results.bin");
+
+        QueryRunner.main(new String[]{"-d", String.join(";", databaseFiles), "-h", "1", "-k", "5",
+                "-i", input.toString(), "-o", output.toString(), "--output-format", "binary", "-t", "2"});
+
+        assertThat(Files.size(output)).isEqualTo(3 * Long.BYTES);
+    }
+
+}
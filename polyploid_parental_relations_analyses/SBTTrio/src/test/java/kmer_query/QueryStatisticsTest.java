@@ -0,0 +1,19 @@
+package kmer_query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryStatisticsTest {
+
+    @Test
+    void format() {
+        QueryStatistics statistics = new QueryStatistics(3000, new long[]{10, 0}, 1_500_000_000L);
+
+        assertThat(statistics.getKmersPerSecond()).isEqualTo(2000.0);
+        assertThat(statistics.format()).isEqualTo("Queried 3000 k-mers in 1.500 s (2000 k-mers/s)\n"
+                + "database_0: 10 hits\ndatabase_1: 0 hits");
+        assertThat(new QueryStatistics(0, new long[1], 0).getKmersPerSecond()).isEqualTo(0.0);
+    }
+
+}
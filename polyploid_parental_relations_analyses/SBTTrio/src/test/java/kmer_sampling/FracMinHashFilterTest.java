@@ -0,0 +1,66 @@
+package kmer_sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FracMinHashFilterTest {
+
+    @Test
+    void createFracMinHashFilter() {
+        assertThat(new FracMinHashFilter(0.25).getDensity()).isEqualTo(0.25);
+
+        assertThatThrownBy(() -> new FracMinHashFilter(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FracMinHashFilter(1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FracMinHashFilter(Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void acceptAll() {
+        FracMinHashFilter kmerFilter = new FracMinHashFilter(1);
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(kmerFilter.accept(random.nextLong())).isTrue();
+        }
+    }
+
+    @Test
+    void acceptDensity() {
+        for (double density : new double[]{0.5, 0.1, 0.02}) {
+            FracMinHashFilter kmerFilter = new FracMinHashFilter(density);
+            FracMinHashFilter otherKmerFilter = new FracMinHashFilter(density);
+
+            int numKmers = 200000;
+            int numAccepted = 0;
+            Random random = new Random(2);
+            for (int i = 0; i < numKmers; i++) {
+                long kmer = random.nextLong() & ((1L << 42) - 1);
+                boolean accepted = kmerFilter.accept(kmer);
+                // the decision only depends on the k-mer
+                assertThat(otherKmerFilter.accept(kmer)).isEqualTo(accepted);
+                if (accepted) {
+                    numAccepted++;
+                }
+            }
+            assertThat((double) numAccepted / numKmers).isBetween(density * 0.9, density * 1.1);
+        }
+    }
+
+    @Test
+    void acceptNested() {
+        // k-mers sampled with a lower density are also sampled with a higher density
+        FracMinHashFilter sparse = new FracMinHashFilter(0.05);
+        FracMinHashFilter dense = new FracMinHashFilter(0.2);
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            long kmer = random.nextLong();
+            if (sparse.accept(kmer)) {
+                assertThat(dense.accept(kmer)).isTrue();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package kmer_sampling;
+
+import dna.DNAUtil;
+import hash_functions.MurmurHash64Finalizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OpenSyncmerFilterTest {
+
+    @Test
+    void createOpenSyncmerFilter() {
+        OpenSyncmerFilter kmerFilter = new OpenSyncmerFilter(21, 11);
+        assertThat(kmerFilter.getKmerSize()).isEqualTo(21);
+        assertThat(kmerFilter.getSmerSize()).isEqualTo(11);
+        assertThat(kmerFilter.getOffset()).isEqualTo(5);
+        assertThat(kmerFilter.getDensity()).isEqualTo(1.0 / 11);
+
+        assertThat(new OpenSyncmerFilter(21, 11, 0).getOffset()).isEqualTo(0);
+
+        assertThatThrownBy(() -> new OpenSyncmerFilter(21, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OpenSyncmerFilter(21, 22)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OpenSyncmerFilter(21, 11, 11)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void forDensity() {
+        OpenSyncmerFilter kmerFilter = OpenSyncmerFilter.forDensity(21, 0.1);
+        assertThat(kmerFilter.getSmerSize()).isEqualTo(12);
+        assertThat(kmerFilter.getDensity()).isEqualTo(0.1);
+
+        assertThat(OpenSyncmerFilter.forDensity(21, 1).getSmerSize()).isEqualTo(21);
+        assertThatThrownBy(() -> OpenSyncmerFilter.forDensity(5, 0.1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OpenSyncmerFilter.forDensity(21, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void accept() {
+        // compare with a straightforward implementation on the string representation of the k-mers
+        int kmerSize = 9;
+        int smerSize = 4;
+        OpenSyncmerFilter kmerFilter = new OpenSyncmerFilter(kmerSize, smerSize, 2);
+        DNAUtil kmerUtil = new DNAUtil(kmerSize);
+        DNAUtil smerUtil = new DNAUtil(smerSize);
+        MurmurHash64Finalizer hashFunction = new MurmurHash64Finalizer();
+
+        Random random = new Random(4);
+        for (int i = 0; i < 10000; i++) {
+            long kmer = random.nextLong() & ((1L << (kmerSize << 1)) - 1);
+            String kmerString = kmerUtil.longToString(kmer);
+
+            int minPosition = 0;
+            for (int j = 1; j <= kmerSize - smerSize; j++) {
+                long hash = hashFunction.hash(smerUtil.stringToLong(kmerString.substring(j, j + smerSize)));
+                long minHash = hashFunction.hash(smerUtil.stringToLong(
+                        kmerString.substring(minPosition, minPosition + smerSize)));
+                if (Long.compareUnsigned(hash, minHash) < 0) {
+                    minPosition = j;
+                }
+            }
+
+            assertThat(kmerFilter.accept(kmer)).isEqualTo(minPosition == 2);
+        }
+    }
+
+    @Test
+    void acceptDensity() {
+        int kmerSize = 21;
+        OpenSyncmerFilter kmerFilter = new OpenSyncmerFilter(kmerSize, 12);
+
+        int numKmers = 200000;
+        int numAccepted = 0;
+        Random random = new Random(5);
+        for (int i = 0; i < numKmers; i++) {
+            if (kmerFilter.accept(random.nextLong() & ((1L << (kmerSize << 1)) - 1))) {
+                numAccepted++;
+            }
+        }
+        assertThat((double) numAccepted / numKmers).isBetween(0.09, 0.11);
+    }
+
+}
@@ -0,0 +1,18 @@
+package kmer_sampling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SamplingMethodTest {
+
+    @Test
+    void createFilter() {
+        assertThat(SamplingMethod.FRACMINHASH.createFilter(21, 0.1)).isInstanceOf(FracMinHashFilter.class);
+        assertThat(SamplingMethod.FRACMINHASH.createFilter(21, 0.1).getDensity()).isEqualTo(0.1);
+
+        assertThat(SamplingMethod.SYNCMER.createFilter(21, 0.1)).isInstanceOf(OpenSyncmerFilter.class);
+        assertThat(SamplingMethod.SYNCMER.createFilter(21, 0.1).getDensity()).isEqualTo(0.1);
+    }
+
+}
@@ -0,0 +1,49 @@
+package shared_index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MappedLongArrayTest {
+
+    @Test
+    void setAndGet(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("longs.bin");
+        int size = 100;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[size << 3]));
+            // chunks of 16 longs, so indices cross several chunk boundaries
+            MappedLongArray array = MappedLongArray.map(channel, FileChannel.MapMode.READ_WRITE, size, 16);
+            assertThat(array.size()).isEqualTo(size);
+            for (int i = 0; i < size; i++) {
+                array.set(i, i * 0x0101010101010101L - 7);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedLongArray array = MappedLongArray.map(channel, FileChannel.MapMode.READ_ONLY, size);
+            for (int i = 0; i < size; i++) {
+                assertThat(array.get(i)).isEqualTo(i * 0x0101010101010101L - 7);
+            }
+        }
+    }
+
+    @Test
+    void invalidChunkSize(@TempDir Path tempDir) throws Exception {
+        try (FileChannel channel = FileChannel.open(tempDir.resolve("longs.bin"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            assertThatThrownBy(() -> MappedLongArray.map(channel, FileChannel.MapMode.READ_WRITE, 10, 12))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+}
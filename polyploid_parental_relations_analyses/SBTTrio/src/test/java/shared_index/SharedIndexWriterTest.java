@@ -0,0 +1,54 @@
+package shared_index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SharedIndexWriterTest {
+
+    @Test
+    void writeBuckets(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("index.idx");
+        // k-mers of 3 bases with prefixes of 1 base: AAC, AGT, CCA, TTT
+        try (SharedIndexWriter writer = new SharedIndexWriter(path.toString(), 3, 1, new int[]{2, 1, 0, 1})) {
+            writer.writeBucket(3, new long[]{15});
+            writer.writeBucket(0, new long[]{1, 11});
+            writer.writeBucket(1, new long[]{4});
+            // the file is only published when the writer is closed
+            assertThat(path).doesNotExist();
+        }
+
+        SharedMemoryIndex index = SharedMemoryIndex.attach(path.toString());
+        assertThat(index.getNumKmers()).isEqualTo(4);
+        for (long kmer = 0; kmer < 64; kmer++) {
+            boolean expected = kmer == 1 || kmer == 11 || kmer == 20 || kmer == 63;
+            assertThat(index.search(kmer)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void invalidBuckets(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("index.idx");
+        assertThatThrownBy(() -> new SharedIndexWriter(path.toString(), 3, 1, new int[]{1, 2}))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        SharedIndexWriter writer = new SharedIndexWriter(path.toString(), 3, 1, new int[]{2, 1, 0, 1});
+        assertThatThrownBy(() -> writer.writeBucket(0, new long[]{1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        writer.writeBucket(0, new long[]{1, 11});
+
+        // buckets which have not been written prevent publishing the file
+        assertThatThrownBy(writer::close).isInstanceOf(IOException.class);
+        assertThat(path).doesNotExist();
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+}
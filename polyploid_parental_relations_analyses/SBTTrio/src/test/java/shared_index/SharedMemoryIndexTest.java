@@ -0,0 +1,101 @@
+package shared_index;
+
+import containers.bit_packed_sorted_array.BitPackedSortedArrayFactory;
+import dna.DNAUtil;
+import exceptions.AddStructureToContainerException;
+import index_building.IndexBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import util.DataStructure;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SharedMemoryIndexTest {
+
+    @Test
+    void searchMatchesHeapIndex(@TempDir Path tempDir) throws Exception {
+        String kmerDatabasePath = "src/test/resources/testHapmerDatabase01.txt";
+
+        for (int height = 1; height < 5; height++) {
+            IndexBuilder indexBuilder = new IndexBuilder(height, 5);
+            DataStructure heapIndex = indexBuilder.buildIndex(kmerDatabasePath, new BitPackedSortedArrayFactory());
+            String indexPath = tempDir.resolve("index" + height + ".idx").toString();
+            indexBuilder.publishSharedIndex(kmerDatabasePath, indexPath);
+            SharedMemoryIndex index = SharedMemoryIndex.attach(indexPath);
+
+            assertThat(index.getKmerSize()).isEqualTo(5);
+            assertThat(index.getHeight()).isEqualTo(height);
+            for (long kmer = 0; kmer < 1 << 10; kmer++) {
+                assertThat(index.search(kmer)).isEqualTo(heapIndex.search(kmer));
+            }
+        }
+    }
+
+    @Test
+    void searchLongSuffixes(@TempDir Path tempDir) throws Exception {
+        // suffixes of 58 bits cross word boundaries at most offsets
+        int kmerSize = 31;
+        int height = 2;
+        Random random = new Random(5);
+        long[] kmers = new long[2000];
+        for (int i = 0; i < kmers.length; i++) {
+            kmers[i] = random.nextLong() >>> 2;
+        }
+        Arrays.sort(kmers);
+        DNAUtil dnaUtil = new DNAUtil(kmerSize);
+        Path kmerDatabasePath = tempDir.resolve("kmers.txt");
+        StringBuilder builder = new StringBuilder();
+        for (long kmer : kmers) {
+            builder.append(dnaUtil.longToString(kmer)).append('\n');
+        }
+        Files.writeString(kmerDatabasePath, builder);
+
+        String indexPath = tempDir.resolve("index.idx").toString();
+        new IndexBuilder(height, kmerSize).publishSharedIndex(kmerDatabasePath.toString(), indexPath);
+        SharedMemoryIndex index = SharedMemoryIndex.attach(indexPath);
+
+        assertThat(index.getNumKmers()).isEqualTo(kmers.length);
+        for (long kmer : kmers) {
+            assertThat(index.search(kmer)).isTrue();
+            assertThat(index.search(kmer ^ 1)).isEqualTo(Arrays.binarySearch(kmers, kmer ^ 1) >= 0);
+        }
+    }
+
+    @Test
+    void attachInvalidFile(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("invalid.idx");
+        Files.write(path, new byte[64]);
+        assertThatThrownBy(() -> SharedMemoryIndex.attach(path.toString())).isInstanceOf(IOException.class);
+
+        Files.write(path, new byte[3]);
+        assertThatThrownBy(() -> SharedMemoryIndex.attach(path.toString())).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void attachTruncatedFile(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("index.idx");
+        new IndexBuilder(1, 5).publishSharedIndex("src/test/resources/testHapmerDatabase01.txt", path.toString());
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertThatThrownBy(() -> SharedMemoryIndex.attach(path.toString()))
+                .isInstanceOf(IOException.class).hasMessageContaining("truncated");
+    }
+
+    @Test
+    void add(@TempDir Path tempDir) throws Exception {
+        Path path = tempDir.resolve("index.idx");
+        new IndexBuilder(1, 5).publishSharedIndex("src/test/resources/testHapmerDatabase01.txt", path.toString());
+        SharedMemoryIndex index = SharedMemoryIndex.attach(path.toString());
+
+        assertThatThrownBy(() -> index.add(0, index)).isInstanceOf(AddStructureToContainerException.class);
+    }
+
+}
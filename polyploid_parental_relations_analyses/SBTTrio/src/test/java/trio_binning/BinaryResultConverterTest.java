@@ -0,0 +1,45 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryResultConverterTest {
+
+    @Test
+    void convertToCsv(@TempDir Path tempDir) throws Exception {
+        String binaryPath = tempDir.resolve("testOutput.bin").toString();
+        String csvPath = tempDir.resolve("testOutput.csv").toString();
+        ReadBatch batch = new ReadBatch(3, 2);
+        batch.clear(0);
+        ReadBatchTestUtil.add(batch, "ACGTACGTA");
+        ReadBatchTestUtil.add(batch, "ACGTACGTA");
+        ReadBatchTestUtil.add(batch, "ACG");
+        batch.setNumValidKmers(0, 2);
+        batch.setCount(0, 0, 2);
+        batch.setCount(0, 1, 1);
+        batch.setNumValidKmers(1, 3);
+        batch.setCount(1, 0, 1);
+
+        BinaryResultWriter binaryWriter = new BinaryResultWriter(binaryPath, 2, 5);
+        binaryWriter.write(batch);
+        binaryWriter.close();
+
+        assertThat(BinaryResultConverter.convertToCsv(binaryPath, csvPath)).isEqualTo(3);
+        assertThat(Files.readAllLines(Paths.get(csvPath)))
+                .containsExactly("0,1.0,0.5", "1," + (double) 1/3 + ",0.0", "2,0.0,0.0");
+
+        // the converted file equals the file written directly in CSV format
+        String directPath = tempDir.resolve("testOutput_direct.csv").toString();
+        CsvResultWriter csvWriter = new CsvResultWriter(directPath);
+        csvWriter.write(batch);
+        csvWriter.close();
+        assertThat(Files.readAllLines(Paths.get(csvPath))).isEqualTo(Files.readAllLines(Paths.get(directPath)));
+    }
+
+}
@@ -0,0 +1,71 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BinaryResultReaderTest {
+
+    @Test
+    void next(@TempDir Path tempDir) throws Exception {
+        String outputPath = tempDir.resolve("testOutput.bin").toString();
+        // more records than fit into the buffer of the reader at once
+        int numReads = 100000;
+        BinaryResultWriter writer = new BinaryResultWriter(outputPath, 3, 21);
+        ReadBatch batch = new ReadBatch(1000, 3);
+        for (int first = 0; first < numReads; first += batch.getCapacity()) {
+            batch.clear(first);
+            for (int read = 0; read < batch.getCapacity(); read++) {
+                ReadBatchTestUtil.add(batch, "A");
+                batch.setNumValidKmers(read, first + read);
+                for (int i = 0; i < 3; i++) {
+                    batch.setCount(read, i, (first + read) % (i + 2));
+                }
+            }
+            writer.write(batch);
+        }
+        writer.close();
+
+        try (BinaryResultReader reader = new BinaryResultReader(outputPath)) {
+            assertThat(reader.getNumDatabases()).isEqualTo(3);
+            assertThat(reader.getKmerSize()).isEqualTo(21);
+            for (int read = 0; read < numReads; read++) {
+                assertThat(reader.next()).isTrue();
+                assertThat(reader.getReadID()).isEqualTo(read);
+                assertThat(reader.getNumValidKmers()).isEqualTo(read);
+                assertThat(reader.getCounts()).containsExactly(read % 2, read % 3, read % 4);
+                assertThat(reader.getCount(2)).isEqualTo(read % 4);
+            }
+            assertThat(reader.next()).isFalse();
+        }
+    }
+
+    @Test
+    void invalidFiles(@TempDir Path tempDir) throws Exception {
+        Path outputPath = tempDir.resolve("testOutput.bin");
+        String path = outputPath.toString();
+        Files.write(outputPath, "0,0.5\n1,0.5\n2,0.5\n".getBytes());
+        assertThatThrownBy(() -> new BinaryResultReader(path)).isInstanceOf(IOException.class);
+
+        Files.write(outputPath, new byte[4]);
+        assertThatThrownBy(() -> new BinaryResultReader(path)).isInstanceOf(IOException.class);
+
+        // header and a truncated record
+        BinaryResultWriter writer = new BinaryResultWriter(path, 1, 5);
+        writer.close();
+        byte[] header = Files.readAllBytes(outputPath);
+        Files.write(outputPath, Arrays.copyOf(header, header.length + 5));
+
+        try (BinaryResultReader reader = new BinaryResultReader(path)) {
+            assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+        }
+    }
+
+}
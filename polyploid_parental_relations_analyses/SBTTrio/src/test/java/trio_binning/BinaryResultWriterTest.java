@@ -0,0 +1,59 @@
+package trio_binning;
+
+import kmer_counting.KmerCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryResultWriterTest {
+
+    @Test
+    void recordSize() {
+        assertThat(BinaryResultWriter.recordSize(0)).isEqualTo(12);
+        assertThat(BinaryResultWriter.recordSize(2)).isEqualTo(20);
+    }
+
+    @Test
+    void write(@TempDir Path tempDir) throws Exception {
+        Path outputPath = tempDir.resolve("testOutput.bin");
+        ReadBatch batch = new ReadBatch(4, 2);
+        batch.clear(10);
+        ReadBatchTestUtil.add(batch, "ACGTACGTA");
+        ReadBatchTestUtil.add(batch, "CCGCCAAAAA");
+        ReadBatchTestUtil.add(batch, "ACG");
+        new TrioBinningTask(TrioBinningTaskTest.buildDatabases(), new KmerCounter(5), batch).run();
+
+        BinaryResultWriter writer = new BinaryResultWriter(outputPath.toString(), 2, 5);
+        writer.write(batch);
+        writer.close();
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(outputPath)).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(bytes.remaining()).isEqualTo(BinaryResultWriter.HEADER_SIZE + 3 * BinaryResultWriter.recordSize(2));
+
+        // header
+        assertThat(bytes.get(0)).isEqualTo((byte) 'T');
+        assertThat(bytes.get(1)).isEqualTo((byte) 'B');
+        assertThat(bytes.get(2)).isEqualTo((byte) 'R');
+        assertThat(bytes.get(3)).isEqualTo((byte) 'S');
+        assertThat(bytes.getInt()).isEqualTo(BinaryResultWriter.MAGIC);
+        assertThat(bytes.getInt()).isEqualTo(BinaryResultWriter.VERSION);
+        assertThat(bytes.getInt()).isEqualTo(2);
+        assertThat(bytes.getInt()).isEqualTo(5);
+
+        // records
+        long[][] expected = {{10, 2, 2, 1}, {11, 6, 1, 1}, {12, 0, 0, 0}};
+        for (long[] record : expected) {
+            assertThat(bytes.getLong()).isEqualTo(record[0]);
+            assertThat(bytes.getInt()).isEqualTo((int) record[1]);
+            assertThat(bytes.getInt()).isEqualTo((int) record[2]);
+            assertThat(bytes.getInt()).isEqualTo((int) record[3]);
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package trio_binning;
+
+import kmer_counting.KmerCounter;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BinnedReadWriterTest {
+
+    private final String outputPrefix = "src/test/resources/testOutput";
+
+    /**
+     * Create a classified batch with one read for each bin of two databases:
+     * database 0, database 1, ambiguous and unassigned.
+     */
+    private static ReadBatch createClassifiedBatch() {
+        ReadBatch batch = new ReadBatch(4, 2);
+        ReadBatchTestUtil.add(batch, "r0", "ATATCAAAAA", "ABCDEFGHIJ");
+        ReadBatchTestUtil.add(batch, "r1 comment", "CCGCCGACTA", "0123456789");
+        ReadBatchTestUtil.add(batch, "r2", "ACGTA", "IIIII");
+        ReadBatchTestUtil.add(batch, "r3", "GGGGGGG", "#######");
+        new TrioBinningTask(TrioBinningTaskTest.buildDatabases(), new KmerCounter(5), batch).run();
+        return batch;
+    }
+
+    @Test
+    void writeFastq() throws Exception {
+        BinnedReadWriter writer = new BinnedReadWriter(outputPrefix, 2, new BinningRule(0, 0),
+                ReadFormat.FASTQ, false);
+        writer.write(createClassifiedBatch());
+        writer.close();
+
+        assertThat(readLines(ReadFormat.FASTQ, "bin0", false)).containsExactly("@r0", "ATATCAAAAA", "+", "ABCDEFGHIJ");
+        assertThat(readLines(ReadFormat.FASTQ, "bin1", false))
+                .containsExactly("@r1 comment", "CCGCCGACTA", "+", "0123456789");
+        assertThat(readLines(ReadFormat.FASTQ, "ambiguous", false))
+                .containsExactly("@r2", "ACGTA", "+", "IIIII");
+        assertThat(readLines(ReadFormat.FASTQ, "unassigned", false))
+                .containsExactly("@r3", "GGGGGGG", "+", "#######");
+
+        assertThat(writer.getBinSize(0)).isEqualTo(1);
+        assertThat(writer.getBinSize(1)).isEqualTo(1);
+        assertThat(writer.getNumAmbiguous()).isEqualTo(1);
+        assertThat(writer.getNumUnassigned()).isEqualTo(1);
+        deleteFiles(ReadFormat.FASTQ, false);
+    }
+
+    @Test
+    void writeCompressedFasta() throws Exception {
+        BinnedReadWriter writer = new BinnedReadWriter(outputPrefix, 2, new BinningRule(0, 0),
+                ReadFormat.FASTA, true);
+        ReadBatch batch = createClassifiedBatch();
+        writer.write(batch);
+        writer.write(batch);
+        writer.close();
+
+        assertThat(readLines(ReadFormat.FASTA, "bin0", true)).containsExactly(">r0", "ATATCAAAAA", ">r0", "ATATCAAAAA");
+        assertThat(readLines(ReadFormat.FASTA, "unassigned", true)).containsExactly(">r3", "GGGGGGG", ">r3", "GGGGGGG");
+        deleteFiles(ReadFormat.FASTA, true);
+    }
+
+    @Test
+    void writeFastqWithoutQualities() throws Exception {
+        ReadBatch batch = new ReadBatch(1, 2);
+        ReadBatchTestUtil.add(batch, "ACGTACGTA");
+
+        BinnedReadWriter writer = new BinnedReadWriter(outputPrefix, 2, new BinningRule(0, 0),
+                ReadFormat.FASTQ, false);
+        assertThatThrownBy(() -> writer.write(batch)).isInstanceOf(IllegalArgumentException.class);
+        writer.close();
+        deleteFiles(ReadFormat.FASTQ, false);
+    }
+
+    @Test
+    void writePairs() throws Exception {
+        ReadBatch batch = new ReadBatch(2, 2);
+        ReadBatchTestUtil.addPair(batch, "r0/1", "AAAAA", "ABCDE", "r0/2", "ATATC", "FGHIJ");
+        ReadBatchTestUtil.addPair(batch, "r1/1", "CCGCC", "01234", "r1/2", "GGGGG", "56789");
+        new TrioBinningTask(TrioBinningTaskTest.buildDatabases(), new KmerCounter(5), batch).run();
+
+        BinnedReadWriter writer = new BinnedReadWriter(outputPrefix, 2, new BinningRule(0, 0),
+                ReadFormat.FASTQ, false, true);
+        writer.write(batch);
+        writer.close();
+
+        assertThat(writer.isPaired()).isTrue();
+        assertThat(readLines(ReadFormat.FASTQ, "bin0_R1", false)).containsExactly("@r0/1", "AAAAA", "+", "ABCDE");
+        assertThat(readLines(ReadFormat.FASTQ, "bin0_R2", false)).containsExactly("@r0/2", "ATATC", "+", "FGHIJ");
+        assertThat(readLines(ReadFormat.FASTQ, "bin1_R1", false)).containsExactly("@r1/1", "CCGCC", "+", "01234");
+        assertThat(readLines(ReadFormat.FASTQ, "bin1_R2", false)).containsExactly("@r1/2", "GGGGG", "+", "56789");
+        assertThat(writer.getBinSize(0)).isEqualTo(1);
+        assertThat(writer.getBinSize(1)).isEqualTo(1);
+
+        for (String binName : new String[]{"bin0", "bin1", "ambiguous", "unassigned"}) {
+            Files.delete(Paths.get(BinnedReadWriter.getBinPath(outputPrefix, binName + "_R1", ReadFormat.FASTQ, false)));
+            Files.delete(Paths.get(BinnedReadWriter.getBinPath(outputPrefix, binName + "_R2", ReadFormat.FASTQ, false)));
+        }
+    }
+
+    @Test
+    void writeSingleReadsAsPairs() throws Exception {
+        BinnedReadWriter writer = new BinnedReadWriter(outputPrefix, 2, new BinningRule(0, 0),
+                ReadFormat.FASTQ, false, true);
+        assertThatThrownBy(() -> writer.write(createClassifiedBatch())).isInstanceOf(IllegalArgumentException.class);
+        writer.close();
+
+        for (String binName : new String[]{"bin0", "bin1", "ambiguous", "unassigned"}) {
+            Files.delete(Paths.get(BinnedReadWriter.getBinPath(outputPrefix, binName + "_R1", ReadFormat.FASTQ, false)));
+            Files.delete(Paths.get(BinnedReadWriter.getBinPath(outputPrefix, binName + "_R2", ReadFormat.FASTQ, false)));
+        }
+    }
+
+    private List<String> readLines(ReadFormat readFormat, String binName, boolean compress) throws Exception {
+        String path = BinnedReadWriter.getBinPath(outputPrefix, binName, readFormat, compress);
+        if (!compress) {
+            return Files.readAllLines(Paths.get(path));
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new GZIPInputStream(new FileInputStream(path))))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+    private void deleteFiles(ReadFormat readFormat, boolean compress) throws Exception {
+        for (String binName : new String[]{"bin0", "bin1", "ambiguous", "unassigned"}) {
+            Files.delete(Paths.get(BinnedReadWriter.getBinPath(outputPrefix, binName, readFormat, compress)));
+        }
+    }
+
+}
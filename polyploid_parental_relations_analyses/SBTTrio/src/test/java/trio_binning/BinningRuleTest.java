@@ -0,0 +1,67 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BinningRuleTest {
+
+    @Test
+    void createBinningRule() {
+        BinningRule binningRule = new BinningRule(0.1, 0.05);
+        assertThat(binningRule.getMinRatio()).isEqualTo(0.1);
+        assertThat(binningRule.getMinMargin()).isEqualTo(0.05);
+
+        assertThatThrownBy(() -> new BinningRule(-0.1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BinningRule(0, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void assignDefault() {
+        BinningRule binningRule = new BinningRule(0, 0);
+
+        assertThat(binningRule.assign(10, new int[]{3, 1}, 0, 2)).isEqualTo(0);
+        assertThat(binningRule.assign(10, new int[]{1, 3}, 0, 2)).isEqualTo(1);
+        assertThat(binningRule.assign(10, new int[]{0, 0, 1}, 0, 3)).isEqualTo(2);
+        // ties are ambiguous
+        assertThat(binningRule.assign(10, new int[]{2, 2}, 0, 2)).isEqualTo(BinningRule.AMBIGUOUS);
+        assertThat(binningRule.assign(10, new int[]{1, 2, 2}, 0, 3)).isEqualTo(BinningRule.AMBIGUOUS);
+        // reads without any k-mer contained in a database or without valid k-mers are unassigned
+        assertThat(binningRule.assign(10, new int[]{0, 0}, 0, 2)).isEqualTo(BinningRule.UNASSIGNED);
+        assertThat(binningRule.assign(0, new int[]{0, 0}, 0, 2)).isEqualTo(BinningRule.UNASSIGNED);
+        // a single database
+        assertThat(binningRule.assign(10, new int[]{1}, 0, 1)).isEqualTo(0);
+    }
+
+    @Test
+    void assignThresholds() {
+        BinningRule binningRule = new BinningRule(0.2, 0.1);
+
+        assertThat(binningRule.assign(10, new int[]{3, 1}, 0, 2)).isEqualTo(0);
+        // below the minimum ratio
+        assertThat(binningRule.assign(10, new int[]{1, 0}, 0, 2)).isEqualTo(BinningRule.UNASSIGNED);
+        // below the minimum margin
+        assertThat(binningRule.assign(100, new int[]{25, 20}, 0, 2)).isEqualTo(BinningRule.AMBIGUOUS);
+        assertThat(binningRule.assign(100, new int[]{20, 31}, 0, 2)).isEqualTo(1);
+        // counts at an offset
+        assertThat(binningRule.assign(10, new int[]{0, 0, 0, 5}, 2, 2)).isEqualTo(1);
+    }
+
+    @Test
+    void assignBatch() {
+        ReadBatch batch = new ReadBatch(2, 2);
+        ReadBatchTestUtil.add(batch, "ACGTACGTA");
+        ReadBatchTestUtil.add(batch, "ACGTACGTA");
+        batch.setNumValidKmers(0, 2);
+        batch.setCount(0, 1, 2);
+        batch.setNumValidKmers(1, 2);
+        batch.setCount(1, 0, 1);
+        batch.setCount(1, 1, 1);
+
+        BinningRule binningRule = new BinningRule(0, 0);
+        assertThat(binningRule.assign(batch, 0)).isEqualTo(1);
+        assertThat(binningRule.assign(batch, 1)).isEqualTo(BinningRule.AMBIGUOUS);
+    }
+
+}
@@ -0,0 +1,69 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompositeResultWriterTest {
+
+    @Test
+    void write() throws Exception {
+        List<String> events = new ArrayList<>();
+        CompositeResultWriter writer = new CompositeResultWriter(
+                new RecordingResultWriter("a", events, false), new RecordingResultWriter("b", events, false));
+
+        ReadBatch batch = new ReadBatch(1, 1);
+        writer.write(batch);
+        writer.write(batch);
+        writer.close();
+
+        assertThat(writer.getResultWriters()).hasSize(2);
+        assertThat(events).containsExactly("a:write", "b:write", "a:write", "b:write", "a:close", "b:close");
+    }
+
+    @Test
+    void closeFailing() {
+        List<String> events = new ArrayList<>();
+        CompositeResultWriter writer = new CompositeResultWriter(
+                new RecordingResultWriter("a", events, true), new RecordingResultWriter("b", events, false));
+
+        assertThatThrownBy(writer::close).isInstanceOf(IOException.class).hasMessage("a");
+        // the remaining writers are closed nonetheless
+        assertThat(events).containsExactly("a:close", "b:close");
+    }
+
+    /**
+     * Result writer which records the calls of its methods.
+     */
+    private static class RecordingResultWriter implements ResultWriter {
+
+        private final String name;
+        private final List<String> events;
+        private final boolean failOnClose;
+
+        private RecordingResultWriter(String name, List<String> events, boolean failOnClose) {
+            this.name = name;
+            this.events = events;
+            this.failOnClose = failOnClose;
+        }
+
+        @Override
+        public void write(ReadBatch batch) {
+            events.add(name + ":write");
+        }
+
+        @Override
+        public void close() throws IOException {
+            events.add(name + ":close");
+            if (failOnClose) {
+                throw new IOException(name);
+            }
+        }
+    }
+
+}
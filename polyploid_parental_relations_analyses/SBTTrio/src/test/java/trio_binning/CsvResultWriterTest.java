@@ -0,0 +1,99 @@
+package trio_binning;
+
+import kmer_counting.KmerCounter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CsvResultWriterTest {
+
+    private final String outputPath = "src/test/resources/testOutput.csv";
+
+    @Test
+    void write() throws Exception {
+        ReadBatch batch = new ReadBatch(4, 2);
+        batch.clear(10);
+        ReadBatchTestUtil.add(batch, "ACGTACGTA");
+        ReadBatchTestUtil.add(batch, "CCGCCAAAAA");
+        ReadBatchTestUtil.add(batch, "ACG");
+        new TrioBinningTask(TrioBinningTaskTest.buildDatabases(), new KmerCounter(5), batch).run();
+
+        CsvResultWriter writer = new CsvResultWriter(outputPath);
+        writer.write(batch);
+        writer.close();
+
+        List<String> lines = Files.readAllLines(Paths.get(outputPath));
+        assertThat(lines).containsExactly("10,1.0,0.5", "11," + (double) 1/6 + "," + (double) 1/6, "12,0.0,0.0");
+    }
+
+    @Test
+    void writeMultipleBatches() throws Exception {
+        CsvResultWriter writer = new CsvResultWriter(outputPath);
+        for (int i = 0; i < 3; i++) {
+            ReadBatch batch = new ReadBatch(1, 1);
+            batch.clear(i);
+            ReadBatchTestUtil.add(batch, "ACGTACGTA");
+            batch.setNumValidKmers(0, 2);
+            batch.setCount(0, 0, 1);
+            writer.write(batch);
+        }
+        writer.close();
+
+        assertThat(Files.readAllLines(Paths.get(outputPath))).containsExactly("0,0.5", "1,0.5", "2,0.5");
+    }
+
+    @Test
+    void writeLookups() throws Exception {
+        ReadBatch batch = new ReadBatch(2, 2);
+        batch.clear(0);
+        ReadBatchTestUtil.add(batch, "ACGTACGTA");
+        ReadBatchTestUtil.add(batch, "ACG");
+        new TrioBinningTask(TrioBinningTaskTest.buildDatabases(), new KmerCounter(5), batch).run();
+
+        CsvResultWriter writer = new CsvResultWriter(outputPath, true);
+        assertThat(writer.isWriteLookups()).isTrue();
+        assertThat(writer.isWriteSkippedKmers()).isFalse();
+        writer.write(batch);
+        writer.close();
+
+        assertThat(Files.readAllLines(Paths.get(outputPath))).containsExactly("0,1.0,0.5,4", "1,0.0,0.0,0");
+    }
+
+    @Test
+    void writeSkippedKmers() throws Exception {
+        ReadBatch batch = new ReadBatch(1, 2);
+        batch.clear(0);
+        ReadBatchTestUtil.add(batch, null, "ACGTACGTA", "II#IIIIII");
+        new TrioBinningTask(TrioBinningTaskTest.buildDatabases(), new KmerCounter(5, false, null, 20), batch).run();
+
+        CsvResultWriter writer = new CsvResultWriter(outputPath, true, true);
+        writer.write(batch);
+        writer.close();
+
+        // only the k-mers TACGT and ACGTA remain, whose canonical form is contained in both databases
+        assertThat(Files.readAllLines(Paths.get(outputPath))).containsExactly("0,1.0,1.0,3,2");
+    }
+
+    @Test
+    void writeWindows() throws Exception {
+        byte[] read = "CCGCCAAAAA".getBytes(StandardCharsets.US_ASCII);
+        ReadBatch batch = new ReadBatch(2, 2);
+        batch.addWindow(3, 0, read, null, 0, 7);
+        batch.addWindow(3, 3, read, null, 3, 10);
+        new TrioBinningTask(TrioBinningTaskTest.buildDatabases(), new KmerCounter(5), batch).run();
+
+        CsvResultWriter writer = new CsvResultWriter(outputPath);
+        writer.write(batch);
+        writer.close();
+
+        // CCGCC is contained in the second and AAAAA in the first database
+        assertThat(Files.readAllLines(Paths.get(outputPath))).containsExactly(
+                "3,0,7,0.0," + (double) 1/3, "3,3,10," + (double) 1/3 + ",0.0");
+    }
+
+}
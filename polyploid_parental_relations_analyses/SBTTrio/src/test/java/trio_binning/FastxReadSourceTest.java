@@ -0,0 +1,73 @@
+package trio_binning;
+
+import htsjdk.samtools.fastq.FastqReader;
+import htsjdk.samtools.fastq.FastqRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FastxReadSourceTest {
+
+    @Test
+    void fillFastq() throws Exception {
+        fill("src/test/resources/testReads.fastq.gz", true);
+    }
+
+    @Test
+    void fillFasta() throws Exception {
+        fill("src/test/resources/testReads.fasta", false);
+    }
+
+    @Test
+    void fillRecords() throws Exception {
+        try (FastxReadSource readSource = new FastxReadSource("src/test/resources/testReads.fastq", true);
+             FastqReader expectedReader = new FastqReader(new File("src/test/resources/testReads.fastq"), true)) {
+            assertThat(readSource.isKeepRecords()).isTrue();
+
+            // the records are the same as the ones parsed by htsjdk
+            ReadBatch batch = new ReadBatch(8, 1);
+            assertThat(readSource.fill(batch)).isEqualTo(8);
+            for (int read = 0; read < 8; read++) {
+                FastqRecord expected = expectedReader.next();
+                assertThat(batch.hasQualities(read)).isTrue();
+                assertThat(range(batch.getBases(), batch.getStart(read), batch.getEnd(read)))
+                        .isEqualTo(expected.getReadString());
+                assertThat(range(batch.getQualities(), batch.getStart(read), batch.getEnd(read)))
+                        .isEqualTo(expected.getBaseQualityString());
+                assertThat(range(batch.getNames(), batch.getNameStart(read), batch.getNameEnd(read)))
+                        .isEqualTo(expected.getReadName());
+            }
+            assertThat(expectedReader.hasNext()).isFalse();
+        }
+    }
+
+    private void fill(String path, boolean hasQualities) throws Exception {
+        try (FastxReadSource readSource = new FastxReadSource(path)) {
+            ReadBatch batch = new ReadBatch(5, 1);
+            assertThat(readSource.isKeepRecords()).isFalse();
+            assertThat(readSource.fill(batch)).isEqualTo(5);
+            assertThat(batch.getEnd(0) - batch.getStart(0)).isEqualTo(120);
+            assertThat(batch.hasQualities(0)).isFalse();
+            assertThat(batch.getNameEnd(0)).isEqualTo(batch.getNameStart(0));
+
+            batch.clear(5);
+            assertThat(readSource.fill(batch)).isEqualTo(3);
+            batch.clear(8);
+            assertThat(readSource.fill(batch)).isEqualTo(0);
+        }
+        try (FastxReadSource readSource = new FastxReadSource(path, true)) {
+            ReadBatch batch = new ReadBatch(8, 1);
+            assertThat(readSource.fill(batch)).isEqualTo(8);
+            assertThat(batch.hasQualities(0)).isEqualTo(hasQualities);
+            assertThat(range(batch.getNames(), batch.getNameStart(7), batch.getNameEnd(7))).isEqualTo("read_13");
+        }
+    }
+
+    private static String range(byte[] array, int from, int to) {
+        return new String(array, from, to - from, StandardCharsets.US_ASCII);
+    }
+
+}
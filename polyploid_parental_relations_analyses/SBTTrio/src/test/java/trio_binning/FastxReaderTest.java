@@ -0,0 +1,160 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FastxReaderTest {
+
+    private static final String FIRST_READ = "ATTTTTATTCCTATATAATTGATTTGAGAATCCAAAAGATATTATTAATCAAAGATAAAAATAATC"
+            + "TTTGAATTTTGGATAACAAACAAATCCGGTCATCATATGCGGGGTTGTGCGGCG";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void nextFastq() throws Exception {
+        List<String[]> records = readAll("src/test/resources/testReads.fastq", FastxReader.DEFAULT_BUFFER_SIZE);
+
+        assertThat(records).hasSize(8);
+        assertThat(records.get(0)[0]).isEqualTo("read_00");
+        assertThat(records.get(0)[1]).isEqualTo(FIRST_READ);
+        assertThat(records.get(0)[2]).startsWith("*$&**+0+,$++766204").hasSize(120);
+        assertThat(records.get(5)[0]).isEqualTo("read_11");
+    }
+
+    @Test
+    void nextCompressed() throws Exception {
+        List<String[]> records = readAll("src/test/resources/testReads.fastq.gz", FastxReader.DEFAULT_BUFFER_SIZE);
+        List<String[]> expected = readAll("src/test/resources/testReads.fastq", FastxReader.DEFAULT_BUFFER_SIZE);
+
+        assertThat(records).hasSize(8);
+        for (int i = 0; i < records.size(); i++) {
+            assertThat(records.get(i)).containsExactly(expected.get(i));
+        }
+    }
+
+    @Test
+    void nextFasta() throws Exception {
+        // the test reads with sequences wrapped after 50 bases
+        List<String[]> records = readAll("src/test/resources/testReads.fasta", FastxReader.DEFAULT_BUFFER_SIZE);
+        List<String[]> expected = readAll("src/test/resources/testReads.fastq", FastxReader.DEFAULT_BUFFER_SIZE);
+
+        assertThat(records).hasSize(8);
+        for (int i = 0; i < records.size(); i++) {
+            assertThat(records.get(i)[0]).isEqualTo(expected.get(i)[0]);
+            assertThat(records.get(i)[1]).isEqualTo(expected.get(i)[1]);
+            assertThat(records.get(i)[2]).isNull();
+        }
+    }
+
+    @Test
+    void nextSmallBuffer() throws Exception {
+        // records which do not fit into the buffer let it grow, records spanning two blocks are parsed after a refill
+        for (String path : new String[]{"src/test/resources/testReads.fastq", "src/test/resources/testReads.fasta"}) {
+            List<String[]> records = readAll(path, 16);
+            List<String[]> expected = readAll(path, FastxReader.DEFAULT_BUFFER_SIZE);
+
+            assertThat(records).hasSize(8);
+            for (int i = 0; i < records.size(); i++) {
+                assertThat(records.get(i)).containsExactly(expected.get(i));
+            }
+        }
+    }
+
+    @Test
+    void nextLineEndings() throws Exception {
+        // carriage returns, blank lines and a missing final line feed
+        Path path = write("reads.fa", ">read_0 first\r\nACGT\r\nAC\r\n\r\n>read_1\n\nGGG\n>read_2\nTT");
+
+        List<String[]> records = readAll(path.toString(), FastxReader.DEFAULT_BUFFER_SIZE);
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0)).containsExactly("read_0 first", "ACGTAC", null);
+        assertThat(records.get(1)).containsExactly("read_1", "GGG", null);
+        assertThat(records.get(2)).containsExactly("read_2", "TT", null);
+
+        path = write("reads.fq", "@read_0\r\nACGT\r\n+\r\nIIII");
+        assertThat(readAll(path.toString(), 4)).hasSize(1);
+    }
+
+    @Test
+    void nextEmptySequence() throws Exception {
+        // the empty sequence and quality lines belong to the record and are not skipped as blank lines
+        Path path = write("empty_sequence.fq", "@read_0\n\n+\n\n@read_1\nACGT\n+\nIIII\n@read_2\n\n+\n");
+
+        for (int bufferSize : new int[]{4, 64}) {
+            List<String[]> records = readAll(path.toString(), bufferSize);
+            assertThat(records).hasSize(3);
+            assertThat(records.get(0)).containsExactly("read_0", "", "");
+            assertThat(records.get(1)).containsExactly("read_1", "ACGT", "IIII");
+            assertThat(records.get(2)).containsExactly("read_2", "", "");
+        }
+
+        // blank lines between the lines of a record are still skipped
+        path = write("blank_lines.fq", "@read_0\n\n+\n\n\n@read_1\n\nACGT\n\n+\n\nIIII\n\n");
+        assertThat(readAll(path.toString(), 64)).containsExactly(new String[]{"read_0", "", ""},
+                new String[]{"read_1", "ACGT", "IIII"});
+    }
+
+    @Test
+    void nextMalformed() throws Exception {
+        Path missingSeparator = write("missing_separator.fq", "@read_0\nACGT\nIIII\n@read_1\nACGT\n+\nIIII\n");
+        assertThatThrownBy(() -> readAll(missingSeparator.toString(), 64)).isInstanceOf(IOException.class);
+
+        Path differentLengths = write("different_lengths.fq", "@read_0\nACGT\n+\nIII\n");
+        assertThatThrownBy(() -> readAll(differentLengths.toString(), 64)).isInstanceOf(IOException.class);
+
+        Path incomplete = write("incomplete.fq", "@read_0\nACGT\n+\nIIII\n@read_1\nACGT\n");
+        assertThatThrownBy(() -> readAll(incomplete.toString(), 64)).isInstanceOf(IOException.class);
+
+        Path noHeader = write("no_header.fa", "ACGT\n");
+        assertThatThrownBy(() -> readAll(noHeader.toString(), 64)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void nextEmpty() throws Exception {
+        assertThat(readAll(write("empty.fq", "").toString(), 64)).isEmpty();
+        assertThat(readAll(write("blank.fq", "\n\n").toString(), 64)).isEmpty();
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        Path path = tempDir.resolve(fileName);
+        Files.writeString(path, content);
+        return path;
+    }
+
+    /**
+     * Read all records of a file as arrays of name, sequence and base qualities (null for fasta records).
+     */
+    private static List<String[]> readAll(String path, int bufferSize) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (FastxReader reader = new FastxReader(path, bufferSize)) {
+            while (reader.next()) {
+                byte[] buffer = reader.getBuffer();
+                String name = new String(buffer, reader.getNameStart(),
+                        reader.getNameEnd() - reader.getNameStart(), StandardCharsets.US_ASCII);
+                int length = reader.getSequenceEnd() - reader.getSequenceStart();
+                String sequence = new String(buffer, reader.getSequenceStart(), length, StandardCharsets.US_ASCII);
+                String qualities = null;
+                if (reader.getQualitiesStart() >= 0) {
+                    assertThat(reader.getFormat()).isEqualTo(ReadFormat.FASTQ);
+                    qualities = new String(buffer, reader.getQualitiesStart(), length, StandardCharsets.US_ASCII);
+                } else {
+                    assertThat(reader.getFormat()).isEqualTo(ReadFormat.FASTA);
+                }
+                records.add(new String[]{name, sequence, qualities});
+            }
+        }
+        return records;
+    }
+
+}
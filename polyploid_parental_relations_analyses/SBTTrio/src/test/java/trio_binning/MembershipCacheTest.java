@@ -0,0 +1,67 @@
+package trio_binning;
+
+import dna.DNAUtil;
+import org.junit.jupiter.api.Test;
+import util.DataStructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MembershipCacheTest {
+
+    @Test
+    void createMembershipCache() {
+        DataStructure[] databases = TrioBinningTaskTest.buildDatabases();
+        MembershipCache cache = new MembershipCache(databases, 100);
+
+        assertThat(cache.getDatabases()).isEqualTo(databases);
+        // rounded up to the next power of two
+        assertThat(cache.getNumSlots()).isEqualTo(128);
+        assertThat(new MembershipCache(databases, 1).getNumSlots()).isEqualTo(1);
+        assertThat(cache.getNumHits()).isEqualTo(0);
+        assertThat(cache.getNumMisses()).isEqualTo(0);
+        assertThat(cache.getHitRate()).isEqualTo(0);
+
+        assertThatThrownBy(() -> new MembershipCache(databases, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MembershipCache(new DataStructure[65], 16))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void lookup() {
+        DataStructure[] databases = TrioBinningTaskTest.buildDatabases();
+        MembershipCache cache = new MembershipCache(databases, 16);
+        DNAUtil dnaUtil = new DNAUtil(5);
+
+        // AAAAA is only contained in the first database, CCGCC only in the second one
+        long first = dnaUtil.canonicalForm(dnaUtil.stringToLong("AAAAA"));
+        long second = dnaUtil.canonicalForm(dnaUtil.stringToLong("CCGCC"));
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.lookup(first)).isEqualTo(0b01L);
+            assertThat(cache.lookup(second)).isEqualTo(0b10L);
+        }
+
+        // both k-mers are cached unless they share a slot
+        assertThat(cache.getNumHits() + cache.getNumMisses()).isEqualTo(6);
+        assertThat(cache.getNumMisses()).isBetween(2L, 6L);
+    }
+
+    @Test
+    void lookupSingleSlot() {
+        DataStructure[] databases = TrioBinningTaskTest.buildDatabases();
+        MembershipCache cache = new MembershipCache(databases, 1);
+
+        // every k-mer of 5 bases, each k-mer replaces the previous one
+        for (long kmer = 0; kmer < 1024; kmer++) {
+            long expected = (databases[0].search(kmer) ? 1 : 0) | (databases[1].search(kmer) ? 2 : 0);
+            assertThat(cache.lookup(kmer)).isEqualTo(expected);
+            assertThat(cache.isLastLookupMiss()).isTrue();
+            assertThat(cache.lookup(kmer)).isEqualTo(expected);
+            assertThat(cache.isLastLookupMiss()).isFalse();
+        }
+        assertThat(cache.getNumHits()).isEqualTo(1024);
+        assertThat(cache.getNumMisses()).isEqualTo(1024);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+    }
+
+}
@@ -0,0 +1,65 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PairedFastxReadSourceTest {
+
+    private final String firstMateFilePath = "src/test/resources/testReads.fastq";
+    private final String secondMateFilePath = "src/test/resources/testReads.fastq.gz";
+
+    @Test
+    void fill() throws Exception {
+        try (PairedFastxReadSource readSource = new PairedFastxReadSource(firstMateFilePath, secondMateFilePath, true)) {
+            ReadBatch batch = new ReadBatch(5, 1);
+
+            assertThat(readSource.isKeepRecords()).isTrue();
+            assertThat(readSource.fill(batch)).isEqualTo(5);
+            for (int read = 0; read < 5; read++) {
+                assertThat(batch.isPaired(read)).isTrue();
+                // both files contain the same reads
+                String firstMate = new String(batch.getBases(), batch.getStart(read),
+                        batch.getFirstMateEnd(read) - batch.getStart(read), StandardCharsets.US_ASCII);
+                String secondMate = new String(batch.getBases(), batch.getMateStart(read),
+                        batch.getEnd(read) - batch.getMateStart(read), StandardCharsets.US_ASCII);
+                assertThat(firstMate).isEqualTo(secondMate);
+            }
+
+            batch.clear(5);
+            assertThat(readSource.fill(batch)).isEqualTo(3);
+            batch.clear(8);
+            assertThat(readSource.fill(batch)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void fillDifferentNumberOfRecords() throws Exception {
+        // the first two records of the test reads
+        String truncatedFilePath = "src/test/resources/testReads_truncated.fastq";
+        List<String> lines = Files.readAllLines(Paths.get(firstMateFilePath));
+        Files.write(Paths.get(truncatedFilePath), lines.subList(0, 15));
+
+        try (PairedFastxReadSource readSource = new PairedFastxReadSource(truncatedFilePath, secondMateFilePath, false)) {
+            ReadBatch batch = new ReadBatch(5, 1);
+            assertThat(readSource.fill(batch)).isEqualTo(2);
+            batch.clear(2);
+            assertThatThrownBy(() -> readSource.fill(batch)).isInstanceOf(IOException.class);
+        }
+
+        try (PairedFastxReadSource readSource = new PairedFastxReadSource(firstMateFilePath, truncatedFilePath, false)) {
+            ReadBatch batch = new ReadBatch(5, 1);
+            assertThatThrownBy(() -> readSource.fill(batch)).isInstanceOf(IOException.class);
+        }
+
+        Files.delete(Paths.get(truncatedFilePath));
+    }
+
+}
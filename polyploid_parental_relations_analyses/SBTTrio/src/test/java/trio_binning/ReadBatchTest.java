@@ -0,0 +1,205 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReadBatchTest {
+
+    @Test
+    void createReadBatch() {
+        ReadBatch batch = new ReadBatch(4, 2);
+
+        assertThat(batch.getCapacity()).isEqualTo(4);
+        assertThat(batch.getNumDatabases()).isEqualTo(2);
+        assertThat(batch.getNumReads()).isEqualTo(0);
+        assertThat(batch.isEmpty()).isTrue();
+        assertThat(batch.isFull()).isFalse();
+
+        assertThatThrownBy(() -> new ReadBatch(0, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void add() {
+        ReadBatch batch = new ReadBatch(3, 1);
+        batch.clear(7);
+
+        String longRead = "ACGT".repeat(1000);
+        ReadBatchTestUtil.add(batch, "ACGTA");
+        ReadBatchTestUtil.add(batch, "");
+        ReadBatchTestUtil.add(batch, longRead);
+
+        assertThat(batch.isFull()).isTrue();
+        assertThat(batch.getNumReads()).isEqualTo(3);
+        assertThat(batch.getFirstReadID()).isEqualTo(7);
+        assertThat(batch.getReadID(2)).isEqualTo(9);
+
+        assertThat(read(batch, 0)).isEqualTo("ACGTA");
+        assertThat(read(batch, 1)).isEmpty();
+        assertThat(read(batch, 2)).isEqualTo(longRead);
+    }
+
+    @Test
+    void clear() {
+        ReadBatch batch = new ReadBatch(2, 1);
+        ReadBatchTestUtil.add(batch, "ACGTA");
+        ReadBatchTestUtil.add(batch, "CCCC");
+        batch.clear(2);
+
+        assertThat(batch.isEmpty()).isTrue();
+        ReadBatchTestUtil.add(batch, "TTT");
+        assertThat(batch.getNumReads()).isEqualTo(1);
+        assertThat(batch.getReadID(0)).isEqualTo(2);
+        assertThat(read(batch, 0)).isEqualTo("TTT");
+    }
+
+    @Test
+    void results() {
+        ReadBatch batch = new ReadBatch(2, 3);
+        ReadBatchTestUtil.add(batch, "ACGTA");
+        ReadBatchTestUtil.add(batch, "CCCCC");
+
+        batch.setNumValidKmers(1, 5);
+        for (int i = 0; i < 3; i++) {
+            batch.setCount(0, i, i);
+            batch.setCount(1, i, 10 + i);
+        }
+
+        assertThat(batch.getNumValidKmers(1)).isEqualTo(5);
+        for (int i = 0; i < 3; i++) {
+            assertThat(batch.getCount(0, i)).isEqualTo(i);
+            assertThat(batch.getCount(1, i)).isEqualTo(10 + i);
+        }
+    }
+
+    @Test
+    void addRecords() {
+        ReadBatch batch = new ReadBatch(3, 1);
+        ReadBatchTestUtil.add(batch, "read_00 comment", "ACGTN", "IIII#");
+        ReadBatchTestUtil.add(batch, "ACG");
+        ReadBatchTestUtil.add(batch, "read_02", "A".repeat(500), "F".repeat(500));
+
+        assertThat(name(batch, 0)).isEqualTo("read_00 comment");
+        assertThat(batch.hasQualities(0)).isTrue();
+        assertThat(new String(batch.getQualities(), batch.getStart(0), 5, StandardCharsets.US_ASCII))
+                .isEqualTo("IIII#");
+
+        assertThat(name(batch, 1)).isEmpty();
+        assertThat(batch.hasQualities(1)).isFalse();
+        assertThat(read(batch, 1)).isEqualTo("ACG");
+
+        assertThat(name(batch, 2)).isEqualTo("read_02");
+        assertThat(new String(batch.getQualities(), batch.getStart(2), 500, StandardCharsets.US_ASCII))
+                .isEqualTo("F".repeat(500));
+    }
+
+    @Test
+    void addPair() {
+        ReadBatch batch = new ReadBatch(2, 1);
+        ReadBatchTestUtil.addPair(batch, "read_00/1", "ACGT", "ABCD", "read_00/2", "TTGCA", "EFGHI");
+        ReadBatchTestUtil.add(batch, "read_01", "GGG", "III");
+
+        assertThat(batch.isPaired(0)).isTrue();
+        assertThat(read(batch, 0)).isEqualTo("ACGT|TTGCA");
+        assertThat(new String(batch.getBases(), batch.getStart(0), batch.getFirstMateEnd(0) - batch.getStart(0),
+                StandardCharsets.US_ASCII)).isEqualTo("ACGT");
+        assertThat(new String(batch.getBases(), batch.getMateStart(0), batch.getEnd(0) - batch.getMateStart(0),
+                StandardCharsets.US_ASCII)).isEqualTo("TTGCA");
+        assertThat(new String(batch.getQualities(), batch.getMateStart(0), batch.getEnd(0) - batch.getMateStart(0),
+                StandardCharsets.US_ASCII)).isEqualTo("EFGHI");
+        assertThat(name(batch, 0)).isEqualTo("read_00/1");
+        assertThat(new String(batch.getNames(), batch.getMateNameStart(0),
+                batch.getMateNameEnd(0) - batch.getMateNameStart(0), StandardCharsets.US_ASCII)).isEqualTo("read_00/2");
+
+        assertThat(batch.isPaired(1)).isFalse();
+        assertThat(batch.getFirstMateEnd(1)).isEqualTo(batch.getEnd(1));
+        assertThat(name(batch, 1)).isEqualTo("read_01");
+        assertThat(read(batch, 1)).isEqualTo("GGG");
+
+        batch.clear(2);
+        assertThatThrownBy(() -> ReadBatchTestUtil.addPair(batch, null, "ACGT", "IIII", null, "ACGT", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String name(ReadBatch batch, int read) {
+        return new String(batch.getNames(), batch.getNameStart(read),
+                batch.getNameEnd(read) - batch.getNameStart(read), StandardCharsets.US_ASCII);
+    }
+
+    private static String read(ReadBatch batch, int read) {
+        return new String(batch.getBases(), batch.getStart(read),
+                batch.getEnd(read) - batch.getStart(read), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void addWindow() {
+        ReadBatch batch = new ReadBatch(3, 1);
+        batch.clear(5);
+        ReadBatchTestUtil.add(batch, "ACGTA");
+        byte[] read = "TTACGTACGA".getBytes(StandardCharsets.US_ASCII);
+        batch.addWindow(2, 0, read, null, 0, 6);
+        batch.addWindow(2, 4, read, null, 4, 10);
+
+        assertThat(batch.isWindow(0)).isFalse();
+        assertThat(batch.getWindowStart(0)).isEqualTo(-1);
+        assertThat(batch.getReadID(0)).isEqualTo(5);
+
+        assertThat(batch.isWindow(1)).isTrue();
+        assertThat(batch.getReadID(1)).isEqualTo(2);
+        assertThat(batch.getWindowStart(1)).isEqualTo(0);
+        assertThat(new String(batch.getBases(), batch.getStart(1), 6, StandardCharsets.US_ASCII)).isEqualTo("TTACGT");
+        assertThat(batch.getReadID(2)).isEqualTo(2);
+        assertThat(batch.getWindowStart(2)).isEqualTo(4);
+        assertThat(new String(batch.getBases(), batch.getStart(2), 6, StandardCharsets.US_ASCII)).isEqualTo("GTACGA");
+        assertThat(batch.getNumBases()).isEqualTo(17);
+        assertThat(batch.isPaired(2)).isFalse();
+    }
+
+    @Test
+    void addRanges() {
+        byte[] record = "@read_0\nACGTN\n+\nIIII#\n".getBytes(StandardCharsets.US_ASCII);
+        ReadBatch batch = new ReadBatch(2, 1);
+        batch.add(record, 1, 7, 8, 13, 16);
+        batch.add(record, -1, -1, 8, 12, -1);
+
+        assertThat(batch.getNumReads()).isEqualTo(2);
+        assertThat(new String(batch.getBases(), 0, batch.getEnd(0), StandardCharsets.US_ASCII)).isEqualTo("ACGTN");
+        assertThat(new String(batch.getQualities(), 0, batch.getEnd(0), StandardCharsets.US_ASCII)).isEqualTo("IIII#");
+        assertThat(new String(batch.getNames(), 0, batch.getNameEnd(0), StandardCharsets.US_ASCII)).isEqualTo("read_0");
+        assertThat(batch.hasQualities(0)).isTrue();
+        assertThat(batch.isPaired(0)).isFalse();
+
+        assertThat(batch.getEnd(1) - batch.getStart(1)).isEqualTo(4);
+        assertThat(batch.hasQualities(1)).isFalse();
+        assertThat(batch.getNameEnd(1)).isEqualTo(batch.getNameStart(1));
+    }
+
+    @Test
+    void addMate() {
+        byte[] record = "@read_0/1\nACGT\n+\nABCD\n@read_0/2\nTTGCA\n+\nEFGHI\n".getBytes(StandardCharsets.US_ASCII);
+        ReadBatch batch = new ReadBatch(2, 1);
+        batch.add(record, 1, 9, 10, 14, 17);
+        batch.addMate(record, 23, 31, 32, 37, 40);
+
+        assertThat(batch.isPaired(0)).isTrue();
+        assertThat(read(batch, 0)).isEqualTo("ACGT|TTGCA");
+        assertThat(new String(batch.getQualities(), batch.getStart(0), batch.getEnd(0) - batch.getStart(0),
+                StandardCharsets.US_ASCII)).isEqualTo("ABCD|EFGHI");
+        assertThat(batch.getFirstMateEnd(0)).isEqualTo(4);
+        assertThat(batch.getMateStart(0)).isEqualTo(5);
+        assertThat(name(batch, 0)).isEqualTo("read_0/1");
+        assertThat(new String(batch.getNames(), batch.getMateNameStart(0),
+                batch.getMateNameEnd(0) - batch.getMateNameStart(0), StandardCharsets.US_ASCII)).isEqualTo("read_0/2");
+
+        // a pair cannot get another mate and the mates need to agree on the availability of qualities
+        assertThatThrownBy(() -> batch.addMate(record, -1, -1, 32, 37, 40))
+                .isInstanceOf(IllegalArgumentException.class);
+        batch.add(record, -1, -1, 10, 14, -1);
+        assertThatThrownBy(() -> batch.addMate(record, -1, -1, 32, 37, 40))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
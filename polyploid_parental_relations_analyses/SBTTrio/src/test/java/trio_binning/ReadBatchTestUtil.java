@@ -0,0 +1,33 @@
+package trio_binning;
+
+import java.nio.charset.StandardCharsets;
+
+public class ReadBatchTestUtil {
+
+    public static void add(ReadBatch batch, String read) {
+        add(batch, null, read, null);
+    }
+
+    // adds the read through the byte array path used by the read sources, name and qualities may be null
+    public static void add(ReadBatch batch, String name, String read, String qualities) {
+        byte[] record = toRecord(name, read, qualities);
+        int start = name == null ? 0 : name.length();
+        batch.add(record, name == null ? -1 : 0, start, start, start + read.length(),
+                qualities == null ? -1 : start + read.length());
+    }
+
+    public static void addPair(ReadBatch batch, String name, String read, String qualities,
+                               String mateName, String mate, String mateQualities) {
+        add(batch, name, read, qualities);
+        byte[] record = toRecord(mateName, mate, mateQualities);
+        int start = mateName == null ? 0 : mateName.length();
+        batch.addMate(record, mateName == null ? -1 : 0, start, start, start + mate.length(),
+                mateQualities == null ? -1 : start + mate.length());
+    }
+
+    private static byte[] toRecord(String name, String read, String qualities) {
+        return ((name == null ? "" : name) + read + (qualities == null ? "" : qualities))
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,46 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SequentialTestTest {
+
+    @Test
+    void createSequentialTest() {
+        SequentialTest sequentialTest = new SequentialTest(0.99);
+        assertThat(sequentialTest.getConfidence()).isEqualTo(0.99);
+        assertThat(sequentialTest.getKmerAccuracy()).isEqualTo(SequentialTest.DEFAULT_KMER_ACCURACY);
+        // log(99) / log(9) = 2.09
+        assertThat(sequentialTest.getDecisionMargin()).isEqualTo(3);
+
+        assertThat(new SequentialTest(0.9, 0.9).getDecisionMargin()).isEqualTo(1);
+        // log(999) / log(9) = 3.14
+        assertThat(new SequentialTest(0.999, 0.9).getDecisionMargin()).isEqualTo(4);
+        // log(99) / log(3) = 4.18
+        assertThat(new SequentialTest(0.99, 0.75).getDecisionMargin()).isEqualTo(5);
+
+        assertThatThrownBy(() -> new SequentialTest(0.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SequentialTest(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SequentialTest(0.99, 0.4)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isDecided() {
+        SequentialTest sequentialTest = new SequentialTest(0.99);
+
+        assertThat(sequentialTest.isDecided(new int[]{0, 0}, 2)).isFalse();
+        assertThat(sequentialTest.isDecided(new int[]{2, 0}, 2)).isFalse();
+        assertThat(sequentialTest.isDecided(new int[]{3, 0}, 2)).isTrue();
+        assertThat(sequentialTest.isDecided(new int[]{1, 4}, 2)).isTrue();
+        assertThat(sequentialTest.isDecided(new int[]{5, 3}, 2)).isFalse();
+
+        // the leading database is compared with the second one
+        assertThat(sequentialTest.isDecided(new int[]{6, 1, 4}, 3)).isFalse();
+        assertThat(sequentialTest.isDecided(new int[]{7, 1, 4}, 3)).isTrue();
+        // only the specified number of databases is considered
+        assertThat(sequentialTest.isDecided(new int[]{3, 0, 3}, 2)).isTrue();
+    }
+
+}
@@ -0,0 +1,242 @@
+package trio_binning;
+
+import kmer_counting.KmerCounter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TrioBinningPipelineTest {
+
+    @Test
+    void createTrioBinningPipeline() {
+        TrioBinningPipeline pipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                new KmerCounter(5), 4, 16, 2);
+
+        assertThat(pipeline.getNumThreads()).isEqualTo(4);
+        assertThat(pipeline.getBatchSize()).isEqualTo(16);
+        assertThat(pipeline.getQueueDepth()).isEqualTo(2);
+
+        assertThatThrownBy(() -> new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                new KmerCounter(5), 4, 16, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void run() throws Exception {
+        TrioBinningPipeline pipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                new KmerCounter(5), 4, 3, 2);
+
+        CollectingResultWriter resultWriter = new CollectingResultWriter(0);
+        long numReads = pipeline.run(new RepeatingReadSource(1000, new AtomicLong()), resultWriter);
+
+        assertThat(numReads).isEqualTo(1000);
+        assertThat(resultWriter.lines).hasSize(1000);
+        // results are written in input order although the workers finish their batches in arbitrary order
+        for (int i = 0; i < 1000; i++) {
+            // every read is READ or "CCGCCAAAAA"
+            String expected = i % 2 == 0 ? "2,2,1" : "6,1,1";
+            assertThat(resultWriter.lines.get(i)).isEqualTo(String.format("%04d:%s", i, expected));
+        }
+    }
+
+    @Test
+    void runCached() throws Exception {
+        TrioBinningPipeline pipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                new KmerCounter(5), null, 64, 4, 3, 2);
+        assertThat(pipeline.getCacheSize()).isEqualTo(64);
+
+        CollectingResultWriter resultWriter = new CollectingResultWriter(0);
+        pipeline.run(new RepeatingReadSource(1000, new AtomicLong()), resultWriter);
+
+        for (int i = 0; i < 1000; i++) {
+            String expected = i % 2 == 0 ? "2,2,1" : "6,1,1";
+            assertThat(resultWriter.lines.get(i)).isEqualTo(String.format("%04d:%s", i, expected));
+        }
+        // 8 lookups per pair of reads, only the first lookup of each k-mer per thread misses
+        assertThat(pipeline.getNumCacheHits() + pipeline.getNumCacheMisses()).isEqualTo(4000);
+        assertThat(pipeline.getNumCacheHits()).isGreaterThan(3900);
+
+        assertThatThrownBy(() -> new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                new KmerCounter(5), null, -1, 4, 3, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void runEmpty() throws Exception {
+        TrioBinningPipeline pipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                new KmerCounter(5), 2, 3, 1);
+
+        CollectingResultWriter resultWriter = new CollectingResultWriter(0);
+        assertThat(pipeline.run(new RepeatingReadSource(0, new AtomicLong()), resultWriter)).isEqualTo(0);
+        assertThat(resultWriter.lines).isEmpty();
+    }
+
+    @Test
+    void backpressure() throws Exception {
+        int numThreads = 2;
+        int batchSize = 4;
+        int queueDepth = 1;
+        TrioBinningPipeline pipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                new KmerCounter(5), numThreads, batchSize, queueDepth);
+
+        AtomicLong parsedReads = new AtomicLong();
+        CollectingResultWriter resultWriter = new CollectingResultWriter(2) {
+            @Override
+            public void write(ReadBatch batch) throws IOException {
+                maxAhead = Math.max(maxAhead, parsedReads.get() - lines.size());
+                super.write(batch);
+            }
+        };
+        pipeline.run(new RepeatingReadSource(400, parsedReads), resultWriter);
+
+        assertThat(resultWriter.lines).hasSize(400);
+        // the parse stage cannot be further ahead than the number of batches in the pipeline
+        assertThat(resultWriter.maxAhead).isLessThanOrEqualTo((2L * queueDepth + numThreads + 1) * batchSize);
+    }
+
+    @Test
+    void runFailingWriter() {
+        TrioBinningPipeline pipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                new KmerCounter(5), 2, 3, 1);
+
+        ResultWriter failingWriter = new CollectingResultWriter(0) {
+            @Override
+            public void write(ReadBatch batch) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        assertThatThrownBy(() -> pipeline.run(new RepeatingReadSource(1000, new AtomicLong()), failingWriter))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("disk full");
+    }
+
+    @Test
+    void runSharedExecutor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TrioBinningPipeline pipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                    new KmerCounter(5), 2, 3, 1);
+            TrioBinningPipeline otherPipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                    new KmerCounter(5), 2, 5, 2);
+            CollectingResultWriter resultWriter = new CollectingResultWriter(0);
+            CollectingResultWriter otherResultWriter = new CollectingResultWriter(0);
+
+            // two pipelines classify with the same two threads at the same time
+            Thread otherJob = new Thread(() -> {
+                try {
+                    otherPipeline.run(new RepeatingReadSource(700, new AtomicLong()), otherResultWriter, executor);
+                } catch (IOException exception) {
+                    throw new RuntimeException(exception);
+                }
+            });
+            otherJob.start();
+            long numReads = pipeline.run(new RepeatingReadSource(1000, new AtomicLong()), resultWriter, executor);
+            otherJob.join();
+
+            assertThat(numReads).isEqualTo(1000);
+            assertThat(resultWriter.lines).hasSize(1000);
+            assertThat(otherResultWriter.lines).hasSize(700);
+            for (int i = 0; i < 1000; i++) {
+                String expected = i % 2 == 0 ? "2,2,1" : "6,1,1";
+                assertThat(resultWriter.lines.get(i)).isEqualTo(String.format("%04d:%s", i, expected));
+                if (i < 700) {
+                    assertThat(otherResultWriter.lines.get(i)).isEqualTo(String.format("%04d:%s", i, expected));
+                }
+            }
+
+            // an empty input does not submit any task
+            CollectingResultWriter emptyResultWriter = new CollectingResultWriter(0);
+            assertThat(pipeline.run(new RepeatingReadSource(0, new AtomicLong()), emptyResultWriter, executor))
+                    .isEqualTo(0);
+            assertThat(emptyResultWriter.lines).isEmpty();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void runSharedExecutorFailingWriter() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TrioBinningPipeline pipeline = new TrioBinningPipeline(TrioBinningTaskTest.buildDatabases(),
+                    new KmerCounter(5), 2, 3, 1);
+            ResultWriter failingWriter = new CollectingResultWriter(0) {
+                @Override
+                public void write(ReadBatch batch) throws IOException {
+                    throw new IOException("disk full");
+                }
+            };
+
+            assertThatThrownBy(() -> pipeline.run(new RepeatingReadSource(1000, new AtomicLong()), failingWriter,
+                    executor)).isInstanceOf(IOException.class).hasMessageContaining("disk full");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Read source which alternately returns two reads.
+     */
+    private static class RepeatingReadSource implements ReadSource {
+
+        private final long numReads;
+        private final AtomicLong parsedReads;
+
+        private RepeatingReadSource(long numReads, AtomicLong parsedReads) {
+            this.numReads = numReads;
+            this.parsedReads = parsedReads;
+        }
+
+        @Override
+        public int fill(ReadBatch batch) {
+            int added = 0;
+            while (!batch.isFull() && parsedReads.get() < numReads) {
+                ReadBatchTestUtil.add(batch, parsedReads.get() % 2 == 0 ? "ACGTACGTA" : "CCGCCAAAAA");
+                parsedReads.incrementAndGet();
+                added++;
+            }
+            return added;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    /**
+     * Result writer which collects the results as strings of the form "readID:numValidKmers,count,count".
+     */
+    private static class CollectingResultWriter implements ResultWriter {
+
+        protected final List<String> lines = new ArrayList<>();
+        private final long delay;
+        protected long maxAhead = 0;
+
+        private CollectingResultWriter(long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public void write(ReadBatch batch) throws IOException {
+            for (int read = 0; read < batch.getNumReads(); read++) {
+                lines.add(String.format("%04d:%d,%d,%d", batch.getReadID(read), batch.getNumValidKmers(read),
+                        batch.getCount(read, 0), batch.getCount(read, 1)));
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException exception) {
+                throw new IOException(exception);
+            }
+        }
+
+        @Override
+        public void close() {}
+    }
+
+}
@@ -1,14 +1,23 @@
 package trio_binning;
 
+import htsjdk.samtools.fastq.FastqReader;
+import htsjdk.samtools.fastq.FastqRecord;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
+
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class TrioBinningRunnerTest {
 
@@ -30,14 +39,9 @@ public class TrioBinningRunnerTest {
                 "2,0.0", "3," + (double) 2/99, "4," + (double) 2/81, "5," + (double) 1/105,
                 "6,0.0", "7," + (double) 2/99);
 
-        List<String> lines = new LinkedList<>();
-        for (int i = 0; i < threads; i++) {
-            String outputPath = outputPrefix + "_" + i + ".csv";
-            lines.addAll(Files.readAllLines(Paths.get(outputPath)));
-        }
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
 
-        assertThat(lines.size()).isEqualTo(8);
-        assertThat(lines).containsAll(expected);
+        assertThat(lines).containsExactlyElementsOf(expected);
     }
 
     @Test
@@ -51,14 +55,9 @@ public class TrioBinningRunnerTest {
                 "2,0.0", "3," + (double) 2/99, "4," + (double) 2/81, "5," + (double) 1/105,
                 "6,0.0", "7," + (double) 2/99);
 
-        List<String> lines = new LinkedList<>();
-        for (int i = 0; i < threads; i++) {
-            String outputPath = outputPrefix + "_" + i + ".csv";
-            lines.addAll(Files.readAllLines(Paths.get(outputPath)));
-        }
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
 
-        assertThat(lines.size()).isEqualTo(8);
-        assertThat(lines).containsAll(expected);
+        assertThat(lines).containsExactlyElementsOf(expected);
     }
 
     @Test
@@ -72,14 +71,133 @@ public class TrioBinningRunnerTest {
                 "2,0.0,0.01", "3," + (double) 2/99 + "," + (double) 1/99, "4," + (double) 2/81 + ",0.0", "5," + (double) 1/105 + ",0.0",
                 "6,0.0,0.01", "7," + (double) 2/99 + "," + (double) 1/99);
 
-        List<String> lines = new LinkedList<>();
-        for (int i = 0; i < threads; i++) {
-            String outputPath = outputPrefix + "_" + i + ".csv";
-            lines.addAll(Files.readAllLines(Paths.get(outputPath)));
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
+
+        assertThat(lines).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void performTrioBinningFasta() throws Exception {
+        String readFilePath = "src/test/resources/testReads.fasta";
+
+        TrioBinningRunner.performTrioBinning(new String[]{hapmerDatabasePath, otherHapmerDatabasePath},
+                readFilePath, height, size, threads, outputPrefix);
+
+        List<String> expected = Arrays.asList("0," + (double) 2/81 + ",0.0", "1," + (double) 1/105 + ",0.0",
+                "2,0.0,0.01", "3," + (double) 2/99 + "," + (double) 1/99, "4," + (double) 2/81 + ",0.0", "5," + (double) 1/105 + ",0.0",
+                "6,0.0,0.01", "7," + (double) 2/99 + "," + (double) 1/99);
+
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
+
+        assertThat(lines).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void performTrioBinningSharedIndex(@TempDir Path tempDir) throws Exception {
+        String readFilePath = "src/test/resources/testReads.fastq.gz";
+        TrioBinningSettings settings = new TrioBinningSettings();
+        settings.setSharedIndexDirectory(tempDir.toString());
+
+        List<String> expected = Arrays.asList("0," + (double) 2/81 + ",0.0", "1," + (double) 1/105 + ",0.0",
+                "2,0.0,0.01", "3," + (double) 2/99 + "," + (double) 1/99, "4," + (double) 2/81 + ",0.0", "5," + (double) 1/105 + ",0.0",
+                "6,0.0,0.01", "7," + (double) 2/99 + "," + (double) 1/99);
+
+        // the first run publishes the indices, the second one attaches them
+        for (int run = 0; run < 2; run++) {
+            TrioBinningRunner.performTrioBinning(new String[]{hapmerDatabasePath, otherHapmerDatabasePath},
+                    readFilePath, height, size, threads, outputPrefix, settings);
+
+            assertThat(Files.readAllLines(Paths.get(outputPrefix + ".csv"))).containsExactlyElementsOf(expected);
+            assertThat(tempDir.resolve("testHapmerDatabase01.txt.k5.h1.idx")).exists();
+            assertThat(tempDir.resolve("testHapmerDatabase02.txt.k5.h1.idx")).exists();
         }
+    }
+
+    @Test
+    void performTrioBinningCached() throws Exception {
+        String readFilePath = "src/test/resources/testReads.fastq.gz";
+        TrioBinningSettings settings = new TrioBinningSettings();
+        settings.setCacheSize(256);
+
+        // the results do not depend on the cache
+        List<String> expected = Arrays.asList("0," + (double) 2/81 + ",0.0", "1," + (double) 1/105 + ",0.0",
+                "2,0.0,0.01", "3," + (double) 2/99 + "," + (double) 1/99, "4," + (double) 2/81 + ",0.0", "5," + (double) 1/105 + ",0.0",
+                "6,0.0,0.01", "7," + (double) 2/99 + "," + (double) 1/99);
+
+        TrioBinningRunner.performTrioBinning(new String[]{hapmerDatabasePath, otherHapmerDatabasePath},
+                readFilePath, height, size, threads, outputPrefix, settings);
 
-        assertThat(lines.size()).isEqualTo(8);
-        assertThat(lines).containsAll(expected);
+        assertThat(Files.readAllLines(Paths.get(outputPrefix + ".csv"))).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void mainCompact() throws Exception {
+        String[] args = new String[]{"-d", hapmerDatabasePath, otherHapmerDatabasePath,
+                "-r", "src/test/resources/testReads.fastq.gz", "-h", "5", "-k", "5", "-t", "4", "-o", outputPrefix,
+                "--compact", "--merge-threshold", "8"};
+
+        TrioBinningRunner.main(args);
+
+        List<String> expected = Arrays.asList("0," + (double) 2/81 + ",0.0", "1," + (double) 1/105 + ",0.0",
+                "2,0.0,0.01", "3," + (double) 2/99 + "," + (double) 1/99, "4," + (double) 2/81 + ",0.0", "5," + (double) 1/105 + ",0.0",
+                "6,0.0,0.01", "7," + (double) 2/99 + "," + (double) 1/99);
+        assertThat(Files.readAllLines(Paths.get(outputPrefix + ".csv"))).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void performTrioBinningWideKmers() throws Exception {
+        // k-mers of 40 bases are represented by two longs
+        int kmerSize = 40;
+        List<String> reads = new LinkedList<>();
+        try (FastxReader reader = new FastxReader("src/test/resources/testReads.fastq")) {
+            while (reader.next()) {
+                reads.add(new String(reader.getBuffer(), reader.getSequenceStart(),
+                        reader.getSequenceEnd() - reader.getSequenceStart(), StandardCharsets.US_ASCII));
+            }
+        }
+        String wideDatabasePath = "src/test/resources/testWideDatabase.txt";
+        // the database holds the k-mers of the first read and the first 60 bases of the second read
+        Set<String> database = WideTrioBinningTaskTest.writeDatabase(Paths.get(wideDatabasePath), kmerSize,
+                reads.get(0), reads.get(1).substring(0, 60));
+
+        try {
+            TrioBinningRunner.performTrioBinning(new String[]{wideDatabasePath},
+                    "src/test/resources/testReads.fastq", 3, kmerSize, threads, outputPrefix);
+        } finally {
+            Files.delete(Paths.get(wideDatabasePath));
+        }
+
+        List<String> expected = new LinkedList<>();
+        for (int i = 0; i < reads.size(); i++) {
+            Set<String> kmers = WideTrioBinningTaskTest.canonicalKmers(reads.get(i), kmerSize);
+            int numShared = (int) kmers.stream().filter(database::contains).count();
+            expected.add(i + "," + (double) numShared / kmers.size());
+        }
+        assertThat(expected.get(0)).isEqualTo("0,1.0");
+
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
+
+        assertThat(lines).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void performTrioBinningSmallBatches() throws Exception {
+        String readFilePath = "src/test/resources/testReads.fastq.gz";
+
+        // 8 reads in batches of 3 reads
+        TrioBinningSettings settings = new TrioBinningSettings();
+        settings.setBatchSize(3);
+        settings.setQueueDepth(1);
+        TrioBinningRunner.performTrioBinning(new String[]{hapmerDatabasePath},
+                readFilePath, height, size, threads, outputPrefix, settings);
+
+        List<String> expected = Arrays.asList("0," + (double) 2/81, "1," + (double) 1/105,
+                "2,0.0", "3," + (double) 2/99, "4," + (double) 2/81, "5," + (double) 1/105,
+                "6,0.0", "7," + (double) 2/99);
+
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
+
+        assertThat(lines).containsExactlyElementsOf(expected);
     }
 
     @Test
@@ -94,14 +212,9 @@ public class TrioBinningRunnerTest {
                 "2,0.0", "3," + (double) 2/99, "4," + (double) 2/81, "5," + (double) 1/105,
                 "6,0.0", "7," + (double) 2/99);
 
-        List<String> lines = new LinkedList<>();
-        for (int i = 0; i < threads; i++) {
-            String outputPath = outputPrefix + "_" + i + ".csv";
-            lines.addAll(Files.readAllLines(Paths.get(outputPath)));
-        }
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
 
-        assertThat(lines.size()).isEqualTo(8);
-        assertThat(lines).containsAll(expected);
+        assertThat(lines).containsExactlyElementsOf(expected);
     }
 
     @Test
@@ -115,14 +228,193 @@ public class TrioBinningRunnerTest {
                 "2,0.0,0.01", "3," + (double) 2/99 + "," + (double) 1/99, "4," + (double) 2/81 + ",0.0", "5," + (double) 1/105 + ",0.0",
                 "6,0.0,0.01", "7," + (double) 2/99 + "," + (double) 1/99);
 
-        List<String> lines = new LinkedList<>();
-        for (int i = 0; i < threads; i++) {
-            String outputPath = outputPrefix + "_" + i + ".csv";
-            lines.addAll(Files.readAllLines(Paths.get(outputPath)));
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
+
+        assertThat(lines).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void mainBinary(@TempDir Path tempDir) throws Exception {
+        String prefix = tempDir.resolve("testOutput").toString();
+        String[] args = new String[]{"-d", hapmerDatabasePath + ";" + otherHapmerDatabasePath,
+                "-r", "src/test/resources/testReads.fastq.gz", "-h", "1", "-k", "5", "-t", "4",
+                "-f", "binary", "-o", prefix};
+
+        TrioBinningRunner.main(args);
+
+        int[][] expected = {{81, 2, 0}, {105, 1, 0}, {100, 0, 1}, {99, 2, 1}};
+        try (BinaryResultReader reader = new BinaryResultReader(prefix + ".bin")) {
+            assertThat(reader.getNumDatabases()).isEqualTo(2);
+            assertThat(reader.getKmerSize()).isEqualTo(5);
+            for (int i = 0; i < 8; i++) {
+                assertThat(reader.next()).isTrue();
+                assertThat(reader.getReadID()).isEqualTo(i);
+                assertThat(reader.getNumValidKmers()).isEqualTo(expected[i % 4][0]);
+                assertThat(reader.getCounts()).containsExactly(expected[i % 4][1], expected[i % 4][2]);
+            }
+            assertThat(reader.next()).isFalse();
+        }
+    }
+
+    @Test
+    void mainEarlyStop() throws Exception {
+        String[] args = new String[]{"-d", hapmerDatabasePath + ";" + otherHapmerDatabasePath,
+                "-r", "src/test/resources/testReads.fastq.gz", "-h", "1", "-k", "5", "-t", "4",
+                "--early-stop", "--confidence", "0.99", "-o", outputPrefix};
+
+        TrioBinningRunner.main(args);
+
+        // no read has enough informative k-mers for a decision, so all k-mers are evaluated
+        List<String> expected = new LinkedList<>();
+        for (int i = 0; i < 2; i++) {
+            expected.add((4 * i) + "," + (double) 2/81 + ",0.0," + 2 * 81);
+            expected.add((4 * i + 1) + "," + (double) 1/105 + ",0.0," + 2 * 105);
+            expected.add((4 * i + 2) + ",0.0,0.01," + 2 * 100);
+            expected.add((4 * i + 3) + "," + (double) 2/99 + "," + (double) 1/99 + "," + 2 * 99);
+        }
+
+        assertThat(Files.readAllLines(Paths.get(outputPrefix + ".csv"))).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void mainWindows() throws Exception {
+        String[] args = new String[]{"-d", hapmerDatabasePath + ";" + otherHapmerDatabasePath,
+                "-r", "src/test/resources/testReads.fastq.gz", "-h", "1", "-k", "5", "-t", "4",
+                "-w", "50", "-o", outputPrefix};
+
+        TrioBinningRunner.main(args);
+
+        // each read of 120 bases is split into the windows [0, 54), [50, 104) and [100, 120)
+        List<String> lines = Files.readAllLines(Paths.get(outputPrefix + ".csv"));
+        assertThat(lines).hasSize(24);
+        int[][] windows = {{0, 54}, {50, 104}, {100, 120}};
+        for (int i = 0; i < lines.size(); i++) {
+            String[] fields = lines.get(i).split(",");
+            assertThat(fields).hasSize(5);
+            assertThat(fields[0]).isEqualTo(String.valueOf(i / 3));
+            assertThat(fields[1]).isEqualTo(String.valueOf(windows[i % 3][0]));
+            assertThat(fields[2]).isEqualTo(String.valueOf(windows[i % 3][1]));
+        }
+    }
+
+    @Test
+    void performTrioBinningSingleWindow() throws Exception {
+        String readFilePath = "src/test/resources/testReads.fastq.gz";
+
+        // windows longer than the reads yield the ratios of the whole reads
+        TrioBinningSettings settings = new TrioBinningSettings();
+        settings.setWindowSize(1000);
+        TrioBinningRunner.performTrioBinning(new String[]{hapmerDatabasePath, otherHapmerDatabasePath},
+                readFilePath, height, size, threads, outputPrefix, settings);
+
+        List<String> expected = new LinkedList<>();
+        for (int i = 0; i < 2; i++) {
+            expected.add((4 * i) + ",0,120," + (double) 2/81 + ",0.0");
+            expected.add((4 * i + 1) + ",0,120," + (double) 1/105 + ",0.0");
+            expected.add((4 * i + 2) + ",0,120,0.0,0.01");
+            expected.add((4 * i + 3) + ",0,120," + (double) 2/99 + "," + (double) 1/99);
+        }
+
+        assertThat(Files.readAllLines(Paths.get(outputPrefix + ".csv"))).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void mainMinQuality() throws Exception {
+        String[] args = new String[]{"-d", hapmerDatabasePath + ";" + otherHapmerDatabasePath,
+                "-r", "src/test/resources/testReads.fastq.gz", "-h", "1", "-k", "5", "-t", "4",
+                "--min-quality", "60", "-o", outputPrefix};
+
+        TrioBinningRunner.main(args);
+
+        // no base reaches a quality of 60, so all 116 k-mers of each read are skipped
+        List<String> expected = new LinkedList<>();
+        for (int i = 0; i < 8; i++) {
+            expected.add(i + ",0.0,0.0,116");
+        }
+
+        assertThat(Files.readAllLines(Paths.get(outputPrefix + ".csv"))).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void mainBinned() throws Exception {
+        String[] args = new String[]{"-d", hapmerDatabasePath + ";" + otherHapmerDatabasePath,
+                "-r", "src/test/resources/testReads.fastq.gz", "-h", "1", "-k", "5", "-t", "4",
+                "--bin", "--gzip", "-o", outputPrefix};
+
+        TrioBinningRunner.main(args);
+
+        // the ratio table is written besides the binned reads
+        assertThat(Files.readAllLines(Paths.get(outputPrefix + ".csv"))).hasSize(8);
+
+        List<String> expectedBin0 = Arrays.asList("read_00", "read_01", "read_03", "read_10", "read_11", "read_13");
+        List<String> expectedBin1 = Arrays.asList("read_02", "read_12");
+        assertThat(readNames("bin0")).containsExactlyElementsOf(expectedBin0);
+        assertThat(readNames("bin1")).containsExactlyElementsOf(expectedBin1);
+        assertThat(readNames("ambiguous")).isEmpty();
+        assertThat(readNames("unassigned")).isEmpty();
+
+        // the records are written unchanged
+        try (FastqReader original = new FastqReader(new File("src/test/resources/testReads.fastq"), true);
+             FastqReader binned = new FastqReader(new File(
+                     BinnedReadWriter.getBinPath(outputPrefix, "bin1", ReadFormat.FASTQ, true)))) {
+            List<FastqRecord> originalRecords = new LinkedList<>();
+            original.forEach(originalRecords::add);
+            assertThat(binned.next()).isEqualTo(originalRecords.get(2));
+            assertThat(binned.next()).isEqualTo(originalRecords.get(6));
+        }
+
+        for (String binName : new String[]{"bin0", "bin1", "ambiguous", "unassigned"}) {
+            Files.delete(Paths.get(BinnedReadWriter.getBinPath(outputPrefix, binName, ReadFormat.FASTQ, true)));
         }
+    }
 
-        assertThat(lines.size()).isEqualTo(8);
-        assertThat(lines).containsAll(expected);
+    @Test
+    void mainPaired() throws Exception {
+        // both files contain the same reads, so each pair has the same distinct k-mers as each of its mates
+        String[] args = new String[]{"-d", hapmerDatabasePath + ";" + otherHapmerDatabasePath,
+                "-r", "src/test/resources/testReads.fastq", "-r2", "src/test/resources/testReads.fastq.gz",
+                "-h", "1", "-k", "5", "-t", "4", "--bin", "-o", outputPrefix};
+
+        TrioBinningRunner.main(args);
+
+        List<String> expected = Arrays.asList("0," + (double) 2/81 + ",0.0", "1," + (double) 1/105 + ",0.0",
+                "2,0.0,0.01", "3," + (double) 2/99 + "," + (double) 1/99, "4," + (double) 2/81 + ",0.0", "5," + (double) 1/105 + ",0.0",
+                "6,0.0,0.01", "7," + (double) 2/99 + "," + (double) 1/99);
+        assertThat(Files.readAllLines(Paths.get(outputPrefix + ".csv"))).containsExactlyElementsOf(expected);
+
+        for (String binName : new String[]{"bin0", "bin1", "ambiguous", "unassigned"}) {
+            String firstMatePath = BinnedReadWriter.getBinPath(outputPrefix, binName + "_R1", ReadFormat.FASTQ, false);
+            String secondMatePath = BinnedReadWriter.getBinPath(outputPrefix, binName + "_R2", ReadFormat.FASTQ, false);
+            assertThat(Files.readAllLines(Paths.get(firstMatePath)))
+                    .isEqualTo(Files.readAllLines(Paths.get(secondMatePath)));
+            if (binName.equals("bin1")) {
+                assertThat(Files.readAllLines(Paths.get(firstMatePath))).hasSize(8).contains("@read_02", "@read_12");
+            }
+            Files.delete(Paths.get(firstMatePath));
+            Files.delete(Paths.get(secondMatePath));
+        }
+    }
+
+    @Test
+    void performTrioBinningFastaIntoFastqBins() {
+        TrioBinningSettings settings = new TrioBinningSettings();
+        settings.setBinningRule(new BinningRule(0, 0));
+
+        // fasta reads have no base qualities, so the mistake is reported before any index is built
+        assertThatThrownBy(() -> TrioBinningRunner.performTrioBinning(
+                new String[]{hapmerDatabasePath, otherHapmerDatabasePath}, "src/test/resources/testReads.fasta",
+                height, size, threads, outputPrefix, settings))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new File(BinnedReadWriter.getBinPath(outputPrefix, "bin0", ReadFormat.FASTQ, false))).doesNotExist();
+    }
+
+    private List<String> readNames(String binName) throws Exception {
+        List<String> names = new LinkedList<>();
+        try (FastqReader reader = new FastqReader(new File(
+                BinnedReadWriter.getBinPath(outputPrefix, binName, ReadFormat.FASTQ, true)))) {
+            reader.forEach(record -> names.add(record.getReadName()));
+        }
+        return names;
     }
 
 }
@@ -0,0 +1,33 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrioBinningSettingsTest {
+
+    @Test
+    void defaults() {
+        TrioBinningSettings settings = new TrioBinningSettings();
+
+        assertThat(settings.getBatchSize()).isEqualTo(TrioBinningSettings.DEFAULT_BATCH_SIZE);
+        assertThat(settings.getQueueDepth(4)).isEqualTo(4);
+        assertThat(settings.getOutputFormat()).isEqualTo(OutputFormat.CSV);
+        assertThat(settings.getBinningRule()).isNull();
+        assertThat(settings.getBinFormat()).isEqualTo(ReadFormat.FASTQ);
+        assertThat(settings.isCompressBins()).isFalse();
+        assertThat(settings.getSharedIndexDirectory()).isNull();
+        assertThat(settings.getCacheSize()).isEqualTo(0);
+        assertThat(settings.getCompactMergeThreshold()).isEqualTo(0);
+    }
+
+    @Test
+    void queueDepth() {
+        TrioBinningSettings settings = new TrioBinningSettings();
+        settings.setQueueDepth(2);
+
+        assertThat(settings.getQueueDepth()).isEqualTo(2);
+        assertThat(settings.getQueueDepth(4)).isEqualTo(2);
+    }
+
+}
@@ -6,13 +6,6 @@ import kmer_counting.KmerCounter;
 import org.junit.jupiter.api.Test;
 import util.DataStructure;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.List;
-
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class TrioBinningTaskTest {
@@ -20,81 +13,258 @@ public class TrioBinningTaskTest {
     private static final String READ = "ACGTACGTA";
 
     @Test
-    void createTrioBinningTask() throws IOException {
+    void createTrioBinningTask() {
         IndexBuilder indexBuilder = new IndexBuilder(1, 5);
         DataStructure hapmerDatabase = indexBuilder.buildIndex("src/test/resources/testHapmerDatabase01.txt", new BitPackedSortedArrayFactory());
 
         KmerCounter kmerCounter = new KmerCounter(5);
-        BufferedWriter writer = new BufferedWriter(new FileWriter("src/test/resources/testOutput_0.csv"));
 
-        TrioBinningTask task = new TrioBinningTask(new DataStructure[]{hapmerDatabase}, kmerCounter, writer, 0, READ);
+        ReadBatch batch = createBatch(1, READ);
+        TrioBinningTask task = new TrioBinningTask(new DataStructure[]{hapmerDatabase}, kmerCounter, batch);
 
         assertThat(task.getDatabases()).isEqualTo(new DataStructure[]{hapmerDatabase});
         assertThat(task.getKmerCounter()).isEqualTo(kmerCounter);
-        assertThat(task.getReadID()).isEqualTo(0);
-        assertThat(task.getRead()).isEqualTo(READ);
-
-        writer.close();
+        assertThat(task.getBatch()).isEqualTo(batch);
     }
 
     @Test
-    void runDatabase01() throws IOException {
+    void runDatabase01() {
         IndexBuilder indexBuilder = new IndexBuilder(1, 5);
         DataStructure hapmerDatabaseA = indexBuilder.buildIndex("src/test/resources/testHapmerDatabase01.txt", new BitPackedSortedArrayFactory());
-        String outputPath = "src/test/resources/testOutput_0.csv";
 
         KmerCounter kmerCounter = new KmerCounter(5);
-        BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath));
+        ReadBatch batch = createBatch(1, READ);
 
-        TrioBinningTask task = new TrioBinningTask(new DataStructure[]{hapmerDatabaseA}, kmerCounter, writer, 0, READ);
+        TrioBinningTask task = new TrioBinningTask(new DataStructure[]{hapmerDatabaseA}, kmerCounter, batch);
         task.run();
-        // expected output is: 0,1 because all canonical k-mers of the read appear in the database
 
-        writer.close();
-
-        List<String> lines = Files.readAllLines(Paths.get(outputPath));
-        assertThat(lines).hasSize(1);
-        assertThat(lines).containsOnly("0,1.0");
+        // all 2 canonical k-mers of the read appear in the database
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 0)).isEqualTo(2);
     }
 
     @Test
-    void runDatabase02() throws IOException {
+    void runDatabase02() {
         IndexBuilder indexBuilder = new IndexBuilder(1, 5);
         DataStructure hapmerDatabaseA = indexBuilder.buildIndex("src/test/resources/testHapmerDatabase02.txt", new BitPackedSortedArrayFactory());
-        String outputPath = "src/test/resources/testOutput_0.csv";
 
         KmerCounter kmerCounter = new KmerCounter(5);
-        BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath));
+        ReadBatch batch = createBatch(1, READ);
 
-        TrioBinningTask task = new TrioBinningTask(new DataStructure[]{hapmerDatabaseA}, kmerCounter, writer, 0, READ);
+        TrioBinningTask task = new TrioBinningTask(new DataStructure[]{hapmerDatabaseA}, kmerCounter, batch);
         task.run();
-        // expected output is: 0,0.5 because 1 of 2 canonical k-mers of the read appears in the database
 
-        writer.close();
+        // 1 of 2 canonical k-mers of the read appears in the database
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 0)).isEqualTo(1);
+    }
+
+    @Test
+    void runDatabases() {
+        DataStructure[] databases = buildDatabases();
+        KmerCounter kmerCounter = new KmerCounter(5);
+        ReadBatch batch = createBatch(2, READ);
 
-        List<String> lines = Files.readAllLines(Paths.get(outputPath));
-        assertThat(lines).hasSize(1);
-        assertThat(lines).containsOnly("0,0.5");
+        TrioBinningTask task = new TrioBinningTask(databases, kmerCounter, batch);
+        task.run();
+
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 1)).isEqualTo(1);
     }
 
     @Test
-    void runDatabases() throws IOException {
-        IndexBuilder indexBuilder = new IndexBuilder(1, 5);
-        DataStructure hapmerDatabaseA = indexBuilder.buildIndex("src/test/resources/testHapmerDatabase01.txt", new BitPackedSortedArrayFactory());
-        DataStructure hapmerDatabaseB = indexBuilder.buildIndex("src/test/resources/testHapmerDatabase02.txt", new BitPackedSortedArrayFactory());
-        DataStructure[] databases = new DataStructure[]{hapmerDatabaseA, hapmerDatabaseB};
+    void runAmbiguousReads() {
+        DataStructure[] databases = buildDatabases();
+        KmerCounter kmerCounter = new KmerCounter(5);
+
+        // the valid k-mers of the first read are the same as the ones of READ
+        // the second read does not contain any valid k-mer
+        ReadBatch batch = createBatch(2, "NACGTACNN", "acgtaNNNN");
+        new TrioBinningTask(databases, kmerCounter, batch).run();
+
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 1)).isEqualTo(1);
+        assertThat(batch.getNumValidKmers(1)).isEqualTo(0);
+        assertThat(batch.getCount(1, 0)).isEqualTo(0);
+        assertThat(batch.getCount(1, 1)).isEqualTo(0);
+    }
+
+    @Test
+    void runBatch() {
+        DataStructure[] databases = buildDatabases();
+        KmerCounter kmerCounter = new KmerCounter(5);
 
-        String outputPath = "src/test/resources/testOutput_0.csv";
+        ReadBatch batch = new ReadBatch(4, 2);
+        batch.clear(10);
+        ReadBatchTestUtil.add(batch, READ);
+        ReadBatchTestUtil.add(batch, "CCGCCAAAAA");
+        ReadBatchTestUtil.add(batch, "ACG");
+        new TrioBinningTask(databases, kmerCounter, batch).run();
+
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 1)).isEqualTo(1);
+        // corresponds to ["CCGCC", "CGCCA", "GCCAA", "CCAAA", "CAAAA", "AAAAA"]
+        assertThat(batch.getNumValidKmers(1)).isEqualTo(6);
+        assertThat(batch.getCount(1, 0)).isEqualTo(1);
+        assertThat(batch.getCount(1, 1)).isEqualTo(1);
+        assertThat(batch.getNumValidKmers(2)).isEqualTo(0);
+    }
+
+    @Test
+    void runPairs() {
+        DataStructure[] databases = buildDatabases();
         KmerCounter kmerCounter = new KmerCounter(5);
-        BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath));
 
-        TrioBinningTask task = new TrioBinningTask(databases, kmerCounter, writer, 0, READ);
+        ReadBatch batch = new ReadBatch(2, 2);
+        // no k-mer spans both mates
+        ReadBatchTestUtil.addPair(batch, null, "AAAAA", null, null, "CCGCC", null);
+        // the mates share their only canonical k-mer, which is counted once
+        ReadBatchTestUtil.addPair(batch, null, "ACGTA", null, null, "TACGT", null);
+        new TrioBinningTask(databases, kmerCounter, batch).run();
+
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 0)).isEqualTo(1);
+        assertThat(batch.getCount(0, 1)).isEqualTo(1);
+        assertThat(batch.getNumValidKmers(1)).isEqualTo(1);
+        assertThat(batch.getCount(1, 0)).isEqualTo(1);
+        assertThat(batch.getCount(1, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void runSequentiallyUndecided() {
+        DataStructure[] databases = buildDatabases();
+        SequentialTest sequentialTest = new SequentialTest(0.99);
+        ReadBatch batch = createBatch(2, READ, "ACG");
+
+        TrioBinningTask task = new TrioBinningTask(databases, new KmerCounter(5), batch, sequentialTest);
+        assertThat(task.getSequentialTest()).isEqualTo(sequentialTest);
+        task.run();
+
+        // a single informative k-mer is not enough for a decision, so all k-mers are evaluated
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 0)).isEqualTo(2);
+        assertThat(batch.getCount(0, 1)).isEqualTo(1);
+        assertThat(batch.getNumLookups(0)).isEqualTo(4);
+        assertThat(batch.getNumValidKmers(1)).isEqualTo(0);
+        assertThat(batch.getNumLookups(1)).isEqualTo(0);
+    }
+
+    @Test
+    void runSequentiallyDecided() {
+        DataStructure[] databases = buildDatabases();
+        // a single informative k-mer decides
+        SequentialTest sequentialTest = new SequentialTest(0.9, 0.9);
+
+        // contains the informative k-mers AAAAA (first database) and CCGCC (second database) among 6 k-mers
+        ReadBatch batch = createBatch(2, "CCGCCAAAAA", "CCGCCAAAAA");
+        new TrioBinningTask(databases, new KmerCounter(5), batch, sequentialTest).run();
+
+        for (int read = 0; read < 2; read++) {
+            assertThat(batch.getCount(read, 0) + batch.getCount(read, 1)).isEqualTo(1);
+            assertThat(batch.getNumValidKmers(read)).isBetween(1, 5);
+            assertThat(batch.getNumLookups(read)).isEqualTo(2 * batch.getNumValidKmers(read));
+        }
+
+        // the order of the k-mers only depends on the read id
+        ReadBatch otherBatch = createBatch(2, "CCGCCAAAAA", "CCGCCAAAAA");
+        new TrioBinningTask(databases, new KmerCounter(5), otherBatch, sequentialTest).run();
+        for (int read = 0; read < 2; read++) {
+            assertThat(otherBatch.getNumValidKmers(read)).isEqualTo(batch.getNumValidKmers(read));
+            assertThat(otherBatch.getCount(read, 0)).isEqualTo(batch.getCount(read, 0));
+        }
+    }
+
+    @Test
+    void runLookups() {
+        ReadBatch batch = createBatch(2, READ);
+        new TrioBinningTask(buildDatabases(), new KmerCounter(5), batch).run();
+
+        assertThat(batch.getNumLookups(0)).isEqualTo(4);
+    }
+
+    @Test
+    void runQualities() {
+        DataStructure[] databases = buildDatabases();
+        KmerCounter kmerCounter = new KmerCounter(5, false, null, 20);
+
+        ReadBatch batch = new ReadBatch(2, 2);
+        // the low quality base at position 2 only leaves the k-mers CCAAA, CAAAA and AAAAA
+        ReadBatchTestUtil.add(batch, null, "CCGCCAAAAA", "II#IIIIIII");
+        // qualities are only taken into account if they are available
+        ReadBatchTestUtil.add(batch, READ);
+        new TrioBinningTask(databases, kmerCounter, batch).run();
+
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(3);
+        assertThat(batch.getNumSkippedKmers(0)).isEqualTo(3);
+        assertThat(batch.getCount(0, 0)).isEqualTo(1);
+        assertThat(batch.getCount(0, 1)).isEqualTo(0);
+        assertThat(batch.getNumLookups(0)).isEqualTo(6);
+        assertThat(batch.getNumValidKmers(1)).isEqualTo(2);
+        assertThat(batch.getNumSkippedKmers(1)).isEqualTo(0);
+    }
+
+    @Test
+    void runCached() {
+        DataStructure[] databases = buildDatabases();
+        MembershipCache cache = new MembershipCache(databases, 64);
+
+        // the same reads as in runBatch, repeated, so the k-mers of the repetition are answered by the cache
+        ReadBatch batch = createBatch(2, READ, "CCGCCAAAAA", "ACG", READ, "CCGCCAAAAA");
+        TrioBinningTask task = new TrioBinningTask(databases, new KmerCounter(5), batch, null, cache);
+        assertThat(task.getCache()).isEqualTo(cache);
         task.run();
 
-        writer.close();
+        ReadBatch expected = createBatch(2, READ, "CCGCCAAAAA", "ACG", READ, "CCGCCAAAAA");
+        new TrioBinningTask(databases, new KmerCounter(5), expected).run();
+        long numLookups = 0;
+        for (int read = 0; read < 5; read++) {
+            assertThat(batch.getNumValidKmers(read)).isEqualTo(expected.getNumValidKmers(read));
+            assertThat(batch.getCount(read, 0)).isEqualTo(expected.getCount(read, 0));
+            assertThat(batch.getCount(read, 1)).isEqualTo(expected.getCount(read, 1));
+            numLookups += batch.getNumLookups(read);
+        }
+        assertThat(cache.getNumHits() + cache.getNumMisses()).isEqualTo(16);
+        assertThat(cache.getNumHits()).isGreaterThanOrEqualTo(1);
+        // only the k-mers missing the cache are searched in the databases
+        assertThat(numLookups).isEqualTo(2 * cache.getNumMisses());
+    }
+
+    @Test
+    void runSequentiallyCached() {
+        DataStructure[] databases = buildDatabases();
+        SequentialTest sequentialTest = new SequentialTest(0.9, 0.9);
+        MembershipCache cache = new MembershipCache(databases, 64);
+
+        ReadBatch batch = createBatch(2, "CCGCCAAAAA", "CCGCCAAAAA", READ);
+        new TrioBinningTask(databases, new KmerCounter(5), batch, sequentialTest, cache).run();
+        ReadBatch expected = createBatch(2, "CCGCCAAAAA", "CCGCCAAAAA", READ);
+        new TrioBinningTask(databases, new KmerCounter(5), expected, sequentialTest).run();
+
+        long numLookups = 0;
+        for (int read = 0; read < 3; read++) {
+            assertThat(batch.getNumValidKmers(read)).isEqualTo(expected.getNumValidKmers(read));
+            assertThat(batch.getCount(read, 0)).isEqualTo(expected.getCount(read, 0));
+            assertThat(batch.getCount(read, 1)).isEqualTo(expected.getCount(read, 1));
+            numLookups += batch.getNumLookups(read);
+        }
+        assertThat(numLookups).isEqualTo(2 * cache.getNumMisses());
+    }
+
+    static DataStructure[] buildDatabases() {
+        IndexBuilder indexBuilder = new IndexBuilder(1, 5);
+        DataStructure hapmerDatabaseA = indexBuilder.buildIndex("src/test/resources/testHapmerDatabase01.txt", new BitPackedSortedArrayFactory());
+        DataStructure hapmerDatabaseB = indexBuilder.buildIndex("src/test/resources/testHapmerDatabase02.txt", new BitPackedSortedArrayFactory());
+        return new DataStructure[]{hapmerDatabaseA, hapmerDatabaseB};
+    }
 
-        List<String> lines = Files.readAllLines(Paths.get(outputPath));
-        assertThat(lines).hasSize(1);
-        assertThat(lines).containsOnly("0,1.0,0.5");
+    static ReadBatch createBatch(int numDatabases, String... reads) {
+        ReadBatch batch = new ReadBatch(reads.length, numDatabases);
+        for (String read : reads) {
+            ReadBatchTestUtil.add(batch, read);
+        }
+        return batch;
     }
 }
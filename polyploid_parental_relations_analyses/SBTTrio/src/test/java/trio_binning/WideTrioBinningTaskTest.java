@@ -0,0 +1,131 @@
+package trio_binning;
+
+import containers.wide_sorted_array.WideSortedArrayFactory;
+import dna.DNA;
+import index_building.IndexBuilder;
+import kmer_counting.WideKmerCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import util.WideDataStructure;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WideTrioBinningTaskTest {
+
+    private static final String FIRST_READ = "ATTTTTATTCCTATATAATTGATTTGAGAATCCAAAAGATATTATTAATCAAAGATAAAAATAATC"
+            + "TTTGAATTTTGGATAACAAACAAATCCGGTCATCATATGCGGGGTTGTGCGGCG";
+    private static final int KMER_SIZE = 40;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void createWideTrioBinningTask() throws Exception {
+        WideDataStructure[] databases = buildDatabases();
+        WideKmerCounter kmerCounter = new WideKmerCounter(KMER_SIZE);
+        ReadBatch batch = TrioBinningTaskTest.createBatch(2, FIRST_READ);
+        SequentialTest sequentialTest = new SequentialTest(0.99);
+
+        WideTrioBinningTask task = new WideTrioBinningTask(databases, kmerCounter, batch, sequentialTest);
+        assertThat(task.getDatabases()).isEqualTo(databases);
+        assertThat(task.getKmerCounter()).isEqualTo(kmerCounter);
+        assertThat(task.getBatch()).isEqualTo(batch);
+        assertThat(task.getSequentialTest()).isEqualTo(sequentialTest);
+    }
+
+    @Test
+    void run() throws Exception {
+        WideDataStructure[] databases = buildDatabases();
+        // the second read shares its first 60 bases with the first read, the third read is its reverse complement
+        String secondRead = FIRST_READ.substring(0, 60) + "G".repeat(60);
+        ReadBatch batch = TrioBinningTaskTest.createBatch(2, FIRST_READ, secondRead, reverseComplement(FIRST_READ));
+
+        new WideTrioBinningTask(databases, new WideKmerCounter(KMER_SIZE), batch, null).run();
+
+        assertThat(batch.getNumValidKmers(0)).isEqualTo(81);
+        assertThat(batch.getCount(0, 0)).isEqualTo(81);
+        assertThat(batch.getCount(0, 1)).isEqualTo(21);
+        assertThat(batch.getNumLookups(0)).isEqualTo(162);
+
+        // the 21 identical 40-mers of the homopolymer run count once and are not contained in any database
+        assertThat(batch.getNumValidKmers(1)).isEqualTo(61);
+        assertThat(batch.getCount(1, 0)).isEqualTo(21);
+        assertThat(batch.getCount(1, 1)).isEqualTo(21);
+
+        assertThat(batch.getNumValidKmers(2)).isEqualTo(81);
+        assertThat(batch.getCount(2, 0)).isEqualTo(81);
+    }
+
+    @Test
+    void runSequentially() throws Exception {
+        WideDataStructure[] databases = buildDatabases();
+        ReadBatch batch = TrioBinningTaskTest.createBatch(2, FIRST_READ);
+
+        new WideTrioBinningTask(databases, new WideKmerCounter(KMER_SIZE), batch, new SequentialTest(0.99)).run();
+
+        // the test stops as soon as the first database is ahead by 3 informative k-mers
+        assertThat(batch.getNumValidKmers(0)).isLessThan(81);
+        assertThat(batch.getCount(0, 0) - batch.getCount(0, 1)).isEqualTo(3);
+        assertThat(batch.getNumLookups(0)).isEqualTo(batch.getNumValidKmers(0) * 2);
+    }
+
+    /**
+     * Build the indices for a database of all 40-mers of the first read and a database of the 40-mers of its first
+     * 60 bases.
+     */
+    private WideDataStructure[] buildDatabases() throws IOException {
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+        writeDatabase(first, KMER_SIZE, FIRST_READ);
+        writeDatabase(second, KMER_SIZE, FIRST_READ.substring(0, 60));
+
+        IndexBuilder indexBuilder = new IndexBuilder(2, KMER_SIZE);
+        return new WideDataStructure[]{
+                indexBuilder.buildWideIndex(first.toString(), new WideSortedArrayFactory()),
+                indexBuilder.buildWideIndex(second.toString(), new WideSortedArrayFactory())};
+    }
+
+    /**
+     * Write the distinct canonical k-mers of specified sequences to a specified file in lexicographically sorted
+     * order.
+     *
+     * @return set of the written k-mers
+     */
+    static Set<String> writeDatabase(Path path, int kmerSize, String... sequences) throws IOException {
+        TreeSet<String> kmers = new TreeSet<>();
+        for (String sequence : sequences) {
+            kmers.addAll(canonicalKmers(sequence, kmerSize));
+        }
+        Files.write(path, new ArrayList<>(kmers));
+        return kmers;
+    }
+
+    /**
+     * Compute the distinct canonical k-mers of a specified sequence of the bases A, C, G and T.
+     */
+    static Set<String> canonicalKmers(String sequence, int kmerSize) {
+        Set<String> kmers = new TreeSet<>();
+        for (int i = 0; i + kmerSize <= sequence.length(); i++) {
+            String kmer = sequence.substring(i, i + kmerSize);
+            String reverseComplement = reverseComplement(kmer);
+            kmers.add(kmer.compareTo(reverseComplement) <= 0 ? kmer : reverseComplement);
+        }
+        return kmers;
+    }
+
+    static String reverseComplement(String sequence) {
+        StringBuilder builder = new StringBuilder(sequence.length());
+        for (int i = sequence.length() - 1; i >= 0; i--) {
+            builder.append(DNA.intToChar(3 - DNA.charToInt(sequence.charAt(i))));
+        }
+        return builder.toString();
+    }
+
+}
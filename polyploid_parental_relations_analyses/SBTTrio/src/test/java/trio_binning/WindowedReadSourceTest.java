@@ -0,0 +1,116 @@
+package trio_binning;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WindowedReadSourceTest {
+
+    @Test
+    void createWindowedReadSource() {
+        ReadSource readSource = createReadSource();
+        WindowedReadSource windowedReadSource = new WindowedReadSource(readSource, 10, 5);
+        assertThat(windowedReadSource.getWindowSize()).isEqualTo(10);
+        assertThat(windowedReadSource.getKmerSize()).isEqualTo(5);
+        assertThat(windowedReadSource.getBasesPerBatch()).isEqualTo(WindowedReadSource.DEFAULT_BASES_PER_BATCH);
+
+        assertThatThrownBy(() -> new WindowedReadSource(readSource, 0, 5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fill() throws Exception {
+        String read = "ACGTACGTACGTTTTTGGGGCCCCA";
+        WindowedReadSource windowedReadSource = new WindowedReadSource(createReadSource(read, "ACG", "ACGTAC"), 10, 5);
+
+        ReadBatch batch = new ReadBatch(16, 1);
+        assertThat(windowedReadSource.fill(batch)).isEqualTo(5);
+        assertThat(windowedReadSource.fill(new ReadBatch(16, 1))).isEqualTo(0);
+
+        // the 21 k-mers of the first read start in the windows [0, 10), [10, 20) and [20, 21)
+        assertWindow(batch, 0, 0, 0, read.substring(0, 14));
+        assertWindow(batch, 1, 0, 10, read.substring(10, 24));
+        assertWindow(batch, 2, 0, 20, read.substring(20));
+        // reads without k-mers yield a single window
+        assertWindow(batch, 3, 1, 0, "ACG");
+        assertWindow(batch, 4, 2, 0, "ACGTAC");
+    }
+
+    @Test
+    void fillBasesPerBatch() throws Exception {
+        String read = "ACGTACGTACGTTTTTGGGGCCCCA";
+        // a batch is closed as soon as it holds at least 20 bases
+        WindowedReadSource windowedReadSource = new WindowedReadSource(createReadSource(read, read), 10, 5, 20);
+
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Integer> windowStarts = new ArrayList<>();
+        List<Long> readIDs = new ArrayList<>();
+        ReadBatch batch = new ReadBatch(16, 1);
+        while (windowedReadSource.fill(batch) > 0) {
+            batchSizes.add(batch.getNumReads());
+            for (int i = 0; i < batch.getNumReads(); i++) {
+                windowStarts.add(batch.getWindowStart(i));
+                readIDs.add(batch.getReadID(i));
+            }
+            batch.clear(0);
+        }
+
+        // the windows of 14, 14 and 5 bases of each read are spread across several batches
+        assertThat(batchSizes).containsExactly(2, 3, 1);
+        assertThat(windowStarts).containsExactly(0, 10, 20, 0, 10, 20);
+        assertThat(readIDs).containsExactly(0L, 0L, 0L, 1L, 1L, 1L);
+    }
+
+    @Test
+    void fillPairs() {
+        ReadSource readSource = new ReadSource() {
+            @Override
+            public int fill(ReadBatch batch) {
+                ReadBatchTestUtil.addPair(batch, null, "ACGTACGT", null, null, "ACGTACGT", null);
+                return 1;
+            }
+
+            @Override
+            public void close() {}
+        };
+        WindowedReadSource windowedReadSource = new WindowedReadSource(readSource, 10, 5);
+
+        assertThatThrownBy(() -> windowedReadSource.fill(new ReadBatch(4, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertWindow(ReadBatch batch, int entry, long readID, int windowStart, String sequence) {
+        assertThat(batch.isWindow(entry)).isTrue();
+        assertThat(batch.getReadID(entry)).isEqualTo(readID);
+        assertThat(batch.getWindowStart(entry)).isEqualTo(windowStart);
+        assertThat(new String(batch.getBases(), batch.getStart(entry),
+                batch.getEnd(entry) - batch.getStart(entry), StandardCharsets.US_ASCII)).isEqualTo(sequence);
+    }
+
+    /**
+     * Create a read source which adds the specified reads one by one.
+     */
+    private ReadSource createReadSource(String... reads) {
+        return new ReadSource() {
+            private int next = 0;
+
+            @Override
+            public int fill(ReadBatch batch) {
+                int numReads = 0;
+                while (!batch.isFull() && next < reads.length) {
+                    ReadBatchTestUtil.add(batch, reads[next++]);
+                    numReads++;
+                }
+                return numReads;
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+
+}
@@ -0,0 +1,98 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RadixSortTest {
+
+    @Test
+    void sortSmall() {
+        long[] values = new long[]{21L, 3L, 255L, 0L, 3L};
+        RadixSort.sort(values, 8);
+
+        assertThat(values).containsExactly(0L, 3L, 3L, 21L, 255L);
+    }
+
+    @Test
+    void sort() {
+        Random random = new Random(7);
+        // widths with a single pass, passes of unequal digits and the full width of 31-mers
+        for (int numBits : new int[]{1, 8, 11, 12, 30, 36, 62, 63}) {
+            for (int length : new int[]{0, 1, 255, 256, 5000}) {
+                long[] values = random.longs(length).map(value -> value >>> (64 - numBits)).toArray();
+                long[] expected = values.clone();
+                Arrays.sort(expected);
+
+                RadixSort.sort(values, numBits);
+                assertThat(values).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void sortSharedDigits() {
+        // all values share their middle digits, so these passes are skipped
+        Random random = new Random(3);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ((long) random.nextInt(1024) << 30) | (0x2AAL << 10) | random.nextInt(1024);
+        }
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+
+        RadixSort.sort(values, 40);
+        assertThat(values).isEqualTo(expected);
+    }
+
+    @Test
+    void sortDerivedWidth() {
+        Random random = new Random(5);
+        long[] values = random.longs(3000, 0, 1L << 42).toArray();
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+
+        RadixSort.sort(values);
+        assertThat(values).isEqualTo(expected);
+
+        // negative values are sorted as signed values
+        values = new long[]{5L, -1L, 0L, Long.MIN_VALUE};
+        RadixSort.sort(values);
+        assertThat(values).containsExactly(Long.MIN_VALUE, -1L, 0L, 5L);
+    }
+
+    @Test
+    void parallelSort() {
+        Random random = new Random(9);
+        for (int numBits : new int[]{4, 11, 20, 42}) {
+            long[] values = random.longs(200000, 0, 1L << numBits).toArray();
+            long[] expected = values.clone();
+            Arrays.sort(expected);
+
+            RadixSort.parallelSort(values, numBits);
+            assertThat(values).isEqualTo(expected);
+        }
+
+        // skewed values concentrated in few buckets of the most significant digit
+        long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i % 3 == 0 ? 1L << 40 : 0L) | random.nextInt(1 << 20);
+        }
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        RadixSort.parallelSort(values, 41);
+        assertThat(values).isEqualTo(expected);
+    }
+
+    @Test
+    void sortInvalidWidth() {
+        assertThatThrownBy(() -> RadixSort.sort(new long[1], 64)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RadixSort.parallelSort(new long[1], -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}